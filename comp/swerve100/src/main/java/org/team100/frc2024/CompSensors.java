@@ -30,21 +30,21 @@ public class CompSensors implements SensorInterface, Glassy {
     @Override
     public boolean getIntakeSensor() {
         boolean sensorState = intakeSensor.get();
-        m_log_intake.log(() -> sensorState);
+        m_log_intake.log(sensorState);
         return sensorState;
     }
 
     @Override
     public boolean getAmpSensor() {
         boolean sensorState = ampSensor.get();
-        m_log_amp.log(() -> sensorState);
+        m_log_amp.log(sensorState);
         return sensorState;
     }
 
     @Override
     public boolean getFeederSensor() {
         boolean sensorState = feederSensor.get();
-        m_log_feeder.log(() -> sensorState);
+        m_log_feeder.log(sensorState);
         return sensorState;
     }
 
@@ -3,9 +3,11 @@ package org.team100.frc2024;
 import java.io.IOException;
 
 import org.team100.frc2024.config.AutonChooser;
+import org.team100.frc2024.motion.drivetrain.ShooterUtil;
 import org.team100.lib.config.Identity;
 import org.team100.lib.experiments.Experiment;
 import org.team100.lib.experiments.Experiments;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.logging.JvmLogger;
 import org.team100.lib.logging.Level;
@@ -38,6 +40,11 @@ public class Robot extends TimedRobot100 {
     private final StringLogger m_log_active_auton_routine;
     private final DoubleLogger m_log_voltage;
     private final JvmLogger m_jvmLogger;
+    private final LoopProfiler.Phase m_profileMemo;
+    private final LoopProfiler.Phase m_profileScheduler;
+    private final LoopProfiler.Phase m_profileContainer;
+    private final LoopProfiler.Phase m_profileJvm;
+    private final LoopProfiler.Phase m_profileLogging;
 
     private RobotContainer m_robotContainer;
 
@@ -52,6 +59,12 @@ public class Robot extends TimedRobot100 {
         m_log_active_auton_routine = m_robotLogger.stringLogger(Level.COMP, "active auton routine");
         m_log_voltage = m_robotLogger.doubleLogger(Level.TRACE, "voltage");
         m_jvmLogger = new JvmLogger(m_robotLogger);
+        LoopProfiler profiler = LoopProfiler.instance();
+        m_profileMemo = profiler.phase("main loop/memo");
+        m_profileScheduler = profiler.phase("main loop/scheduler");
+        m_profileContainer = profiler.phase("main loop/container");
+        m_profileJvm = profiler.phase("main loop/jvm");
+        m_profileLogging = profiler.phase("main loop/logging");
     }
 
     @Override
@@ -77,6 +90,11 @@ public class Robot extends TimedRobot100 {
 
         m_robotContainer.onInit();
 
+        if (Experiments.instance.enabled(Experiment.ShootOnTheMove)) {
+            // takes much longer than a loop period, so do it in the background.
+            ShooterUtil.prepareFiringTable();
+        }
+
         NetworkTableInstance.getDefault().startServer();
 
         // DataLogManager.start();
@@ -97,33 +115,46 @@ public class Robot extends TimedRobot100 {
         // Cache instances hold measurements that we want to keep consistent
         // for an entire cycle, but that we want to forget between cycles, so we
         // reset them all here.
+        long t = m_profileMemo.begin();
+        Memo.setPrefetch(Experiments.instance.enabled(Experiment.MemoPrefetch));
         Memo.resetAll();
+        m_profileMemo.end(t);
+
+        t = m_profileScheduler.begin();
         CommandScheduler.getInstance().run();
+        m_profileScheduler.end(t);
+
+        t = m_profileContainer.begin();
         // TODO(dmontauk): why do we separate things between Robot and RobotContainer? What is the logical separation?
         m_robotContainer.periodic();
+        m_profileContainer.end(t);
 
         m_log_ds_MatchTime.log(DriverStation::getMatchTime);
         m_log_ds_AutonomousEnabled.log(DriverStation::isAutonomousEnabled);
         m_log_ds_TeleopEnabled.log(DriverStation::isTeleopEnabled);
         m_log_ds_FMSAttached.log(DriverStation::isFMSAttached);
 
+        t = m_profileJvm.begin();
         m_jvmLogger.logGarbageCollectors();
         m_jvmLogger.logMemoryPools();
         m_jvmLogger.logMemoryUsage();
+        m_profileJvm.end(t);
 
+        t = m_profileLogging.begin();
         Logging.instance().periodic();
 
         if (Experiments.instance.enabled(Experiment.FlushOften)) {
             Util.warn("FLUSHING EVERY LOOP, DO NOT USE IN COMP");
             NetworkTableInstance.getDefault().flush();
         }
+        m_profileLogging.end(t);
     }
 
     @Override
     public void disabledPeriodic() {
         m_log_mode.log(() -> "disabled");
         int keyListSize = NetworkTableInstance.getDefault().getTable("Vision").getKeys().size();
-        m_log_key_list_size.log(() -> keyListSize);
+        m_log_key_list_size.log(keyListSize);
         // this forces the static initializer to run, so that the widget appears.
         m_log_active_auton_routine.log(() -> AutonChooser.routine().name());
     }
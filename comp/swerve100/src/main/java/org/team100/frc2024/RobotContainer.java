@@ -503,6 +503,9 @@ public class RobotContainer implements Glassy {
                                 new PrintCommand("nothing red goes here"),
                                 new PrintCommand("nothing blue goes here"))),
                 AutonChooser::routine);
+
+        // trajectories above come from the cache if possible; save any new ones.
+        m_AutoMaker.saveCache();
     }
 
     public void beforeCommandCycle() {
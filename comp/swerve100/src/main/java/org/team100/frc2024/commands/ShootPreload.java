@@ -88,7 +88,7 @@ public class ShootPreload extends Command implements Glassy {
             OptionalDouble shooterPivotPosition = m_shooter.getPivotPosition();
             if (shooterPivotPosition.isPresent()) {
                 double error = shooterPivotPosition.getAsDouble() - pivotSetpointRad;
-                m_log_pivot_error.log(() -> error);
+                m_log_pivot_error.log(error);
                 if (m_shooter.atVelocitySetpoint(m_isPreload)
                         && Math.abs(error) < 0.01) {
                     atVelocity = true;
@@ -106,7 +106,7 @@ public class ShootPreload extends Command implements Glassy {
             }
         }
 
-        m_log_at_speed.log(() -> atVelocity);
+        m_log_at_speed.log(atVelocity);
         m_log_timer.log(m_timer::get);
     }
 
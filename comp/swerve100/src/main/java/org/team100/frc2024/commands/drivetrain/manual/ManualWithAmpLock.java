@@ -140,7 +140,7 @@ public class ManualWithAmpLock implements FieldRelativeDriver {
 
         // the goal omega should match the target's apparent motion
         double targetMotion = TargetUtil.targetMotion(state, target);
-        m_log_apparent_motion.log(() -> targetMotion);
+        m_log_apparent_motion.log(targetMotion);
 
         Model100 goal = new Model100(bearing.getRadians(), targetMotion);
 
@@ -156,15 +156,15 @@ public class ManualWithAmpLock implements FieldRelativeDriver {
 
         double thetaFB = m_thetaController.calculate(measurement, m_thetaSetpoint.x());
         m_log_theta_setpoint.log(() -> m_thetaSetpoint);
-        m_log_theta_measurement.log(() -> measurement);
+        m_log_theta_measurement.log(measurement);
         m_log_theta_error.log(m_thetaController::getPositionError);
-        m_log_theta_fb.log(() -> thetaFB);
+        m_log_theta_fb.log(thetaFB);
 
         double omegaFB = m_omegaController.calculate(yawRate, m_thetaSetpoint.v());
         m_log_omega_reference.log(() -> m_thetaSetpoint.model());
-        m_log_omega_measurement.log(() -> yawRate);
+        m_log_omega_measurement.log(yawRate);
         m_log_omega_error.log(m_omegaController::getPositionError);
-        m_log_omega_fb.log(() -> omegaFB);
+        m_log_omega_fb.log(omegaFB);
 
         double omega = MathUtil.clamp(
                 thetaFF + thetaFB + omegaFB,
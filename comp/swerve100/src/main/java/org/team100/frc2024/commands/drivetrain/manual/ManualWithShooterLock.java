@@ -4,12 +4,12 @@ import java.util.Optional;
 import java.util.function.BooleanSupplier;
 
 import org.team100.frc2024.motion.drivetrain.ShooterUtil;
+import org.team100.frc2024.motion.shooter.FiringSolution;
 import org.team100.lib.commands.drivetrain.manual.FieldRelativeDriver;
 import org.team100.lib.experiments.Experiment;
 import org.team100.lib.experiments.Experiments;
 import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.geometry.TargetUtil;
-import org.team100.lib.geometry.Vector2d;
 import org.team100.lib.hid.DriverControl;
 import org.team100.lib.logging.FieldLogger;
 import org.team100.lib.logging.Level;
@@ -149,14 +149,19 @@ public class ManualWithShooterLock implements FieldRelativeDriver {
         Translation2d currentTranslation = state.pose().getTranslation();
         Translation2d target = ShooterUtil.getOffsetTranslation(optionalAlliance.get());
 
+        double leadRad = 0;
+        if (Experiments.instance.enabled(Experiment.ShootOnTheMove)) {
+            leadRad = ShooterUtil.getFiringSolution(target, state)
+                    .map(FiringSolution::leadRad)
+                    .orElse(0.0);
+        }
+
         // take the short path
         final double measurement = currentRotation.getRadians();
         final Rotation2d bearing = new Rotation2d(
                 Math100.getMinDistance(
                         measurement,
-                        bearing(currentTranslation, target).getRadians()));
-
-        // Rotation2d bearingCorrected = aimWhileMoving(bearing, 20, state);
+                        bearing(currentTranslation, target).getRadians() + leadRad));
 
         checkBearing(bearing, currentRotation);
 
@@ -170,7 +175,7 @@ public class ManualWithShooterLock implements FieldRelativeDriver {
 
         // the goal omega should match the target's apparent motion
         double targetMotion = TargetUtil.targetMotion(state, target);
-        m_log_apparent_motion.log(() -> targetMotion);
+        m_log_apparent_motion.log(targetMotion);
 
         Model100 goal = new Model100(bearing.getRadians(), targetMotion);
         m_thetaSetpoint = m_profile.calculate(TimedRobot100.LOOP_PERIOD_S, m_thetaSetpoint.model(), goal);
@@ -188,13 +193,13 @@ public class ManualWithShooterLock implements FieldRelativeDriver {
         m_log_target.log(() -> target);
 
         m_log_theta_setpoint.log(() -> m_thetaSetpoint);
-        m_log_theta_measurement.log(() -> measurement);
+        m_log_theta_measurement.log(measurement);
         m_log_theta_error.log(m_thetaController::getPositionError);
-        m_log_theta_fb.log(() -> thetaFB);
+        m_log_theta_fb.log(thetaFB);
 
-        m_log_omega_measurement.log(() -> yawRate);
+        m_log_omega_measurement.log(yawRate);
         m_log_omega_error.log(m_omegaController::getPositionError);
-        m_log_omega_fb.log(() -> omegaFB);
+        m_log_omega_fb.log(omegaFB);
 
         m_log_goal.log(() -> goal);
 
@@ -273,23 +278,4 @@ public class ManualWithShooterLock implements FieldRelativeDriver {
         return isAligned;
     }
 
-    static Rotation2d aimWhileMoving(Rotation2d bearing, double shooterVelocity, SwerveModel state) {
-
-        // its the shooter util code but robot moving vec is y velocity and angle in
-        // rads is bearing
-
-        // double angleWithoutMoving = bearing.getRadians();
-
-        Rotation2d angleInRads = bearing;
-
-        Vector2d stationaryRobotVector = new Vector2d(shooterVelocity, angleInRads);
-
-        Vector2d robotMovingVector = new Vector2d(state.y().v(), 0);
-
-        Vector2d resultingVector = Vector2d.sub(stationaryRobotVector, robotMovingVector);
-
-        return resultingVector.getTheta();
-
-    }
-
 }
\ No newline at end of file
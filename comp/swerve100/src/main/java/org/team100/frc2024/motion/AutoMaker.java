@@ -23,7 +23,7 @@ import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
 import org.team100.lib.timing.TimingConstraint;
 import org.team100.lib.timing.TimingConstraintFactory;
 import org.team100.lib.trajectory.Trajectory100;
-import org.team100.lib.trajectory.TrajectoryPlanner;
+import org.team100.lib.trajectory.TrajectoryCache;
 import org.team100.lib.visualization.TrajectoryVisualization;
 
 import edu.wpi.first.math.geometry.Pose2d;
@@ -39,6 +39,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 public class AutoMaker implements Glassy {
     private static final double kIntakeOffset = 0;
+    private static final String kCacheFile = "automaker.traj";
 
     private final SwerveDriveSubsystem m_swerve;
     private final DriveTrajectoryFollower m_controller;
@@ -55,6 +56,7 @@ public class AutoMaker implements Glassy {
     private final DriveTrajectoryFollowerFactory m_factory;
     private final SwerveKinodynamics m_swerveKinodynamics;
     private final TrajectoryVisualization m_viz;
+    private final TrajectoryCache m_cache;
 
     public AutoMaker(
             LoggerFactory parent,
@@ -84,6 +86,15 @@ public class AutoMaker implements Glassy {
         m_log = new DrivePIDFFollower.Log(m_logger);
         m_commandLog = new TrajectoryCommand100.Log(m_logger);
         m_viz = viz;
+        m_cache = TrajectoryCache.deploy(kCacheFile);
+    }
+
+    /**
+     * Write any newly generated trajectories to the deploy directory, so the next
+     * boot doesn't have to make them. Call this after all the routines are made.
+     */
+    public void saveCache() {
+        m_cache.save();
     }
 
     /** This encodes knowledge about how to approach each field point. */
@@ -143,7 +154,7 @@ public class AutoMaker implements Glassy {
                 startPose.getRotation(),
                 betweenHeading,
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
@@ -177,7 +188,7 @@ public class AutoMaker implements Glassy {
                 betweenHeading,
                 betweenHeading,
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_slow);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_slow);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_factory.goodPIDF(m_log),
                 m_viz);
     }
@@ -197,7 +208,7 @@ public class AutoMaker implements Glassy {
                 new Pose2d(2, 2, new Rotation2d()),
                 new Pose2d(5, 2, new Rotation2d()));
         List<Rotation2d> headings = List.of(new Rotation2d(Math.PI), new Rotation2d(Math.PI));
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
@@ -206,7 +217,7 @@ public class AutoMaker implements Glassy {
                 new Pose2d(0, 0, Rotation2d.fromDegrees(45)),
                 new Pose2d(1, 1, Rotation2d.fromDegrees(45)));
         List<Rotation2d> headings = List.of(Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(0));
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
@@ -215,21 +226,21 @@ public class AutoMaker implements Glassy {
                 new Pose2d(5, 2, new Rotation2d(Math.PI)),
                 new Pose2d(2, 2, new Rotation2d(Math.PI)));
         List<Rotation2d> headings = List.of(new Rotation2d(Math.PI), new Rotation2d(Math.PI));
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
     public TrajectoryCommand100 tuningTrajectory3() {
         List<Pose2d> waypointsM = List.of(new Pose2d(), new Pose2d());
         List<Rotation2d> headings = List.of(new Rotation2d(Math.PI), new Rotation2d());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
     public TrajectoryCommand100 tuningTrajectory4() {
         List<Pose2d> waypointsM = List.of(new Pose2d(), new Pose2d());
         List<Rotation2d> headings = List.of(new Rotation2d(), new Rotation2d(Math.PI));
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
@@ -252,7 +263,7 @@ public class AutoMaker implements Glassy {
                 startPose.getRotation(),
                 endPose.getRotation(),
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.stageBase(m_log), m_viz);
     }
@@ -280,7 +291,7 @@ public class AutoMaker implements Glassy {
                 startPose.getRotation(),
                 endPose.getRotation(),
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.complementPIDF(m_log), m_viz);
     }
@@ -305,7 +316,7 @@ public class AutoMaker implements Glassy {
                 startPose.getRotation(),
                 endPose.getRotation(),
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_slow);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_slow);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.complementPIDF(m_log), m_viz);
     }
@@ -331,7 +342,7 @@ public class AutoMaker implements Glassy {
                 startPose.getRotation(),
                 heading,
                 heading);
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_slow);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_slow);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.complementPIDF(m_log), m_viz);
     }
@@ -357,7 +368,7 @@ public class AutoMaker implements Glassy {
                 new Rotation2d(begHeading),
                 endPose.getRotation(),
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_slow);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_slow);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.complementPIDF(m_log), m_viz);
     }
@@ -376,7 +387,7 @@ public class AutoMaker implements Glassy {
         List<Rotation2d> headings = List.of(
                 startPose.getRotation(),
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.straightPIDF(m_log), m_viz);
     }
@@ -396,7 +407,7 @@ public class AutoMaker implements Glassy {
 
         List<Pose2d> waypointsM = List.of(startWaypoint, endWaypoint);
         List<Rotation2d> headings = List.of(begHeading, endHeading);
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.straightPIDF(m_log), m_viz);
     }
@@ -415,7 +426,7 @@ public class AutoMaker implements Glassy {
 
         List<Pose2d> waypointsM = List.of(startWaypoint, endWaypoint);
         List<Rotation2d> headings = List.of(startPose.getRotation(), endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.complementPIDF(m_log), m_viz);
     }
@@ -435,7 +446,7 @@ public class AutoMaker implements Glassy {
 
         List<Pose2d> waypointsM = List.of(startWaypoint, endWaypoint);
         List<Rotation2d> headings = List.of(startPose.getRotation(), endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(
                 m_commandLog,
                 m_swerve,
@@ -459,7 +470,7 @@ public class AutoMaker implements Glassy {
         Rotation2d startHeading = startPose.getRotation();
         Rotation2d endHeading = new Rotation2d(Math.PI);
         List<Rotation2d> headings = List.of(startHeading, endHeading);
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory,
                 m_factory.newNewPIDF(m_log), m_viz);
     }
@@ -489,7 +500,7 @@ public class AutoMaker implements Glassy {
                 startPose.getRotation(),
                 betweenPose.getRotation(),
                 endPose.getRotation());
-        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypointsM, headings, m_fast);
+        Trajectory100 trajectory = m_cache.restToRest(waypointsM, headings, m_fast);
         return new TrajectoryCommand100(m_commandLog, m_swerve, trajectory, m_controller, m_viz);
     }
 
@@ -3,6 +3,7 @@ package org.team100.frc2024.motion;
 import org.team100.frc2024.SensorInterface;
 import org.team100.lib.config.Identity;
 import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
@@ -21,6 +22,8 @@ public class FeederSubsystem extends SubsystemBase implements Glassy {
     // LOGGERS
     private final DoubleLogger m_log_speed;
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     public FeederSubsystem(LoggerFactory parent, SensorInterface sensors) {
         LoggerFactory child = parent.child(this);
         m_log_speed = child.doubleLogger(Level.TRACE, "speed");
@@ -63,7 +66,9 @@ public class FeederSubsystem extends SubsystemBase implements Glassy {
 
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         m_log_speed.log(feedRoller::get);
+        m_profile.end(t);
     }
 
 }
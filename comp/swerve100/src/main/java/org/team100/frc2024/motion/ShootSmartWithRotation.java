@@ -8,7 +8,10 @@ import org.team100.frc2024.commands.drivetrain.manual.ManualWithShooterLock;
 import org.team100.frc2024.motion.drivetrain.ShooterUtil;
 import org.team100.frc2024.motion.intake.Intake;
 import org.team100.frc2024.motion.shooter.DrumShooter;
+import org.team100.frc2024.motion.shooter.FiringSolution;
 import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.experiments.Experiment;
+import org.team100.lib.experiments.Experiments;
 import org.team100.lib.hid.DriverControl;
 import org.team100.lib.motion.drivetrain.SwerveDriveSubsystem;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
@@ -67,20 +70,30 @@ public class ShootSmartWithRotation extends Command implements Glassy  {
         if (!alliance.isPresent()) {
             return;
         }
-        m_shooter.forward();
         Translation2d robotLocation = m_drive.getPose().getTranslation();
         Translation2d speakerLocation = ShooterUtil.getSpeakerTranslation(alliance.get());
         Translation2d difference = robotLocation.minus(speakerLocation);
         double angle = MathUtil.angleModulus(Math.atan2(difference.getY(), difference.getX()) - Math.PI);
-        m_log_angle.log(() -> angle);
+        Optional<FiringSolution> solution = Optional.empty();
+        if (Experiments.instance.enabled(Experiment.ShootOnTheMove))
+            solution = ShooterUtil.getFiringSolution(speakerLocation, m_drive.getState());
+        boolean onTheMove = solution.isPresent();
+        double angleRad;
+        if (onTheMove) {
+            m_shooter.forward(solution.get().speedRatio());
+            angle = MathUtil.angleModulus(angle + solution.get().leadRad());
+            angleRad = solution.get().elevationRad();
+        } else {
+            m_shooter.forward();
+            double rangeM = robotLocation.getDistance(speakerLocation);
+            angleRad = ShooterUtil.getAngleRad(rangeM);
+        }
+        m_shooter.setAngle(angleRad);
+        m_log_angle.log(angle);
         double angleModulus = MathUtil.angleModulus(m_drive.getPose().getRotation().getRadians());
-        m_log_realangle.log(() -> angleModulus);
-        double angleError = angle - angleModulus;
-        double distance = robotLocation.getDistance(speakerLocation);
-        m_shooter.setAngle(ShooterUtil.getAngleRad(distance));
-        double rangeM = robotLocation.getDistance(speakerLocation);
-        double angleRad = ShooterUtil.getAngleRad(rangeM);
-        if (Math.hypot(m_drive.getState().y().v(), m_drive.getState().x().v()) > 0.01) {
+        m_log_realangle.log(angleModulus);
+        double angleError = MathUtil.angleModulus(angle - angleModulus);
+        if (!onTheMove && Math.hypot(m_drive.getState().y().v(), m_drive.getState().x().v()) > 0.01) {
             return;
         }
         OptionalDouble shooterPivotPosition = m_shooter.getPivotPosition();
@@ -86,8 +86,8 @@ public class TrajectoryCommand100 extends Command implements Glassy  {
         m_log.m_log_chassis_speeds.log(() -> output);
         double thetaErrorRad = m_goal.getRotation().getRadians()
                 - m_robotDrive.getPose().getRotation().getRadians();
-        m_log.m_log_THETA_ERROR.log(() -> thetaErrorRad);
-        m_log.m_log_FINSIHED.log(() -> false);
+        m_log.m_log_THETA_ERROR.log(thetaErrorRad);
+        m_log.m_log_FINSIHED.log(false);
     }
 
     @Override
@@ -97,7 +97,7 @@ public class TrajectoryCommand100 extends Command implements Glassy  {
 
     @Override
     public void end(boolean interrupted) {
-        m_log.m_log_FINSIHED.log(() -> true);
+        m_log.m_log_FINSIHED.log(true);
         m_robotDrive.stop();
         m_viz.clear();
     }
@@ -12,6 +12,7 @@ import org.team100.lib.encoder.EncoderDrive;
 import org.team100.lib.encoder.RotaryPositionSensor;
 import org.team100.lib.encoder.SimulatedBareEncoder;
 import org.team100.lib.encoder.SimulatedRotaryPositionSensor;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.motion.mechanism.RotaryMechanism;
@@ -59,6 +60,8 @@ public class AmpPivot extends SubsystemBase implements Glassy {
 
     private Profile100 m_activeProfile = new NullProfile();
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     public AmpPivot(LoggerFactory parent) {
         LoggerFactory child = parent.child(this);
 
@@ -146,7 +149,9 @@ public class AmpPivot extends SubsystemBase implements Glassy {
 
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         m_ampAngleServo.periodic();
+        m_profile.end(t);
     }
 
 }
@@ -6,6 +6,7 @@ import org.team100.lib.config.PIDConstants;
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.encoder.CANSparkEncoder;
 import org.team100.lib.encoder.SimulatedBareEncoder;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.motor.MotorPhase;
 import org.team100.lib.motor.NeoVortexCANSparkMotor;
 import org.team100.lib.motor.SimulatedBareMotor;
@@ -95,6 +96,8 @@ public class ClimberSubsystem extends SubsystemBase implements Glassy {
     private final OptionalDoubleLogger m_log_left_velocity;
     private final OptionalDoubleLogger m_log_right_velocity;
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     public ClimberSubsystem(LoggerFactory parent, int leftClimberID, int rightClimberID) {
         LoggerFactory child = parent.child(this);
         m_log_left_position = child.optionalDoubleLogger(Level.TRACE, "left position (m)");
@@ -209,11 +212,13 @@ public class ClimberSubsystem extends SubsystemBase implements Glassy {
 
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         m_left.periodic();
         m_right.periodic();
         m_log_left_position.log(m_left::getPositionM);
         m_log_right_position.log(m_right::getPositionM);
         m_log_left_velocity.log(m_left::getVelocityM_S);
         m_log_right_velocity.log(m_right::getVelocityM_S);
+        m_profile.end(t);
     }
 }
@@ -1,9 +1,12 @@
 package org.team100.frc2024.motion.drivetrain;
 
+import java.util.Optional;
+
 import org.team100.frc2024.FieldConstants;
 import org.team100.frc2024.FieldConstantsFactory;
+import org.team100.frc2024.motion.shooter.FiringSolution;
+import org.team100.frc2024.motion.shooter.FiringTable;
 import org.team100.frc2024.motion.shooter.ShooterTable;
-import org.team100.lib.geometry.Vector2d;
 import org.team100.lib.motion.drivetrain.SwerveModel;
 
 import edu.wpi.first.math.MathUtil;
@@ -14,6 +17,28 @@ import edu.wpi.first.wpilibj.DriverStation.Alliance;
 public class ShooterUtil {
     public static final ShooterTable instance = new ShooterTable();
 
+    /** Null until prepareFiringTable() finishes. */
+    private static volatile FiringTable s_firing;
+    private static boolean s_preparing;
+
+    /**
+     * Solve the firing table on a background thread. Solving takes a while (a
+     * Newton solve for every node), much longer than a loop period, so call this
+     * once at startup, if shooting on the move is enabled, and not from a
+     * command.
+     */
+    public static synchronized void prepareFiringTable() {
+        if (s_preparing)
+            return;
+        s_preparing = true;
+        Thread thread = new Thread(
+                () -> s_firing = new FiringTable(ShooterTable.instance),
+                "firing table");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
     public static Translation2d getOffsetTranslation(Alliance alliance) {
         FieldConstants fieldConstants = FieldConstantsFactory.get(alliance);
         return new Translation2d(
@@ -61,28 +86,33 @@ public class ShooterUtil {
         return instance.getAngleRad(distance);
     }
 
-    public static double getShooterAngleWhileMovingTest(
-            double distanceM,
-            double velocityM_s,
-            SwerveModel state) {
-        double angleWithoutMoving = getAngleRad(distanceM);
-        double angleInRads = angleWithoutMoving * Math.PI / 180;
-        double xComponent = velocityM_s * Math.sin(angleInRads);
-        double yComponent = velocityM_s * Math.cos(angleInRads);
-        double xComponentWithoutSpeed = xComponent - (state.x().v() * -1);
-        return Math.atan2(yComponent, xComponentWithoutSpeed);
-    }
-
-    public static double getShooterAngleWhileMoving(
-            double distanceM,
-            double velocityM_s,
-            SwerveModel state) {
-        double angleWithoutMoving = getAngleRad(distanceM);
-        Rotation2d angleInRads = Rotation2d.fromDegrees(angleWithoutMoving);
-        Vector2d stationaryRobotVector = new Vector2d(velocityM_s, angleInRads);
-        Vector2d robotMovingVector = new Vector2d(state.x().v(), 0);
-        Vector2d resultingVector = Vector2d.sub(stationaryRobotVector, robotMovingVector);
-        return resultingVector.getTheta().getDegrees();
+    /**
+     * Shoot-on-the-move solution for the speaker, or empty if the firing table
+     * isn't ready yet (see {@link #prepareFiringTable()}), in which case use the
+     * stationary solution.
+     * 
+     * The lead is relative to the bearing to the target, so use the same target
+     * for the bearing.
+     * 
+     * @param target the aiming point, e.g. {@link #getSpeakerTranslation(Alliance)}
+     * @param state  field-relative robot state
+     */
+    public static Optional<FiringSolution> getFiringSolution(Translation2d target, SwerveModel state) {
+        FiringTable firing = s_firing;
+        if (firing == null)
+            return Optional.empty();
+        Translation2d robot = state.pose().getTranslation();
+        Translation2d lineOfSight = target.minus(robot);
+        double rangeM = lineOfSight.getNorm();
+        if (rangeM < 1e-6)
+            return Optional.of(firing.get(0, 0, 0));
+        double ux = lineOfSight.getX() / rangeM;
+        double uy = lineOfSight.getY() / rangeM;
+        double vx = state.x().v();
+        double vy = state.y().v();
+        double radialM_S = ux * vx + uy * vy;
+        double tangentialM_S = ux * vy - uy * vx;
+        return Optional.of(firing.get(rangeM, radialM_S, tangentialM_S));
     }
 
     private ShooterUtil() {
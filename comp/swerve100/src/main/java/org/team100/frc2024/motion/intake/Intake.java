@@ -5,6 +5,7 @@ import org.team100.lib.config.Feedforward100;
 import org.team100.lib.config.Identity;
 import org.team100.lib.config.PIDConstants;
 import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
@@ -39,6 +40,8 @@ public class Intake extends SubsystemBase implements Glassy {
     private int count = 0;
     private int currentCount = 0;
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     public Intake(LoggerFactory parent, SensorInterface sensors) {
         LoggerFactory child = parent.child(this);
         m_log_lower = child.doubleLogger(Level.TRACE, "lower");
@@ -135,8 +138,10 @@ public class Intake extends SubsystemBase implements Glassy {
 
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         m_log_lower.log(m_intake::get);
         m_log_upper.log(superRollers::getVelocity);
         m_log_centering.log(m_centering::get);
+        m_profile.end(t);
     }
 }
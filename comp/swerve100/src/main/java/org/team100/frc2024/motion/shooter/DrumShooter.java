@@ -12,6 +12,7 @@ import org.team100.lib.encoder.EncoderDrive;
 import org.team100.lib.encoder.SimulatedBareEncoder;
 import org.team100.lib.encoder.SimulatedRotaryPositionSensor;
 import org.team100.lib.encoder.Talon6Encoder;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
@@ -70,6 +71,9 @@ public class DrumShooter extends SubsystemBase implements Glassy {
     private static final double kDriveReduction = 1;
     private static final double kWheelDiameterM = 0.1;
 
+    /** Scales both roller setpoints, for shooting on the move. */
+    private double m_speedRatio = 1.0;
+
     private final LinearVelocityServo leftRoller;
     private final LinearVelocityServo rightRoller;
     private final GravityServoInterface pivotServo;
@@ -86,6 +90,8 @@ public class DrumShooter extends SubsystemBase implements Glassy {
     private final DoubleLogger m_log_left_error;
     private final DoubleLogger m_log_right_error;
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     public DrumShooter(
             LoggerFactory parent,
             int leftID,
@@ -220,8 +226,17 @@ public class DrumShooter extends SubsystemBase implements Glassy {
     }
 
     public void forward() {
-        leftRoller.setVelocityM_S(kLeftRollerVelocity);
-        rightRoller.setVelocityM_S(kRightRollerVelocity);
+        forward(1.0);
+    }
+
+    /**
+     * Spin both drums at the usual speeds times the ratio, keeping the spin on
+     * the note the same.
+     */
+    public void forward(double speedRatio) {
+        m_speedRatio = Math.min(speedRatio, kMaxVelocity / kLeftRollerVelocity);
+        leftRoller.setVelocityM_S(kLeftRollerVelocity * m_speedRatio);
+        rightRoller.setVelocityM_S(kRightRollerVelocity * m_speedRatio);
     }
 
     public void stop() {
@@ -246,7 +261,7 @@ public class DrumShooter extends SubsystemBase implements Glassy {
         OptionalDouble position = getPivotPosition();
         if (position.isPresent()) {
             double errorRad = position.getAsDouble() - goalRad;
-            m_log_goal_err.log(() -> errorRad);
+            m_log_goal_err.log(errorRad);
         }
         pivotServo.setPosition(goalRad);
     }
@@ -291,8 +306,8 @@ public class DrumShooter extends SubsystemBase implements Glassy {
             Util.warn("no velocity measurement available");
             return false;
         }
-        double leftError = leftVelocity.getAsDouble() - kLeftRollerVelocity;
-        double rightError = rightVelocity.getAsDouble() - kRightRollerVelocity;
+        double leftError = leftVelocity.getAsDouble() - kLeftRollerVelocity * m_speedRatio;
+        double rightError = rightVelocity.getAsDouble() - kRightRollerVelocity * m_speedRatio;
         return (Math.abs(leftError) < 0.5) && (Math.abs(rightError) < 0.5);
     }
 
@@ -309,30 +324,32 @@ public class DrumShooter extends SubsystemBase implements Glassy {
             return false;
         }
         if (wide) {
-            double leftRatio = leftVelocityM_S.getAsDouble() / kLeftRollerVelocity;
-            double rightRatio = rightVelocityM_S.getAsDouble() / kRightRollerVelocity;
-            m_log_left_ratio.log(() -> leftRatio);
-            m_log_right_ratio.log(() -> rightRatio);
+            double leftRatio = leftVelocityM_S.getAsDouble() / (kLeftRollerVelocity * m_speedRatio);
+            double rightRatio = rightVelocityM_S.getAsDouble() / (kRightRollerVelocity * m_speedRatio);
+            m_log_left_ratio.log(leftRatio);
+            m_log_right_ratio.log(rightRatio);
             boolean b = (leftRatio > 0.5) && (rightRatio > 0.5);
-            m_log_at_setpoint.log(() -> b);
+            m_log_at_setpoint.log(b);
             return b;
         }
-        double leftError = leftVelocityM_S.getAsDouble() - kLeftRollerVelocity;
-        double rightError = rightVelocityM_S.getAsDouble() - kRightRollerVelocity;
-        m_log_left_error.log(() -> leftError);
-        m_log_right_error.log(() -> rightError);
+        double leftError = leftVelocityM_S.getAsDouble() - kLeftRollerVelocity * m_speedRatio;
+        double rightError = rightVelocityM_S.getAsDouble() - kRightRollerVelocity * m_speedRatio;
+        m_log_left_error.log(leftError);
+        m_log_right_error.log(rightError);
         boolean b = (Math.abs(leftError) < 0.5) && (Math.abs(rightError) < 0.5);
-        m_log_at_setpoint.log(() -> b);
+        m_log_at_setpoint.log(b);
         return b;
     }
 
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         leftRoller.periodic();
         rightRoller.periodic();
         pivotServo.periodic();
         m_log_left_velocity.log(leftRoller::getVelocity);
         m_log_right_velocity.log(rightRoller::getVelocity);
         m_log_pivot_angle.log(pivotServo::getPositionRad);
+        m_profile.end(t);
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package org.team100.frc2024.motion.shooter;
+
+/**
+ * What to do to hit the speaker.
+ *
+ * @param elevationRad pivot angle, same units as {@link ShooterTable}
+ * @param leadRad      robot heading minus bearing to the target, NWU, so
+ *                     positive means aim to the left of the target
+ * @param speedRatio   drum speed relative to the usual setpoint
+ */
+public record FiringSolution(double elevationRad, double leadRad, double speedRatio) {
+}
@@ -0,0 +1,270 @@
+package org.team100.frc2024.motion.shooter;
+
+import org.team100.lib.interpolation.GridInterpolator;
+
+/**
+ * Shoot-on-the-move firing solutions, interpolated from a dense table.
+ *
+ * The table is indexed by range, radial velocity (positive towards the
+ * target), and tangential velocity (positive to the left, looking at the
+ * target), and each node holds a {@link FiringSolution}. The nodes are solved
+ * once, at construction, by simulating note flight with gravity and drag, so
+ * the lookup is just trilinear interpolation over a flat array (see
+ * {@link GridInterpolator}), constant time, no allocation except the result.
+ *
+ * The flight model is rough (the note isn't a sphere, and we don't model
+ * spin), so the elevation isn't taken directly from it. Instead, each node
+ * uses the calibrated stationary elevation from the {@link ShooterTable}, plus
+ * the modeled difference between moving and stationary shots. So at rest, the
+ * table is exactly the calibration.
+ *
+ * The drum speed is the usual setpoint if that works, otherwise it's stepped
+ * up until the note can reach the target (e.g. when backing away fast at long
+ * range). If nothing works, the node holds the stationary solution at top
+ * speed.
+ *
+ * See studies/multilinear_interpolation for the comparison with RBF and
+ * kriging; for three smooth dimensions, the grid is much faster and accurate
+ * enough.
+ */
+public class FiringTable {
+    /** Shooter pivot height, m. */
+    private static final double kShooterHeightM = 0.5;
+    /** Middle of the speaker opening, m. */
+    private static final double kTargetHeightM = 2.045;
+    /**
+     * Note exit speed at the usual drum setpoint, m/s. The drums average 17.5
+     * m/s, and the note slips some.
+     */
+    private static final double kExitSpeedM_S = 12;
+    /** The faster drum usually runs at 20 m/s, and can do 30. */
+    private static final double kMaxSpeedRatio = 1.5;
+    private static final double kSpeedRatioStep = 0.05;
+    /**
+     * Quadratic drag, 0.5 * rho * Cd * A / m, per meter: 0.5 * 1.2 * 0.5 *
+     * 0.018 / 0.235.
+     */
+    private static final double kDragPerM = 0.023;
+    private static final double kG = 9.81;
+    /** Flight integration step, s. */
+    private static final double kDtS = 0.005;
+    private static final double kMaxFlightS = 2;
+    /** Miss distance tolerance, m. */
+    private static final double kToleranceM = 0.001;
+    private static final int kMaxIterations = 20;
+    /** Finite difference step for the Jacobian, rad. */
+    private static final double kEpsilonRad = 1e-5;
+    /** Elevations outside this are nonsense. */
+    private static final double kMinElevationRad = -0.2;
+    private static final double kMaxElevationRad = 1.4;
+
+    static final double kMinRangeM = 1.0;
+    static final double kMaxRangeM = 5.0;
+    static final double kRangeStepM = 0.25;
+    static final double kMaxVelocityM_S = 4.0;
+    static final double kVelocityStepM_S = 0.5;
+
+    /** Outputs per node: elevation, lead, speed ratio. */
+    private static final int kOut = 3;
+
+    private final int m_nr;
+    private final int m_nv;
+    /** Row-major [range][radial][tangential][output]. */
+    private final double[] m_table;
+    private final GridInterpolator m_grid;
+    private int m_infeasible;
+
+    // scratch
+    private final double[] m_point;
+    private final double[] m_out;
+
+    public FiringTable(ShooterTable calibration) {
+        m_nr = (int) Math.round((kMaxRangeM - kMinRangeM) / kRangeStepM) + 1;
+        m_nv = (int) Math.round(2 * kMaxVelocityM_S / kVelocityStepM_S) + 1;
+        m_table = new double[m_nr * m_nv * m_nv * kOut];
+        double[] guess = new double[2];
+        for (int i = 0; i < m_nr; ++i) {
+            double rangeM = kMinRangeM + i * kRangeStepM;
+            double stationary = stationary(rangeM);
+            double base = calibration.getAngleRad(rangeM);
+            for (int j = 0; j < m_nv; ++j) {
+                double radialM_S = -kMaxVelocityM_S + j * kVelocityStepM_S;
+                // start from the neighboring node, if there is one at the same speed.
+                double previousRatio = Double.NaN;
+                for (int k = 0; k < m_nv; ++k) {
+                    double tangentialM_S = -kMaxVelocityM_S + k * kVelocityStepM_S;
+                    int n = index(i, j, k);
+                    double ratio = 1.0;
+                    for (; ratio <= kMaxSpeedRatio + 1e-9; ratio += kSpeedRatioStep) {
+                        double speed = kExitSpeedM_S * ratio;
+                        if (ratio != previousRatio) {
+                            guess[0] = stationary;
+                            guess[1] = -Math.asin(Math.max(-1, Math.min(1, tangentialM_S / speed)));
+                        }
+                        if (solve(rangeM, radialM_S, tangentialM_S, speed, guess))
+                            break;
+                        previousRatio = Double.NaN;
+                    }
+                    if (ratio > kMaxSpeedRatio + 1e-9) {
+                        m_infeasible++;
+                        ratio = kMaxSpeedRatio;
+                        guess[0] = stationary;
+                        guess[1] = 0;
+                        previousRatio = Double.NaN;
+                    } else {
+                        previousRatio = ratio;
+                    }
+                    m_table[n] = base + guess[0] - stationary;
+                    m_table[n + 1] = guess[1];
+                    m_table[n + 2] = ratio;
+                }
+            }
+        }
+        m_grid = new GridInterpolator(
+                new double[] { kMinRangeM, -kMaxVelocityM_S, -kMaxVelocityM_S },
+                new double[] { kRangeStepM, kVelocityStepM_S, kVelocityStepM_S },
+                new int[] { m_nr, m_nv, m_nv },
+                kOut,
+                m_table);
+        m_point = new double[3];
+        m_out = new double[kOut];
+    }
+
+    /**
+     * Interpolated firing solution. Inputs outside the table are clamped to the
+     * edge. Uses scratch space, so call it only from the main loop.
+     *
+     * @param rangeM                 horizontal distance to the target
+     * @param radialVelocityM_S      robot velocity towards the target
+     * @param tangentialVelocityM_S  robot velocity 90 degrees to the left of the
+     *                               target
+     */
+    public FiringSolution get(double rangeM, double radialVelocityM_S, double tangentialVelocityM_S) {
+        m_point[0] = rangeM;
+        m_point[1] = radialVelocityM_S;
+        m_point[2] = tangentialVelocityM_S;
+        m_grid.get(m_point, m_out);
+        return new FiringSolution(m_out[0], m_out[1], m_out[2]);
+    }
+
+    /** Number of nodes with no solution, which hold the stationary one. */
+    int infeasible() {
+        return m_infeasible;
+    }
+
+    /** Solution exactly at the node, for testing. */
+    FiringSolution node(int i, int j, int k) {
+        int n = index(i, j, k);
+        return new FiringSolution(m_table[n], m_table[n + 1], m_table[n + 2]);
+    }
+
+    /**
+     * Where the note ends up relative to the target, using the model.
+     *
+     * @param out [lateral miss, vertical miss], m; NaN if it never gets there.
+     */
+    static void miss(
+            double rangeM,
+            double radialM_S,
+            double tangentialM_S,
+            double speedM_S,
+            double elevationRad,
+            double leadRad,
+            double[] out) {
+        double c = Math.cos(elevationRad);
+        // line-of-sight frame: x towards the target, y left, z up.
+        double x = 0;
+        double y = 0;
+        double z = kShooterHeightM;
+        double vx = speedM_S * c * Math.cos(leadRad) + radialM_S;
+        double vy = speedM_S * c * Math.sin(leadRad) + tangentialM_S;
+        double vz = speedM_S * Math.sin(elevationRad);
+        for (double t = 0; t < kMaxFlightS; t += kDtS) {
+            // midpoint method
+            double s = Math.sqrt(vx * vx + vy * vy + vz * vz);
+            double hx = vx - 0.5 * kDtS * kDragPerM * s * vx;
+            double hy = vy - 0.5 * kDtS * kDragPerM * s * vy;
+            double hz = vz - 0.5 * kDtS * (kDragPerM * s * vz + kG);
+            double hs = Math.sqrt(hx * hx + hy * hy + hz * hz);
+            double nx = x + kDtS * hx;
+            double ny = y + kDtS * hy;
+            double nz = z + kDtS * hz;
+            vx -= kDtS * kDragPerM * hs * hx;
+            vy -= kDtS * kDragPerM * hs * hy;
+            vz -= kDtS * (kDragPerM * hs * hz + kG);
+            if (nx >= rangeM) {
+                double f = (rangeM - x) / (nx - x);
+                out[0] = y + f * (ny - y);
+                out[1] = z + f * (nz - z) - kTargetHeightM;
+                return;
+            }
+            if (vx <= 0)
+                break;
+            x = nx;
+            y = ny;
+            z = nz;
+        }
+        out[0] = Double.NaN;
+        out[1] = Double.NaN;
+    }
+
+    ///////////////////////////////////////////////////////////
+
+    /** Model elevation at rest, usual speed. */
+    private static double stationary(double rangeM) {
+        double[] guess = new double[] { Math.atan2(kTargetHeightM - kShooterHeightM, rangeM), 0 };
+        if (!solve(rangeM, 0, 0, kExitSpeedM_S, guess))
+            throw new IllegalStateException("no stationary solution at " + rangeM);
+        return guess[0];
+    }
+
+    /**
+     * Newton's method on [elevation, lead] to zero the miss.
+     *
+     * @param guess initial [elevation, lead], overwritten with the solution.
+     * @return true if it converged to something sensible.
+     */
+    private static boolean solve(
+            double rangeM,
+            double radialM_S,
+            double tangentialM_S,
+            double speedM_S,
+            double[] guess) {
+        double[] f = new double[2];
+        double[] fe = new double[2];
+        double[] fl = new double[2];
+        double e = guess[0];
+        double l = guess[1];
+        for (int iter = 0; iter < kMaxIterations; ++iter) {
+            miss(rangeM, radialM_S, tangentialM_S, speedM_S, e, l, f);
+            if (Double.isNaN(f[0]))
+                return false;
+            if (Math.abs(f[0]) < kToleranceM && Math.abs(f[1]) < kToleranceM) {
+                guess[0] = e;
+                guess[1] = l;
+                return true;
+            }
+            miss(rangeM, radialM_S, tangentialM_S, speedM_S, e + kEpsilonRad, l, fe);
+            miss(rangeM, radialM_S, tangentialM_S, speedM_S, e, l + kEpsilonRad, fl);
+            if (Double.isNaN(fe[0]) || Double.isNaN(fl[0]))
+                return false;
+            // jacobian columns are d/de and d/dl of [lateral, vertical].
+            double a = (fe[0] - f[0]) / kEpsilonRad;
+            double b = (fl[0] - f[0]) / kEpsilonRad;
+            double c = (fe[1] - f[1]) / kEpsilonRad;
+            double d = (fl[1] - f[1]) / kEpsilonRad;
+            double det = a * d - b * c;
+            if (Math.abs(det) < 1e-12)
+                return false;
+            e -= (d * f[0] - b * f[1]) / det;
+            l -= (a * f[1] - c * f[0]) / det;
+            if (e < kMinElevationRad || e > kMaxElevationRad || Math.abs(l) > Math.PI / 2)
+                return false;
+        }
+        return false;
+    }
+
+    private int index(int i, int j, int k) {
+        return ((i * m_nv + j) * m_nv + k) * kOut;
+    }
+}
@@ -0,0 +1,76 @@
+package org.team100.frc2024.motion.shooter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FiringTableTest {
+    private static final double kDelta = 0.001;
+    private static final ShooterTable calibration = new ShooterTable();
+    private static final FiringTable table = new FiringTable(calibration);
+
+    @Test
+    void testStationary() {
+        // at rest, the table is the calibration.
+        for (double rangeM = 1.0; rangeM <= 5.0; rangeM += 0.1) {
+            FiringSolution s = table.get(rangeM, 0, 0);
+            assertEquals(calibration.getAngleRad(rangeM), s.elevationRad(), 0.01);
+            assertEquals(0, s.leadRad(), kDelta);
+            assertEquals(1, s.speedRatio(), kDelta);
+        }
+        FiringSolution s = table.get(3.0, 0, 0);
+        assertEquals(calibration.getAngleRad(3.0), s.elevationRad(), kDelta);
+    }
+
+    @Test
+    void testFeasible() {
+        assertEquals(0, table.infeasible());
+    }
+
+    @Test
+    void testLead() {
+        // moving left means aiming right
+        FiringSolution left = table.get(3.0, 0, 2);
+        FiringSolution right = table.get(3.0, 0, -2);
+        assertTrue(left.leadRad() < -0.1);
+        assertEquals(-left.leadRad(), right.leadRad(), kDelta);
+        assertEquals(left.elevationRad(), right.elevationRad(), kDelta);
+    }
+
+    @Test
+    void testNodes() {
+        // at the nodes, interpolation is exact.
+        FiringSolution n = table.node(8, 12, 3);
+        FiringSolution s = table.get(
+                FiringTable.kMinRangeM + 8 * FiringTable.kRangeStepM,
+                -FiringTable.kMaxVelocityM_S + 12 * FiringTable.kVelocityStepM_S,
+                -FiringTable.kMaxVelocityM_S + 3 * FiringTable.kVelocityStepM_S);
+        assertEquals(n.elevationRad(), s.elevationRad(), 1e-9);
+        assertEquals(n.leadRad(), s.leadRad(), 1e-9);
+        assertEquals(n.speedRatio(), s.speedRatio(), 1e-9);
+    }
+
+    @Test
+    void testClamp() {
+        FiringSolution far = table.get(100, 100, 100);
+        FiringSolution edge = table.get(
+                FiringTable.kMaxRangeM,
+                FiringTable.kMaxVelocityM_S,
+                FiringTable.kMaxVelocityM_S);
+        assertEquals(edge.elevationRad(), far.elevationRad(), 1e-9);
+        assertEquals(edge.leadRad(), far.leadRad(), 1e-9);
+    }
+
+    @Test
+    void testMiss() {
+        // flat misses low.
+        double[] out = new double[2];
+        FiringTable.miss(3, 0, 0, 12, 0, 0, out);
+        assertEquals(0, out[0], kDelta);
+        assertTrue(out[1] < -1);
+        // never gets there
+        FiringTable.miss(3, -20, 0, 12, 0, 0, out);
+        assertTrue(Double.isNaN(out[0]));
+    }
+}
@@ -0,0 +1,110 @@
+package org.team100.lib.localization;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.TestLoggerFactory;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePosition100;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePositions;
+import org.team100.lib.sensors.Gyro;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A full buffer of odometry, and then a vision update from the past, which
+ * replays (almost) the whole buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwerveDrivePoseEstimator100Benchmark {
+    private static final LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
+    private static final double kDt = 0.02;
+    /** 1.5 s of history at 50 Hz */
+    private static final int kSteps = 75;
+
+    private final double[] m_stateSigma = new double[] { 0.1, 0.1, 0.1 };
+    private final double[] m_visionSigma = new double[] { 0.5, 0.5, Double.MAX_VALUE };
+
+    private SwerveDrivePoseEstimator100 m_estimator;
+    private Pose2d m_measurement;
+    private double m_visionTimeS;
+
+    @Setup
+    public void setup() {
+        SwerveKinodynamics kinodynamics = SwerveKinodynamicsFactory.forTest();
+        Gyro gyro = new Gyro() {
+            @Override
+            public Rotation2d getYawNWU() {
+                return GeometryUtil.kRotationZero;
+            }
+
+            @Override
+            public double getYawRateNWU() {
+                return 0;
+            }
+
+            @Override
+            public Rotation2d getPitchNWU() {
+                return GeometryUtil.kRotationZero;
+            }
+
+            @Override
+            public Rotation2d getRollNWU() {
+                return GeometryUtil.kRotationZero;
+            }
+
+            @Override
+            public void periodic() {
+                //
+            }
+        };
+        m_estimator = kinodynamics.newPoseEstimator(
+                logger,
+                gyro,
+                positions(0),
+                GeometryUtil.kPoseZero,
+                0);
+        // drive straight ahead at 1 m/s
+        for (int i = 1; i < kSteps; ++i) {
+            m_estimator.put(i * kDt, gyro, positions(i * kDt));
+        }
+        // a bit after the oldest entry, between samples
+        m_visionTimeS = 0.1 * kDt + kDt;
+        m_measurement = new Pose2d(0.05, 0.01, GeometryUtil.kRotationZero);
+    }
+
+    private static SwerveModulePositions positions(double x) {
+        return new SwerveModulePositions(
+                new SwerveModulePosition100(x, Optional.of(GeometryUtil.kRotationZero)),
+                new SwerveModulePosition100(x, Optional.of(GeometryUtil.kRotationZero)),
+                new SwerveModulePosition100(x, Optional.of(GeometryUtil.kRotationZero)),
+                new SwerveModulePosition100(x, Optional.of(GeometryUtil.kRotationZero)));
+    }
+
+    /** One old vision update, so the whole buffer is replayed. */
+    @Benchmark
+    public SwerveDrivePoseEstimator100 putVision() {
+        m_estimator.put(m_visionTimeS, m_measurement, m_stateSigma, m_visionSigma);
+        return m_estimator;
+    }
+}
@@ -0,0 +1,78 @@
+package org.team100.lib.logging.primitive;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long does it take to flush a full set of dirty loggers?
+ * 
+ * The sink just counts bytes, so this measures the scan and the encoding, not
+ * the network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UdpPrimitiveLoggerBenchmark {
+    /** Number of keys of each type. */
+    @Param({ "100", "1000" })
+    int keys;
+
+    private UdpPrimitiveLogger m_logger;
+    private PrimitiveLogger.PrimitiveDoubleLogger[] m_doubles;
+    private PrimitiveLogger.PrimitiveBooleanLogger[] m_booleans;
+    private PrimitiveLogger.PrimitiveIntLogger[] m_ints;
+    private long m_bytes;
+    private double m_value;
+
+    @Setup
+    public void setup() {
+        m_logger = new UdpPrimitiveLogger(this::sink, this::sink);
+        m_doubles = new PrimitiveLogger.PrimitiveDoubleLogger[keys];
+        m_booleans = new PrimitiveLogger.PrimitiveBooleanLogger[keys];
+        m_ints = new PrimitiveLogger.PrimitiveIntLogger[keys];
+        for (int i = 0; i < keys; ++i) {
+            m_doubles[i] = m_logger.doubleLogger("double" + i);
+            m_booleans[i] = m_logger.booleanLogger("boolean" + i);
+            m_ints[i] = m_logger.intLogger("int" + i);
+        }
+    }
+
+    private void sink(ByteBuffer buf) {
+        m_bytes += buf.remaining();
+    }
+
+    /** Every key is dirty. */
+    @Benchmark
+    public long flushAllDirty() {
+        m_value += 1;
+        for (int i = 0; i < keys; ++i) {
+            m_doubles[i].log(m_value);
+            m_booleans[i].log((i & 1) == 0);
+            m_ints[i].log(i);
+        }
+        m_logger.flush();
+        return m_bytes;
+    }
+
+    /** Nothing is dirty, so this is just the scan. */
+    @Benchmark
+    public long flushClean() {
+        m_logger.flush();
+        return m_bytes;
+    }
+}
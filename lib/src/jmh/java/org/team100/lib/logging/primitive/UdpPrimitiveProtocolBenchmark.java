@@ -0,0 +1,113 @@
+package org.team100.lib.logging.primitive;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
+import org.team100.lib.logging.receiver.UdpConsumersInterface;
+import org.team100.lib.logging.receiver.UdpDataDecoder;
+
+/**
+ * Encode and decode a full packet of doubles, which is the common case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UdpPrimitiveProtocolBenchmark {
+    private UdpPrimitiveProtocol m_protocol;
+    private ByteBuffer m_packet;
+    private UdpDataDecoder m_decoder;
+    private double m_sum;
+
+    @Setup
+    public void setup() {
+        m_protocol = new UdpPrimitiveProtocol();
+        encodePacket();
+        ByteBuffer trimmed = m_protocol.trim();
+        m_packet = ByteBuffer.allocateDirect(trimmed.remaining());
+        m_packet.put(trimmed);
+        m_decoder = new UdpDataDecoder(new Sink());
+    }
+
+    /** Fill one MTU-sized packet with doubles. */
+    @Benchmark
+    public int encodePacket() {
+        m_protocol.clear();
+        int key = 1;
+        while (m_protocol.putDouble(key, key * 0.1)) {
+            ++key;
+        }
+        return key;
+    }
+
+    /** Decode every value in one MTU-sized packet. */
+    @Benchmark
+    public double decodePacket() throws ProtocolException {
+        m_packet.rewind();
+        m_decoder.validateTimestamp(m_packet);
+        while (m_packet.hasRemaining()) {
+            m_decoder.decode(m_packet);
+        }
+        return m_sum;
+    }
+
+    private class Sink implements UdpConsumersInterface {
+        @Override
+        public boolean validateTimestamp(long timestamp) {
+            return true;
+        }
+
+        @Override
+        public void acceptBoolean(int key, boolean val) {
+            m_sum += val ? 1 : 0;
+        }
+
+        @Override
+        public void acceptDouble(int key, double val) {
+            m_sum += val;
+        }
+
+        @Override
+        public void acceptInt(int key, int val) {
+            m_sum += val;
+        }
+
+        @Override
+        public void acceptDoubleArray(int key, double[] val) {
+            m_sum += val.length;
+        }
+
+        @Override
+        public void acceptString(int key, String val) {
+            m_sum += val.length();
+        }
+
+        @Override
+        public void acceptMeta(int key, UdpType type, String val) {
+            //
+        }
+
+        @Override
+        public void flush() {
+            //
+        }
+
+        @Override
+        public void close() {
+            //
+        }
+    }
+}
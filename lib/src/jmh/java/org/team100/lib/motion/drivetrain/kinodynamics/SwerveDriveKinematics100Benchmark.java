@@ -0,0 +1,86 @@
+package org.team100.lib.motion.drivetrain.kinodynamics;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Inverse and forward kinematics, called several times per loop by the
+ * setpoint generator, the odometry, and the pose estimator replay.
+ *
+ * The "compiled" param compares the unrolled four-module implementation with
+ * the EJML matrix one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwerveDriveKinematics100Benchmark {
+    @Param({ "true", "false" })
+    public boolean compiled;
+
+    private SwerveDriveKinematics100 m_kinematics;
+    private ChassisSpeeds m_speeds;
+    private SwerveModuleDeltas m_deltas;
+    private SwerveModuleStates m_states;
+
+    @Setup
+    public void setup() {
+        m_kinematics = new SwerveDriveKinematics100(compiled,
+                SwerveKinodynamicsFactory.forTest().getKinematics().getModuleLocations());
+        m_speeds = new ChassisSpeeds(1, 0.5, 0.2);
+        m_deltas = new SwerveModuleDeltas(
+                new SwerveModuleDelta(0.02, Optional.of(new Rotation2d(0.1))),
+                new SwerveModuleDelta(0.02, Optional.of(new Rotation2d(0.1))),
+                new SwerveModuleDelta(0.02, Optional.of(new Rotation2d(0.1))),
+                new SwerveModuleDelta(0.02, Optional.of(new Rotation2d(0.1))));
+        m_states = new SwerveModuleStates(
+                new SwerveModuleState100(),
+                new SwerveModuleState100(),
+                new SwerveModuleState100(),
+                new SwerveModuleState100());
+    }
+
+    @Benchmark
+    public SwerveModuleStates toSwerveModuleStates() {
+        return m_kinematics.toSwerveModuleStates(m_speeds);
+    }
+
+    @Benchmark
+    public SwerveModuleStates toSwerveModuleStatesBuffer() {
+        m_kinematics.toSwerveModuleStates(m_speeds, m_states);
+        return m_states;
+    }
+
+    @Benchmark
+    public ChassisSpeeds toChassisSpeeds() {
+        return m_kinematics.toChassisSpeeds(m_states);
+    }
+
+    @Benchmark
+    public SwerveModuleDeltas toSwerveModuleDelta() {
+        return m_kinematics.toSwerveModuleDelta(new Twist2d(0.02, 0.01, 0.004));
+    }
+
+    @Benchmark
+    public Twist2d toTwist2d() {
+        return m_kinematics.toTwist2d(m_deltas);
+    }
+}
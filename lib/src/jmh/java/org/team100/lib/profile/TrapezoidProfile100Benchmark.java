@@ -0,0 +1,49 @@
+package org.team100.lib.profile;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.team100.lib.profile.Profile100.ResultWithETA;
+import org.team100.lib.state.Model100;
+
+/**
+ * calculateWithETA is the inner loop of the ETA solver used by
+ * HolonomicProfile, so it runs many times per axis per loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrapezoidProfile100Benchmark {
+    private TrapezoidProfile100 m_profile;
+    private Model100 m_initial;
+    private Model100 m_goal;
+
+    @Setup
+    public void setup() {
+        m_profile = new TrapezoidProfile100(5, 10, 0.01);
+        m_initial = new Model100(0, 1);
+        m_goal = new Model100(5, 0);
+    }
+
+    @Benchmark
+    public ResultWithETA calculateWithETA() {
+        return m_profile.calculateWithETA(0.02, m_initial, m_goal);
+    }
+
+    @Benchmark
+    public double solveForSlowerETA() {
+        return m_profile.solve(0.02, m_initial, m_goal, 3.0, 0.01);
+    }
+}
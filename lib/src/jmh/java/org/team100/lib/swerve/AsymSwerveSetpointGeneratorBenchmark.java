@@ -0,0 +1,62 @@
+package org.team100.lib.swerve;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.TestLoggerFactory;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleState100;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleStates;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * One setpoint step from rest towards an infeasible goal, so all the limiters
+ * have work to do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsymSwerveSetpointGeneratorBenchmark {
+    private static final LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
+
+    private AsymSwerveSetpointGenerator m_generator;
+    private SwerveSetpoint m_setpoint;
+    private ChassisSpeeds m_desired;
+
+    @Setup
+    public void setup() {
+        m_generator = new AsymSwerveSetpointGenerator(
+                logger,
+                SwerveKinodynamicsFactory.limiting(),
+                () -> 12);
+        SwerveModuleStates initialStates = new SwerveModuleStates(
+                new SwerveModuleState100(0, Optional.of(GeometryUtil.kRotationZero)),
+                new SwerveModuleState100(0, Optional.of(GeometryUtil.kRotationZero)),
+                new SwerveModuleState100(0, Optional.of(GeometryUtil.kRotationZero)),
+                new SwerveModuleState100(0, Optional.of(GeometryUtil.kRotationZero)));
+        m_setpoint = new SwerveSetpoint(new ChassisSpeeds(), initialStates);
+        m_desired = new ChassisSpeeds(10, 10, 10);
+    }
+
+    @Benchmark
+    public SwerveSetpoint generateSetpoint() {
+        return m_generator.generateSetpoint(m_setpoint, m_desired);
+    }
+}
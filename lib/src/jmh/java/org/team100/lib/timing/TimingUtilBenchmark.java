@@ -0,0 +1,66 @@
+package org.team100.lib.timing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.path.Path100;
+import org.team100.lib.path.PathDistanceSampler;
+import org.team100.lib.trajectory.Trajectory100;
+import org.team100.lib.trajectory.TrajectoryUtil100;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Time-parameterize a few meters of path at the planner's default resolution.
+ * 
+ * The path is made once; this measures only the timing passes (including the
+ * distance sampling).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingUtilBenchmark {
+    /** Same as TrajectoryPlanner. */
+    private static final double kMaxDx = 0.0127;
+
+    private PathDistanceSampler m_sampler;
+    private TimingUtil m_timingUtil;
+
+    @Setup
+    public void setup() {
+        List<Pose2d> waypoints = List.of(
+                new Pose2d(0, 0, GeometryUtil.kRotationZero),
+                new Pose2d(3, 2, GeometryUtil.kRotationZero),
+                new Pose2d(6, 0, GeometryUtil.kRotationZero));
+        List<Rotation2d> headings = List.of(
+                GeometryUtil.kRotationZero,
+                GeometryUtil.fromDegrees(45),
+                GeometryUtil.fromDegrees(90));
+        Path100 path = TrajectoryUtil100.trajectoryFromWaypointsAndHeadings(
+                waypoints, headings, kMaxDx, kMaxDx, Math.toRadians(1.0));
+        m_sampler = new PathDistanceSampler(path);
+        m_timingUtil = new TimingUtil(
+                new TimingConstraintFactory(SwerveKinodynamicsFactory.forTest()).fast());
+    }
+
+    @Benchmark
+    public Trajectory100 timeParameterizeTrajectory() {
+        return m_timingUtil.timeParameterizeTrajectory(m_sampler, kMaxDx, 0, 0);
+    }
+}
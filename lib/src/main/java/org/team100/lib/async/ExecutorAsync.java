@@ -9,6 +9,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.util.Util;
 
 /**
@@ -26,7 +27,7 @@ public class ExecutorAsync implements Async {
     public void addPeriodic(Runnable runnable, double periodS, String name) {
         long periodMS = (long) (periodS * 1000);
         m_scheduler.scheduleAtFixedRate(
-                new CrashWrapper(runnable), periodMS, periodMS, TimeUnit.MILLISECONDS);
+                new CrashWrapper(LoopProfiler.instance().wrap(name, runnable)), periodMS, periodMS, TimeUnit.MILLISECONDS);
     }
 
     ExecutorAsync() {
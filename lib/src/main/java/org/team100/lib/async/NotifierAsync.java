@@ -3,6 +3,8 @@ package org.team100.lib.async;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.team100.lib.framework.LoopProfiler;
+
 import edu.wpi.first.wpilibj.Notifier;
 
 /**
@@ -20,7 +22,7 @@ public class NotifierAsync implements Async {
 
     @Override
     public void addPeriodic(Runnable runnable, double periodS, String name) {
-        Notifier n = new Notifier(runnable);
+        Notifier n = new Notifier(LoopProfiler.instance().wrap(name, runnable));
         n.setName(name);
         n.startPeriodic(periodS);
         m_notifiers.add(n);
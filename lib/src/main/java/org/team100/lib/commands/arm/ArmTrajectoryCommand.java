@@ -149,14 +149,14 @@ public class ArmTrajectoryCommand extends Command implements Glassy  {
 
         m_armSubsystem.set(u1, u2);
 
-        m_log_Lower_FF.log(() -> ff1);
-        m_log_Lower_Controller_Output.log(() -> u1_pos);
-        m_log_Upper_FF.log(() -> ff2);
-        m_log_Upper_Controller_Output.log(() -> u2_pos);
+        m_log_Lower_FF.log(ff1);
+        m_log_Lower_Controller_Output.log(u1_pos);
+        m_log_Upper_FF.log(ff2);
+        m_log_Upper_Controller_Output.log(u2_pos);
         m_log_Lower_Ref.log(() -> r.th1);
         m_log_Upper_Ref.log(() -> r.th2);
-        m_log_Output_Upper.log(() -> u1);
-        m_log_Output_Lower.log(() -> u2);
+        m_log_Output_Upper.log(u1);
+        m_log_Output_Lower.log(u2);
     }
 
     private State getDesiredState() {
@@ -106,8 +106,8 @@ public class CartesianManualPositionalArm extends Command implements Glassy  {
         m_log_setpoint.log(() -> setpoint);
         m_log_measurement.log(measurement::get);
         m_log_cartesian_measurement.log(() -> cartesian_measurement);
-        m_log_output_u1.log(() -> u1);
-        m_log_output_u2.log(() -> u2);
+        m_log_output_u1.log(u1);
+        m_log_output_u2.log(u2);
         m_log_error_e1.log(m_lowerController::getPositionError);
         m_log_error_e2.log(m_upperController::getPositionError);
     }
@@ -1,6 +1,9 @@
 package org.team100.lib.commands.drivetrain;
 
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.team100.lib.controller.drivetrain.HolonomicFieldRelativeController;
 import org.team100.lib.dashboard.Glassy;
@@ -16,6 +19,7 @@ import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.timing.TimedPose;
 import org.team100.lib.trajectory.StraightLineTrajectory;
 import org.team100.lib.trajectory.Trajectory100;
+import org.team100.lib.trajectory.TrajectoryPlannerService;
 import org.team100.lib.trajectory.TrajectorySamplePoint;
 import org.team100.lib.trajectory.TrajectoryTimeIterator;
 import org.team100.lib.trajectory.TrajectoryTimeSampler;
@@ -23,6 +27,7 @@ import org.team100.lib.util.Util;
 import org.team100.lib.visualization.TrajectoryVisualization;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj2.command.Command;
 
 /**
@@ -33,6 +38,9 @@ import edu.wpi.first.wpilibj2.command.Command;
  * The goal rotation is used as the setpoint the entire time, which will put
  * a lot of error into the rotational controller.
  * 
+ * The trajectory is planned in the background, so the main loop doesn't wait
+ * for it. Until it arrives, the wheels turn towards the goal.
+ * 
  * If you want a holonomic trajectory follower, try the
  * {@link DriveTrajectoryFollower} classes.
  */
@@ -58,10 +66,16 @@ public class DriveToWaypoint3 extends Command implements Glassy {
     private final StraightLineTrajectory m_trajectories;
     private final HolonomicFieldRelativeController m_controller;
     private final TrajectoryVisualization m_viz;
+    private final TrajectoryPlannerService m_planner;
     private final Log m_log;
 
+    /** Null until planning is requested. */
+    private CompletableFuture<Trajectory100> m_plan;
+    /** Null until the plan arrives. */
     private Trajectory100 m_trajectory;
     private TrajectoryTimeIterator m_iter;
+    /** True if planning failed, which ends the command. */
+    private boolean m_failed;
 
     /**
      * Trajectory waits until wheels are aligned. If we depend on the setpoint
@@ -81,12 +95,27 @@ public class DriveToWaypoint3 extends Command implements Glassy {
             StraightLineTrajectory trajectories,
             HolonomicFieldRelativeController controller,
             TrajectoryVisualization viz) {
+        this(log, goal, drivetrain, trajectories, controller, viz, TrajectoryPlannerService.background());
+    }
+
+    /**
+     * @param planner where to run the trajectory function.
+     */
+    public DriveToWaypoint3(
+            Log log,
+            Pose2d goal,
+            SwerveDriveSubsystem drivetrain,
+            StraightLineTrajectory trajectories,
+            HolonomicFieldRelativeController controller,
+            TrajectoryVisualization viz,
+            TrajectoryPlannerService planner) {
         m_log = log;
         m_goal = goal;
         m_swerve = drivetrain;
         m_trajectories = trajectories;
         m_controller = controller;
         m_viz = viz;
+        m_planner = planner;
         addRequirements(m_swerve);
 
     }
@@ -94,18 +123,35 @@ public class DriveToWaypoint3 extends Command implements Glassy {
     @Override
     public void initialize() {
         m_controller.reset();
-        m_trajectory = m_trajectories.apply(m_swerve.getState(), m_goal);
-        m_iter = new TrajectoryTimeIterator(
-                new TrajectoryTimeSampler(m_trajectory));
-        m_viz.setViz(m_trajectory);
+        m_trajectory = null;
+        m_iter = null;
+        m_failed = false;
         m_steeringAligned = false;
+        final SwerveModel start = m_swerve.getState();
+        m_plan = m_planner.submit(() -> m_trajectories.apply(start, m_goal));
     }
 
     @Override
     public void execute() {
-        if (m_trajectory == null)
+        if (m_failed)
             return;
-        SwerveModel measurement = m_swerve.getState(); 
+        SwerveModel measurement = m_swerve.getState();
+        if (m_trajectory == null) {
+            if (!receivePlan()) {
+                // still planning; get the wheels pointed the right way.
+                Translation2d toGoal = m_goal.getTranslation().minus(measurement.translation());
+                if (toGoal.getNorm() > 1e-3) {
+                    m_swerve.steerAtRest(new FieldRelativeVelocity(toGoal.getX(), toGoal.getY(), 0));
+                } else {
+                    m_swerve.stop();
+                }
+                m_log.aligned.log(false);
+                m_log.pose.log(measurement::pose);
+                return;
+            }
+            if (m_failed)
+                return;
+        }
 
         if (m_steeringAligned) {
             Optional<TrajectorySamplePoint> optSamplePoint = m_iter.advance(TimedRobot100.LOOP_PERIOD_S);
@@ -141,20 +187,54 @@ public class DriveToWaypoint3 extends Command implements Glassy {
             m_steeringAligned = m_swerve.steerAtRest(fieldRelativeTarget);
         }
 
-        m_log.aligned.log(() -> m_steeringAligned);
+        m_log.aligned.log(m_steeringAligned);
         m_log.pose.log(measurement::pose);
     }
 
     @Override
     public boolean isFinished() {
-        if (m_trajectory == null)
+        if (m_failed)
             return true;
+        if (m_trajectory == null)
+            return false;
         return m_iter.isDone() && m_controller.atReference();
     }
 
     @Override
     public void end(boolean interrupted) {
+        // if it's still in the queue, it will never run.
+        if (m_plan != null)
+            m_plan.cancel(false);
         m_swerve.stop();
         m_viz.clear();
     }
+
+    /**
+     * If the plan is ready, start following it. If planning failed, or produced
+     * nothing to follow, stop, and set m_failed, which ends the command.
+     * 
+     * @return true if the plan arrived
+     */
+    private boolean receivePlan() {
+        if (!m_plan.isDone())
+            return false;
+        Trajectory100 trajectory;
+        try {
+            trajectory = m_plan.join();
+        } catch (CancellationException | CompletionException e) {
+            Util.warn("trajectory planning failed: " + e.getMessage());
+            trajectory = null;
+        }
+        if (trajectory == null || trajectory.isEmpty()) {
+            Util.warn("no trajectory, stopping");
+            m_failed = true;
+            m_swerve.stop();
+            return true;
+        }
+        m_trajectory = trajectory;
+        m_iter = new TrajectoryTimeIterator(
+                new TrajectoryTimeSampler(m_trajectory));
+        m_viz.setViz(m_trajectory);
+        return true;
+    }
 }
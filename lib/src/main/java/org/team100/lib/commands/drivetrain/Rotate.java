@@ -131,8 +131,8 @@ public class Rotate extends Command implements Glassy {
         // log what we did
         m_log_error_x.log(() -> refTheta.x() - headingMeasurement);
         m_log_error_v.log(() -> refTheta.v() - headingRate);
-        m_log_measurement_x.log(() -> headingMeasurement);
-        m_log_measurement_v.log(() -> headingRate);
+        m_log_measurement_x.log(headingMeasurement);
+        m_log_measurement_v.log(headingRate);
         m_log_reference.log(() -> refTheta);
     }
 
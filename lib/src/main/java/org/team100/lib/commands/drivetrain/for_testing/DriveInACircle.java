@@ -118,7 +118,7 @@ public class DriveInACircle extends Command implements Glassy {
         m_swerve.driveInFieldCoords(fieldRelativeTarget);
 
         m_log_center.log(() -> m_center);
-        m_log_angle.log(() -> m_angleRad);
+        m_log_angle.log(m_angleRad);
         m_log_reference.log(() -> reference);
         m_log_target.log(() -> fieldRelativeTarget);
     }
@@ -78,11 +78,11 @@ public class Oscillate extends Command implements Glassy  {
 
         m_swerve.setChassisSpeeds(new ChassisSpeeds(speedM_S, 0, 0));
 
-        m_log_period.log(() -> kPeriod);
-        m_log_time.log(() -> time);
-        m_log_setpoint_accel.log(() -> accelM_S_S);
-        m_log_setpoint_speed.log(() -> speedM_S);
-        m_log_setpoint_position.log(() -> positionM);
+        m_log_period.log(kPeriod);
+        m_log_time.log(time);
+        m_log_setpoint_accel.log(accelM_S_S);
+        m_log_setpoint_speed.log(speedM_S);
+        m_log_setpoint_position.log(positionM);
         SwerveModel swerveState = m_swerve.getState();
         m_log_measurement_speed.log(() -> swerveState.x().v());
         m_log_measurement_position.log(() -> swerveState.x().x() - m_initial.x().x());
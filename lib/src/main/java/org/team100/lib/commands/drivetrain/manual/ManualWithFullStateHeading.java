@@ -167,13 +167,13 @@ public class ManualWithFullStateHeading implements FieldRelativeDriver {
         m_log_mode.log(() -> "snap");
         m_log_goal_theta.log(m_goal::getRadians);
         m_log_setpoint_theta.log(() -> m_thetaSetpoint);
-        m_log_measurement_theta.log(() -> yawMeasurement);
-        m_log_measurement_omega.log(() -> yawRate);
-        m_log_error_theta.log(() -> thetaError);
-        m_log_error_omega.log(() -> omegaError);
-        m_log_theta_FB.log(() -> thetaFB);
-        m_log_omega_FB.log(() -> omegaFB);
-        m_log_output_omega.log(() -> omega);
+        m_log_measurement_theta.log(yawMeasurement);
+        m_log_measurement_omega.log(yawRate);
+        m_log_error_theta.log(thetaError);
+        m_log_error_omega.log(omegaError);
+        m_log_theta_FB.log(thetaFB);
+        m_log_omega_FB.log(omegaFB);
+        m_log_output_omega.log(omega);
 
         // desaturate the end result to feasibility, optionally preferring the rotation
         // over translation
@@ -204,14 +204,14 @@ public class ManualWithMinTimeHeading implements FieldRelativeDriver {
         m_log_mode.log(() -> "snap");
         m_log_goal_theta.log(() -> m_goal.getRadians());
         m_log_setpoint_theta.log(() -> m_thetaSetpoint);
-        m_log_measurement_theta.log(() -> yawMeasurement);
-        m_log_measurement_omega.log(() -> yawRate);
+        m_log_measurement_theta.log(yawMeasurement);
+        m_log_measurement_omega.log(yawRate);
         m_log_error_theta.log(() -> m_thetaSetpoint.x() - yawMeasurement);
         m_log_error_omega.log(() -> m_thetaSetpoint.v() - yawRate);
         m_log_goal_error_theta.log(() -> m_thetaSetpoint.x() - goalState.x());
         m_log_goal_error_omega.log(() -> m_thetaSetpoint.v() - goalState.v());
-        m_log_theta_FF.log(() -> thetaFF);
-        m_log_output_omega.log(() -> omega);
+        m_log_theta_FF.log(thetaFF);
+        m_log_output_omega.log(omega);
 
         // desaturate the end result to feasibility, optionally preferring the rotation
         // over translation
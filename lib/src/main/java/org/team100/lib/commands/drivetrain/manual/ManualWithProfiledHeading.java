@@ -191,14 +191,14 @@ public class ManualWithProfiledHeading implements FieldRelativeDriver {
         m_log_mode.log(() -> "snap");
         m_log_goal_theta.log(m_goal::getRadians);
         m_log_setpoint_theta.log(() -> m_thetaSetpoint);
-        m_log_measurement_theta.log(() -> yawMeasurement);
-        m_log_measurement_omega.log(() -> yawRateMeasurement);
+        m_log_measurement_theta.log(yawMeasurement);
+        m_log_measurement_omega.log(yawRateMeasurement);
         m_log_error_theta.log(() -> m_thetaSetpoint.x() - yawMeasurement);
         m_log_error_omega.log(() -> m_thetaSetpoint.v() - yawRateMeasurement);
-        m_log_theta_FF.log(() -> thetaFF);
-        m_log_theta_FB.log(() -> thetaFB);
-        m_log_omega_FB.log(() -> omegaFB);
-        m_log_output_omega.log(() -> omega);
+        m_log_theta_FF.log(thetaFF);
+        m_log_theta_FB.log(thetaFB);
+        m_log_omega_FB.log(omegaFB);
+        m_log_output_omega.log(omega);
 
         // desaturate the end result to feasibility by preferring the rotation over
         // translation
@@ -231,8 +231,8 @@ public class ManualWithProfiledHeading implements FieldRelativeDriver {
 
         double maxAccelRad_S2 = m_swerveKinodynamics.getMaxAngleAccelRad_S2() * kRotationSpeed * PROFILE_ACCEL;
 
-        m_log_max_speed.log(() -> maxSpeedRad_S);
-        m_log_max_accel.log(() -> maxAccelRad_S2);
+        m_log_max_speed.log(maxSpeedRad_S);
+        m_log_max_accel.log(maxAccelRad_S2);
 
         return new TrapezoidProfile100(
                 maxSpeedRad_S,
@@ -51,7 +51,7 @@ public class FullStateController {
         double u_FF = reference.v();
         m_atSetpoint = true;
         double u_FB = calculateFB(measurement, reference);
-        m_log_u_FB.log(() -> u_FB);
+        m_log_u_FB.log(u_FB);
         return u_FF + u_FB;
     }
 
@@ -58,8 +58,8 @@ public class AnalogTurningEncoder extends RoboRioRotaryPositionSensor {
     protected OptionalDouble getRatio() {
         double voltage = m_voltage.getAsDouble();
         double ratio = voltage / m_rail.getAsDouble();
-        m_log_voltage.log(() -> voltage);
-        m_log_ratio.log(() -> ratio);
+        m_log_voltage.log(voltage);
+        m_log_ratio.log(ratio);
         return OptionalDouble.of(ratio);
     }
 }
@@ -63,7 +63,7 @@ public abstract class DutyCycleRotaryPositionSensor extends RoboRioRotaryPositio
             return OptionalDouble.of(m_dutyIfDisconnected);
         }
         double dutyCycle = m_duty.getAsDouble();
-        m_log_duty.log(() -> dutyCycle);
+        m_log_duty.log(dutyCycle);
         m_dutyIfDisconnected = dutyCycle;
         return OptionalDouble.of(dutyCycle);
     }
@@ -81,10 +81,10 @@ public abstract class RoboRioRotaryPositionSensor implements RotaryPositionSenso
             return OptionalDouble.empty();
 
         double posTurns = mapSensorRange(ratio.getAsDouble());
-        m_log_position_turns.log(() -> posTurns);
+        m_log_position_turns.log(posTurns);
 
         double turnsMinusOffset = posTurns - m_positionOffset;
-        m_log_position_turns_offset.log(() -> turnsMinusOffset);
+        m_log_position_turns_offset.log(turnsMinusOffset);
 
         switch (m_drive) {
             case DIRECT:
@@ -127,7 +127,7 @@ public abstract class RoboRioRotaryPositionSensor implements RotaryPositionSenso
         m_prevTimeS = timeS;
 
         double rateRad_S = dxRad / dtS;
-        m_log_rate.log(() -> rateRad_S);
+        m_log_rate.log(rateRad_S);
         return OptionalDouble.of(rateRad_S);
     }
 
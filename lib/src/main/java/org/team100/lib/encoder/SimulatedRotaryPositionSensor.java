@@ -40,7 +40,7 @@ public class SimulatedRotaryPositionSensor implements RotaryPositionSensor {
         m_positionRad += velocityRad_S.getAsDouble() * dtS;
         m_positionRad = MathUtil.angleModulus(m_positionRad);
         m_timeS = nowS;
-        m_log_position.log(() -> m_positionRad);
+        m_log_position.log(m_positionRad);
         return OptionalDouble.of(m_positionRad);
     }
 
@@ -55,5 +55,20 @@ public enum Experiment {
     /**
      * Clip the snap omega
      */
-    SnapGentle
+    SnapGentle,
+    /**
+     * Aim, pivot, and spin the drums using the shoot-on-the-move firing table,
+     * instead of the stationary range table.
+     */
+    ShootOnTheMove,
+    /**
+     * Fill all the Memo caches at the top of the loop, instead of on first use.
+     */
+    MemoPrefetch,
+    /**
+     * Run the swerve modules' sensing and actuation on worker threads, so their
+     * CAN traffic overlaps. Chosen at startup. Needs a thread-safe primitive
+     * logger, i.e. NT, not UDP.
+     */
+    ParallelModules
 }
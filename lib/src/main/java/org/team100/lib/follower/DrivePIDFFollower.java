@@ -128,7 +128,7 @@ public class DrivePIDFFollower implements DriveTrajectoryFollower {
 
         Optional<TrajectorySamplePoint> sample_point = m_iter.advance(mDt);
         if (!sample_point.isPresent()) {
-            m_log.m_log_is_mt.log(() -> true);
+            m_log.m_log_is_mt.log(true);
             return Optional.empty();
         }
         m_log.m_log_sample.log(sample_point::get);
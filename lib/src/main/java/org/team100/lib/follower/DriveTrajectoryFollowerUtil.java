@@ -58,7 +58,7 @@ public class DriveTrajectoryFollowerUtil implements Glassy {
      */
     public ChassisSpeeds feedforward(Pose2d currentPose, TimedPose setpoint) {
         final double velocity_m = setpoint.velocityM_S();
-        m_log_setpoint_velocity.log(() -> velocity_m);
+        m_log_setpoint_velocity.log(velocity_m);
 
         // robot-relative motion direction
         Optional<Rotation2d> motion_direction = direction(currentPose, setpoint);
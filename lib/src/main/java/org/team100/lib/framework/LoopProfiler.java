@@ -0,0 +1,223 @@
+package org.team100.lib.framework;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.team100.lib.logging.Level;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.logging.Logging;
+
+/**
+ * Records how long each phase of the loop takes, so that when the loop
+ * overruns, we can tell which part ate the time.
+ *
+ * Phases are named by slash-separated paths, e.g. "main loop/scheduler", which
+ * become the logger tree under "profile". Nested phases are timed
+ * independently, so the parent time includes the child time.
+ *
+ * Each phase records nanoTime spans into a preallocated log-scale histogram
+ * (eight buckets per octave, so about 6% resolution, from 1 us to 134 ms), and
+ * every kWindow samples, it logs the percentiles and starts over. So recording
+ * doesn't allocate, and logging happens about once a second for the main loop.
+ *
+ * Each phase should be recorded by only one thread, because the histograms
+ * aren't synchronized. The async callbacks each have their own phase, so
+ * that's ok.
+ *
+ * When ENABLED is false, begin() and end() do nothing, wrap() returns the
+ * runnable itself, and all the phases share one idle instance, so the JIT removes
+ * almost all the cost.
+ */
+public class LoopProfiler {
+    /** Static final, so that the disabled case compiles away. */
+    public static final boolean ENABLED = false;
+    /** Log the percentiles every this many samples. */
+    private static final int kWindow = 50;
+
+    /** Returned by everything when disabled; it never records anything. */
+    private static final Phase kDisabled = new Phase(null, kWindow);
+    private static LoopProfiler instance;
+
+    private final LoggerFactory m_logger;
+    private final Map<String, Phase> m_phases;
+
+    LoopProfiler(LoggerFactory logger) {
+        m_logger = logger;
+        m_phases = new HashMap<>();
+    }
+
+    public static synchronized LoopProfiler instance() {
+        if (instance == null) {
+            // when disabled, don't touch the logging singleton at all.
+            instance = new LoopProfiler(ENABLED ? Logging.instance().rootLogger.child("profile") : null);
+        }
+        return instance;
+    }
+
+    /**
+     * The phase for the path, which is made on first use. Call this at
+     * construction time, not in the loop.
+     */
+    public synchronized Phase phase(String path) {
+        if (m_logger == null)
+            return kDisabled;
+        return m_phases.computeIfAbsent(path, this::newPhase);
+    }
+
+    /** A phase for a subsystem periodic(), which the scheduler runs. */
+    public Phase subsystem(String name) {
+        return phase("main loop/scheduler/" + name);
+    }
+
+    /** Times the runnable as the named phase, if enabled. */
+    public Runnable wrap(String path, Runnable runnable) {
+        if (!ENABLED)
+            return runnable;
+        Phase p = phase(path);
+        return () -> {
+            long t = p.begin();
+            try {
+                runnable.run();
+            } finally {
+                p.end(t);
+            }
+        };
+    }
+
+    private Phase newPhase(String path) {
+        LoggerFactory logger = m_logger;
+        for (String stem : path.split("/")) {
+            logger = logger.child(stem);
+        }
+        return new Phase(logger, kWindow);
+    }
+
+    /**
+     * A histogram of span durations.
+     *
+     * Bucket zero is everything below 1 us, the last bucket is everything above
+     * 134 ms, and in between, each octave is split into eight linear buckets.
+     */
+    public static class Phase {
+        private static final int kSubBits = 3;
+        private static final int kSub = 1 << kSubBits;
+        private static final int kMinExp = 10;
+        private static final int kMaxExp = 27;
+        private static final int kBuckets = (kMaxExp - kMinExp) * kSub + 2;
+
+        private final int m_window;
+        private final int[] m_counts = new int[kBuckets];
+        private int m_n;
+        private long m_sumNs;
+        private long m_maxNs;
+
+        private final DoubleLogger m_log_p50;
+        private final DoubleLogger m_log_p90;
+        private final DoubleLogger m_log_p99;
+        private final DoubleLogger m_log_max;
+        private final DoubleLogger m_log_mean;
+
+        /** @param logger null for a phase that never publishes */
+        Phase(LoggerFactory logger, int window) {
+            m_window = window;
+            if (logger == null) {
+                m_log_p50 = null;
+                m_log_p90 = null;
+                m_log_p99 = null;
+                m_log_max = null;
+                m_log_mean = null;
+                return;
+            }
+            m_log_p50 = logger.doubleLogger(Level.COMP, "p50 (s)");
+            m_log_p90 = logger.doubleLogger(Level.COMP, "p90 (s)");
+            m_log_p99 = logger.doubleLogger(Level.COMP, "p99 (s)");
+            m_log_max = logger.doubleLogger(Level.COMP, "max (s)");
+            m_log_mean = logger.doubleLogger(Level.COMP, "mean (s)");
+        }
+
+        /** @return the start time to pass to end() */
+        public long begin() {
+            if (!ENABLED)
+                return 0;
+            return System.nanoTime();
+        }
+
+        public void end(long startNs) {
+            if (!ENABLED)
+                return;
+            record(System.nanoTime() - startNs);
+        }
+
+        void record(long ns) {
+            if (ns < 0)
+                ns = 0;
+            m_counts[bucket(ns)]++;
+            m_n++;
+            m_sumNs += ns;
+            if (ns > m_maxNs)
+                m_maxNs = ns;
+            if (m_n >= m_window && m_log_p50 != null)
+                publish();
+        }
+
+        /** Approximate percentile of the current window, in nanoseconds. */
+        long percentileNs(double p) {
+            if (m_n == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(p * m_n));
+            long seen = 0;
+            for (int i = 0; i < kBuckets; ++i) {
+                seen += m_counts[i];
+                if (seen >= rank)
+                    return Math.min(m_maxNs, value(i));
+            }
+            return m_maxNs;
+        }
+
+        int count() {
+            return m_n;
+        }
+
+        private void publish() {
+            m_log_p50.log(percentileNs(0.50) * 1e-9);
+            m_log_p90.log(percentileNs(0.90) * 1e-9);
+            m_log_p99.log(percentileNs(0.99) * 1e-9);
+            m_log_max.log(m_maxNs * 1e-9);
+            m_log_mean.log(m_sumNs * 1e-9 / m_n);
+            clear();
+        }
+
+        private void clear() {
+            for (int i = 0; i < kBuckets; ++i) {
+                m_counts[i] = 0;
+            }
+            m_n = 0;
+            m_sumNs = 0;
+            m_maxNs = 0;
+        }
+
+        static int bucket(long ns) {
+            if (ns < (1L << kMinExp))
+                return 0;
+            int exp = 63 - Long.numberOfLeadingZeros(ns);
+            if (exp >= kMaxExp)
+                return kBuckets - 1;
+            int sub = (int) (ns >>> (exp - kSubBits)) & (kSub - 1);
+            return (exp - kMinExp) * kSub + sub + 1;
+        }
+
+        /** Midpoint of the bucket, or the top for the overflow bucket. */
+        static long value(int bucket) {
+            if (bucket == 0)
+                return (1L << kMinExp) / 2;
+            if (bucket == kBuckets - 1)
+                return Long.MAX_VALUE;
+            int exp = (bucket - 1) / kSub + kMinExp;
+            int sub = (bucket - 1) % kSub;
+            long lower = (long) (kSub + sub) << (exp - kSubBits);
+            long width = 1L << (exp - kSubBits);
+            return lower + width / 2;
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class TimedRobot100 extends IterativeRobotBase implements Glassy {
         public double period;
         public double expirationTime;
         public DoubleLogger logger;
+        public LoopProfiler.Phase phase;
 
         /**
          * Construct a callback container.
@@ -48,15 +49,18 @@ public class TimedRobot100 extends IterativeRobotBase implements Glassy {
                             * this.period
                     + this.period;
             this.logger = logger.doubleLogger(Level.COMP, "duration (s)/" + name);
+            this.phase = LoopProfiler.instance().phase(name);
         }
 
         public void run() {
 
             double startWaitingS = Timer.getFPGATimestamp();
+            long startNs = phase.begin();
             func.run();
+            phase.end(startNs);
             double endWaitingS = Timer.getFPGATimestamp();
             double durationS = endWaitingS - startWaitingS;
-            this.logger.log(() -> durationS);
+            this.logger.log(durationS);
 
         }
 
@@ -99,11 +103,13 @@ public class TimedRobot100 extends IterativeRobotBase implements Glassy {
     private final PriorityQueue<Callback> m_callbacks = new PriorityQueue<>();
 
     private final DoubleLogger m_log_slack;
+    private final LoopProfiler.Phase m_slackPhase;
 
     protected TimedRobot100() {
         super(LOOP_PERIOD_S);
         m_robotLogger = Logging.instance().rootLogger.child(this);
         m_log_slack = m_robotLogger.doubleLogger(Level.COMP, "slack time (s)");
+        m_slackPhase = LoopProfiler.instance().phase("slack");
         m_startTime = Timer.getFPGATimestamp();
         addPeriodic(this::loopFunc, TimedRobot100.LOOP_PERIOD_S, "main loop");
         NotifierJNI.setNotifierName(m_notifier, "TimedRobot");
@@ -140,15 +146,17 @@ public class TimedRobot100 extends IterativeRobotBase implements Glassy {
 
             // how long do we spend waiting?
             double startWaitingS = Timer.getFPGATimestamp();
+            long startWaitingNs = m_slackPhase.begin();
             long curTime = NotifierJNI.waitForNotifierAlarm(m_notifier);
             if (curTime == 0) {
                 // someone called StopNotifier
                 break;
             }
+            m_slackPhase.end(startWaitingNs);
             double endWaitingS = Timer.getFPGATimestamp();
             double slackS = endWaitingS - startWaitingS;
             // this is the main loop slack, don't let it go to zero!
-            m_log_slack.log(() -> slackS);
+            m_log_slack.log(slackS);
 
             callback.run();
 
@@ -79,9 +79,9 @@ public class DriverXboxControl implements DriverControl {
         final double rightY = m_controller.getRightY();
         final double rightX = m_controller.getRightX();
         final double leftX = m_controller.getLeftX();
-        m_log_right_y.log(() -> rightY);
-        m_log_right_x.log(() -> rightX);
-        m_log_left_x.log(() -> leftX);
+        m_log_right_y.log(rightY);
+        m_log_right_x.log(rightX);
+        m_log_left_x.log(leftX);
 
         double dx = 0;
         double dy = 0;
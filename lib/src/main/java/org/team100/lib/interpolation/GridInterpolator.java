@@ -0,0 +1,165 @@
+package org.team100.lib.interpolation;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Multilinear interpolation on a regular grid, in any number of dimensions.
+ *
+ * Finding the cell is just arithmetic (no search), and the result is the
+ * weighted sum of the 2^inputs corners of the cell, so for a few dimensions it
+ * takes about a hundred nanoseconds. Points outside the grid are clamped to
+ * the edge.
+ *
+ * The values are stored row-major in one flat array: the last input varies
+ * fastest, and the outputs for each node are adjacent.
+ */
+public class GridInterpolator implements Interpolator {
+    private final int m_inputs;
+    private final int m_outputs;
+    private final double[] m_min;
+    private final double[] m_step;
+    private final int[] m_counts;
+    /** Distance between adjacent nodes in each dimension, in m_values. */
+    private final int[] m_strides;
+    private final double[] m_values;
+    /** Offset of each corner of the cell, relative to the lower corner. */
+    private final int[] m_corners;
+
+    // scratch
+    private final double[] m_frac;
+    private final double[] m_weights;
+
+    /**
+     * @param min     coordinate of the first node in each dimension
+     * @param step    node spacing in each dimension
+     * @param counts  number of nodes in each dimension, at least two
+     * @param outputs number of outputs at each node
+     * @param values  flat row-major values, see above
+     */
+    public GridInterpolator(double[] min, double[] step, int[] counts, int outputs, double[] values) {
+        m_inputs = min.length;
+        if (step.length != m_inputs || counts.length != m_inputs)
+            throw new IllegalArgumentException("dimension mismatch");
+        if (m_inputs > 16)
+            throw new IllegalArgumentException("too many dimensions");
+        m_outputs = outputs;
+        m_min = min.clone();
+        m_step = step.clone();
+        m_counts = counts.clone();
+        m_strides = new int[m_inputs];
+        int stride = outputs;
+        for (int d = m_inputs - 1; d >= 0; --d) {
+            if (counts[d] < 2)
+                throw new IllegalArgumentException("need at least two nodes per dimension");
+            if (!(step[d] > 0))
+                throw new IllegalArgumentException("step must be positive");
+            m_strides[d] = stride;
+            stride *= counts[d];
+        }
+        if (values.length != stride)
+            throw new IllegalArgumentException("expected " + stride + " values, got " + values.length);
+        m_values = values;
+        m_corners = new int[1 << m_inputs];
+        for (int c = 0; c < m_corners.length; ++c) {
+            for (int d = 0; d < m_inputs; ++d) {
+                if ((c & (1 << d)) != 0)
+                    m_corners[c] += m_strides[d];
+            }
+        }
+        m_frac = new double[m_inputs];
+        m_weights = new double[m_corners.length];
+    }
+
+    /**
+     * Fills the grid by calling the function at each node.
+     *
+     * @param f accepts the node coordinates and fills the outputs
+     */
+    public static GridInterpolator of(
+            double[] min,
+            double[] step,
+            int[] counts,
+            int outputs,
+            BiConsumer<double[], double[]> f) {
+        int nodes = 1;
+        for (int n : counts) {
+            nodes *= n;
+        }
+        double[] values = new double[nodes * outputs];
+        double[] point = new double[min.length];
+        double[] out = new double[outputs];
+        int[] index = new int[min.length];
+        for (int node = 0; node < nodes; ++node) {
+            for (int d = 0; d < min.length; ++d) {
+                point[d] = min[d] + index[d] * step[d];
+            }
+            f.accept(point, out);
+            System.arraycopy(out, 0, values, node * outputs, outputs);
+            // odometer, last dimension fastest
+            for (int d = min.length - 1; d >= 0; --d) {
+                if (++index[d] < counts[d])
+                    break;
+                index[d] = 0;
+            }
+        }
+        return new GridInterpolator(min, step, counts, outputs, values);
+    }
+
+    @Override
+    public int inputs() {
+        return m_inputs;
+    }
+
+    @Override
+    public int outputs() {
+        return m_outputs;
+    }
+
+    @Override
+    public void get(double[] point, double[] out) {
+        int base = 0;
+        for (int d = 0; d < m_inputs; ++d) {
+            int last = m_counts[d] - 1;
+            double x = (point[d] - m_min[d]) / m_step[d];
+            if (x < 0)
+                x = 0;
+            else if (x > last)
+                x = last;
+            // lower corner, kept one short of the end so the upper corner exists
+            int i = Math.min((int) x, last - 1);
+            m_frac[d] = x - i;
+            base += i * m_strides[d];
+        }
+        // corner weights, one dimension at a time
+        m_weights[0] = 1;
+        for (int d = 0; d < m_inputs; ++d) {
+            int bit = 1 << d;
+            double f = m_frac[d];
+            for (int c = 0; c < bit; ++c) {
+                m_weights[c | bit] = m_weights[c] * f;
+                m_weights[c] *= 1 - f;
+            }
+        }
+        for (int k = 0; k < m_outputs; ++k) {
+            out[k] = 0;
+        }
+        for (int c = 0; c < m_corners.length; ++c) {
+            double w = m_weights[c];
+            if (w == 0)
+                continue;
+            int n = base + m_corners[c];
+            for (int k = 0; k < m_outputs; ++k) {
+                out[k] += w * m_values[n + k];
+            }
+        }
+    }
+
+    /** Value at a node, for testing. */
+    double node(int[] index, int output) {
+        int n = output;
+        for (int d = 0; d < m_inputs; ++d) {
+            n += index[d] * m_strides[d];
+        }
+        return m_values[n];
+    }
+}
@@ -0,0 +1,54 @@
+package org.team100.lib.interpolation;
+
+/**
+ * Maps a point in R^inputs to R^outputs, using some stored samples.
+ *
+ * Implementations keep scratch space for get(), so they're not thread-safe;
+ * use one instance per thread.
+ */
+public interface Interpolator {
+    int inputs();
+
+    int outputs();
+
+    /**
+     * Interpolates one point, without allocating.
+     *
+     * @param point length inputs()
+     * @param out   length outputs(), overwritten
+     */
+    void get(double[] point, double[] out);
+
+    /** Interpolates one point, into a new array. */
+    default double[] get(double[] point) {
+        double[] out = new double[outputs()];
+        get(point, out);
+        return out;
+    }
+
+    /**
+     * Interpolates many points.
+     *
+     * @param points one row per point
+     * @param out    one row per point, each length outputs(), overwritten
+     */
+    default void evaluate(double[][] points, double[][] out) {
+        if (points.length != out.length)
+            throw new IllegalArgumentException("points and outputs must be parallel");
+        for (int i = 0; i < points.length; ++i) {
+            get(points[i], out[i]);
+        }
+    }
+
+    /**
+     * Interpolates many points.
+     *
+     * @param points one row per point
+     * @return one row per point
+     */
+    default double[][] evaluate(double[][] points) {
+        double[][] out = new double[points.length][outputs()];
+        evaluate(points, out);
+        return out;
+    }
+}
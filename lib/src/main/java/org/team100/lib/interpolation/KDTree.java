@@ -0,0 +1,168 @@
+package org.team100.lib.interpolation;
+
+/**
+ * Static KD-tree for fixed-radius queries.
+ *
+ * The tree is implicit: the points are permuted so that each subrange [lo, hi)
+ * is a node whose split point is the middle, with the smaller half on the
+ * left. The coordinates are copied into one flat array in that order, so
+ * queries walk memory mostly forward and don't allocate.
+ */
+class KDTree {
+    /** Below this many points, just scan. */
+    private static final int kLeaf = 8;
+
+    private final int m_dims;
+    private final int m_size;
+    /** Coordinates in tree order, row-major. */
+    private final double[] m_coords;
+    /** Original index of each point in tree order. */
+    private final int[] m_index;
+    /** Split dimension for the node whose middle is at each position. */
+    private final byte[] m_axis;
+    /** Pending [lo, hi) ranges for the query, sized for the tree depth. */
+    private final int[] m_stack;
+
+    /** @param points one row per point, all the same length */
+    KDTree(double[][] points) {
+        m_size = points.length;
+        m_dims = m_size == 0 ? 0 : points[0].length;
+        m_index = new int[m_size];
+        for (int i = 0; i < m_size; ++i) {
+            if (points[i].length != m_dims)
+                throw new IllegalArgumentException("ragged points");
+            m_index[i] = i;
+        }
+        m_axis = new byte[m_size];
+        build(points, 0, m_size);
+        m_coords = new double[m_size * m_dims];
+        for (int i = 0; i < m_size; ++i) {
+            System.arraycopy(points[m_index[i]], 0, m_coords, i * m_dims, m_dims);
+        }
+        int depth = 1;
+        for (int n = m_size; n > kLeaf; n /= 2) {
+            depth++;
+        }
+        m_stack = new int[4 * depth];
+    }
+
+    int size() {
+        return m_size;
+    }
+
+    /**
+     * Finds points within the radius (inclusive) of p.
+     *
+     * @param out       receives the original indices, must be as long as size()
+     * @param distance2 receives the squared distances, parallel to out
+     * @return the number of points found
+     */
+    int within(double[] p, double radius, int[] out, double[] distance2) {
+        double r2 = radius * radius;
+        int found = 0;
+        int top = 0;
+        m_stack[top++] = 0;
+        m_stack[top++] = m_size;
+        while (top > 0) {
+            int hi = m_stack[--top];
+            int lo = m_stack[--top];
+            if (hi - lo <= kLeaf) {
+                for (int i = lo; i < hi; ++i) {
+                    double d2 = distance2(p, i);
+                    if (d2 <= r2) {
+                        distance2[found] = d2;
+                        out[found++] = m_index[i];
+                    }
+                }
+                continue;
+            }
+            int mid = (lo + hi) >>> 1;
+            double d2 = distance2(p, mid);
+            if (d2 <= r2) {
+                distance2[found] = d2;
+                out[found++] = m_index[mid];
+            }
+            int axis = m_axis[mid];
+            double delta = p[axis] - m_coords[mid * m_dims + axis];
+            if (delta <= radius) {
+                m_stack[top++] = lo;
+                m_stack[top++] = mid;
+            }
+            if (delta >= -radius) {
+                m_stack[top++] = mid + 1;
+                m_stack[top++] = hi;
+            }
+        }
+        return found;
+    }
+
+    /** Squared distance from p to the point at tree position i. */
+    private double distance2(double[] p, int i) {
+        int k = i * m_dims;
+        double sum = 0;
+        for (int d = 0; d < m_dims; ++d) {
+            double delta = p[d] - m_coords[k + d];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    /** Arranges m_index[lo, hi) into a subtree, splitting on the widest axis. */
+    private void build(double[][] points, int lo, int hi) {
+        if (hi - lo <= kLeaf)
+            return;
+        int axis = widest(points, lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(points, axis, lo, hi - 1, mid);
+        m_axis[mid] = (byte) axis;
+        build(points, lo, mid);
+        build(points, mid + 1, hi);
+    }
+
+    private int widest(double[][] points, int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int d = 0; d < m_dims; ++d) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; ++i) {
+                double x = points[m_index[i]][d];
+                min = Math.min(min, x);
+                max = Math.max(max, x);
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    /** Quickselect on m_index[left, right] so that k is in sorted position. */
+    private void select(double[][] points, int axis, int left, int right, int k) {
+        while (right > left) {
+            double pivot = points[m_index[(left + right) >>> 1]][axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[m_index[i]][axis] < pivot)
+                    i++;
+                while (points[m_index[j]][axis] > pivot)
+                    j--;
+                if (i <= j) {
+                    int tmp = m_index[i];
+                    m_index[i] = m_index[j];
+                    m_index[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.team100.lib.interpolation;
+
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * Radial basis function interpolation for scattered samples, using a basis
+ * with compact support, so each lookup only touches the nearby centers, which
+ * a KD-tree finds.
+ *
+ * The basis is Wendland's, (1-r)^(l+1) ((l+1)r + 1) for r < 1, with l =
+ * inputs/2 + 2, which is positive definite in that many dimensions, so the
+ * fit always has a unique solution. Each input is divided by its scale, so the
+ * support is an ellipse with those radii; it should be big enough to cover a
+ * few neighboring samples, otherwise the result sags towards the mean between
+ * samples.
+ *
+ * The mean of each output is subtracted before fitting, and added back after,
+ * so far from any sample the result is the mean rather than zero.
+ *
+ * The fit is a dense solve, so it's for hundreds of samples, not millions.
+ * The lookup cost depends on how many centers are within the support, not on
+ * the total.
+ */
+public class RBFInterpolator implements Interpolator {
+    private final int m_inputs;
+    private final int m_outputs;
+    private final double[] m_scale;
+    private final double[] m_mean;
+    /** Weights, row-major, one row per center. */
+    private final double[] m_w;
+    private final KDTree m_tree;
+    private final int m_l;
+
+    // scratch
+    private final double[] m_p;
+    private final int[] m_found;
+    private final double[] m_d2;
+
+    /**
+     * @param x     sample inputs, one row per sample
+     * @param y     sample outputs, one row per sample
+     * @param scale support radius for each input
+     */
+    public RBFInterpolator(double[][] x, double[][] y, double[] scale) {
+        if (x.length == 0 || x.length != y.length)
+            throw new IllegalArgumentException("x and y must be parallel and nonempty");
+        int n = x.length;
+        m_inputs = x[0].length;
+        m_outputs = y[0].length;
+        if (scale.length != m_inputs)
+            throw new IllegalArgumentException("one scale per input");
+        m_scale = scale.clone();
+        m_l = m_inputs / 2 + 2;
+
+        double[][] scaled = new double[n][m_inputs];
+        for (int i = 0; i < n; ++i) {
+            for (int d = 0; d < m_inputs; ++d) {
+                scaled[i][d] = x[i][d] / m_scale[d];
+            }
+        }
+        m_tree = new KDTree(scaled);
+        m_p = new double[m_inputs];
+        m_found = new int[n];
+        m_d2 = new double[n];
+
+        m_mean = new double[m_outputs];
+        for (int i = 0; i < n; ++i) {
+            for (int k = 0; k < m_outputs; ++k) {
+                m_mean[k] += y[i][k] / n;
+            }
+        }
+        SimpleMatrix rhs = new SimpleMatrix(n, m_outputs);
+        for (int i = 0; i < n; ++i) {
+            for (int k = 0; k < m_outputs; ++k) {
+                rhs.set(i, k, y[i][k] - m_mean[k]);
+            }
+        }
+        // the matrix is mostly zeros; the tree finds the rest.
+        SimpleMatrix phi = new SimpleMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            int found = m_tree.within(scaled[i], 1, m_found, m_d2);
+            for (int f = 0; f < found; ++f) {
+                phi.set(i, m_found[f], basis(Math.sqrt(m_d2[f])));
+            }
+        }
+        SimpleMatrix w = phi.solve(rhs);
+        m_w = new double[n * m_outputs];
+        for (int i = 0; i < n; ++i) {
+            for (int k = 0; k < m_outputs; ++k) {
+                m_w[i * m_outputs + k] = w.get(i, k);
+            }
+        }
+    }
+
+    /** Same support radius for every input. */
+    public RBFInterpolator(double[][] x, double[][] y, double radius) {
+        this(x, y, fill(x.length == 0 ? 0 : x[0].length, radius));
+    }
+
+    @Override
+    public int inputs() {
+        return m_inputs;
+    }
+
+    @Override
+    public int outputs() {
+        return m_outputs;
+    }
+
+    @Override
+    public void get(double[] point, double[] out) {
+        for (int d = 0; d < m_inputs; ++d) {
+            m_p[d] = point[d] / m_scale[d];
+        }
+        for (int k = 0; k < m_outputs; ++k) {
+            out[k] = m_mean[k];
+        }
+        int found = m_tree.within(m_p, 1, m_found, m_d2);
+        for (int f = 0; f < found; ++f) {
+            int i = m_found[f];
+            double phi = basis(Math.sqrt(m_d2[f]));
+            for (int k = 0; k < m_outputs; ++k) {
+                out[k] += phi * m_w[i * m_outputs + k];
+            }
+        }
+    }
+
+    /** Wendland basis, see above. Uses multiplication, not Math.pow. */
+    double basis(double r) {
+        if (r >= 1)
+            return 0;
+        double a = 1 - r;
+        double p = a;
+        for (int i = 0; i < m_l; ++i) {
+            p *= a;
+        }
+        return p * ((m_l + 1) * r + 1);
+    }
+
+    private static double[] fill(int n, double x) {
+        double[] result = new double[n];
+        for (int i = 0; i < n; ++i) {
+            result[i] = x;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,234 @@
+package org.team100.lib.localization;
+
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePositions;
+
+/**
+ * Fixed-capacity ring buffer of estimator states, sorted by time, stored as
+ * primitive columns.
+ *
+ * Each entry also remembers the field-relative translation that odometry
+ * contributed since the previous entry. That increment depends only on the
+ * wheel positions and the (gyro-derived) headings of the two entries, so when a
+ * vision update moves an earlier entry, the entries after it can be replayed by
+ * summing increments, without redoing the kinematics.
+ *
+ * Indices are logical, i.e. zero is the oldest entry. This is not thread-safe.
+ */
+final class OdometryHistory {
+    private final int m_mask;
+    private final double[] m_t;
+    private final double[] m_x;
+    private final double[] m_y;
+    private final double[] m_theta;
+    private final double[] m_vx;
+    private final double[] m_vy;
+    private final double[] m_omega;
+    /** Odometry translation from the previous entry, field-relative. */
+    private final double[] m_dx;
+    private final double[] m_dy;
+    private final SwerveModulePositions[] m_wheels;
+    /** Physical index of the oldest entry. */
+    private int m_head;
+    private int m_size;
+
+    /** Capacity is rounded up to a power of two. */
+    OdometryHistory(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        m_mask = n - 1;
+        m_t = new double[n];
+        m_x = new double[n];
+        m_y = new double[n];
+        m_theta = new double[n];
+        m_vx = new double[n];
+        m_vy = new double[n];
+        m_omega = new double[n];
+        m_dx = new double[n];
+        m_dy = new double[n];
+        m_wheels = new SwerveModulePositions[n];
+    }
+
+    int size() {
+        return m_size;
+    }
+
+    int capacity() {
+        return m_mask + 1;
+    }
+
+    void clear() {
+        for (int i = 0; i < m_size; ++i) {
+            m_wheels[p(i)] = null;
+        }
+        m_head = 0;
+        m_size = 0;
+    }
+
+    double time(int i) {
+        return m_t[p(i)];
+    }
+
+    double newestTime() {
+        return m_t[p(m_size - 1)];
+    }
+
+    double x(int i) {
+        return m_x[p(i)];
+    }
+
+    double y(int i) {
+        return m_y[p(i)];
+    }
+
+    double theta(int i) {
+        return m_theta[p(i)];
+    }
+
+    double vx(int i) {
+        return m_vx[p(i)];
+    }
+
+    double vy(int i) {
+        return m_vy[p(i)];
+    }
+
+    double omega(int i) {
+        return m_omega[p(i)];
+    }
+
+    double dx(int i) {
+        return m_dx[p(i)];
+    }
+
+    double dy(int i) {
+        return m_dy[p(i)];
+    }
+
+    SwerveModulePositions wheels(int i) {
+        return m_wheels[p(i)];
+    }
+
+    void setIncrement(int i, double dx, double dy) {
+        int j = p(i);
+        m_dx[j] = dx;
+        m_dy[j] = dy;
+    }
+
+    void setTranslation(int i, double x, double y, double vx, double vy) {
+        int j = p(i);
+        m_x[j] = x;
+        m_y[j] = y;
+        m_vx[j] = vx;
+        m_vy[j] = vy;
+    }
+
+    /** Index of the latest entry at or before t, or -1 if none. */
+    int floorIndex(double t) {
+        return ceilingIndex(t, false) - 1;
+    }
+
+    /** Index of the latest entry strictly before t, or -1 if none. */
+    int lowerIndex(double t) {
+        return ceilingIndex(t, true) - 1;
+    }
+
+    /**
+     * Replaces the entry at t, or inserts a new one in order. If the buffer is
+     * full, the oldest entry is dropped to make room.
+     *
+     * @return the index of the entry, or -1 if it would have been the oldest
+     *         entry in a full buffer.
+     */
+    int put(
+            double t,
+            double x,
+            double y,
+            double theta,
+            double vx,
+            double vy,
+            double omega,
+            double dx,
+            double dy,
+            SwerveModulePositions wheels) {
+        int i = ceilingIndex(t, true);
+        if (i == m_size || m_t[p(i)] != t) {
+            // not a replacement, so make room
+            if (m_size == capacity()) {
+                if (i == 0)
+                    return -1;
+                dropOldest();
+                --i;
+            }
+            for (int k = m_size; k > i; --k) {
+                copy(p(k - 1), p(k));
+            }
+            ++m_size;
+        }
+        int j = p(i);
+        m_t[j] = t;
+        m_x[j] = x;
+        m_y[j] = y;
+        m_theta[j] = theta;
+        m_vx[j] = vx;
+        m_vy[j] = vy;
+        m_omega[j] = omega;
+        m_dx[j] = dx;
+        m_dy[j] = dy;
+        m_wheels[j] = wheels;
+        return i;
+    }
+
+    /**
+     * Remove entries at least historyS older than the newest one. The newest
+     * one is always kept.
+     */
+    void trim(double historyS) {
+        double newest = newestTime();
+        while (m_size > 1 && newest - m_t[m_head] >= historyS) {
+            dropOldest();
+        }
+    }
+
+    ///////////////////////////////////////
+
+    private int p(int i) {
+        return (m_head + i) & m_mask;
+    }
+
+    private void dropOldest() {
+        m_wheels[m_head] = null;
+        m_head = (m_head + 1) & m_mask;
+        --m_size;
+    }
+
+    /**
+     * Binary search for the first index with time >= t (if inclusive) or > t (if
+     * not), or size if none.
+     */
+    private int ceilingIndex(double t, boolean inclusive) {
+        int lo = 0;
+        int hi = m_size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double tm = m_t[p(mid)];
+            if (inclusive ? tm < t : tm <= t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void copy(int from, int to) {
+        m_t[to] = m_t[from];
+        m_x[to] = m_x[from];
+        m_y[to] = m_y[from];
+        m_theta[to] = m_theta[from];
+        m_vx[to] = m_vx[from];
+        m_vy[to] = m_vy[from];
+        m_omega[to] = m_omega[from];
+        m_dx[to] = m_dx[from];
+        m_dy[to] = m_dy[from];
+        m_wheels[to] = m_wheels[from];
+    }
+}
@@ -1,32 +1,62 @@
 package org.team100.lib.localization;
 
-import java.util.Map;
-import java.util.Map.Entry;
-
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
 import org.team100.lib.logging.LoggerFactory.DoubleLogger;
 import org.team100.lib.logging.LoggerFactory.Rotation2dLogger;
 import org.team100.lib.motion.drivetrain.SwerveModel;
-import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeDelta;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
-import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleDeltas;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePositions;
 import org.team100.lib.sensors.Gyro;
 import org.team100.lib.util.DriveUtil;
 import org.team100.lib.util.Util;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Twist2d;
 
+/**
+ * Combines odometry (wheels and gyro) with vision updates.
+ * 
+ * History is kept in a ring buffer of primitive columns. Vision updates are
+ * queued as they arrive, and applied together, in time order, the next time
+ * anyone asks for an estimate or supplies odometry, so all the tags from a
+ * camera frame (or from several cameras) cost one replay pass.
+ * 
+ * Replay is cheap: the gyro fixes the heading of every entry after a
+ * correction, so the correction moves all of them by the same translation, and
+ * replay is just summing the saved odometry increments. Only the entry
+ * immediately after each correction needs the kinematics.
+ */
 public class SwerveDrivePoseEstimator100 implements PoseEstimator100, Glassy {
     private static final double kBufferDuration = 1.5;
+    /** Enough for 250 Hz odometry plus a few cameras, for kBufferDuration. */
+    private static final int kHistoryCapacity = 1024;
+    /** Vision updates waiting for the next replay. */
+    private static final int kMaxPending = 64;
 
     private final SwerveKinodynamics m_kinodynamics;
-    private final TimeInterpolatableBuffer100<InterpolationRecord> m_poseBuffer;
+    private final OdometryHistory m_history;
+
+    // pending vision updates: time, measurement, and gain
+    private final double[] m_pendingT = new double[kMaxPending];
+    private final double[] m_pendingX = new double[kMaxPending];
+    private final double[] m_pendingY = new double[kMaxPending];
+    private final double[] m_pendingTheta = new double[kMaxPending];
+    private final double[] m_pendingKx = new double[kMaxPending];
+    private final double[] m_pendingKy = new double[kMaxPending];
+    private final double[] m_pendingKtheta = new double[kMaxPending];
+    /** Pending indices, in time order. */
+    private final int[] m_order = new int[kMaxPending];
+    private int m_pendingCount;
+
+    // output of increment()
+    private double m_incX;
+    private double m_incY;
+
     // LOGGERS
     private final Rotation2dLogger m_log_offset;
     private final DoubleLogger m_log_pose_x;
@@ -53,16 +83,14 @@ public class SwerveDrivePoseEstimator100 implements PoseEstimator100, Glassy {
             double timestampSeconds) {
         LoggerFactory child = parent.child(this);
         m_kinodynamics = kinodynamics;
-        m_poseBuffer = new TimeInterpolatableBuffer100<>(
-                child,
-                kBufferDuration,
+        m_history = new OdometryHistory(kHistoryCapacity);
+        m_history.put(
                 timestampSeconds,
-                new InterpolationRecord(
-                        m_kinodynamics.getKinematics(),
-                        new SwerveModel(
-                                initialPoseMeters,
-                                new FieldRelativeVelocity(0, 0, 0)),
-                        modulePositions));
+                initialPoseMeters.getX(),
+                initialPoseMeters.getY(),
+                initialPoseMeters.getRotation().getRadians(),
+                0, 0, 0, 0, 0,
+                new SwerveModulePositions(modulePositions));
         Rotation2d gyroAngle = gyro.getYawNWU();
         m_gyroOffset = initialPoseMeters.getRotation().minus(gyroAngle);
         m_log_offset = child.rotation2dLogger(Level.TRACE, "GYRO OFFSET");
@@ -74,8 +102,13 @@ public class SwerveDrivePoseEstimator100 implements PoseEstimator100, Glassy {
      */
     @Override
     public SwerveModel get(double timestampSeconds) {
-        // System.out.println("SwerveDrivePoseEstimator.get() " + timestampSeconds);
-        return m_poseBuffer.get(timestampSeconds).m_state;
+        replay();
+        int i = m_history.floorIndex(timestampSeconds);
+        if (i < 0)
+            return model(0);
+        if (m_history.time(i) == timestampSeconds || i == m_history.size() - 1)
+            return model(i);
+        return interpolate(i, timestampSeconds).m_state;
     }
 
     /** Empty the buffer and add the given measurements. */
@@ -88,19 +121,22 @@ public class SwerveDrivePoseEstimator100 implements PoseEstimator100, Glassy {
         m_gyroOffset = pose.getRotation().minus(gyroAngle);
 
         // empty the buffer and add the current pose
-        m_poseBuffer.reset(
+        m_pendingCount = 0;
+        m_history.clear();
+        m_history.put(
                 timestampSeconds,
-                new InterpolationRecord(
-                        m_kinodynamics.getKinematics(),
-                        new SwerveModel(pose, new FieldRelativeVelocity(0, 0, 0)),
-                        modulePositions));
+                pose.getX(),
+                pose.getY(),
+                pose.getRotation().getRadians(),
+                0, 0, 0, 0, 0,
+                new SwerveModulePositions(modulePositions));
 
         m_log_offset.log(() -> m_gyroOffset);
     }
 
     /**
-     * Put a new state estimate based on the supplied pose. If not current,
-     * subsequent wheel updates are replayed.
+     * Queue a new state estimate based on the supplied pose. It's applied, and
+     * subsequent wheel updates are replayed, the next time the estimate is used.
      */
     @Override
     public void put(
@@ -109,66 +145,23 @@ public class SwerveDrivePoseEstimator100 implements PoseEstimator100, Glassy {
             double[] stateSigma,
             double[] visionSigma) {
 
-        // discount the vision update by this factor.
-        final double[] k = new double[] {
-                mix(Math.pow(stateSigma[0], 2), Math.pow(visionSigma[0], 2)),
-                mix(Math.pow(stateSigma[1], 2), Math.pow(visionSigma[1], 2)),
-                mix(Math.pow(stateSigma[2], 2), Math.pow(visionSigma[2], 2)) };
-
-        // Step 0: If this measurement is old enough to be outside the pose buffer's
+        // If this measurement is old enough to be outside the pose buffer's
         // timespan, skip.
-
-        if (m_poseBuffer.tooOld(timestampS)) {
+        if (timestampS < m_history.newestTime() - kBufferDuration) {
             return;
         }
-
-        // Step 1: Get the pose odometry measured at the moment the vision measurement
-        // was made.
-        InterpolationRecord sample = m_poseBuffer.get(timestampS);
-
-        // Step 2: Measure the twist between the odometry pose and the vision pose.
-        Pose2d pose = sample.m_state.pose();
-        Twist2d twist = pose.log(measurement);
-
-        // Step 3: We should not trust the twist entirely, so instead we scale this
-        // twist by a Kalman gain matrix representing how much we trust vision
-        // measurements compared to our current pose.
-        // Matrix<N3, N1> k_times_twist = m_visionK.times(VecBuilder.fill(twist.dx,
-        // twist.dy, twist.dtheta));
-
-        // Step 4: Convert back to Twist2d.
-        Twist2d scaledTwist = new Twist2d(
-                k[0] * twist.dx,
-                k[1] * twist.dy,
-                k[2] * twist.dtheta);
-        // Twist2d scaledTwist = new Twist2d(k_times_twist.get(0, 0),
-        // k_times_twist.get(1, 0), k_times_twist.get(2, 0));
-
-        Pose2d newPose = sample.m_state.pose().exp(scaledTwist);
-
-        // Step 6: Record the current pose to allow multiple measurements from the same
-        // timestamp
-        m_poseBuffer.put(
-                timestampS,
-                new InterpolationRecord(
-                        m_kinodynamics.getKinematics(),
-                        new SwerveModel(newPose, sample.m_state.velocity()),
-                        sample.m_wheelPositions));
-        // Step 7: Replay odometry inputs between sample time and latest recorded sample
-        // to update the pose buffer and correct odometry.
-        // note exclusive tailmap, don't need to reprocess the entry we just put there.
-        for (Map.Entry<Double, InterpolationRecord> entry : m_poseBuffer.tailMap(timestampS, false).entrySet()) {
-            double entryTimestampS = entry.getKey();
-            InterpolationRecord value = entry.getValue();
-
-            // this is what the gyro must have been given the pose and offset
-            Rotation2d entryGyroAngle = value.m_state.pose().getRotation().minus(m_gyroOffset);
-            double entryGyroRate = value.m_state.theta().v();
-            SwerveModulePositions wheelPositions = value.m_wheelPositions;
-
-            put(entryTimestampS, entryGyroAngle, entryGyroRate, wheelPositions);
+        if (m_pendingCount == kMaxPending) {
+            replay();
         }
-
+        int n = m_pendingCount++;
+        m_pendingT[n] = timestampS;
+        m_pendingX[n] = measurement.getX();
+        m_pendingY[n] = measurement.getY();
+        m_pendingTheta[n] = measurement.getRotation().getRadians();
+        // discount the vision update by this factor.
+        m_pendingKx[n] = mix(Math.pow(stateSigma[0], 2), Math.pow(visionSigma[0], 2));
+        m_pendingKy[n] = mix(Math.pow(stateSigma[1], 2), Math.pow(visionSigma[1], 2));
+        m_pendingKtheta[n] = mix(Math.pow(stateSigma[2], 2), Math.pow(visionSigma[2], 2));
     }
 
     /**
@@ -190,57 +183,214 @@ public class SwerveDrivePoseEstimator100 implements PoseEstimator100, Glassy {
             Rotation2d gyroAngle,
             double gyroRateRad_S,
             SwerveModulePositions wheelPositions) {
+        replay();
 
         // the entry right before this one, the basis for integration.
-        Entry<Double, InterpolationRecord> lowerEntry = m_poseBuffer.lowerEntry(
-                currentTimeS);
-
-        if (lowerEntry == null) {
+        if (m_history.lowerIndex(currentTimeS) < 0) {
             Util.println("lower entry is null");
             // We're at the beginning. There's nothing to apply the wheel position delta to.
             // This should never happen.
             return;
         }
 
-        double dt = currentTimeS - lowerEntry.getKey();
-        InterpolationRecord value = lowerEntry.getValue();
-        SwerveModel previousState = value.m_state;
+        // the gyro is more accurate than the odometry-derived angle.
+        Rotation2d angle = gyroAngle.plus(m_gyroOffset);
+
+        int i = m_history.put(
+                currentTimeS,
+                0, 0,
+                angle.getRadians(),
+                0, 0,
+                gyroRateRad_S,
+                0, 0,
+                new SwerveModulePositions(wheelPositions));
+        if (i < 1) {
+            // full buffer, and this is the oldest, so it's useless.
+            return;
+        }
+        // integrate odometry from the previous entry, and use the backward finite
+        // difference for velocity (keeping the gyro rate).
+        rebase(i);
+        propagate(i, i);
+        // normally this is the newest entry, but if not, the next one depends on it.
+        if (i + 1 < m_history.size())
+            rebase(i + 1);
+        m_history.trim(kBufferDuration);
+
+        double x = m_history.x(m_history.size() - 1);
+        m_log_pose_x.log(x);
+    }
 
-        SwerveModuleDeltas modulePositionDelta = DriveUtil.modulePositionDelta(
-                value.m_wheelPositions,
-                wheelPositions);
+    ///////////////////////////////////////
 
-        Twist2d twist = m_kinodynamics.getKinematics().toTwist2d(modulePositionDelta);
+    /**
+     * Apply the pending vision updates, in time order, and replay odometry after
+     * them.
+     */
+    private void replay() {
+        if (m_pendingCount == 0)
+            return;
+        sortPending();
+        // entries at and after this index are waiting for replay
+        int stale = m_history.size();
+        for (int j = 0; j < m_pendingCount; ++j) {
+            int n = m_order[j];
+            double t = m_pendingT[n];
+
+            // bring the bracketing entries up to date before sampling
+            int ceiling = Math.min(m_history.lowerIndex(t) + 1, m_history.size() - 1);
+            propagate(stale, ceiling);
+            stale = Math.max(stale, ceiling + 1);
+
+            // Get the pose odometry measured at the moment the vision measurement
+            // was made.
+            InterpolationRecord sample = sample(t);
+
+            // Measure the twist between the odometry pose and the vision pose.
+            Pose2d pose = sample.m_state.pose();
+            Twist2d twist = pose.log(
+                    new Pose2d(m_pendingX[n], m_pendingY[n], new Rotation2d(m_pendingTheta[n])));
+
+            // We should not trust the twist entirely, so instead we scale this
+            // twist by a Kalman gain representing how much we trust vision
+            // measurements compared to our current pose.
+            Twist2d scaledTwist = new Twist2d(
+                    m_pendingKx[n] * twist.dx,
+                    m_pendingKy[n] * twist.dy,
+                    m_pendingKtheta[n] * twist.dtheta);
+            Pose2d newPose = pose.exp(scaledTwist);
+
+            // Record the corrected pose to allow multiple measurements from the same
+            // timestamp
+            FieldRelativeVelocity velocity = sample.m_state.velocity();
+            int i = m_history.put(
+                    t,
+                    newPose.getX(),
+                    newPose.getY(),
+                    newPose.getRotation().getRadians(),
+                    velocity.x(),
+                    velocity.y(),
+                    velocity.theta(),
+                    0, 0,
+                    sample.m_wheelPositions);
+            if (i < 0)
+                continue;
+            // if replay reaches this entry, it's treated as odometry.
+            if (i > 0)
+                rebase(i);
+            // everything after this entry moves with it
+            if (i + 1 < m_history.size()) {
+                rebase(i + 1);
+                stale = i + 1;
+            } else {
+                stale = m_history.size();
+            }
+        }
+        propagate(stale, m_history.size() - 1);
+        m_pendingCount = 0;
+    }
 
-        // replace the twist dtheta with one derived from the current pose
-        // pose angle based on the gyro (which is more accurate)
+    /** Insertion sort of the pending indices, stable for equal times. */
+    private void sortPending() {
+        for (int j = 0; j < m_pendingCount; ++j) {
+            int n = j;
+            int k = j - 1;
+            while (k >= 0 && m_pendingT[m_order[k]] > m_pendingT[n]) {
+                m_order[k + 1] = m_order[k];
+                --k;
+            }
+            m_order[k + 1] = n;
+        }
+    }
 
-        Rotation2d angle = gyroAngle.plus(m_gyroOffset);
-        twist.dtheta = angle.minus(previousState.pose().getRotation()).getRadians();
+    /**
+     * Replay entries from..to, inclusive, by adding each odometry increment to
+     * the previous pose. The heading (from the gyro) and the gyro rate are
+     * unchanged. This doesn't allocate anything.
+     */
+    private void propagate(int from, int to) {
+        for (int k = Math.max(from, 1); k <= to; ++k) {
+            double dt = m_history.time(k) - m_history.time(k - 1);
+            double dx = m_history.dx(k);
+            double dy = m_history.dy(k);
+            m_history.setTranslation(
+                    k,
+                    m_history.x(k - 1) + dx,
+                    m_history.y(k - 1) + dy,
+                    dx / dt,
+                    dy / dt);
+        }
+    }
 
-        Pose2d newPose = previousState.pose().exp(twist);
-        m_log_pose_x.log(newPose::getX);
+    /**
+     * Recompute the odometry increment of entry k, from the wheel positions and
+     * the heading of entry k-1. This is where the kinematics happens.
+     */
+    private void rebase(int k) {
+        Twist2d twist = m_kinodynamics.getKinematics().toTwist2d(
+                DriveUtil.modulePositionDelta(
+                        m_history.wheels(k - 1),
+                        m_history.wheels(k)));
+        double theta0 = m_history.theta(k - 1);
+        // replace the twist dtheta with one derived from the gyro
+        double dtheta = MathUtil.angleModulus(m_history.theta(k) - theta0);
+        increment(theta0, twist.dx, twist.dy, dtheta);
+        m_history.setIncrement(k, m_incX, m_incY);
+    }
 
-        // this is the backward finite difference velocity from odometry
-        FieldRelativeDelta odoVelo = FieldRelativeDelta.delta(
-                previousState.pose(), newPose)
-                .div(dt);
+    /**
+     * The field-relative translation part of Pose2d.exp(), from a pose with
+     * heading theta0, written to m_incX and m_incY.
+     */
+    private void increment(double theta0, double dx, double dy, double dtheta) {
+        double sinTheta = Math.sin(dtheta);
+        double cosTheta = Math.cos(dtheta);
+        double s;
+        double c;
+        if (Math.abs(dtheta) < 1E-9) {
+            s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+            c = 0.5 * dtheta;
+        } else {
+            s = sinTheta / dtheta;
+            c = (1 - cosTheta) / dtheta;
+        }
+        double localX = dx * s - dy * c;
+        double localY = dx * c + dy * s;
+        double cos0 = Math.cos(theta0);
+        double sin0 = Math.sin(theta0);
+        m_incX = localX * cos0 - localY * sin0;
+        m_incY = localX * sin0 + localY * cos0;
+    }
 
-        // use the gyro rate instead of the odometry-derived rate
-        FieldRelativeVelocity velocity = new FieldRelativeVelocity(
-                odoVelo.getX(),
-                odoVelo.getY(),
-                gyroRateRad_S);
+    private SwerveModel model(int i) {
+        return new SwerveModel(
+                new Pose2d(m_history.x(i), m_history.y(i), new Rotation2d(m_history.theta(i))),
+                new FieldRelativeVelocity(m_history.vx(i), m_history.vy(i), m_history.omega(i)));
+    }
 
-        SwerveModel swerveState = new SwerveModel(newPose, velocity);
+    private InterpolationRecord record(int i) {
+        return new InterpolationRecord(
+                m_kinodynamics.getKinematics(),
+                model(i),
+                m_history.wheels(i));
+    }
 
-        m_poseBuffer.put(
-                currentTimeS,
-                new InterpolationRecord(
-                        m_kinodynamics.getKinematics(), swerveState, wheelPositions));
+    /** The record at time t, interpolated if necessary. */
+    private InterpolationRecord sample(double t) {
+        int i = m_history.floorIndex(t);
+        if (i < 0)
+            return record(0);
+        if (m_history.time(i) == t || i == m_history.size() - 1)
+            return record(i);
+        return interpolate(i, t);
     }
 
-    ///////////////////////////////////////
+    /** Interpolate between entries i and i+1. */
+    private InterpolationRecord interpolate(int i, double t) {
+        double t0 = m_history.time(i);
+        double t1 = m_history.time(i + 1);
+        return record(i).interpolate(record(i + 1), (t - t0) / (t1 - t0));
+    }
 
     /**
      * Given q and r stddev's, what mixture should that yield?
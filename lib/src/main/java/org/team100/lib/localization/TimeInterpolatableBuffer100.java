@@ -1,11 +1,10 @@
 package org.team100.lib.localization;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Map.Entry;
-import java.util.NavigableMap;
 import java.util.SortedMap;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
 
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.logging.Level;
@@ -17,30 +16,55 @@ import edu.wpi.first.math.interpolation.Interpolatable;
 
 /**
  * Uses an Interpolator to provide interpolated sampling with a history limit.
- * 
+ *
  * The buffer is never empty, so get() always returns *something*.
+ *
+ * Entries are kept in a fixed-capacity ring buffer, sorted by time, with the
+ * timestamps in a primitive array, so lookup is a binary search with no boxing.
+ * Inserts are usually at the end; out-of-order inserts shift the newer entries
+ * in place. If the buffer fills up, the oldest entry is dropped.
+ *
+ * Reads are optimistic: they don't block writers, and they retry under the read
+ * lock only if a write happened in the middle.
  */
 public final class TimeInterpolatableBuffer100<T extends Interpolatable<T>> implements Glassy {
+    /** Enough for 250 Hz for a few seconds. */
+    private static final int kDefaultCapacity = 1024;
+
     private final double m_historyS;
-    private final NavigableMap<Double, T> m_pastSnapshots = new ConcurrentSkipListMap<>();
+    private final int m_mask;
+    private final double[] m_times;
+    private final Object[] m_values;
+    private final StampedLock m_lock = new StampedLock();
+    /** Physical index of the oldest entry. */
+    private int m_head;
+    private int m_size;
 
-    /**
-     * We allow concurrent operations on the map, with one exception: when we want
-     * two reads to be consistent with each other. For this purpose we use a
-     * read-write lock with the semantics inverted: it's the double-read operation
-     * that takes the "write" (exclusive) lock, and the write operations take the
-     * "read" (non-exclusive) lock.
-     */
-    private final ReadWriteLock m_lock = new ReentrantReadWriteLock();
     private final StringLogger m_log_bottom;
     private final StringLogger m_log_top;
     private final DoubleLogger m_log_lerpTime;
 
     public TimeInterpolatableBuffer100(LoggerFactory parent, double historyS, double timeS, T initialValue) {
+        this(parent, historyS, timeS, initialValue, kDefaultCapacity);
+    }
+
+    /** Capacity is rounded up to a power of two. */
+    public TimeInterpolatableBuffer100(
+            LoggerFactory parent,
+            double historyS,
+            double timeS,
+            T initialValue,
+            int capacity) {
         LoggerFactory child = parent.child(this);
         m_historyS = historyS;
+        int n = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        m_mask = n - 1;
+        m_times = new double[n];
+        m_values = new Object[n];
         // no lock needed in constructor
-        m_pastSnapshots.put(timeS, initialValue);
+        m_times[0] = timeS;
+        m_values[0] = initialValue;
+        m_size = 1;
         m_log_bottom = child.stringLogger(Level.TRACE, "bottom");
         m_log_top = child.stringLogger(Level.TRACE, "top");
         m_log_lerpTime = child.doubleLogger(Level.TRACE, "lerptime");
@@ -50,23 +74,18 @@ public final class TimeInterpolatableBuffer100<T extends Interpolatable<T>> impl
      * Remove stale entries and add the new one.
      */
     public void put(double timeS, T value) {
-        // System.out.println("TimeInterpolatableBuffer.put() " + timeS + " value " +
-        // value);
+        long stamp = m_lock.writeLock();
         try {
-            // wait for in-progress double-reads
-            m_lock.readLock().lock();
-            while (!m_pastSnapshots.isEmpty()) {
-                Entry<Double, T> oldest = m_pastSnapshots.firstEntry();
-                Double oldestTimeS = oldest.getKey();
-                double oldestAgeS = timeS - oldestTimeS;
+            while (m_size > 0) {
+                double oldestAgeS = timeS - m_times[m_head];
                 // if oldest is younger than the history limit, we're done
                 if (oldestAgeS < m_historyS)
                     break;
-                m_pastSnapshots.remove(oldestTimeS);
+                dropOldest();
             }
-            m_pastSnapshots.put(timeS, value);
+            insert(timeS, value);
         } finally {
-            m_lock.readLock().unlock();
+            m_lock.unlockWrite(stamp);
         }
     }
 
@@ -74,89 +93,205 @@ public final class TimeInterpolatableBuffer100<T extends Interpolatable<T>> impl
      * Remove all entries and add the new one.
      */
     public void reset(double timeS, T value) {
-        // System.out.println("TimeInterpolatableBuffer100.reset() " + timeS + " value "
-        // + value);
+        long stamp = m_lock.writeLock();
         try {
-            // wait for in-progress double-reads
-            m_lock.readLock().lock();
-            m_pastSnapshots.clear();
-            m_pastSnapshots.put(timeS, value);
+            while (m_size > 0) {
+                dropOldest();
+            }
+            m_head = 0;
+            insert(timeS, value);
         } finally {
-            m_lock.readLock().unlock();
+            m_lock.unlockWrite(stamp);
         }
     }
 
     /**
      * Sample the buffer at the given time.
      */
+    @SuppressWarnings("unchecked")
     public T get(double timeSeconds) {
-        // System.out.println("TimeInterpolatableBuffer100.timeSeconds() " +
-        // timeSeconds);
+        double bottomTime = 0;
+        double topTime = 0;
+        Object bottomValue = null;
+        Object topValue = null;
+        // the bounds should be consistent with each other, so if a write
+        // happened while reading them, read them again under the lock.
+        long stamp = m_lock.tryOptimisticRead();
+        for (boolean locked = false;; locked = true) {
+            if (locked)
+                stamp = m_lock.readLock();
+            try {
+                int head = m_head;
+                int size = m_size;
+                int i = ceilingIndex(timeSeconds, head, size, true);
+                if (i < size) {
+                    topTime = m_times[(head + i) & m_mask];
+                    topValue = m_values[(head + i) & m_mask];
+                } else {
+                    topValue = null;
+                }
+                if (i > 0) {
+                    bottomTime = m_times[(head + i - 1) & m_mask];
+                    bottomValue = m_values[(head + i - 1) & m_mask];
+                } else {
+                    bottomValue = null;
+                }
+            } finally {
+                if (locked)
+                    m_lock.unlockRead(stamp);
+            }
+            if (locked || m_lock.validate(stamp))
+                break;
+        }
+
         // Special case for when the requested time is the same as a sample
-        T nowEntry = m_pastSnapshots.get(timeSeconds);
-        if (nowEntry != null) {
-            // System.out.println("now " + nowEntry);
+        if (topValue != null && topTime == timeSeconds) {
             m_log_lerpTime.log(() -> 0.0);
-            return nowEntry;
-        }
-        Entry<Double, T> topBound = null;
-        Entry<Double, T> bottomBound = null;
-        try {
-            // this pair should be consistent, so prohibit writes briefly.
-            m_lock.writeLock().lock();
-            topBound = m_pastSnapshots.ceilingEntry(timeSeconds);
-            bottomBound = m_pastSnapshots.floorEntry(timeSeconds);
-        } finally {
-            m_lock.writeLock().unlock();
+            return (T) topValue;
         }
         // Return the opposite bound if the other is null
-        if (topBound == null) {
-            String bottomValue = bottomBound.getValue().toString();
-            m_log_bottom.log(() -> bottomValue);
-            // System.out.println("bottom " + bottomValue);
+        if (topValue == null) {
+            final T bottom = (T) bottomValue;
+            m_log_bottom.log(bottom::toString);
             m_log_lerpTime.log(() -> 0.0);
-            return bottomBound.getValue();
+            return bottom;
         }
-        if (bottomBound == null) {
-            String topValue = topBound.getValue().toString();
-            m_log_top.log(() -> topValue);
-            // System.out.println("top " + topValue);
+        if (bottomValue == null) {
+            final T top = (T) topValue;
+            m_log_top.log(top::toString);
             m_log_lerpTime.log(() -> 1.0);
-            return topBound.getValue();
+            return top;
         }
 
         // If both bounds exist, interpolate between them.
         // Because T is between [0, 1], we want the ratio of
         // (the difference between the current time and bottom bound) and (the
         // difference between top and bottom bounds).
-
-        String bottomValue = bottomBound.getValue().toString();
-        m_log_bottom.log(() -> bottomValue);
-        String topValue = topBound.getValue().toString();
-        m_log_top.log(() -> topValue);
-        double timeSinceBottom = timeSeconds - bottomBound.getKey();
-        double timeSpan = topBound.getKey() - bottomBound.getKey();
+        final T bottom = (T) bottomValue;
+        final T top = (T) topValue;
+        m_log_bottom.log(bottom::toString);
+        m_log_top.log(top::toString);
+        double timeSinceBottom = timeSeconds - bottomTime;
+        double timeSpan = topTime - bottomTime;
         double timeFraction = timeSinceBottom / timeSpan;
-        m_log_lerpTime.log(() -> timeFraction);
-        return bottomBound.getValue().interpolate(topBound.getValue(), timeFraction);
+        m_log_lerpTime.log(timeFraction);
+        return bottom.interpolate(top, timeFraction);
     }
 
+    /**
+     * Entries after t (or at t, if inclusive), in time order. This is a copy, not
+     * a view, so it's safe to put() while iterating.
+     */
+    @SuppressWarnings("unchecked")
     public SortedMap<Double, T> tailMap(double t, boolean inclusive) {
-        return m_pastSnapshots.tailMap(t, inclusive);
+        SortedMap<Double, T> result = new TreeMap<>();
+        long stamp = m_lock.readLock();
+        try {
+            for (int i = ceilingIndex(t, m_head, m_size, inclusive); i < m_size; ++i) {
+                result.put(m_times[p(i)], (T) m_values[p(i)]);
+            }
+        } finally {
+            m_lock.unlockRead(stamp);
+        }
+        return result;
     }
 
     /** True if the timestamp is older than the history window. */
     boolean tooOld(double timestampS) {
-        Double newestSeenS = m_pastSnapshots.lastKey();
+        long stamp = m_lock.tryOptimisticRead();
+        double newestSeenS = m_times[p(m_size - 1)];
+        if (!m_lock.validate(stamp)) {
+            stamp = m_lock.readLock();
+            try {
+                newestSeenS = m_times[p(m_size - 1)];
+            } finally {
+                m_lock.unlockRead(stamp);
+            }
+        }
         double oldestAcceptableS = newestSeenS - m_historyS;
         return timestampS < oldestAcceptableS;
     }
 
+    /** The latest entry strictly before t, or null. */
+    @SuppressWarnings("unchecked")
     public Entry<Double, T> lowerEntry(double t) {
-        return m_pastSnapshots.lowerEntry(t);
+        long stamp = m_lock.readLock();
+        try {
+            int i = ceilingIndex(t, m_head, m_size, true) - 1;
+            if (i < 0)
+                return null;
+            return new SimpleImmutableEntry<>(m_times[p(i)], (T) m_values[p(i)]);
+        } finally {
+            m_lock.unlockRead(stamp);
+        }
     }
 
-    public Entry<Double, T> ceilingEntry(double arg0) {
-        return m_pastSnapshots.ceilingEntry(arg0);
+    /** The earliest entry at or after t, or null. */
+    @SuppressWarnings("unchecked")
+    public Entry<Double, T> ceilingEntry(double t) {
+        long stamp = m_lock.readLock();
+        try {
+            int i = ceilingIndex(t, m_head, m_size, true);
+            if (i >= m_size)
+                return null;
+            return new SimpleImmutableEntry<>(m_times[p(i)], (T) m_values[p(i)]);
+        } finally {
+            m_lock.unlockRead(stamp);
+        }
+    }
+
+    ///////////////////////////////////////
+
+    private int p(int i) {
+        return (m_head + i) & m_mask;
+    }
+
+    /** Caller must hold the write lock. */
+    private void dropOldest() {
+        m_values[m_head] = null;
+        m_head = (m_head + 1) & m_mask;
+        --m_size;
+    }
+
+    /** Replace or insert in order. Caller must hold the write lock. */
+    private void insert(double timeS, T value) {
+        int i = ceilingIndex(timeS, m_head, m_size, true);
+        if (i < m_size && m_times[p(i)] == timeS) {
+            m_values[p(i)] = value;
+            return;
+        }
+        if (m_size == m_mask + 1) {
+            // full, and this would be the oldest, so ignore it.
+            if (i == 0)
+                return;
+            dropOldest();
+            --i;
+        }
+        for (int k = m_size; k > i; --k) {
+            m_times[p(k)] = m_times[p(k - 1)];
+            m_values[p(k)] = m_values[p(k - 1)];
+        }
+        m_times[p(i)] = timeS;
+        m_values[p(i)] = value;
+        ++m_size;
+    }
+
+    /**
+     * First index with time >= t (if inclusive) or > t (if not), or size if
+     * none.
+     */
+    private int ceilingIndex(double t, int head, int size, boolean inclusive) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double tm = m_times[(head + mid) & m_mask];
+            if (inclusive ? tm < t : tm <= t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
     }
-}
\ No newline at end of file
+}
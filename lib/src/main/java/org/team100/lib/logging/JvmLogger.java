@@ -53,10 +53,8 @@ public class JvmLogger implements Glassy {
             accumTime += thisTime;
             accumCount += thisCount;
         }
-        long finalAccumTime = accumTime;
-        long finalAccumCount = accumCount;
-        m_log_gc_time.log(() -> finalAccumTime);
-        m_log_gc_count.log(() -> finalAccumCount);
+        m_log_gc_time.log(accumTime);
+        m_log_gc_count.log(accumCount);
     }
 
     public void logMemoryPools() {
@@ -65,8 +63,7 @@ public class JvmLogger implements Glassy {
             MemoryUsage usage = bean.getUsage();
             accumUsage += usage.getUsed();
         }
-        long finalAccumUsage = accumUsage;
-        m_log_memory_total.log(() -> finalAccumUsage);
+        m_log_memory_total.log(accumUsage);
     }
 
     public void logMemoryUsage() {
@@ -2,6 +2,7 @@ package org.team100.lib.logging;
 
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 import java.util.function.IntSupplier;
@@ -85,6 +86,22 @@ public class LoggerFactory {
         return child(obj.getGlassName());
     }
 
+    /**
+     * Each value logger caches its level check, and rechecks only when this
+     * changes, so a disabled logger costs one field comparison, and the level
+     * supplier isn't called in the loop.
+     */
+    private static final AtomicInteger s_levelEpoch = new AtomicInteger();
+
+    /**
+     * Tell all the loggers to check their levels again. Loggers don't poll their
+     * level supplier, so whatever changes the supplier's answer must call this,
+     * e.g. {@link Logging#setLevel(Level)} does. Safe to call from any thread.
+     */
+    public static void invalidateLevels() {
+        s_levelEpoch.incrementAndGet();
+    }
+
     private boolean allow(Level level) {
         Level allowed = m_level.get();
         if (allowed == Level.COMP && level == Level.COMP) {
@@ -109,87 +126,130 @@ public class LoggerFactory {
     // logger inner classes
     //
 
-    public class BooleanLogger {
+    /** Level check, cached until the next {@link #invalidateLevels()}. */
+    abstract class Gated {
         private final Level m_level;
+        private int m_epoch;
+        private boolean m_enabled;
+
+        Gated(Level level) {
+            m_level = level;
+            m_epoch = s_levelEpoch.get();
+            m_enabled = allow(level);
+        }
+
+        /**
+         * True if this logger is currently logging. Use this to skip expensive
+         * work that only feeds the logger.
+         */
+        public boolean enabled() {
+            int epoch = s_levelEpoch.get();
+            if (epoch != m_epoch) {
+                m_enabled = allow(m_level);
+                m_epoch = epoch;
+            }
+            return m_enabled;
+        }
+    }
+
+    public class BooleanLogger extends Gated {
         private final PrimitiveLogger.PrimitiveBooleanLogger m_primitiveLogger;
 
         BooleanLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.booleanLogger(root(leaf));
         }
 
         public void log(BooleanSupplier vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             boolean val = vals.getAsBoolean();
             m_primitiveLogger.log(val);
         }
+
+        /** For values you already have; avoids allocating a lambda. */
+        public void log(boolean val) {
+            if (!enabled())
+                return;
+            m_primitiveLogger.log(val);
+        }
     }
 
     public BooleanLogger booleanLogger(Level level, String leaf) {
         return new BooleanLogger(level, leaf);
     }
 
-    public class DoubleLogger {
-        private final Level m_level;
+    public class DoubleLogger extends Gated {
         private final PrimitiveLogger.PrimitiveDoubleLogger m_primitiveLogger;
 
         DoubleLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.doubleLogger(root(leaf));
         }
 
         public void log(DoubleSupplier vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             double val = vals.getAsDouble();
             m_primitiveLogger.log(val);
         }
 
         public void log(Supplier<Double> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             double val = vals.get();
             m_primitiveLogger.log(val);
         }
+
+        /** For values you already have; avoids allocating a lambda. */
+        public void log(double val) {
+            if (!enabled())
+                return;
+            m_primitiveLogger.log(val);
+        }
     }
 
     public DoubleLogger doubleLogger(Level level, String leaf) {
         return new DoubleLogger(level, leaf);
     }
 
-    public class IntLogger {
-        private final Level m_level;
+    public class IntLogger extends Gated {
         private final PrimitiveLogger.PrimitiveIntLogger m_primitiveLogger;
 
         IntLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.intLogger(root(leaf));
         }
 
         public void log(IntSupplier vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             int val = vals.getAsInt();
             m_primitiveLogger.log(val);
         }
+
+        /** For values you already have; avoids allocating a lambda. */
+        public void log(int val) {
+            if (!enabled())
+                return;
+            m_primitiveLogger.log(val);
+        }
     }
 
     public IntLogger intLogger(Level level, String leaf) {
         return new IntLogger(level, leaf);
     }
 
-    public class DoubleArrayLogger {
-        private final Level m_level;
+    public class DoubleArrayLogger extends Gated {
         private final PrimitiveLogger.PrimitiveDoubleArrayLogger m_primitiveLogger;
 
         DoubleArrayLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.doubleArrayLogger(root(leaf));
         }
 
         public void log(Supplier<double[]> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             double[] val = vals.get();
             m_primitiveLogger.log(val);
@@ -200,38 +260,43 @@ public class LoggerFactory {
         return new DoubleArrayLogger(level, leaf);
     }
 
-    public class LongLogger {
-        private final Level m_level;
+    public class LongLogger extends Gated {
         private final PrimitiveLogger.PrimitiveLongLogger m_primitiveLogger;
 
         LongLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.longLogger(root(leaf));
         }
 
         public void log(LongSupplier vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             long val = vals.getAsLong();
             m_primitiveLogger.log(val);
         }
+
+        /** For values you already have; avoids allocating a lambda. */
+        public void log(long val) {
+            if (!enabled())
+                return;
+            m_primitiveLogger.log(val);
+        }
     }
 
     public LongLogger longLogger(Level level, String leaf) {
         return new LongLogger(level, leaf);
     }
 
-    public class StringLogger {
-        private final Level m_level;
+    public class StringLogger extends Gated {
         private final PrimitiveLogger.PrimitiveStringLogger m_primitiveLogger;
 
         StringLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.stringLogger(root(leaf));
         }
 
         public void log(Supplier<String> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             String val = vals.get();
             m_primitiveLogger.log(val);
@@ -242,17 +307,16 @@ public class LoggerFactory {
         return new StringLogger(level, leaf);
     }
 
-    public class OptionalDoubleLogger {
-        private final Level m_level;
+    public class OptionalDoubleLogger extends Gated {
         private final PrimitiveLogger.PrimitiveDoubleLogger m_primitiveLogger;
 
         OptionalDoubleLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.doubleLogger(root(leaf));
         }
 
         public void log(Supplier<OptionalDouble> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             OptionalDouble val = vals.get();
             if (val.isPresent()) {
@@ -265,17 +329,16 @@ public class LoggerFactory {
         return new OptionalDoubleLogger(level, leaf);
     }
 
-    public class EnumLogger {
-        private final Level m_level;
+    public class EnumLogger extends Gated {
         private final PrimitiveLogger.PrimitiveStringLogger m_primitiveLogger;
 
         EnumLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_primitiveLogger = m_pLogger.stringLogger(root(leaf));
         }
 
         public void log(Supplier<Enum<?>> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             String val = vals.get().name();
             m_primitiveLogger.log(val);
@@ -286,19 +349,18 @@ public class LoggerFactory {
         return new EnumLogger(level, leaf);
     }
 
-    public class Pose2dLogger {
-        private final Level m_level;
+    public class Pose2dLogger extends Gated {
         private final Translation2dLogger m_translation2dLogger;
         private final Rotation2dLogger m_rotation2dLogger;
 
         Pose2dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_translation2dLogger = translation2dLogger(level, join(leaf, "translation"));
             m_rotation2dLogger = rotation2dLogger(level, join(leaf, "rotation"));
         }
 
         public void log(Supplier<Pose2d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Pose2d val = vals.get();
             m_translation2dLogger.log(val::getTranslation);
@@ -310,19 +372,18 @@ public class LoggerFactory {
         return new Pose2dLogger(level, leaf);
     }
 
-    public class Transform3dLogger {
-        private final Level m_level;
+    public class Transform3dLogger extends Gated {
         private final Translation3dLogger m_translation3dLogger;
         private final Rotation3dLogger m_rotation3dLogger;
 
         Transform3dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_translation3dLogger = translation3dLogger(level, join(leaf, "translation"));
             m_rotation3dLogger = rotation3dLogger(level, join(leaf, "rotation"));
         }
 
         public void log(Supplier<Transform3d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Transform3d val = vals.get();
             m_translation3dLogger.log(val::getTranslation);
@@ -334,26 +395,25 @@ public class LoggerFactory {
         return new Transform3dLogger(level, leaf);
     }
 
-    public class Translation3dLogger {
-        private final Level m_level;
+    public class Translation3dLogger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
         private final DoubleLogger m_zLogger;
 
         Translation3dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x"));
             m_yLogger = doubleLogger(level, join(leaf, "y"));
             m_zLogger = doubleLogger(level, join(leaf, "z"));
         }
 
         public void log(Supplier<Translation3d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Translation3d val = vals.get();
-            m_xLogger.log(val::getX);
-            m_yLogger.log(val::getY);
-            m_zLogger.log(val::getZ);
+            m_xLogger.log(val.getX());
+            m_yLogger.log(val.getY());
+            m_zLogger.log(val.getZ());
         }
     }
 
@@ -361,26 +421,25 @@ public class LoggerFactory {
         return new Translation3dLogger(level, leaf);
     }
 
-    public class Rotation3dLogger {
-        private final Level m_level;
+    public class Rotation3dLogger extends Gated {
         private final DoubleLogger m_rollLogger;
         private final DoubleLogger m_pitchLogger;
         private final DoubleLogger m_yawLogger;
 
         Rotation3dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_rollLogger = doubleLogger(level, join(leaf, "roll"));
             m_pitchLogger = doubleLogger(level, join(leaf, "pitch"));
             m_yawLogger = doubleLogger(level, join(leaf, "yaw"));
         }
 
         public void log(Supplier<Rotation3d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Rotation3d val = vals.get();
-            m_rollLogger.log(val::getX);
-            m_pitchLogger.log(val::getY);
-            m_yawLogger.log(val::getZ);
+            m_rollLogger.log(val.getX());
+            m_pitchLogger.log(val.getY());
+            m_yawLogger.log(val.getZ());
         }
     }
 
@@ -388,23 +447,22 @@ public class LoggerFactory {
         return new Rotation3dLogger(level, leaf);
     }
 
-    public class Translation2dLogger {
-        private final Level m_level;
+    public class Translation2dLogger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
 
         Translation2dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x"));
             m_yLogger = doubleLogger(level, join(leaf, "y"));
         }
 
         public void log(Supplier<Translation2d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Translation2d val = vals.get();
-            m_xLogger.log(val::getX);
-            m_yLogger.log(val::getY);
+            m_xLogger.log(val.getX());
+            m_yLogger.log(val.getY());
         }
     }
 
@@ -412,23 +470,22 @@ public class LoggerFactory {
         return new Translation2dLogger(level, leaf);
     }
 
-    public class Vector2dLogger {
-        private final Level m_level;
+    public class Vector2dLogger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
 
         Vector2dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x"));
             m_yLogger = doubleLogger(level, join(leaf, "y"));
         }
 
         public void log(Supplier<Vector2d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Vector2d val = vals.get();
-            m_xLogger.log(val::getX);
-            m_yLogger.log(val::getY);
+            m_xLogger.log(val.getX());
+            m_yLogger.log(val.getY());
         }
     }
 
@@ -436,20 +493,19 @@ public class LoggerFactory {
         return new Vector2dLogger(level, leaf);
     }
 
-    public class Rotation2dLogger {
-        private final Level m_level;
+    public class Rotation2dLogger extends Gated {
         private final DoubleLogger m_radLogger;
 
         Rotation2dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_radLogger = doubleLogger(level, join(leaf, "rad"));
         }
 
         public void log(Supplier<Rotation2d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Rotation2d val = vals.get();
-            m_radLogger.log(val::getRadians);
+            m_radLogger.log(val.getRadians());
         }
     }
 
@@ -457,17 +513,16 @@ public class LoggerFactory {
         return new Rotation2dLogger(level, leaf);
     }
 
-    public class TrajectorySamplePointLogger {
-        private final Level m_level;
+    public class TrajectorySamplePointLogger extends Gated {
         private final TimedPoseLogger m_timedPoseLogger;
 
         TrajectorySamplePointLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_timedPoseLogger = timedPoseLogger(level, join(leaf, "state"));
         }
 
         public void log(Supplier<TrajectorySamplePoint> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             TrajectorySamplePoint val = vals.get();
             m_timedPoseLogger.log(val::state);
@@ -478,15 +533,14 @@ public class LoggerFactory {
         return new TrajectorySamplePointLogger(level, leaf);
     }
 
-    public class TimedPoseLogger {
-        private final Level m_level;
+    public class TimedPoseLogger extends Gated {
         private final Pose2dWithMotionLogger m_pose2dWithMotionLogger;
         private final DoubleLogger m_timeLogger;
         private final DoubleLogger m_velocityLogger;
         private final DoubleLogger m_accelLogger;
 
         TimedPoseLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_pose2dWithMotionLogger = pose2dWithMotionLogger(level, join(leaf, "posestate"));
             m_timeLogger = doubleLogger(level, join(leaf, "time"));
             m_velocityLogger = doubleLogger(level, join(leaf, "velocity"));
@@ -494,13 +548,13 @@ public class LoggerFactory {
         }
 
         public void log(Supplier<TimedPose> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             TimedPose val = vals.get();
             m_pose2dWithMotionLogger.log(val::state);
-            m_timeLogger.log(val::getTimeS);
-            m_velocityLogger.log(val::velocityM_S);
-            m_accelLogger.log(val::acceleration);
+            m_timeLogger.log(val.getTimeS());
+            m_velocityLogger.log(val.velocityM_S());
+            m_accelLogger.log(val.acceleration());
 
         }
     }
@@ -509,17 +563,16 @@ public class LoggerFactory {
         return new TimedPoseLogger(level, leaf);
     }
 
-    public class PoseWithCurvatureLogger {
-        private final Level m_level;
+    public class PoseWithCurvatureLogger extends Gated {
         private final Pose2dLogger m_pose2dLogger;
 
         PoseWithCurvatureLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_pose2dLogger = pose2dLogger(level, join(leaf, "pose"));
         }
 
         public void log(Supplier<PoseWithCurvature> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             PoseWithCurvature val = vals.get();
             m_pose2dLogger.log(() -> val.poseMeters);
@@ -530,19 +583,18 @@ public class LoggerFactory {
         return new PoseWithCurvatureLogger(level, leaf);
     }
 
-    public class Pose2dWithMotionLogger {
-        private final Level m_level;
+    public class Pose2dWithMotionLogger extends Gated {
         private final Pose2dLogger m_pose2dLogger;
         private final Rotation2dLogger m_rotation2dLogger;
 
         Pose2dWithMotionLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_pose2dLogger = pose2dLogger(level, join(leaf, "pose"));
             m_rotation2dLogger = rotation2dLogger(level, join(leaf, "course"));
         }
 
         public void log(Supplier<Pose2dWithMotion> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Pose2dWithMotion val = vals.get();
             m_pose2dLogger.log(val::getPose);
@@ -557,26 +609,25 @@ public class LoggerFactory {
         return new Pose2dWithMotionLogger(level, leaf);
     }
 
-    public class Twist2dLogger {
-        private final Level m_level;
+    public class Twist2dLogger extends Gated {
         private final DoubleLogger m_dxLogger;
         private final DoubleLogger m_dyLogger;
         private final DoubleLogger m_dthetaLogger;
 
         Twist2dLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_dxLogger = doubleLogger(level, join(leaf, "dx"));
             m_dyLogger = doubleLogger(level, join(leaf, "dy"));
             m_dthetaLogger = doubleLogger(level, join(leaf, "dtheta"));
         }
 
         public void log(Supplier<Twist2d> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Twist2d val = vals.get();
-            m_dxLogger.log(() -> val.dx);
-            m_dyLogger.log(() -> val.dy);
-            m_dthetaLogger.log(() -> val.dtheta);
+            m_dxLogger.log(val.dx);
+            m_dyLogger.log(val.dy);
+            m_dthetaLogger.log(val.dtheta);
         }
     }
 
@@ -584,26 +635,25 @@ public class LoggerFactory {
         return new Twist2dLogger(level, leaf);
     }
 
-    public class ChassisSpeedsLogger {
-        private final Level m_level;
+    public class ChassisSpeedsLogger extends Gated {
         private final DoubleLogger m_vxLogger;
         private final DoubleLogger m_vyLogger;
         private final DoubleLogger m_omegaLogger;
 
         ChassisSpeedsLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_vxLogger = doubleLogger(level, join(leaf, "vx m_s"));
             m_vyLogger = doubleLogger(level, join(leaf, "vy m_s"));
             m_omegaLogger = doubleLogger(level, join(leaf, "omega rad_s"));
         }
 
         public void log(Supplier<ChassisSpeeds> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             ChassisSpeeds val = vals.get();
-            m_vxLogger.log(() -> val.vxMetersPerSecond);
-            m_vyLogger.log(() -> val.vyMetersPerSecond);
-            m_omegaLogger.log(() -> val.omegaRadiansPerSecond);
+            m_vxLogger.log(val.vxMetersPerSecond);
+            m_vyLogger.log(val.vyMetersPerSecond);
+            m_omegaLogger.log(val.omegaRadiansPerSecond);
         }
     }
 
@@ -611,26 +661,25 @@ public class LoggerFactory {
         return new ChassisSpeedsLogger(level, leaf);
     }
 
-    public class FieldRelativeVelocityLogger {
-        private final Level m_level;
+    public class FieldRelativeVelocityLogger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
         private final DoubleLogger m_thetaLogger;
 
         FieldRelativeVelocityLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x m_s"));
             m_yLogger = doubleLogger(level, join(leaf, "y m_s"));
             m_thetaLogger = doubleLogger(level, join(leaf, "theta rad_s"));
         }
 
         public void log(Supplier<FieldRelativeVelocity> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             FieldRelativeVelocity val = vals.get();
-            m_xLogger.log(val::x);
-            m_yLogger.log(val::y);
-            m_thetaLogger.log(val::theta);
+            m_xLogger.log(val.x());
+            m_yLogger.log(val.y());
+            m_thetaLogger.log(val.theta());
         }
     }
 
@@ -638,26 +687,25 @@ public class LoggerFactory {
         return new FieldRelativeVelocityLogger(level, leaf);
     }
 
-    public class FieldRelativeAccelerationLogger {
-        private final Level m_level;
+    public class FieldRelativeAccelerationLogger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_yLogger;
         private final DoubleLogger m_thetaLogger;
 
         FieldRelativeAccelerationLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x m_s_s"));
             m_yLogger = doubleLogger(level, join(leaf, "y m_s_s"));
             m_thetaLogger = doubleLogger(level, join(leaf, "theta rad_s_s"));
         }
 
         public void log(Supplier<FieldRelativeAcceleration> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             FieldRelativeAcceleration val = vals.get();
-            m_xLogger.log(val::x);
-            m_yLogger.log(val::y);
-            m_thetaLogger.log(val::theta);
+            m_xLogger.log(val.x());
+            m_yLogger.log(val.y());
+            m_thetaLogger.log(val.theta());
         }
     }
 
@@ -665,46 +713,44 @@ public class LoggerFactory {
         return new FieldRelativeAccelerationLogger(level, leaf);
     }
 
-    public class Model100Logger {
-        private final Level m_level;
+    public class Model100Logger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_vLogger;
 
         Model100Logger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x"));
             m_vLogger = doubleLogger(level, join(leaf, "v"));
         }
 
         public void log(Supplier<Model100> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Model100 val = vals.get();
-            m_xLogger.log(val::x);
-            m_vLogger.log(val::v);
+            m_xLogger.log(val.x());
+            m_vLogger.log(val.v());
         }
     }
 
-    public class Control100Logger {
-        private final Level m_level;
+    public class Control100Logger extends Gated {
         private final DoubleLogger m_xLogger;
         private final DoubleLogger m_vLogger;
         private final DoubleLogger m_aLogger;
 
         Control100Logger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = doubleLogger(level, join(leaf, "x"));
             m_vLogger = doubleLogger(level, join(leaf, "v"));
             m_aLogger = doubleLogger(level, join(leaf, "a"));
         }
 
         public void log(Supplier<Control100> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Control100 val = vals.get();
-            m_xLogger.log(val::x);
-            m_vLogger.log(val::v);
-            m_aLogger.log(val::a);
+            m_xLogger.log(val.x());
+            m_vLogger.log(val.v());
+            m_aLogger.log(val.a());
         }
     }
 
@@ -712,26 +758,25 @@ public class LoggerFactory {
         return new Control100Logger(level, leaf);
     }
 
-    public class SwerveControlLogger {
-        private final Level m_level;
+    public class SwerveControlLogger extends Gated {
         private final Control100Logger m_xLogger;
         private final Control100Logger m_yLogger;
         private final Control100Logger m_thetaLogger;
 
         SwerveControlLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = control100Logger(level, join(leaf, "x"));
             m_yLogger = control100Logger(level, join(leaf, "y"));
             m_thetaLogger = control100Logger(level, join(leaf, "theta"));
         }
 
         public void log(Supplier<SwerveControl> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             SwerveControl val = vals.get();
-            m_xLogger.log(val::x);
-            m_yLogger.log(val::y);
-            m_thetaLogger.log(val::theta);
+            m_xLogger.log(val.x());
+            m_yLogger.log(val.y());
+            m_thetaLogger.log(val.theta());
         }
     }
 
@@ -743,26 +788,25 @@ public class LoggerFactory {
         return new Model100Logger(level, leaf);
     }
 
-    public class SwerveModelLogger {
-        private final Level m_level;
+    public class SwerveModelLogger extends Gated {
         private final Model100Logger m_xLogger;
         private final Model100Logger m_yLogger;
         private final Model100Logger m_thetaLogger;
 
         SwerveModelLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_xLogger = model100Logger(level, join(leaf, "x"));
             m_yLogger = model100Logger(level, join(leaf, "y"));
             m_thetaLogger = model100Logger(level, join(leaf, "theta"));
         }
 
         public void log(Supplier<SwerveModel> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             SwerveModel val = vals.get();
-            m_xLogger.log(val::x);
-            m_yLogger.log(val::y);
-            m_thetaLogger.log(val::theta);
+            m_xLogger.log(val.x());
+            m_yLogger.log(val.y());
+            m_thetaLogger.log(val.theta());
         }
     }
 
@@ -770,22 +814,21 @@ public class LoggerFactory {
         return new SwerveModelLogger(level, leaf);
     }
 
-    public class SwerveModulePosition100Logger {
-        private final Level m_level;
+    public class SwerveModulePosition100Logger extends Gated {
         private final DoubleLogger m_distanceLogger;
         private final Rotation2dLogger m_rotation2dLogger;
 
         SwerveModulePosition100Logger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_distanceLogger = doubleLogger(level, join(leaf, "distance"));
             m_rotation2dLogger = rotation2dLogger(level, join(leaf, "angle"));
         }
 
         public void log(Supplier<SwerveModulePosition100> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             SwerveModulePosition100 val = vals.get();
-            m_distanceLogger.log(() -> val.distanceMeters);
+            m_distanceLogger.log(val.distanceMeters);
             if (val.angle.isPresent()) {
                 m_rotation2dLogger.log(val.angle::get);
             }
@@ -796,23 +839,22 @@ public class LoggerFactory {
         return new SwerveModulePosition100Logger(level, leaf);
     }
 
-    public class ArmAnglesLogger {
-        private final Level m_level;
+    public class ArmAnglesLogger extends Gated {
         private final DoubleLogger m_th1Logger;
         private final DoubleLogger m_th2Logger;
 
         ArmAnglesLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_th1Logger = doubleLogger(level, join(leaf, "th1"));
             m_th2Logger = doubleLogger(level, join(leaf, "th2"));
         }
 
         public void log(Supplier<ArmAngles> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             ArmAngles val = vals.get();
-            m_th1Logger.log(() -> val.th1);
-            m_th2Logger.log(() -> val.th2);
+            m_th1Logger.log(val.th1);
+            m_th2Logger.log(val.th2);
         }
     }
 
@@ -820,15 +862,14 @@ public class LoggerFactory {
         return new ArmAnglesLogger(level, leaf);
     }
 
-    public class StateLogger {
-        private final Level m_level;
+    public class StateLogger extends Gated {
         private final Pose2dLogger m_poseLogger;
         private final DoubleLogger m_curvatureLogger;
         private final DoubleLogger m_velocityLogger;
         private final DoubleLogger m_accelLogger;
 
         StateLogger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_poseLogger = pose2dLogger(level, join(leaf, "pose"));
             m_curvatureLogger = doubleLogger(level, join(leaf, "curvature"));
             m_velocityLogger = doubleLogger(level, join(leaf, "velocity"));
@@ -836,13 +877,13 @@ public class LoggerFactory {
         }
 
         public void log(Supplier<State> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             State val = vals.get();
             m_poseLogger.log(() -> val.poseMeters);
-            m_curvatureLogger.log(() -> val.curvatureRadPerMeter);
-            m_velocityLogger.log(() -> val.velocityMetersPerSecond);
-            m_accelLogger.log(() -> val.accelerationMetersPerSecondSq);
+            m_curvatureLogger.log(val.curvatureRadPerMeter);
+            m_velocityLogger.log(val.velocityMetersPerSecond);
+            m_accelLogger.log(val.accelerationMetersPerSecondSq);
         }
     }
 
@@ -850,22 +891,21 @@ public class LoggerFactory {
         return new StateLogger(level, leaf);
     }
 
-    public class Blip24Logger {
-        private final Level m_level;
+    public class Blip24Logger extends Gated {
         private final IntLogger m_idLogger;
         private final Transform3dLogger m_transformLogger;
 
         Blip24Logger(Level level, String leaf) {
-            m_level = level;
+            super(level);
             m_idLogger = intLogger(level, join(leaf, "id"));
             m_transformLogger = transform3dLogger(level, join(leaf, "transform"));
         }
 
         public void log(Supplier<Blip24> vals) {
-            if (!allow(m_level))
+            if (!enabled())
                 return;
             Blip24 val = vals.get();
-            m_idLogger.log(val::getId);
+            m_idLogger.log(val.getId());
             m_transformLogger.log(val::getPose);
         }
     }
@@ -13,6 +13,8 @@ import com.ctre.phoenix6.SignalLogger;
 public class Logging {
     private static final boolean USE_UDP_LOGGING = false;
     private static final boolean USE_REAL_UDP = false;
+    /** Use protocol 3; the receiver must understand it. */
+    private static final boolean USE_COMPACT_UDP = false;
 
     private static final Logging instance = new Logging();
 
@@ -41,11 +43,13 @@ public class Logging {
             if (USE_REAL_UDP) {
                 udpLogger = new UdpPrimitiveLogger(
                         UdpSender.data(),
-                        UdpSender.meta());
+                        UdpSender.meta(),
+                        USE_COMPACT_UDP);
             } else {
                 udpLogger = new UdpPrimitiveLogger(
                         new DummySender(),
-                        new DummySender());
+                        new DummySender(),
+                        USE_COMPACT_UDP);
             }
             fieldLogger = new LoggerFactory(() -> m_level, "field", udpLogger);
             rootLogger = new LoggerFactory(() -> m_level, "log", udpLogger);
@@ -75,7 +79,10 @@ public class Logging {
     }
 
     public void setLevel(Level level) {
+        if (level == m_level)
+            return;
         m_level = level;
+        LoggerFactory.invalidateLevels();
     }
 
     public static Logging instance() {
@@ -23,6 +23,9 @@ import edu.wpi.first.wpilibj.Timer;
  * 
  * This logger accepts inputs only one value per key per flush period; the
  * newest value wins.
+ * 
+ * In compact mode, the logger uses protocol 3 instead of protocol 2; see
+ * UdpPrimitiveProtocol3.
  */
 public class UdpPrimitiveLogger implements PrimitiveLogger {
     /** if false, throw when a duplicate logger is created. */
@@ -40,6 +43,8 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     }
 
     private static final double kFlushPeriod = 0.1;
+    /** In compact mode, send a keyframe every this many flushes, i.e. 1 hz. */
+    private static final int kKeyframePeriod = 10;
 
     /** Using lists makes the scan for flushing ever-so-slightly faster */
     private final List<UdpBooleanLogger> booleanLoggers = new ArrayList<>();
@@ -67,6 +72,14 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     // keep the output buffers forever because allocating it is slow.
     private final UdpPrimitiveProtocol m_dataProtocol;
     private final UdpMetadataProtocol m_metadataProtocol;
+    /** Null unless compact. */
+    private final UdpPrimitiveProtocol3 m_compactProtocol;
+
+    private int m_flushCount;
+    /** Current keyframe, in compact mode. */
+    private int m_keyframeId;
+    /** True while flushing a keyframe, in compact mode. */
+    private boolean m_keyframe;
 
     /** Current offset of label dumper */
     int offset = 0;
@@ -76,10 +89,22 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     public UdpPrimitiveLogger(
             Consumer<ByteBuffer> dataSink,
             Consumer<ByteBuffer> metadataSink) {
+        this(dataSink, metadataSink, false);
+    }
+
+    /**
+     * @param compact use protocol 3, which is smaller, but requires a receiver
+     *                that understands it.
+     */
+    public UdpPrimitiveLogger(
+            Consumer<ByteBuffer> dataSink,
+            Consumer<ByteBuffer> metadataSink,
+            boolean compact) {
         m_bufferSink = dataSink;
         m_metadataSink = metadataSink;
         m_dataProtocol = new UdpPrimitiveProtocol();
         m_metadataProtocol = new UdpMetadataProtocol();
+        m_compactProtocol = compact ? new UdpPrimitiveProtocol3() : null;
         flushTime = 0;
     }
 
@@ -140,6 +165,20 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
 
     /** Send at least one packet. */
     public void flush() {
+        if (m_compactProtocol != null) {
+            m_keyframe = m_flushCount++ % kKeyframePeriod == 0;
+            if (m_keyframe)
+                m_keyframeId++;
+            m_compactProtocol.clear(m_keyframe, m_keyframeId);
+            flushBoolean();
+            flushDouble();
+            flushInteger();
+            flushDoubleArray();
+            flushLong();
+            flushString();
+            m_bufferSink.accept(m_compactProtocol.trim());
+            return;
+        }
         m_dataProtocol.clear();
         flushBoolean();
         flushDouble();
@@ -171,6 +210,11 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         private final int m_key;
         private double m_val;
         private boolean m_dirty;
+        /** Compact mode: ever logged. */
+        private boolean m_seen;
+        /** Compact mode: value sent in keyframe m_refId. */
+        private double m_ref;
+        private int m_refId;
 
         public UdpDoubleLogger(String label) {
             m_key = getKey(UdpType.DOUBLE, label);
@@ -181,6 +225,7 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         public void log(double val) {
             m_val = val;
             m_dirty = true;
+            m_seen = true;
         }
 
     }
@@ -260,8 +305,13 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private void putAndMaybeSend(BooleanSupplier putter) {
         if (!putter.getAsBoolean()) {
             // time to send the packet
-            m_bufferSink.accept(m_dataProtocol.trim());
-            m_dataProtocol.clear();
+            if (m_compactProtocol != null) {
+                m_bufferSink.accept(m_compactProtocol.trim());
+                m_compactProtocol.clear(m_keyframe, m_keyframeId);
+            } else {
+                m_bufferSink.accept(m_dataProtocol.trim());
+                m_dataProtocol.clear();
+            }
             if (!putter.getAsBoolean())
                 throw new IllegalStateException();
         }
@@ -271,13 +321,21 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private void flushBoolean() {
         for (UdpBooleanLogger logger : booleanLoggers) {
             if (logger.m_dirty) {
-                putAndMaybeSend(() -> m_dataProtocol.putBoolean(logger.m_key, logger.m_val));
+                if (m_compactProtocol != null) {
+                    putAndMaybeSend(() -> m_compactProtocol.putBoolean(logger.m_key, logger.m_val));
+                } else {
+                    putAndMaybeSend(() -> m_dataProtocol.putBoolean(logger.m_key, logger.m_val));
+                }
                 logger.m_dirty = false;
             }
         }
     }
 
     private void flushDouble() {
+        if (m_compactProtocol != null) {
+            flushDoubleCompact();
+            return;
+        }
         for (UdpDoubleLogger logger : doubleLoggers) {
             if (logger.m_dirty) {
                 putAndMaybeSend(() -> m_dataProtocol.putDouble(logger.m_key, logger.m_val));
@@ -286,10 +344,42 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
         }
     }
 
+    /**
+     * In a keyframe, send every double that has ever been logged, and remember it
+     * as the reference. Between keyframes, send dirty values relative to the
+     * reference, if there is one.
+     */
+    private void flushDoubleCompact() {
+        for (UdpDoubleLogger logger : doubleLoggers) {
+            if (m_keyframe) {
+                if (!logger.m_seen)
+                    continue;
+                int flags = logger.m_dirty ? 0 : UdpPrimitiveProtocol3.kReferenceOnly;
+                putAndMaybeSend(() -> m_compactProtocol.putDouble(logger.m_key, logger.m_val, 0, flags));
+                logger.m_ref = logger.m_val;
+                logger.m_refId = m_keyframeId;
+                logger.m_dirty = false;
+            } else if (logger.m_dirty) {
+                if (logger.m_refId == m_keyframeId) {
+                    putAndMaybeSend(() -> m_compactProtocol.putDouble(
+                            logger.m_key, logger.m_val, logger.m_ref, 0));
+                } else {
+                    putAndMaybeSend(() -> m_compactProtocol.putDouble(
+                            logger.m_key, logger.m_val, 0, UdpPrimitiveProtocol3.kAbsolute));
+                }
+                logger.m_dirty = false;
+            }
+        }
+    }
+
     private void flushInteger() {
         for (UdpIntLogger logger : integerLoggers) {
             if (logger.m_dirty) {
-                putAndMaybeSend(() -> m_dataProtocol.putInt(logger.m_key, logger.m_val));
+                if (m_compactProtocol != null) {
+                    putAndMaybeSend(() -> m_compactProtocol.putInt(logger.m_key, logger.m_val));
+                } else {
+                    putAndMaybeSend(() -> m_dataProtocol.putInt(logger.m_key, logger.m_val));
+                }
                 logger.m_dirty = false;
             }
         }
@@ -298,7 +388,11 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private void flushDoubleArray() {
         for (UdpDoubleArrayLogger logger : doubleArrayLoggers) {
             if (logger.m_dirty) {
-                putAndMaybeSend(() -> m_dataProtocol.putDoubleArray(logger.m_key, logger.m_val));
+                if (m_compactProtocol != null) {
+                    putAndMaybeSend(() -> m_compactProtocol.putDoubleArray(logger.m_key, logger.m_val));
+                } else {
+                    putAndMaybeSend(() -> m_dataProtocol.putDoubleArray(logger.m_key, logger.m_val));
+                }
                 logger.m_dirty = false;
             }
         }
@@ -307,7 +401,11 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private void flushLong() {
         for (UdpLongLogger logger : longLoggers) {
             if (logger.m_dirty) {
-                putAndMaybeSend(() -> m_dataProtocol.putLong(logger.m_key, logger.m_val));
+                if (m_compactProtocol != null) {
+                    putAndMaybeSend(() -> m_compactProtocol.putLong(logger.m_key, logger.m_val));
+                } else {
+                    putAndMaybeSend(() -> m_dataProtocol.putLong(logger.m_key, logger.m_val));
+                }
                 logger.m_dirty = false;
             }
         }
@@ -316,7 +414,11 @@ public class UdpPrimitiveLogger implements PrimitiveLogger {
     private void flushString() {
         for (UdpStringLogger logger : stringLoggers) {
             if (logger.m_dirty) {
-                putAndMaybeSend(() -> m_dataProtocol.putString(logger.m_key, logger.m_val));
+                if (m_compactProtocol != null) {
+                    putAndMaybeSend(() -> m_compactProtocol.putString(logger.m_key, logger.m_val));
+                } else {
+                    putAndMaybeSend(() -> m_dataProtocol.putString(logger.m_key, logger.m_val));
+                }
                 logger.m_dirty = false;
             }
         }
@@ -0,0 +1,274 @@
+package org.team100.lib.logging.primitive;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
+
+/**
+ * Log data protocol 3, a compact alternative to protocol 2.
+ *
+ * The packet header is the same timestamp as protocol 2, with the high bit set,
+ * so the decoder can tell which protocol it's reading, followed by a flags byte
+ * and the keyframe id (varint).
+ *
+ * The rest of the packet is a list of runs of values of the same type:
+ *
+ * * type (1 byte, see below for flags)
+ * * count (1 byte)
+ * * entries: key delta from the previous key in the run (zigzag varint) and
+ * value
+ *
+ * Values:
+ *
+ * * boolean: 1 byte
+ * * int, long: zigzag varint
+ * * double: XOR with a reference value, written as one byte of (leading zero
+ * bytes, significant bytes) followed by the significant bytes. An unchanged
+ * value is just the one byte.
+ * * double array, string: same as protocol 2
+ *
+ * UDP drops packets, so the double reference is not the previous value, it's
+ * the value in the most recent keyframe. Every few flushes, the sender sends a
+ * keyframe, which includes every double it has ever sent: dirty values as usual
+ * (absolute, i.e. XOR with zero), and clean ones in "reference only" runs, which
+ * the decoder remembers but doesn't publish. Between keyframes, doubles are
+ * XORed with their keyframe value, tagged with the keyframe id. If the decoder
+ * missed that keyframe, it can't decode the value, and skips it. Doubles without
+ * a reference in the current keyframe are sent absolute.
+ *
+ * <pre>
+ * DDDDDDDDFITCKVKVVV...
+ * ^^^^^^^^              timestamp, high bit set
+ *         ^             flags (1 = keyframe)
+ *          ^            keyframe id (varint)
+ *           ^           type = 2 (double)
+ *            ^          count = 2
+ *             ^         key delta (zigzag varint)
+ *              ^        xor header: 0x80 = unchanged
+ *               ^       key delta
+ *                ^^^    xor header 0x32 = 3 leading zero bytes, 2 significant bytes; then the bytes
+ * </pre>
+ */
+public class UdpPrimitiveProtocol3 {
+    /** The high bit of the timestamp marks a protocol 3 packet. */
+    public static final long kFlag = Long.MIN_VALUE;
+    /** Packet flag: this packet is part of a keyframe. */
+    public static final int kKeyframe = 1;
+    /** Type flag: absolute double, outside a keyframe. */
+    public static final int kAbsolute = 0x40;
+    /** Type flag: reference double, don't publish it. */
+    public static final int kReferenceOnly = 0x80;
+    public static final int kTypeMask = 0x3f;
+    /** Worst case run header: type and count */
+    private static final int kRunHeader = 2;
+    private static final int kMaxRun = 255;
+
+    private final ByteBuffer m_buffer;
+
+    /** Type byte of the current run, or -1 if none. */
+    private int m_runType;
+    /** Position of the current run's count byte. */
+    private int m_runCountPosition;
+    private int m_runCount;
+    private int m_previousKey;
+
+    public UdpPrimitiveProtocol3(int bufferSize) {
+        // direct buffer goes slightly faster out the network
+        m_buffer = ByteBuffer.allocateDirect(bufferSize);
+        // big-endian is the default, but just to make it clear...
+        m_buffer.order(ByteOrder.BIG_ENDIAN);
+        clear(false, 0);
+    }
+
+    public UdpPrimitiveProtocol3() {
+        this(UdpSender.MTU);
+    }
+
+    /** Return a buffer view of length equal to current position. */
+    ByteBuffer trim() {
+        return m_buffer.slice(0, m_buffer.position());
+    }
+
+    /** Clear the underlying buffer and rewrite the header. */
+    void clear(boolean keyframe, int keyframeId) {
+        m_buffer.clear();
+        m_buffer.putLong(UdpMetadataProtocol.timestamp | kFlag);
+        m_buffer.put(keyframe ? (byte) kKeyframe : 0);
+        putVarint(m_buffer, keyframeId & 0xffffffffL);
+        m_runType = -1;
+    }
+
+    /** @return true if written */
+    public boolean putBoolean(int key, boolean val) {
+        if (!startEntry(UdpType.BOOLEAN.id, key, 1))
+            return false;
+        m_buffer.put(val ? (byte) 1 : (byte) 0);
+        return true;
+    }
+
+    /** @return true if written */
+    public boolean putInt(int key, int val) {
+        if (!startEntry(UdpType.INT.id, key, 5))
+            return false;
+        putVarint(m_buffer, zigzag(val) & 0xffffffffL);
+        return true;
+    }
+
+    /** @return true if written */
+    public boolean putLong(int key, long val) {
+        if (!startEntry(UdpType.LONG.id, key, 10))
+            return false;
+        putVarint(m_buffer, zigzag(val));
+        return true;
+    }
+
+    /**
+     * @param reference XOR with this, zero for absolute values.
+     * @param flags     zero (keyframe or delta), kAbsolute, or kReferenceOnly
+     * @return true if written
+     */
+    public boolean putDouble(int key, double val, double reference, int flags) {
+        if (!startEntry(UdpType.DOUBLE.id | flags, key, 9))
+            return false;
+        putXor(m_buffer, Double.doubleToRawLongBits(val) ^ Double.doubleToRawLongBits(reference));
+        return true;
+    }
+
+    /** @return true if written */
+    public boolean putDoubleArray(int key, double[] val) {
+        if (val.length > 255)
+            throw new IllegalArgumentException();
+        if (!startEntry(UdpType.DOUBLE_ARRAY.id, key, 1 + val.length * 8))
+            return false;
+        m_buffer.put((byte) val.length);
+        for (int i = 0; i < val.length; ++i) {
+            m_buffer.putDouble(val[i]);
+        }
+        return true;
+    }
+
+    /** @return true if written */
+    public boolean putString(int key, String val) {
+        final byte[] bytes = val.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > 255)
+            throw new IllegalArgumentException();
+        if (!startEntry(UdpType.STRING.id, key, 1 + bytes.length))
+            return false;
+        m_buffer.put((byte) bytes.length);
+        m_buffer.put(bytes);
+        return true;
+    }
+
+    /////////////////////////////////////////////////////
+    //
+    // decoding
+    //
+
+    /** Unsigned LEB128. */
+    public static long decodeVarint(ByteBuffer buf) throws ProtocolException {
+        try {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buf.get();
+                result |= (long) (b & 0x7f) << shift;
+                if (b >= 0)
+                    return result;
+            }
+            throw new ProtocolException();
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new ProtocolException();
+        }
+    }
+
+    public static long decodeZigzag(ByteBuffer buf) throws ProtocolException {
+        long v = decodeVarint(buf);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /** The XOR of the value with its reference. */
+    public static long decodeXor(ByteBuffer buf) throws ProtocolException {
+        try {
+            int header = buf.get() & 0xff;
+            int leading = header >>> 4;
+            int significant = header & 0x0f;
+            if (leading + significant > 8)
+                throw new ProtocolException();
+            long bits = 0;
+            for (int i = 0; i < significant; ++i) {
+                bits = (bits << 8) | (buf.get() & 0xff);
+            }
+            int trailing = 8 - leading - significant;
+            return trailing == 8 ? 0 : bits << (8 * trailing);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new ProtocolException();
+        }
+    }
+
+    public static int decodeByte(ByteBuffer buf) throws ProtocolException {
+        try {
+            return buf.get() & 0xff;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new ProtocolException();
+        }
+    }
+
+    /////////////////////////////////////////////////////
+
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    static void putVarint(ByteBuffer buf, long v) {
+        while ((v & ~0x7fL) != 0) {
+            buf.put((byte) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    static void putXor(ByteBuffer buf, long xor) {
+        if (xor == 0) {
+            buf.put((byte) 0x80);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(xor) / 8;
+        int trailing = Long.numberOfTrailingZeros(xor) / 8;
+        int significant = 8 - leading - trailing;
+        buf.put((byte) ((leading << 4) | significant));
+        for (int i = significant - 1; i >= 0; --i) {
+            buf.put((byte) (xor >>> (8 * (trailing + i))));
+        }
+    }
+
+    /**
+     * Write the run header if needed, and the key.
+     *
+     * @param maxValueLength worst case value size
+     * @return false if there's no room
+     */
+    private boolean startEntry(int type, int key, int maxValueLength) {
+        int keyDelta = m_runType == type ? key - m_previousKey : key;
+        // zigzag varint of a 17-bit delta is at most 3 bytes.
+        if (m_buffer.remaining() < kRunHeader + 3 + maxValueLength)
+            return false;
+        if (m_runType != type || m_runCount == kMaxRun) {
+            m_buffer.put((byte) type);
+            m_runCountPosition = m_buffer.position();
+            m_buffer.put((byte) 0);
+            m_runType = type;
+            m_runCount = 0;
+            keyDelta = key;
+        }
+        putVarint(m_buffer, zigzag(keyDelta) & 0xffffffffL);
+        m_buffer.put(m_runCountPosition, (byte) ++m_runCount);
+        m_previousKey = key;
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package org.team100.lib.logging.receiver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer
+ * thread.
+ *
+ * Each side keeps a plain cached copy of the other side's index, so the
+ * volatile read happens only when the cache says the queue looks full (or
+ * empty). Index updates use lazySet, which is a cheap store-release.
+ */
+class SpscQueue<T> {
+    private final Object[] m_items;
+    private final int m_mask;
+    /** Next slot to read; written only by the consumer. */
+    private final AtomicLong m_head = new AtomicLong();
+    /** Next slot to write; written only by the producer. */
+    private final AtomicLong m_tail = new AtomicLong();
+    /** Producer's copy of head. */
+    private long m_headCache;
+    /** Consumer's copy of tail. */
+    private long m_tailCache;
+
+    /** Capacity is rounded up to a power of two. */
+    SpscQueue(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        m_items = new Object[n];
+        m_mask = n - 1;
+    }
+
+    int capacity() {
+        return m_items.length;
+    }
+
+    /** Producer only. Returns false if full. */
+    boolean offer(T item) {
+        long tail = m_tail.get();
+        if (tail - m_headCache >= m_items.length) {
+            m_headCache = m_head.get();
+            if (tail - m_headCache >= m_items.length)
+                return false;
+        }
+        m_items[(int) tail & m_mask] = item;
+        m_tail.lazySet(tail + 1);
+        return true;
+    }
+
+    /** Consumer only. Returns null if empty. */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long head = m_head.get();
+        if (head >= m_tailCache) {
+            m_tailCache = m_tail.get();
+            if (head >= m_tailCache)
+                return null;
+        }
+        int i = (int) head & m_mask;
+        T item = (T) m_items[i];
+        m_items[i] = null;
+        m_head.lazySet(head + 1);
+        return item;
+    }
+
+    /** Approximate, from any thread. */
+    int size() {
+        return (int) (m_tail.get() - m_head.get());
+    }
+}
@@ -283,12 +283,16 @@ public class UdpConsumers implements UdpConsumersInterface {
     /**
      * Network Tables has a compile-time 2MB output buffer, so it would be good to
      * call flush() often enough to keep it from filling up (thus dropping values).
+     * 
+     * Call this from the same thread as validateTimestamp(), which closes and
+     * replaces the log file and the NT instance.
      */
     @Override
     public void flush() {
-        if (PUB)
+        // these are null until the first timestamp arrives.
+        if (PUB && inst != null)
             inst.flush();
-        if (LOG)
+        if (LOG && log_file != null)
             log_file.flush();
     }
 
@@ -1,35 +1,89 @@
 package org.team100.lib.logging.receiver;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.team100.lib.logging.primitive.UdpPrimitiveProtocol;
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol3;
 import org.team100.lib.logging.primitive.UdpType;
 import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
 
+/**
+ * Decodes protocol 2 and protocol 3 packets; the packet header says which one.
+ */
 public class UdpDataDecoder {
     private static final int kFlushFrequency = 50;
+    private static final int kMaxKeys = 65536;
     private final UdpConsumersInterface m_consumers;
+    private final int m_flushFrequency;
     private int flushCounter = 0;
 
+    /** Protocol 3 double references, by key. */
+    private final double[] m_ref = new double[kMaxKeys];
+    /** Keyframe id of each reference, valid only if m_hasRef. */
+    private final int[] m_refId = new int[kMaxKeys];
+    private final boolean[] m_hasRef = new boolean[kMaxKeys];
+    private long m_lastTimestamp;
+    /** Current packet is protocol 3. */
+    private boolean m_v3;
+    /** Current packet is a protocol 3 keyframe. */
+    private boolean m_keyframe;
+    private int m_keyframeId;
+    /** Protocol 3 deltas without a reference. */
+    private long m_stale;
+
     public UdpDataDecoder(UdpConsumersInterface consumers) {
+        this(consumers, kFlushFrequency);
+    }
+
+    /**
+     * @param flushFrequency flush the consumers every this many keys, or never, if
+     *                       zero, e.g. if some other thread flushes them.
+     */
+    public UdpDataDecoder(UdpConsumersInterface consumers, int flushFrequency) {
         m_consumers = consumers;
+        m_flushFrequency = flushFrequency;
     }
 
     /**
+     * Reads the packet header.
+     * 
      * return true if timestamp is the first we've seen, or the same as the previous
      * one.
      * @throws ProtocolException 
      */
     public boolean validateTimestamp(ByteBuffer buf) throws ProtocolException {
         long timestamp = UdpPrimitiveProtocol.decodeLong(buf);
+        m_v3 = (timestamp & UdpPrimitiveProtocol3.kFlag) != 0;
+        if (m_v3) {
+            timestamp &= ~UdpPrimitiveProtocol3.kFlag;
+            int flags = UdpPrimitiveProtocol3.decodeByte(buf);
+            m_keyframe = (flags & UdpPrimitiveProtocol3.kKeyframe) != 0;
+            m_keyframeId = (int) UdpPrimitiveProtocol3.decodeVarint(buf);
+        }
+        if (timestamp != m_lastTimestamp) {
+            // new sender session, so the references are meaningless.
+            Arrays.fill(m_hasRef, false);
+            m_lastTimestamp = timestamp;
+        }
         return m_consumers.validateTimestamp(timestamp);
     }
 
+    /** Protocol 3 deltas skipped for lack of a reference. */
+    public long stale() {
+        return m_stale;
+    }
+
     /**
-     * Starts at buf.position()
+     * Starts at buf.position(), decodes one key (protocol 2) or one run (protocol
+     * 3).
      * Flushes the consumers at the end.
      */
     public void decode(ByteBuffer buf) throws ProtocolException {
+        if (m_v3) {
+            decodeRun(buf);
+            return;
+        }
         int key = UdpPrimitiveProtocol.decodeKey(buf);
         UdpType type = UdpPrimitiveProtocol.decodeType(buf);
         switch (type) {
@@ -59,7 +113,66 @@ public class UdpDataDecoder {
             }
             default -> System.out.println("unknown data decoder type");
         }
-        if (flushCounter++ > kFlushFrequency) {
+        maybeFlush();
+    }
+
+    private void decodeRun(ByteBuffer buf) throws ProtocolException {
+        int typeByte = UdpPrimitiveProtocol3.decodeByte(buf);
+        int count = UdpPrimitiveProtocol3.decodeByte(buf);
+        int typeId = typeByte & UdpPrimitiveProtocol3.kTypeMask;
+        if (typeId >= UdpType.values().length)
+            throw new ProtocolException();
+        UdpType type = UdpType.get((byte) typeId);
+        int key = 0;
+        for (int i = 0; i < count; ++i) {
+            key += (int) UdpPrimitiveProtocol3.decodeZigzag(buf);
+            if (key < 0 || key >= kMaxKeys)
+                throw new ProtocolException();
+            switch (type) {
+                case BOOLEAN -> m_consumers.acceptBoolean(key, UdpPrimitiveProtocol3.decodeByte(buf) != 0);
+                case DOUBLE -> decodeDouble(buf, typeByte, key);
+                case INT -> m_consumers.acceptInt(key, (int) UdpPrimitiveProtocol3.decodeZigzag(buf));
+                case DOUBLE_ARRAY -> m_consumers.acceptDoubleArray(key, UdpPrimitiveProtocol.decodeDoubleArray(buf));
+                case LONG -> m_consumers.acceptInt(key, (int) UdpPrimitiveProtocol3.decodeZigzag(buf));
+                case STRING -> m_consumers.acceptString(key, UdpPrimitiveProtocol.decodeString(buf));
+                default -> throw new ProtocolException();
+            }
+            maybeFlush();
+        }
+    }
+
+    private void decodeDouble(ByteBuffer buf, int typeByte, int key) throws ProtocolException {
+        long xor = UdpPrimitiveProtocol3.decodeXor(buf);
+        if ((typeByte & UdpPrimitiveProtocol3.kReferenceOnly) != 0) {
+            setRef(key, Double.longBitsToDouble(xor));
+            return;
+        }
+        if (m_keyframe) {
+            double v = Double.longBitsToDouble(xor);
+            setRef(key, v);
+            m_consumers.acceptDouble(key, v);
+            return;
+        }
+        if ((typeByte & UdpPrimitiveProtocol3.kAbsolute) != 0) {
+            m_consumers.acceptDouble(key, Double.longBitsToDouble(xor));
+            return;
+        }
+        if (!m_hasRef[key] || m_refId[key] != m_keyframeId) {
+            // missed the keyframe
+            m_stale++;
+            return;
+        }
+        m_consumers.acceptDouble(key, Double.longBitsToDouble(Double.doubleToRawLongBits(m_ref[key]) ^ xor));
+    }
+
+    private void setRef(int key, double v) {
+        m_ref[key] = v;
+        m_refId[key] = m_keyframeId;
+        m_hasRef[key] = true;
+    }
+
+    private void maybeFlush() {
+        if (m_flushFrequency > 0 && flushCounter++ > m_flushFrequency) {
             m_consumers.flush();
             flushCounter = 0;
         }
@@ -0,0 +1,237 @@
+package org.team100.lib.logging.receiver;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
+import org.team100.lib.logging.primitive.UdpSender;
+
+/**
+ * Receives data packets in three stages, so that a slow stage doesn't make the
+ * kernel drop packets:
+ *
+ * <ol>
+ * <li>The socket thread wakes when the socket is readable, and drains every
+ * waiting datagram into a pre-allocated direct buffer from the pool, without
+ * blocking between datagrams.
+ * <li>The decoder thread takes filled buffers from a lock-free
+ * single-producer/single-consumer queue, decodes them into the consumers (i.e.
+ * DataLog appends and NT sets), and returns the buffers to the pool.
+ * <li>A timer asks for a flush of the DataLog and NT on a fixed period, instead
+ * of every few keys in the decode path. The decoder thread does the flush,
+ * between packets, since the consumers replace the DataLog and NT instance on
+ * that thread when the timestamp changes.
+ * </ol>
+ *
+ * If the pool is empty (i.e. the decoder is falling behind), incoming packets
+ * are discarded and counted as dropped. Packets that waited in the queue
+ * longer than kLateNs are counted as late. The counts are available from the
+ * accessors, and, if you ask for it, printed once a second.
+ */
+public class UdpPipelinedDataReader {
+    /** About 1.5 MB of direct buffers. */
+    private static final int kPoolSize = 1024;
+    /** Ask the kernel for a big buffer, to absorb bursts. */
+    private static final int kReceiveBufferBytes = 4 * 1024 * 1024;
+    private static final long kLateNs = 100_000_000;
+    private static final long kFlushPeriodMs = 20;
+    private static final long kIdleNs = 50_000;
+
+    /** A pooled buffer and its arrival time. */
+    private static class Packet {
+        final ByteBuffer buf;
+        long receivedNs;
+
+        Packet() {
+            buf = ByteBuffer.allocateDirect(UdpSender.MTU);
+            // big-endian is the default, but just to make it clear...
+            buf.order(ByteOrder.BIG_ENDIAN);
+        }
+    }
+
+    private final UdpConsumersInterface m_consumers;
+    private final UdpDataDecoder m_decoder;
+    /** Filled packets, socket thread to decoder thread. */
+    private final SpscQueue<Packet> m_full;
+    /** Empty packets, decoder thread back to socket thread. */
+    private final SpscQueue<Packet> m_free;
+    /** For discarding packets when the pool is empty. */
+    private final ByteBuffer m_scratch;
+    private final ScheduledExecutorService m_timer;
+    /** Set by the timer, cleared by the decoder thread when it flushes. */
+    private final AtomicBoolean m_flushRequested = new AtomicBoolean();
+
+    private final AtomicLong m_received = new AtomicLong();
+    private final AtomicLong m_dropped = new AtomicLong();
+    private final AtomicLong m_late = new AtomicLong();
+    private final AtomicLong m_bad = new AtomicLong();
+
+    private final Thread m_socketThread;
+    private final Thread m_decoderThread;
+    private final boolean m_printStats;
+    private volatile boolean m_running;
+
+    public UdpPipelinedDataReader(UdpConsumersInterface consumers) {
+        this(consumers, false);
+    }
+
+    /**
+     * @param printStats print the counts once a second, for debugging.
+     */
+    public UdpPipelinedDataReader(UdpConsumersInterface consumers, boolean printStats) {
+        m_consumers = consumers;
+        m_printStats = printStats;
+        // the decoder thread flushes on request, see below
+        m_decoder = new UdpDataDecoder(consumers, 0);
+        m_full = new SpscQueue<>(kPoolSize);
+        m_free = new SpscQueue<>(kPoolSize);
+        for (int i = 0; i < kPoolSize; ++i) {
+            m_free.offer(new Packet());
+        }
+        m_scratch = ByteBuffer.allocateDirect(UdpSender.MTU);
+        m_timer = Executors.newSingleThreadScheduledExecutor();
+        m_socketThread = new Thread(this::readSocket, "udp-socket");
+        m_decoderThread = new Thread(this::decode, "udp-decoder");
+    }
+
+    public void start() {
+        m_running = true;
+        m_socketThread.start();
+        m_decoderThread.start();
+        m_timer.scheduleAtFixedRate(() -> m_flushRequested.set(true),
+                kFlushPeriodMs, kFlushPeriodMs, TimeUnit.MILLISECONDS);
+        if (m_printStats)
+            m_timer.scheduleAtFixedRate(this::printStats, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void join() throws InterruptedException {
+        m_socketThread.join();
+        m_decoderThread.join();
+    }
+
+    public void stop() {
+        m_running = false;
+        m_timer.shutdown();
+    }
+
+    public long received() {
+        return m_received.get();
+    }
+
+    public long dropped() {
+        return m_dropped.get();
+    }
+
+    public long late() {
+        return m_late.get();
+    }
+
+    public long bad() {
+        return m_bad.get();
+    }
+
+    ///////////////////////////////////////
+
+    /** Socket thread. */
+    private void readSocket() {
+        System.out.println("data socket reader running...");
+        try (DatagramChannel channel = DatagramChannel.open();
+                Selector selector = Selector.open()) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, kReceiveBufferBytes);
+            channel.bind(new InetSocketAddress(UdpSender.kPort));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+            // a free packet left over from the previous drain
+            Packet spare = null;
+            while (m_running) {
+                if (selector.select(100) == 0)
+                    continue;
+                selector.selectedKeys().clear();
+                // drain everything that's waiting.
+                while (true) {
+                    Packet packet = spare != null ? spare : m_free.poll();
+                    spare = null;
+                    if (packet == null) {
+                        // no room, so read it and throw it away.
+                        m_scratch.clear();
+                        if (channel.receive(m_scratch) == null)
+                            break;
+                        m_received.incrementAndGet();
+                        m_dropped.incrementAndGet();
+                        continue;
+                    }
+                    packet.buf.clear();
+                    if (channel.receive(packet.buf) == null) {
+                        // nothing left. this thread can't put it back in the free queue
+                        // (it's the consumer), so keep it for next time.
+                        spare = packet;
+                        break;
+                    }
+                    m_received.incrementAndGet();
+                    packet.buf.flip();
+                    packet.receivedNs = System.nanoTime();
+                    // the queue is as big as the pool, so this always works.
+                    m_full.offer(packet);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Decoder thread. */
+    private void decode() {
+        System.out.println("data decoder running...");
+        while (m_running) {
+            if (m_flushRequested.getAndSet(false))
+                flush();
+            Packet packet = m_full.poll();
+            if (packet == null) {
+                LockSupport.parkNanos(kIdleNs);
+                continue;
+            }
+            if (System.nanoTime() - packet.receivedNs > kLateNs)
+                m_late.incrementAndGet();
+            ByteBuffer buf = packet.buf;
+            try {
+                if (m_decoder.validateTimestamp(buf)) {
+                    while (buf.remaining() > 0) {
+                        m_decoder.decode(buf);
+                    }
+                } else {
+                    m_bad.incrementAndGet();
+                }
+            } catch (ProtocolException e) {
+                m_bad.incrementAndGet();
+            }
+            m_free.offer(packet);
+        }
+    }
+
+    /** Decoder thread. */
+    private void flush() {
+        try {
+            m_consumers.flush();
+        } catch (RuntimeException e) {
+            // a flush failure shouldn't stop the decoder.
+            e.printStackTrace();
+        }
+    }
+
+    private void printStats() {
+        System.out.printf("received %d dropped %d late %d bad %d queued %d\n",
+                m_received.get(), m_dropped.get(), m_late.get(), m_bad.get(), m_full.size());
+    }
+}
@@ -8,16 +8,16 @@ public class UdpReceiver {
         UdpConsumersInterface consumers = new UdpConsumers();
         // the dummy consumer can keep up, about 30M keys/sec
         // UdpConsumersInterface consumers = new DummyUdpConsumers();
-        UdpDataDecoder dataDecoder = new UdpDataDecoder(consumers);
         UdpMetaDecoder metaDecoder = new UdpMetaDecoder(consumers);
-        UdpDataReader dataReader = new UdpDataReader(dataDecoder);
+        // the single-threaded reader, UdpDataReader, flushes inline, and can't
+        // keep up with the sender.
+        UdpPipelinedDataReader dataReader = new UdpPipelinedDataReader(consumers);
         UdpMetaReader metaReader = new UdpMetaReader(metaDecoder);
-        Thread dataReaderThread = new Thread(dataReader);
-        dataReaderThread.start();
+        dataReader.start();
         Thread metaReaderThread = new Thread(metaReader);
         metaReaderThread.start();
         // these should block forever.
-        dataReaderThread.join();
+        dataReader.join();
         System.out.println("done");
         consumers.close();
     }
@@ -5,6 +5,7 @@ import java.util.OptionalDouble;
 
 import org.team100.lib.dashboard.Glassy;
 import org.team100.lib.encoder.RotaryPositionSensor;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.framework.TimedRobot100;
 import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
@@ -34,6 +35,8 @@ public class ArmSubsystem extends SubsystemBase implements Glassy {
 
     private ArmAngles m_previousPosition;
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     // use the factory to instantiate
     /**
      * @param lowerMotor
@@ -110,7 +113,9 @@ public class ArmSubsystem extends SubsystemBase implements Glassy {
 
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         m_lowerArmMotor.periodic();
         m_upperArmMotor.periodic();
+        m_profile.end(t);
     }
 }
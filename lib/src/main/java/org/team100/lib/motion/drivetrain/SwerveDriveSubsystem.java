@@ -2,6 +2,7 @@ package org.team100.lib.motion.drivetrain;
 
 import org.team100.lib.config.DriverSkill;
 import org.team100.lib.dashboard.Glassy;
+import org.team100.lib.framework.LoopProfiler;
 import org.team100.lib.geometry.GeometryUtil;
 import org.team100.lib.localization.SwerveDrivePoseEstimator100;
 import org.team100.lib.localization.VisionData;
@@ -46,6 +47,8 @@ public class SwerveDriveSubsystem extends SubsystemBase implements Glassy, Drive
     private final EnumLogger m_log_skill;
     private final FieldRelativeVelocityLogger m_log_input;
 
+    private final LoopProfiler.Phase m_profile = LoopProfiler.instance().subsystem(getName());
+
     public SwerveDriveSubsystem(
             LoggerFactory fieldLogger,
             LoggerFactory parent,
@@ -212,6 +215,7 @@ public class SwerveDriveSubsystem extends SubsystemBase implements Glassy, Drive
      */
     @Override
     public void periodic() {
+        long t = m_profile.begin();
         // m_poseEstimator.periodic();
         m_stateSupplier.reset();
         m_log_state.log(this::getState);
@@ -233,6 +237,7 @@ public class SwerveDriveSubsystem extends SubsystemBase implements Glassy, Drive
         });
         m_log_yaw_rate.log(m_gyro::getYawRateNWU);
         m_swerveLocal.periodic();
+        m_profile.end(t);
     }
 
     public void close() {
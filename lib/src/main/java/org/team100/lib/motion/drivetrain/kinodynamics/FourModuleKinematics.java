@@ -0,0 +1,85 @@
+package org.team100.lib.motion.drivetrain.kinodynamics;
+
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * The kinematics matrices for the usual four-module drive, unrolled into
+ * primitive fields, so the multiplications don't allocate or go through EJML.
+ *
+ * The coefficients are copied from the matrices made by
+ * {@link SwerveDriveKinematics100}, so the results are the same (to rounding).
+ *
+ * The inverse matrix only has three interesting numbers per module (the rest
+ * are 0 and 1):
+ *
+ * <pre>
+ * vx_i = vx - y_i omega
+ * vy_i = vy + x_i omega
+ * </pre>
+ *
+ * The forward (pseudo-inverse) matrix is dense, 3 x 8.
+ */
+final class FourModuleKinematics {
+    /** -y for each module */
+    private final double m_ny0, m_ny1, m_ny2, m_ny3;
+    /** x for each module */
+    private final double m_x0, m_x1, m_x2, m_x3;
+    /** forward matrix, row-major */
+    private final double[] m_f;
+
+    FourModuleKinematics(SimpleMatrix inverse, SimpleMatrix forward) {
+        if (inverse.getNumRows() != 8 || forward.getNumCols() != 8)
+            throw new IllegalArgumentException("four modules only");
+        m_ny0 = inverse.get(0, 2);
+        m_x0 = inverse.get(1, 2);
+        m_ny1 = inverse.get(2, 2);
+        m_x1 = inverse.get(3, 2);
+        m_ny2 = inverse.get(4, 2);
+        m_x2 = inverse.get(5, 2);
+        m_ny3 = inverse.get(6, 2);
+        m_x3 = inverse.get(7, 2);
+        m_f = new double[24];
+        for (int r = 0; r < 3; ++r) {
+            for (int c = 0; c < 8; ++c) {
+                m_f[r * 8 + c] = forward.get(r, c);
+            }
+        }
+    }
+
+    /**
+     * INVERSE: [vx; vy; omega] -> [vx0; vy0; vx1; vy1; ...]
+     *
+     * @param out length 8
+     */
+    void inverse(double vx, double vy, double omega, double[] out) {
+        out[0] = vx + m_ny0 * omega;
+        out[1] = vy + m_x0 * omega;
+        out[2] = vx + m_ny1 * omega;
+        out[3] = vy + m_x1 * omega;
+        out[4] = vx + m_ny2 * omega;
+        out[5] = vy + m_x2 * omega;
+        out[6] = vx + m_ny3 * omega;
+        out[7] = vy + m_x3 * omega;
+    }
+
+    /**
+     * FORWARD: [vx0; vy0; vx1; vy1; ...] -> [vx; vy; omega]
+     *
+     * @param in  length 8
+     * @param out length 3
+     */
+    void forward(double[] in, double[] out) {
+        final double[] f = m_f;
+        for (int r = 0; r < 3; ++r) {
+            int k = r * 8;
+            out[r] = f[k] * in[0]
+                    + f[k + 1] * in[1]
+                    + f[k + 2] * in[2]
+                    + f[k + 3] * in[3]
+                    + f[k + 4] * in[4]
+                    + f[k + 5] * in[5]
+                    + f[k + 6] * in[6]
+                    + f[k + 7] * in[7];
+        }
+    }
+}
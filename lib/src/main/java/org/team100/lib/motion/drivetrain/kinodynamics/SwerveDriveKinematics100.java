@@ -83,6 +83,11 @@ public class SwerveDriveKinematics100 {
      * </pre>
      */
     final SimpleMatrix m_forwardKinematics;
+    /**
+     * The same matrices, unrolled, for the usual four-module case; null
+     * otherwise.
+     */
+    private final FourModuleKinematics m_four;
     /**
      * Used when velocity is zero, to keep the steering the same.
      * elements are nullable.
@@ -100,11 +105,24 @@ public class SwerveDriveKinematics100 {
      * @param moduleTranslationsM relative to the center of rotation
      */
     public SwerveDriveKinematics100(Translation2d... moduleTranslationsM) {
+        this(true, moduleTranslationsM);
+    }
+
+    /**
+     * @param compiled use the unrolled four-module implementation, if there are
+     *                 four modules. False is just for testing and benchmarking.
+     */
+    SwerveDriveKinematics100(boolean compiled, Translation2d... moduleTranslationsM) {
         checkModuleCount(moduleTranslationsM);
         m_numModules = moduleTranslationsM.length;
         m_moduleLocations = Arrays.copyOf(moduleTranslationsM, m_numModules);
         m_inverseKinematics = inverseMatrix(m_moduleLocations);
         m_forwardKinematics = m_inverseKinematics.pseudoInverse();
+        if (compiled && m_numModules == 4) {
+            m_four = new FourModuleKinematics(m_inverseKinematics, m_forwardKinematics);
+        } else {
+            m_four = null;
+        }
         // nulls avoid startup transient
         m_moduleHeadings = nulls();
     }
@@ -127,6 +145,15 @@ public class SwerveDriveKinematics100 {
         if (fullStop(chassisSpeeds)) {
             return constantModuleHeadings(); // avoid steering when stopped
         }
+        if (m_four != null) {
+            SwerveModuleStates states = new SwerveModuleStates(
+                    new SwerveModuleState100(),
+                    new SwerveModuleState100(),
+                    new SwerveModuleState100(),
+                    new SwerveModuleState100());
+            inverseFour(chassisSpeeds, states);
+            return states;
+        }
         // [vx; vy; omega] (3 x 1)
         SimpleMatrix chassisSpeedsVector = chassisSpeeds2Vector(chassisSpeeds);
         // [v cos; v sin; ...] (2n x 1)
@@ -135,6 +162,33 @@ public class SwerveDriveKinematics100 {
         return states;
     }
 
+    /**
+     * INVERSE: chassis speeds -> module states, written into the supplied
+     * states, to avoid allocating them. Same as
+     * {@link #toSwerveModuleStates(ChassisSpeeds)} otherwise.
+     * 
+     * @param out WILL BE MUTATED!
+     */
+    public void toSwerveModuleStates(ChassisSpeeds chassisSpeeds, SwerveModuleStates out) {
+        if (fullStop(chassisSpeeds)) {
+            // avoid steering when stopped
+            setState(out.frontLeft(), 0.0, m_moduleHeadings.frontLeft());
+            setState(out.frontRight(), 0.0, m_moduleHeadings.frontRight());
+            setState(out.rearLeft(), 0.0, m_moduleHeadings.rearLeft());
+            setState(out.rearRight(), 0.0, m_moduleHeadings.rearRight());
+            return;
+        }
+        if (m_four != null) {
+            inverseFour(chassisSpeeds, out);
+            return;
+        }
+        SwerveModuleStates states = toSwerveModuleStates(chassisSpeeds);
+        setState(out.frontLeft(), states.frontLeft());
+        setState(out.frontRight(), states.frontRight());
+        setState(out.rearLeft(), states.rearLeft());
+        setState(out.rearRight(), states.rearRight());
+    }
+
     /**
      * INVERSE: twist -> module position deltas
      * 
@@ -144,6 +198,17 @@ public class SwerveDriveKinematics100 {
         if (fullStop(twist)) {
             return constantModulePositions();
         }
+        if (m_four != null) {
+            double[] v = new double[8];
+            m_four.inverse(twist.dx, twist.dy, twist.dtheta, v);
+            SwerveModuleDeltas deltas = new SwerveModuleDeltas(
+                    new SwerveModuleDelta(v[0], v[1]),
+                    new SwerveModuleDelta(v[2], v[3]),
+                    new SwerveModuleDelta(v[4], v[5]),
+                    new SwerveModuleDelta(v[6], v[7]));
+            updateHeadings(deltas);
+            return deltas;
+        }
         // [dx; dy; dtheta] (3 x 1)
         SimpleMatrix twistVector = twist2Vector(twist);
         // [d cos; d sin; ...] (2n x 1)
@@ -170,6 +235,17 @@ public class SwerveDriveKinematics100 {
      */
     public ChassisSpeeds toChassisSpeeds(SwerveModuleStates states) {
         // checkLength(states);
+        if (m_four != null) {
+            SwerveModuleState100[] all = states.all();
+            double[] v = new double[8];
+            for (int i = 0; i < 4; ++i) {
+                SwerveModuleState100 module = all[i];
+                toVector(module.speedMetersPerSecond, module.angle, i, v);
+            }
+            double[] c = new double[3];
+            m_four.forward(v, c);
+            return new ChassisSpeeds(c[0], c[1], c[2]);
+        }
         // [v cos; v sin; ...] (2n x 1)
         SimpleMatrix statesVector = states2Vector(states);
         // [vx; vy; omega]
@@ -186,6 +262,17 @@ public class SwerveDriveKinematics100 {
      */
     public Twist2d toTwist2d(SwerveModuleDeltas deltas) {
         // checkLength(deltas);
+        if (m_four != null) {
+            SwerveModuleDelta[] all = deltas.all();
+            double[] v = new double[8];
+            for (int i = 0; i < 4; ++i) {
+                SwerveModuleDelta module = all[i];
+                toVector(module.distanceMeters, module.angle, i, v);
+            }
+            double[] c = new double[3];
+            m_four.forward(v, c);
+            return new Twist2d(c[0], c[1], c[2]);
+        }
         // [d cos; d sin; ...] (2n x 1)
         SimpleMatrix deltaVector = deltas2Vector(deltas);
         // [dx ;dy; dtheta]
@@ -216,6 +303,43 @@ public class SwerveDriveKinematics100 {
 
     ///////////////////////////////////////
 
+    /** Four-module inverse kinematics into the existing states. */
+    private void inverseFour(ChassisSpeeds chassisSpeeds, SwerveModuleStates out) {
+        double[] v = new double[8];
+        m_four.inverse(
+                chassisSpeeds.vxMetersPerSecond,
+                chassisSpeeds.vyMetersPerSecond,
+                chassisSpeeds.omegaRadiansPerSecond,
+                v);
+        stateFromVector(out.frontLeft(), v[0], v[1]);
+        stateFromVector(out.frontRight(), v[2], v[3]);
+        stateFromVector(out.rearLeft(), v[4], v[5]);
+        stateFromVector(out.rearRight(), v[6], v[7]);
+        updateHeadings(out);
+    }
+
+    /** Polar -> [v cos; v sin] in out, zero if stopped or no angle. */
+    private static void toVector(double r, Optional<Rotation2d> angle, int i, double[] out) {
+        if (Math.abs(r) < 1e-6 || angle.isEmpty()) {
+            out[i * 2] = 0;
+            out[i * 2 + 1] = 0;
+        } else {
+            Rotation2d a = angle.get();
+            out[i * 2] = r * a.getCos();
+            out[i * 2 + 1] = r * a.getSin();
+        }
+    }
+
+    private static void setState(SwerveModuleState100 state, double speed, Rotation2d angle) {
+        state.speedMetersPerSecond = speed;
+        state.angle = Optional.ofNullable(angle);
+    }
+
+    private static void setState(SwerveModuleState100 state, SwerveModuleState100 from) {
+        state.speedMetersPerSecond = from.speedMetersPerSecond;
+        state.angle = from.angle;
+    }
+
     /** states -> [v cos; v sin; ... v cos; v sin] (2n x 1) */
     private SimpleMatrix states2Vector(SwerveModuleStates moduleStates) {
         SwerveModuleState100[] moduleStatesAll = moduleStates.all();
@@ -341,6 +465,17 @@ public class SwerveDriveKinematics100 {
         }
     }
 
+    /** Same as above, written into the existing state. */
+    private static void stateFromVector(SwerveModuleState100 state, double x, double y) {
+        if (Math.abs(x) < 0.004 && Math.abs(y) < 0.004) {
+            state.speedMetersPerSecond = 0.0;
+            state.angle = Optional.empty();
+        } else {
+            state.speedMetersPerSecond = Math.hypot(x, y);
+            state.angle = Optional.of(new Rotation2d(x, y));
+        }
+    }
+
     public Translation2d[] getModuleLocations() {
         return m_moduleLocations;
     }
@@ -0,0 +1,142 @@
+package org.team100.lib.motion.drivetrain.module;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a task for each of the four modules, and records how long each one
+ * took.
+ *
+ * In serial mode, the tasks run one after the other on the caller's thread.
+ *
+ * In parallel mode, the caller runs module zero, and three dedicated worker
+ * threads run the others, so that the blocking CAN calls of each module
+ * overlap. The caller waits for all of them to finish (i.e. there's a barrier
+ * at the end), so from the outside it looks the same as serial mode.
+ *
+ * The JVM can't pin threads to cores, so the workers are just normal
+ * threads that park between batches.
+ */
+class ModuleExecutor {
+    interface Task {
+        void run(int module);
+    }
+
+    static final int kModules = 4;
+
+    private final boolean m_parallel;
+    private final Thread[] m_workers;
+    private final long[] m_elapsedNs = new long[kModules];
+    private final AtomicInteger m_remaining = new AtomicInteger();
+
+    /** Incremented for each batch; the workers watch it. */
+    private volatile long m_generation;
+    /** Written before m_generation. */
+    private Task m_task;
+    private Thread m_caller;
+    /** Whatever a worker threw, to rethrow on the caller's thread. */
+    private volatile Throwable m_error;
+    private volatile boolean m_running;
+
+    ModuleExecutor(boolean parallel) {
+        m_parallel = parallel;
+        if (!parallel) {
+            m_workers = new Thread[0];
+            return;
+        }
+        m_running = true;
+        m_workers = new Thread[kModules - 1];
+        for (int i = 0; i < m_workers.length; ++i) {
+            final int module = i + 1;
+            Thread thread = new Thread(() -> work(module));
+            thread.setDaemon(true);
+            thread.setName("Swerve Module " + module);
+            m_workers[i] = thread;
+            thread.start();
+        }
+    }
+
+    /** Run the task for each module, and return when they're all done. */
+    void run(Task task) {
+        if (!m_parallel) {
+            for (int i = 0; i < kModules; ++i) {
+                timed(task, i);
+            }
+            return;
+        }
+        m_task = task;
+        m_caller = Thread.currentThread();
+        m_error = null;
+        m_remaining.set(m_workers.length);
+        // publishes the fields above
+        m_generation++;
+        for (Thread worker : m_workers) {
+            LockSupport.unpark(worker);
+        }
+        try {
+            timed(task, 0);
+        } finally {
+            // wait for the others even if module zero failed.
+            while (m_remaining.get() > 0) {
+                LockSupport.park(this);
+            }
+        }
+        Throwable error = m_error;
+        if (error instanceof RuntimeException e)
+            throw e;
+        if (error instanceof Error e)
+            throw e;
+        if (error != null)
+            throw new RuntimeException(error);
+    }
+
+    /** Duration of the module's most recent task, in seconds. */
+    double elapsedS(int module) {
+        return m_elapsedNs[module] / 1e9;
+    }
+
+    boolean parallel() {
+        return m_parallel;
+    }
+
+    void close() {
+        m_running = false;
+        for (Thread worker : m_workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    ///////////////////////////////////////
+
+    private void timed(Task task, int module) {
+        long startNs = System.nanoTime();
+        try {
+            task.run(module);
+        } finally {
+            m_elapsedNs[module] = System.nanoTime() - startNs;
+        }
+    }
+
+    /** Worker thread. */
+    private void work(int module) {
+        long seen = 0;
+        while (m_running) {
+            long generation = m_generation;
+            if (generation == seen) {
+                LockSupport.park(this);
+                continue;
+            }
+            seen = generation;
+            try {
+                timed(m_task, module);
+            } catch (Throwable e) {
+                // anything at all, e.g. AssertionError, goes back to the caller.
+                m_error = e;
+            } finally {
+                // otherwise the caller would wait forever.
+                m_remaining.decrementAndGet();
+                LockSupport.unpark(m_caller);
+            }
+        }
+    }
+}
@@ -3,8 +3,14 @@ package org.team100.lib.motion.drivetrain.module;
 import org.team100.lib.config.Identity;
 import org.team100.lib.encoder.DutyCycleRotaryPositionSensor;
 import org.team100.lib.encoder.EncoderDrive;
+import org.team100.lib.experiments.Experiment;
+import org.team100.lib.experiments.Experiments;
+import org.team100.lib.logging.Level;
 import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.LoggerFactory.DoubleLogger;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePosition100;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleState100;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModulePositions;
 import org.team100.lib.motion.drivetrain.kinodynamics.SwerveModuleStates;
 import org.team100.lib.motion.drivetrain.module.WCPSwerveModule100.DriveRatio;
@@ -12,7 +18,13 @@ import org.team100.lib.motor.MotorPhase;
 import org.team100.lib.state.Control100;
 import org.team100.lib.util.Util;
 
-/** Represents the modules in the drivetrain. */
+/**
+ * Represents the modules in the drivetrain.
+ * 
+ * Actuation and sensing can run the four modules in parallel, if the
+ * ParallelModules experiment is on at startup; see {@link ModuleExecutor}.
+ * Otherwise they're plain calls, one module after the other.
+ */
 public class SwerveModuleCollection {
     private static final String kSwerveModules = "Swerve Modules";
     private static final String kFrontLeft = "Front Left";
@@ -24,8 +36,32 @@ public class SwerveModuleCollection {
     private final SwerveModule100 m_frontRight;
     private final SwerveModule100 m_rearLeft;
     private final SwerveModule100 m_rearRight;
+    /** Same order as the executor's module index. */
+    private final SwerveModule100[] m_modules;
+    private final ModuleExecutor m_executor;
+    /** Per-module duration of the most recent actuation. */
+    private final DoubleLogger[] m_log_elapsed;
+    // scratch for the parallel tasks
+    private final SwerveModulePosition100[] m_positions = new SwerveModulePosition100[ModuleExecutor.kModules];
+    private final SwerveModuleState100[] m_states = new SwerveModuleState100[ModuleExecutor.kModules];
+    private final SwerveModuleState100[] m_desired = new SwerveModuleState100[ModuleExecutor.kModules];
+    // the parallel tasks, made once so running them doesn't allocate
+    private final ModuleExecutor.Task m_setDesired;
+    private final ModuleExecutor.Task m_setRawDesired;
+    private final ModuleExecutor.Task m_stop;
+    private final ModuleExecutor.Task m_getPosition;
+    private final ModuleExecutor.Task m_getState;
+    private final ModuleExecutor.Task m_periodic;
 
+    /**
+     * @param parallel run the per-module work (sensing, steering profile, drive
+     *                 command) on worker threads, so the modules' CAN traffic
+     *                 overlaps. The modules log from the worker threads, so this
+     *                 needs a thread-safe primitive logger, i.e. NT, not UDP.
+     */
     private SwerveModuleCollection(
+            LoggerFactory collectionLogger,
+            boolean parallel,
             SwerveModule100 frontLeft,
             SwerveModule100 frontRight,
             SwerveModule100 rearLeft,
@@ -34,6 +70,19 @@ public class SwerveModuleCollection {
         m_frontRight = frontRight;
         m_rearLeft = rearLeft;
         m_rearRight = rearRight;
+        m_modules = new SwerveModule100[] { frontLeft, frontRight, rearLeft, rearRight };
+        m_executor = new ModuleExecutor(parallel);
+        m_setDesired = i -> m_modules[i].setDesiredState(m_desired[i]);
+        m_setRawDesired = i -> m_modules[i].setRawDesiredState(m_desired[i]);
+        m_stop = i -> m_modules[i].stop();
+        m_getPosition = i -> m_positions[i] = m_modules[i].getPosition();
+        m_getState = i -> m_states[i] = m_modules[i].getState();
+        m_periodic = i -> m_modules[i].periodic();
+        String[] names = { kFrontLeft, kFrontRight, kRearLeft, kRearRight };
+        m_log_elapsed = new DoubleLogger[names.length];
+        for (int i = 0; i < names.length; ++i) {
+            m_log_elapsed[i] = collectionLogger.child(names[i]).doubleLogger(Level.TRACE, "elapsed (s)");
+        }
     }
 
     /**
@@ -45,6 +94,7 @@ public class SwerveModuleCollection {
             double statorLimit,
             SwerveKinodynamics kinodynamics) {
         LoggerFactory collectionLogger = parent.child(kSwerveModules);
+        boolean parallel = Experiments.instance.enabled(Experiment.ParallelModules);
         LoggerFactory frontLeftLogger = collectionLogger.child(kFrontLeft);
         LoggerFactory frontRightLogger = collectionLogger.child(kFrontRight);
         LoggerFactory rearLeftLogger = collectionLogger.child(kRearLeft);
@@ -54,6 +104,8 @@ public class SwerveModuleCollection {
             case COMP_BOT:
                 Util.println("************** WCP MODULES w/Duty-Cycle Encoders **************");
                 return new SwerveModuleCollection(
+                        collectionLogger,
+                        parallel,
                         WCPSwerveModule100.getKrakenDrive(frontLeftLogger,
                                 currentLimit,
                                 statorLimit,
@@ -97,6 +149,8 @@ public class SwerveModuleCollection {
             case SWERVE_ONE:
                 Util.println("************** WCP MODULES w/Analog Encoders **************");
                 return new SwerveModuleCollection(
+                        collectionLogger,
+                        parallel,
                         WCPSwerveModule100.getFalconDrive(frontLeftLogger,
                                 currentLimit,
                                 statorLimit,
@@ -143,6 +197,8 @@ public class SwerveModuleCollection {
             default:
                 Util.println("************** SIMULATED MODULES **************");
                 return new SwerveModuleCollection(
+                        collectionLogger,
+                        parallel,
                         SimulatedSwerveModule100.get(frontLeftLogger, kinodynamics),
                         SimulatedSwerveModule100.get(frontRightLogger, kinodynamics),
                         SimulatedSwerveModule100.get(rearLeftLogger, kinodynamics),
@@ -157,6 +213,12 @@ public class SwerveModuleCollection {
 
 
     public void setDesiredStates(SwerveModuleStates swerveModuleStates) {
+        if (m_executor.parallel()) {
+            desired(swerveModuleStates);
+            m_executor.run(m_setDesired);
+            logElapsed();
+            return;
+        }
         m_frontLeft.setDesiredState(swerveModuleStates.frontLeft());
         m_frontRight.setDesiredState(swerveModuleStates.frontRight());
         m_rearLeft.setDesiredState(swerveModuleStates.rearLeft());
@@ -164,6 +226,12 @@ public class SwerveModuleCollection {
     }
 
     public void setRawDesiredStates(SwerveModuleStates swerveModuleStates) {
+        if (m_executor.parallel()) {
+            desired(swerveModuleStates);
+            m_executor.run(m_setRawDesired);
+            logElapsed();
+            return;
+        }
         m_frontLeft.setRawDesiredState(swerveModuleStates.frontLeft());
         m_frontRight.setRawDesiredState(swerveModuleStates.frontRight());
         m_rearLeft.setRawDesiredState(swerveModuleStates.rearLeft());
@@ -171,6 +239,10 @@ public class SwerveModuleCollection {
     }
 
     public void stop() {
+        if (m_executor.parallel()) {
+            m_executor.run(m_stop);
+            return;
+        }
         m_frontLeft.stop();
         m_frontRight.stop();
         m_rearLeft.stop();
@@ -207,6 +279,14 @@ public class SwerveModuleCollection {
     }
 
     public SwerveModulePositions positions() {
+        if (m_executor.parallel()) {
+            m_executor.run(m_getPosition);
+            return new SwerveModulePositions(
+                    m_positions[0],
+                    m_positions[1],
+                    m_positions[2],
+                    m_positions[3]);
+        }
         return new SwerveModulePositions(
                 m_frontLeft.getPosition(),
                 m_frontRight.getPosition(),
@@ -215,6 +295,14 @@ public class SwerveModuleCollection {
     }
 
     public SwerveModuleStates states() {
+        if (m_executor.parallel()) {
+            m_executor.run(m_getState);
+            return new SwerveModuleStates(
+                    m_states[0],
+                    m_states[1],
+                    m_states[2],
+                    m_states[3]);
+        }
         return new SwerveModuleStates(
                 m_frontLeft.getState(),
                 m_frontRight.getState(),
@@ -243,6 +331,7 @@ public class SwerveModuleCollection {
     ////////////////////////////////////////////
 
     public void close() {
+        m_executor.close();
         m_frontLeft.close();
         m_frontRight.close();
         m_rearLeft.close();
@@ -259,9 +348,26 @@ public class SwerveModuleCollection {
 
     /** Updates visualization. */
     public void periodic() {
+        if (m_executor.parallel()) {
+            m_executor.run(m_periodic);
+            return;
+        }
         m_frontLeft.periodic();
         m_frontRight.periodic();
         m_rearLeft.periodic();
         m_rearRight.periodic();
     }
+
+    private void desired(SwerveModuleStates swerveModuleStates) {
+        m_desired[0] = swerveModuleStates.frontLeft();
+        m_desired[1] = swerveModuleStates.frontRight();
+        m_desired[2] = swerveModuleStates.rearLeft();
+        m_desired[3] = swerveModuleStates.rearRight();
+    }
+
+    private void logElapsed() {
+        for (int i = 0; i < m_log_elapsed.length; ++i) {
+            m_log_elapsed[i].log(m_executor.elapsedS(i));
+        }
+    }
 }
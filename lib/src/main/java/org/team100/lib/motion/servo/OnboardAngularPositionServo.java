@@ -177,12 +177,12 @@ public class OnboardAngularPositionServo implements AngularPositionServo {
         m_mechanism.setVelocity(u_TOTAL, m_setpointRad.a(), feedForwardTorqueNm);
 
         m_log_goal.log(() -> m_goal);
-        m_log_feedforward_torque.log(() -> feedForwardTorqueNm);
+        m_log_feedforward_torque.log(feedForwardTorqueNm);
         m_log_measurement.log(() -> new Model100(measurementPositionRad, mechanismVelocityRad_S));
         m_log_setpoint.log(() -> m_setpointRad);
-        m_log_u_FB.log(() -> u_FB);
-        m_log_u_FF.log(() -> u_FF);
-        m_log_u_TOTAL.log(() -> u_TOTAL);
+        m_log_u_FB.log(u_FB);
+        m_log_u_FF.log(u_FF);
+        m_log_u_TOTAL.log(u_TOTAL);
         m_log_error.log(m_controller::getPositionError);
         m_log_velocity_error.log(m_controller::getVelocityError);
     }
@@ -216,7 +216,7 @@ public class OnboardAngularPositionServo implements AngularPositionServo {
         boolean atSetpoint = m_controller.atSetpoint();
         m_log_position_tolerance.log(m_controller::getPositionTolerance);
         m_log_velocity_tolerance.log(m_controller::getVelocityTolerance);
-        m_log_at_setpoint.log(() -> atSetpoint);
+        m_log_at_setpoint.log(atSetpoint);
         return atSetpoint;
     }
 
@@ -79,11 +79,11 @@ public class OnboardLinearDutyCyclePositionServo implements LinearPositionServo
         m_mechanism.setDutyCycle(u_TOTAL);
 
         m_log_goal.log(() -> goal);
-        m_log_measurement.log(() -> measurementM);
+        m_log_measurement.log(measurementM);
         m_log_setpoint.log(() -> m_setpoint);
-        m_log_u_FB.log(() -> u_FB);
-        m_log_u_FF.log(() -> u_FF);
-        m_log_u_TOTAL.log(() -> u_TOTAL);
+        m_log_u_FB.log(u_FB);
+        m_log_u_FF.log(u_FF);
+        m_log_u_TOTAL.log(u_TOTAL);
         m_log_error.log(m_controller::getPositionError);
         m_log_velocity_error.log(m_controller::getVelocityError);
     }
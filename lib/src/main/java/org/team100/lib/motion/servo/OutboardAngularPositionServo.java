@@ -128,8 +128,8 @@ public class OutboardAngularPositionServo implements AngularPositionServo {
         m_mechanism.setPosition(m_setpoint.x(), m_setpoint.v(), feedForwardTorqueNm);
 
         m_log_goal.log(() -> m_goal);
-        m_log_ff_torque.log(() -> feedForwardTorqueNm);
-        m_log_measurement.log(() -> unwrappedMeasurementRad);
+        m_log_ff_torque.log(feedForwardTorqueNm);
+        m_log_measurement.log(unwrappedMeasurementRad);
         m_log_setpoint.log(() -> m_setpoint);
     }
 
@@ -59,7 +59,7 @@ public class OutboardLinearPositionServo implements LinearPositionServo {
         m_mechanism.setPosition(m_setpoint.x(), m_setpoint.v(), feedForwardTorqueNm);
 
         m_log_goal.log( () -> m_goal);
-        m_log_ff_torque.log(() -> feedForwardTorqueNm);
+        m_log_ff_torque.log(feedForwardTorqueNm);
         m_log_setpoint.log(() -> m_setpoint);
     }
 
@@ -49,8 +49,8 @@ public class OutboardLinearVelocityServo implements LinearVelocityServo {
     public void setVelocity(double setpointM_S, double setpointM_S2) {
         m_setpoint = setpointM_S;
         m_mechanism.setVelocity(setpointM_S, setpointM_S2, 0);
-        m_log_setpoint_v.log(() -> setpointM_S);
-        m_log_setpoint_a.log(() -> setpointM_S2);
+        m_log_setpoint_v.log(setpointM_S);
+        m_log_setpoint_a.log(setpointM_S2);
     }
 
     /**
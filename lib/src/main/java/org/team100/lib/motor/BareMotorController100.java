@@ -29,7 +29,7 @@ public class BareMotorController100 implements BareMotor {
     @Override
     public void setDutyCycle(double output) {
         m_motor.set(output);
-        m_log_duty.log(() -> output);
+        m_log_duty.log(output);
     }
 
     /**
@@ -39,7 +39,7 @@ public class BareMotorController100 implements BareMotor {
     public void setVelocity(double motorRad_S, double accelRad_S2, double torqueNm) {
         double motorDutyCycle = motorRad_S * velocityFFDutyCycle_Rad_S;
         m_motor.set(motorDutyCycle);
-        m_log_duty.log(() -> motorDutyCycle);
+        m_log_duty.log(motorDutyCycle);
     }
 
     /** MotorControllers do not support positional control. */
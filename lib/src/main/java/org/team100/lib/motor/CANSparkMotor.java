@@ -98,7 +98,7 @@ public abstract class CANSparkMotor implements BareMotor {
     @Override
     public void setDutyCycle(double output) {
         m_motor.set(output);
-        m_log_duty.log(() -> output);
+        m_log_duty.log(output);
         log();
     }
 
@@ -129,12 +129,12 @@ public abstract class CANSparkMotor implements BareMotor {
         Rev100.warn(() -> m_pidController.setReference(
                 motorRev_M, ControlType.kVelocity, 0, kFF, ArbFFUnits.kVoltage));
 
-        m_log_desired_speed.log(() -> motorRev_S);
-        m_log_desired_accel.log(() -> motorRev_S2);
-        m_log_friction_FF.log(() -> frictionFFVolts);
-        m_log_velocity_FF.log(() -> velocityFFVolts);
-        m_log_accel_FF.log(() -> accelFFVolts);
-        m_log_torque_FF.log(() -> torqueFFVolts);
+        m_log_desired_speed.log(motorRev_S);
+        m_log_desired_accel.log(motorRev_S2);
+        m_log_friction_FF.log(frictionFFVolts);
+        m_log_velocity_FF.log(velocityFFVolts);
+        m_log_accel_FF.log(accelFFVolts);
+        m_log_torque_FF.log(torqueFFVolts);
         log();
     }
 
@@ -159,11 +159,11 @@ public abstract class CANSparkMotor implements BareMotor {
         Rev100.warn(() -> m_pidController.setReference(
                 motorRev, ControlType.kPosition, 0, kFF, ArbFFUnits.kVoltage));
 
-        m_log_desired_position.log(() -> motorRev);
-        m_log_desired_speed.log(() -> motorRev_S);
-        m_log_friction_FF.log(() -> frictionFFVolts);
-        m_log_velocity_FF.log(() -> velocityFFVolts);
-        m_log_torque_FF.log(() -> torqueFFVolts);
+        m_log_desired_position.log(motorRev);
+        m_log_desired_speed.log(motorRev_S);
+        m_log_friction_FF.log(frictionFFVolts);
+        m_log_velocity_FF.log(velocityFFVolts);
+        m_log_torque_FF.log(torqueFFVolts);
         log();
     }
 
@@ -1,10 +1,14 @@
 package org.team100.lib.motor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
 import org.team100.lib.config.PIDConstants;
+import org.team100.lib.util.Memo;
 import org.team100.lib.util.Util;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusCode;
 import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
 import com.ctre.phoenix6.configs.MotorOutputConfigs;
@@ -23,6 +27,45 @@ public class Phoenix100 {
      */
     private static final double TIMEOUT_SEC = 0.3;
 
+    /**
+     * Every status signal we read, across all the motors, so that we can refresh
+     * them all in one call instead of one call per signal.
+     */
+    private static final List<BaseStatusSignal> signals = new ArrayList<>();
+    /** Copy of the list, for refreshAll(). */
+    private static volatile BaseStatusSignal[] signalArray = new BaseStatusSignal[0];
+
+    static {
+        // refresh the signals before the caches are reset
+        Memo.registerUpdater(Phoenix100::refreshSignals);
+    }
+
+    /**
+     * Add signals to the batch refreshed by refreshSignals(). Readers should use
+     * getValueAsDouble() without refresh().
+     */
+    public static synchronized void registerSignals(BaseStatusSignal... s) {
+        signals.addAll(List.of(s));
+        signalArray = signals.toArray(new BaseStatusSignal[0]);
+    }
+
+    /** Remove signals from the batch, e.g. when the motor is closed. */
+    public static synchronized void unregisterSignals(BaseStatusSignal... s) {
+        signals.removeAll(List.of(s));
+        signalArray = signals.toArray(new BaseStatusSignal[0]);
+    }
+
+    /**
+     * Refresh all the registered signals at once. This runs in Memo.resetAll(), so
+     * you shouldn't need to call it yourself.
+     */
+    public static void refreshSignals() {
+        BaseStatusSignal[] all = signalArray;
+        if (all.length == 0)
+            return;
+        warn(() -> BaseStatusSignal.refreshAll(all));
+    }
+
     public static void logCrashStatus() {
         if (ACTUALLY_CRASH)
             Util.warn("***** Motor config fail will CRASH the robot, NOT FOR COMP! *****");
@@ -26,7 +26,7 @@ public class SimulatedBareMotor implements BareMotor {
     public void setDutyCycle(double dutyCycle) {
         final double output = MathUtil.clamp(
                 Util.notNaN(dutyCycle), -1, 1);
-        m_log_duty.log(() -> output);
+        m_log_duty.log(output);
         setVelocity(output * m_freeSpeedRad_S, 0, 0);
     }
 
@@ -34,7 +34,7 @@ public class SimulatedBareMotor implements BareMotor {
     public void setVelocity(double velocityRad_S, double accelRad_S2, double torqueNm) {
         m_velocity = MathUtil.clamp(
                 Util.notNaN(velocityRad_S), -m_freeSpeedRad_S, m_freeSpeedRad_S);
-        m_log_velocity.log(() -> m_velocity);
+        m_log_velocity.log(m_velocity);
     }
 
     @Override
@@ -10,6 +10,7 @@ import org.team100.lib.logging.LoggerFactory.DoubleLogger;
 import org.team100.lib.util.Memo;
 import org.team100.lib.util.Util;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfigurator;
 import com.ctre.phoenix6.controls.DutyCycleOut;
 import com.ctre.phoenix6.controls.PositionVoltage;
@@ -26,6 +27,18 @@ public abstract class Talon6Motor implements BareMotor {
     private final TalonFX m_motor;
     private final Feedforward100 m_ff;
 
+    // SIGNALS
+    // These are all refreshed together by Phoenix100.refreshSignals().
+    private final StatusSignal<Double> m_positionSignal;
+    private final StatusSignal<Double> m_velocitySignal;
+    private final StatusSignal<Double> m_dutyCycleSignal;
+    private final StatusSignal<Double> m_errorSignal;
+    private final StatusSignal<Double> m_supplySignal;
+    private final StatusSignal<Double> m_supplyVoltageSignal;
+    private final StatusSignal<Double> m_statorSignal;
+    private final StatusSignal<Double> m_tempSignal;
+    private final StatusSignal<Double> m_torqueSignal;
+
     // CACHES
     // Two levels of caching here: the cotemporal cache caches the value
     // and also the supplier
@@ -85,20 +98,42 @@ public abstract class Talon6Motor implements BareMotor {
         Phoenix100.currentConfig(talonFXConfigurator, supplyLimit, statorLimit);
         Phoenix100.pidConfig(talonFXConfigurator, lowLevelVelocityConstants);
 
-        Phoenix100.crash(() -> m_motor.getPosition().setUpdateFrequency(50));
-        Phoenix100.crash(() -> m_motor.getVelocity().setUpdateFrequency(50));
-        Phoenix100.crash(() -> m_motor.getTorqueCurrent().setUpdateFrequency(50));
-
-        // each memo refresh calls the motor refresh method
-        m_position = Memo.ofDouble(() -> m_motor.getPosition().refresh().getValueAsDouble());
-        m_velocity = Memo.ofDouble(() -> m_motor.getVelocity().refresh().getValueAsDouble());
-        m_dutyCycle = Memo.ofDouble(() -> m_motor.getDutyCycle().refresh().getValueAsDouble());
-        m_error = Memo.ofDouble(() -> m_motor.getClosedLoopError().refresh().getValueAsDouble());
-        m_supply = Memo.ofDouble(() -> m_motor.getSupplyCurrent().refresh().getValueAsDouble());
-        m_supplyVoltage = Memo.ofDouble(() -> m_motor.getSupplyVoltage().refresh().getValueAsDouble());
-        m_stator = Memo.ofDouble(() -> m_motor.getStatorCurrent().refresh().getValueAsDouble());
-        m_temp = Memo.ofDouble(() -> m_motor.getDeviceTemp().refresh().getValueAsDouble());
-        m_torque = Memo.ofDouble(() -> m_motor.getTorqueCurrent().refresh().getValueAsDouble());
+        m_positionSignal = m_motor.getPosition();
+        m_velocitySignal = m_motor.getVelocity();
+        m_dutyCycleSignal = m_motor.getDutyCycle();
+        m_errorSignal = m_motor.getClosedLoopError();
+        m_supplySignal = m_motor.getSupplyCurrent();
+        m_supplyVoltageSignal = m_motor.getSupplyVoltage();
+        m_statorSignal = m_motor.getStatorCurrent();
+        m_tempSignal = m_motor.getDeviceTemp();
+        m_torqueSignal = m_motor.getTorqueCurrent();
+
+        Phoenix100.crash(() -> m_positionSignal.setUpdateFrequency(50));
+        Phoenix100.crash(() -> m_velocitySignal.setUpdateFrequency(50));
+        Phoenix100.crash(() -> m_torqueSignal.setUpdateFrequency(50));
+
+        Phoenix100.registerSignals(
+                m_positionSignal,
+                m_velocitySignal,
+                m_dutyCycleSignal,
+                m_errorSignal,
+                m_supplySignal,
+                m_supplyVoltageSignal,
+                m_statorSignal,
+                m_tempSignal,
+                m_torqueSignal);
+
+        // the memo reset refreshes all the signals in one batch, so these just
+        // read the refreshed values.
+        m_position = Memo.ofDouble(m_positionSignal::getValueAsDouble);
+        m_velocity = Memo.ofDouble(m_velocitySignal::getValueAsDouble);
+        m_dutyCycle = Memo.ofDouble(m_dutyCycleSignal::getValueAsDouble);
+        m_error = Memo.ofDouble(m_errorSignal::getValueAsDouble);
+        m_supply = Memo.ofDouble(m_supplySignal::getValueAsDouble);
+        m_supplyVoltage = Memo.ofDouble(m_supplyVoltageSignal::getValueAsDouble);
+        m_stator = Memo.ofDouble(m_statorSignal::getValueAsDouble);
+        m_temp = Memo.ofDouble(m_tempSignal::getValueAsDouble);
+        m_torque = Memo.ofDouble(m_torqueSignal::getValueAsDouble);
 
         m_log_desired_duty = child.doubleLogger(Level.TRACE, "desired duty cycle [-1,1]");
         m_log_desired_position = child.doubleLogger(Level.DEBUG, "desired position (rev)");
@@ -126,7 +161,7 @@ public abstract class Talon6Motor implements BareMotor {
     public void setDutyCycle(double output) {
         Phoenix100.warn(() -> m_motor.setControl(m_dutyCycleOut
                 .withOutput(output)));
-        m_log_desired_duty.log(() -> output);
+        m_log_desired_duty.log(output);
         log();
     }
 
@@ -166,12 +201,12 @@ public abstract class Talon6Motor implements BareMotor {
         // m_velocityVoltage
         // .withVelocity(motorRev_S)));
 
-        m_log_desired_speed.log(() -> motorRev_S);
-        m_log_desired_accel.log(() -> motorRev_S2);
-        m_log_friction_FF.log(() -> frictionFFVolts);
-        m_log_velocity_FF.log(() -> velocityFFVolts);
-        m_log_accel_FF.log(() -> accelFFVolts);
-        m_log_torque_FF.log(() -> torqueFFVolts);
+        m_log_desired_speed.log(motorRev_S);
+        m_log_desired_accel.log(motorRev_S2);
+        m_log_friction_FF.log(frictionFFVolts);
+        m_log_velocity_FF.log(velocityFFVolts);
+        m_log_accel_FF.log(accelFFVolts);
+        m_log_torque_FF.log(torqueFFVolts);
         log();
     }
 
@@ -200,11 +235,11 @@ public abstract class Talon6Motor implements BareMotor {
                         .withPosition(motorRev)
                         .withFeedForward(kFFVolts)));
 
-        m_log_desired_position.log(() -> motorRev);
-        m_log_desired_speed.log(() -> motorRev_S);
-        m_log_friction_FF.log(() -> frictionFFVolts);
-        m_log_velocity_FF.log(() -> velocityFFVolts);
-        m_log_torque_FF.log(() -> torqueFFVolts);
+        m_log_desired_position.log(motorRev);
+        m_log_desired_speed.log(motorRev_S);
+        m_log_friction_FF.log(frictionFFVolts);
+        m_log_velocity_FF.log(velocityFFVolts);
+        m_log_torque_FF.log(torqueFFVolts);
         log();
     }
 
@@ -221,6 +256,16 @@ public abstract class Talon6Motor implements BareMotor {
 
     @Override
     public void close() {
+        Phoenix100.unregisterSignals(
+                m_positionSignal,
+                m_velocitySignal,
+                m_dutyCycleSignal,
+                m_errorSignal,
+                m_supplySignal,
+                m_supplyVoltageSignal,
+                m_statorSignal,
+                m_tempSignal,
+                m_torqueSignal);
         m_motor.close();
     }
 
@@ -270,7 +315,7 @@ public abstract class Talon6Motor implements BareMotor {
 
     /** wait a long time for a new value, do not use outside testing. */
     public double getPositionBlockingRev() {
-        return m_motor.getPosition().waitForUpdate(1).getValueAsDouble();
+        return m_positionSignal.waitForUpdate(1).getValueAsDouble();
     }
 
     protected void log() {
@@ -152,7 +152,7 @@ public class TalonSRXMotor implements BareMotor {
     @Override
     public void setDutyCycle(double output) {
         m_motor.set(output);
-        m_log_output.log(() -> output);
+        m_log_output.log(output);
         log();
     }
 
@@ -1,6 +1,7 @@
 package org.team100.lib.path;
 
 import org.team100.lib.timing.TimingUtil;
+import org.team100.lib.util.Math100;
 
 /**
  * Samples a path by distance along it.
@@ -21,9 +22,22 @@ public class PathDistanceSampler {
     }
 
     /**
+     * Binary search, O(log n).
+     * 
      * @param distance in meters
      */
     public PathSamplePoint sample(double distance) throws TimingUtil.TimingException {
+        return sample(distance, 1);
+    }
+
+    /**
+     * Searches forward from the hint first, so callers that sample in order, using
+     * the previous sample's ceiling index as the hint, are amortized O(1).
+     * 
+     * @param distance in meters
+     * @param hint     index near the answer, e.g. the previous index ceiling.
+     */
+    public PathSamplePoint sample(double distance, int hint) throws TimingUtil.TimingException {
         if (distance >= getMaxDistance()) {
             PathPoint point = m_path.getPoint(m_path.length() - 1);
             return new PathSamplePoint(point.state(), point.index(), point.index());
@@ -32,21 +46,18 @@ public class PathDistanceSampler {
             PathPoint point = m_path.getPoint(0);
             return new PathSamplePoint(point.state(), point.index(), point.index());
         }
-        for (int i = 1; i < m_distances.length; ++i) {
-            final PathPoint point = m_path.getPoint(i);
-            if (m_distances[i] >= distance) {
-                final PathPoint prev_s = m_path.getPoint(i - 1);
-                if (Math.abs(m_distances[i] - m_distances[i - 1]) <= 1e-12) {
-                    return new PathSamplePoint(point.state(), point.index(), point.index());
-                } else {
-                    return new PathSamplePoint(
-                            prev_s.state().interpolate(point.state(),
-                                    (distance - m_distances[i - 1]) / (m_distances[i] - m_distances[i - 1])),
-                            i - 1, i);
-                }
-            }
+        int i = Math100.ceilingIndex(m_distances, distance, 1, m_distances.length - 1, hint);
+        if (i >= m_distances.length)
+            throw new TimingUtil.TimingException();
+        final PathPoint point = m_path.getPoint(i);
+        final PathPoint prev_s = m_path.getPoint(i - 1);
+        if (Math.abs(m_distances[i] - m_distances[i - 1]) <= 1e-12) {
+            return new PathSamplePoint(point.state(), point.index(), point.index());
         }
-        throw new TimingUtil.TimingException();
+        return new PathSamplePoint(
+                prev_s.state().interpolate(point.state(),
+                        (distance - m_distances[i - 1]) / (m_distances[i] - m_distances[i - 1])),
+                i - 1, i);
     }
 
     public double getMaxDistance() {
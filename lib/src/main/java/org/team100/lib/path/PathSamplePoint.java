@@ -27,8 +27,8 @@ public class PathSamplePoint {
         return m_indexFloor;
     }
 
-    /** for testing */
-    int getIndexCeil() {
+    /** Useful as a search hint for the next sample. */
+    public int getIndexCeil() {
         return m_IndexCeil;
     }
 }
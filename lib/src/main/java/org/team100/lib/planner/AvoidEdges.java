@@ -16,6 +16,8 @@ public class AvoidEdges implements Tactic {
     private final Supplier<Pose2d> m_poseSupplier;
     private final ForceViz m_viz;
     private final boolean m_debug;
+    /** Scratch for apply(). */
+    private final double[] m_force = new double[2];
 
     /**
      * @param drive provides pose
@@ -33,15 +35,10 @@ public class AvoidEdges implements Tactic {
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
         Translation2d translation = m_poseSupplier.get().getTranslation();
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
-        if (translation.getX() < 1)
-            v = v.plus(new FieldRelativeVelocity(kWallRepulsion, 0, 0));
-        if (translation.getX() > 15)
-            v = v.plus(new FieldRelativeVelocity(-kWallRepulsion, 0, 0));
-        if (translation.getY() < 1)
-            v = v.plus(new FieldRelativeVelocity(0, kWallRepulsion, 0));
-        if (translation.getY() > 7)
-            v = v.plus(new FieldRelativeVelocity(0, -kWallRepulsion, 0));
+        m_force[0] = 0;
+        m_force[1] = 0;
+        addForce(translation.getX(), translation.getY(), m_force);
+        FieldRelativeVelocity v = new FieldRelativeVelocity(m_force[0], m_force[1], 0);
         if (m_debug)
             System.out.printf(" avoidEdges (%5.2f, %5.2f)", v.x(), v.y());
         if (m_debug)
@@ -49,4 +46,21 @@ public class AvoidEdges implements Tactic {
         return v;
     }
 
+    /**
+     * Add the repulsion at (x, y) to force[0] and force[1].
+     * 
+     * This depends only on position, so {@link ForceFieldPlanner} bakes it into a
+     * grid.
+     */
+    static void addForce(double x, double y, double[] force) {
+        if (x < 1)
+            force[0] += kWallRepulsion;
+        if (x > 15)
+            force[0] -= kWallRepulsion;
+        if (y < 1)
+            force[1] += kWallRepulsion;
+        if (y > 7)
+            force[1] -= kWallRepulsion;
+    }
+
 }
\ No newline at end of file
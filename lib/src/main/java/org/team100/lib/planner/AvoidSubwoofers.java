@@ -15,10 +15,18 @@ import edu.wpi.first.math.geometry.Translation2d;
  */
 public class AvoidSubwoofers implements Tactic {
     private static final double kSubwooferRepulsion = 5;
+    private static final double kMaxDistance = 3;
+    /**
+     * Closer than this is inside the subwoofer, so the force stops growing, for
+     * the same reason as in {@link ObstacleRepulsion}.
+     */
+    private static final double kMinDistance = 0.5;
 
     private final Supplier<Pose2d> m_drive;
     private final ForceViz m_viz;
     private final boolean m_debug;
+    /** Scratch for apply(). */
+    private final double[] m_force = new double[2];
 
     /**
      * @param drive provides pose
@@ -34,29 +42,40 @@ public class AvoidSubwoofers implements Tactic {
 
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
-        Pose2d pose = m_drive.get();
-        final double maxDistance = 3;
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
+        Translation2d translation = m_drive.get().getTranslation();
+        m_force[0] = 0;
+        m_force[1] = 0;
+        addForce(translation.getX(), translation.getY(), m_force);
+        FieldRelativeVelocity v = new FieldRelativeVelocity(m_force[0], m_force[1], 0);
+        if (m_debug)
+            System.out.printf(" avoidSubwoofers (%5.2f, %5.2f)", v.x(), v.y());
+        if (m_debug)
+            m_viz.tactics(translation, v);
+        return v;
+    }
+
+    /**
+     * Add the repulsion at (x, y) to force[0] and force[1].
+     * 
+     * This depends only on position, so {@link ForceFieldPlanner} bakes it into a
+     * grid.
+     */
+    static void addForce(double x, double y, double[] force) {
         for (Map.Entry<String, Pose2d> entry : FieldMap2024.subwoofers.entrySet()) {
-            Translation2d target = entry.getValue().getTranslation();
-            Translation2d robotRelativeToTarget = pose.getTranslation().minus(target);
-            double norm = robotRelativeToTarget.getNorm();
-            if (norm < maxDistance) {
+            double dx = x - entry.getValue().getX();
+            double dy = y - entry.getValue().getY();
+            double norm = Math.hypot(dx, dy);
+            if (norm >= kMaxDistance)
+                continue;
+            double r = Math.max(norm, kMinDistance);
+            // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
+            double scale = kSubwooferRepulsion * (1 / r - 1 / kMaxDistance);
+            if (norm > 0) {
                 // unit vector in the direction of the force
-                Translation2d normalized = robotRelativeToTarget.div(norm);
-                // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
-                double scale = kSubwooferRepulsion * (1 / norm - 1 / maxDistance);
-                Translation2d force = normalized.times(scale);
-                if (m_debug)
-                    System.out.printf(" avoidSubwoofers (%5.2f, %5.2f)", force.getX(), force.getY());
-                FieldRelativeVelocity subwooferRepel = new FieldRelativeVelocity(force.getX(), force.getY(), 0);
-                if (m_debug)
-                    m_viz.tactics(pose.getTranslation(), subwooferRepel);
-                v = v.plus(subwooferRepel);
+                force[0] += scale * dx / norm;
+                force[1] += scale * dy / norm;
             }
         }
-        return v;
-
     }
 
 }
@@ -1,11 +1,149 @@
 package org.team100.lib.planner;
 
+import java.util.function.Supplier;
+
+import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeVelocity;
+import org.team100.lib.util.Debug;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
 /**
  * Implements "virtual force field" motion planning, i.e. "drive towards the
  * goal and away from obstacles."
- * 
+ *
+ * The fixed obstacles (stage posts, subwoofers, field edges) don't move, so
+ * their repulsion is computed once, at startup, on a grid covering the field,
+ * and looked up with bilinear interpolation, which is a few array reads instead
+ * of a walk through the field map. Moving obstacles (i.e. other robots) are
+ * added on top, if a tactic for them is supplied.
+ *
+ * The grid depends only on which fixed obstacles are included, so each
+ * combination is computed once, the first time it's asked for, and shared by
+ * all the planners.
+ *
  * see the study called dyn4j_for_sim for the origin of these ideas.
  */
-public class ForceFieldPlanner {
+public class ForceFieldPlanner implements Tactic {
+    /** Grid spacing, meters. */
+    private static final double kResolution = 0.1;
+    /** A little bigger than the field. */
+    private static final double kLengthM = 16.6;
+    private static final double kWidthM = 8.3;
+    private static final int kNx = (int) Math.ceil(kLengthM / kResolution) + 1;
+    private static final int kNy = (int) Math.ceil(kWidthM / kResolution) + 1;
+    /** Shared grids, indexed by grid(), null until used. */
+    private static final double[][] kGrids = new double[4][];
+
+    private final Supplier<Pose2d> m_drive;
+    private final Tactic m_dynamic;
+    private final ForceViz m_viz;
+    private final boolean m_debug;
+    /** Interleaved (fx, fy), row-major in x. Shared, so don't write it. */
+    private final double[] m_grid;
+    /** Scratch for apply(). */
+    private final double[] m_force = new double[2];
+
+    /**
+     * @param drive          provides pose
+     * @param avoidObstacles include the stage posts
+     * @param avoidEdges     include the field edges and subwoofers
+     * @param dynamic        moving obstacles, e.g. {@link RobotRepulsion}, or null
+     */
+    public ForceFieldPlanner(
+            Supplier<Pose2d> drive,
+            boolean avoidObstacles,
+            boolean avoidEdges,
+            Tactic dynamic,
+            ForceViz viz,
+            boolean debug) {
+        m_drive = drive;
+        m_dynamic = dynamic;
+        m_viz = viz;
+        m_debug = debug && Debug.enable();
+        m_grid = grid(avoidObstacles, avoidEdges);
+    }
+
+    /** The shared grid for these obstacles, computed on first use. */
+    static synchronized double[] grid(boolean avoidObstacles, boolean avoidEdges) {
+        int index = (avoidObstacles ? 1 : 0) + (avoidEdges ? 2 : 0);
+        if (kGrids[index] == null)
+            kGrids[index] = bake(avoidObstacles, avoidEdges);
+        return kGrids[index];
+    }
+
+    private static double[] bake(boolean avoidObstacles, boolean avoidEdges) {
+        double[] grid = new double[2 * kNx * kNy];
+        double[] f = new double[2];
+        for (int i = 0; i < kNx; ++i) {
+            for (int j = 0; j < kNy; ++j) {
+                double x = i * kResolution;
+                double y = j * kResolution;
+                f[0] = 0;
+                f[1] = 0;
+                if (avoidObstacles)
+                    ObstacleRepulsion.addForce(x, y, f);
+                if (avoidEdges) {
+                    AvoidEdges.addForce(x, y, f);
+                    AvoidSubwoofers.addForce(x, y, f);
+                }
+                int k = 2 * (i * kNy + j);
+                grid[k] = f[0];
+                grid[k + 1] = f[1];
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Fixed-obstacle repulsion at (x, y), interpolated from the grid. Positions
+     * off the field use the nearest edge.
+     *
+     * @param force output: x in force[0], y in force[1]
+     */
+    public void staticForce(double x, double y, double[] force) {
+        double gx = clamp(x / kResolution, kNx - 1);
+        double gy = clamp(y / kResolution, kNy - 1);
+        int i = Math.min((int) gx, kNx - 2);
+        int j = Math.min((int) gy, kNy - 2);
+        double u = gx - i;
+        double v = gy - j;
+        int k00 = 2 * (i * kNy + j);
+        int k01 = k00 + 2;
+        int k10 = k00 + 2 * kNy;
+        int k11 = k10 + 2;
+        double w00 = (1 - u) * (1 - v);
+        double w01 = (1 - u) * v;
+        double w10 = u * (1 - v);
+        double w11 = u * v;
+        force[0] = w00 * m_grid[k00] + w01 * m_grid[k01] + w10 * m_grid[k10] + w11 * m_grid[k11];
+        force[1] = w00 * m_grid[k00 + 1] + w01 * m_grid[k01 + 1] + w10 * m_grid[k10 + 1] + w11 * m_grid[k11 + 1];
+    }
+
+    @Override
+    public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
+        Translation2d position = m_drive.get().getTranslation();
+        staticForce(position.getX(), position.getY(), m_force);
+        double x = m_force[0];
+        double y = m_force[1];
+        if (m_dynamic != null) {
+            FieldRelativeVelocity d = m_dynamic.apply(desired);
+            x += d.x();
+            y += d.y();
+        }
+        FieldRelativeVelocity v = new FieldRelativeVelocity(x, y, 0);
+        if (m_debug)
+            System.out.printf(" forceField (%5.2f, %5.2f)", x, y);
+        if (m_debug)
+            m_viz.tactics(position, v);
+        return v;
+    }
 
+    private static double clamp(double g, int max) {
+        if (g < 0)
+            return 0;
+        if (g > max)
+            return max;
+        return g;
+    }
 }
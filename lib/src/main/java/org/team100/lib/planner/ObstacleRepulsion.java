@@ -13,10 +13,20 @@ import edu.wpi.first.math.geometry.Translation2d;
  */
 public class ObstacleRepulsion implements Tactic {
     private static final double kObstacleRepulsion = 10;
+    private static final double kMaxDistance = 1.5;
+    /**
+     * Closer than this is inside the post, so the force stops growing. Without
+     * this, a grid node near the center of a post would hold a huge force, and
+     * {@link ForceFieldPlanner} would spread it to the neighboring cells.
+     */
+    private static final double kMinDistance = FieldMap2024.stagePostSizeM / 2;
 
     private final Supplier<Pose2d> m_poseSupplier;
     private final ForceViz m_viz;
     private final boolean m_debug;
+    // scratch for apply()
+    private final double[] m_force = new double[2];
+    private final double[] m_repel = new double[2];
 
     /**
      * @param drive provides pose
@@ -32,29 +42,59 @@ public class ObstacleRepulsion implements Tactic {
 
     @Override
     public FieldRelativeVelocity apply(FieldRelativeVelocity desired) {
-        Pose2d myPosition = m_poseSupplier.get();
-        final double maxDistance = 1.5;
-        FieldRelativeVelocity v = new FieldRelativeVelocity(0, 0, 0);
+        Translation2d myPosition = m_poseSupplier.get().getTranslation();
+        double[] force = m_force;
+        double[] repel = m_repel;
+        force[0] = 0;
+        force[1] = 0;
         for (Pose2d pose : FieldMap2024.stagePosts.values()) {
-            Translation2d target = pose.getTranslation();
-            Translation2d robotRelativeToTarget = myPosition.getTranslation().minus(target);
-            double norm = robotRelativeToTarget.getNorm();
-            if (norm < maxDistance) {
-                // unit vector in the direction of the force
-                Translation2d normalized = robotRelativeToTarget.div(norm);
-                // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
-                // the minimum distance is something like 0.75, so
-                // the maximum force is (1.3-0.3) = 0.6 * k
-                double scale = kObstacleRepulsion * (1 / norm - 1 / maxDistance);
-                Translation2d force = normalized.times(scale);
-                if (m_debug)
-                    System.out.printf(" obstacleRepulsion (%5.2f, %5.2f)", force.getX(), force.getY());
-                FieldRelativeVelocity repel = new FieldRelativeVelocity(force.getX(), force.getY(), 0);
-                if (m_debug)
-                    m_viz.tactics(target, repel);
-                v = v.plus(repel);
-            }
+            repel[0] = 0;
+            repel[1] = 0;
+            if (!addForce(myPosition.getX(), myPosition.getY(), pose, repel))
+                continue;
+            force[0] += repel[0];
+            force[1] += repel[1];
+            if (m_debug)
+                System.out.printf(" obstacleRepulsion (%5.2f, %5.2f)", repel[0], repel[1]);
+            if (m_debug)
+                m_viz.tactics(pose.getTranslation(), new FieldRelativeVelocity(repel[0], repel[1], 0));
+        }
+        return new FieldRelativeVelocity(force[0], force[1], 0);
+    }
+
+    /**
+     * Add the repulsion at (x, y) to force[0] and force[1].
+     * 
+     * This depends only on position, so {@link ForceFieldPlanner} bakes it into a
+     * grid.
+     */
+    static void addForce(double x, double y, double[] force) {
+        for (Pose2d pose : FieldMap2024.stagePosts.values()) {
+            addForce(x, y, pose, force);
+        }
+    }
+
+    /**
+     * Add the repulsion from one post.
+     * 
+     * @return true if (x, y) is within range of the post
+     */
+    private static boolean addForce(double x, double y, Pose2d post, double[] force) {
+        double dx = x - post.getX();
+        double dy = y - post.getY();
+        double norm = Math.hypot(dx, dy);
+        if (norm >= kMaxDistance)
+            return false;
+        double r = Math.max(norm, kMinDistance);
+        // scale the force so that it's zero at the maximum distance, i.e. C0 smooth.
+        // the minimum distance is something like 0.75, so
+        // the maximum force is (1.3-0.3) = 0.6 * k
+        double scale = kObstacleRepulsion * (1 / r - 1 / kMaxDistance);
+        if (norm > 0) {
+            // unit vector in the direction of the force
+            force[0] += scale * dx / norm;
+            force[1] += scale * dy / norm;
         }
-        return v;
+        return true;
     }
 }
\ No newline at end of file
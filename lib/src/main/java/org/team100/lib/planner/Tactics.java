@@ -54,16 +54,18 @@ public class Tactics implements UnaryOperator<FieldRelativeVelocity> {
         m_tactics = new ArrayList<>();
         if (avoidObstacles) {
             m_tactics.add(new SteerAroundObstacles(m_drive, viz, debug));
-            m_tactics.add(new ObstacleRepulsion(m_drive, viz, debug));
-        }
-        if (avoidEdges) {
-            m_tactics.add(new AvoidEdges(m_drive, viz, debug));
-            m_tactics.add(new AvoidSubwoofers(m_drive, viz, debug));
         }
         if (avoidRobots) {
             m_tactics.add(new SteerAroundRobots(m_drive, m_camera, viz, debug));
-            m_tactics.add(new RobotRepulsion(m_drive, m_camera, viz, debug));
         }
+        // all the repulsion, fixed and moving.
+        m_tactics.add(new ForceFieldPlanner(
+                m_drive,
+                avoidObstacles,
+                avoidEdges,
+                avoidRobots ? new RobotRepulsion(m_drive, m_camera, viz, debug) : null,
+                viz,
+                debug));
         m_debug = debug && Debug.enable();
     }
 
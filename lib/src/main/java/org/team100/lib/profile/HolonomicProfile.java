@@ -14,6 +14,11 @@ import org.team100.lib.state.Control100;
  */
 public class HolonomicProfile {
     private static final double ETA_TOLERANCE = 0.02;
+    /**
+     * If the initial and goal states are this close to the previous ones, solve()
+     * reuses the previous scale factors.
+     */
+    private static final double MEMO_TOLERANCE = 1e-4;
 
     private final double m_dt;
     private final TrapezoidProfile100 px;
@@ -24,6 +29,9 @@ public class HolonomicProfile {
     private TrapezoidProfile100 ppy;
     private TrapezoidProfile100 pptheta;
 
+    private SwerveModel m_lastInitial;
+    private SwerveModel m_lastGoal;
+
     public HolonomicProfile(
             double dt,
             double maxXYVel,
@@ -40,6 +48,12 @@ public class HolonomicProfile {
 
     /** Reset the scale factors. */
     public void solve(SwerveModel i, SwerveModel g) {
+        if (m_lastInitial != null
+                && near(i, m_lastInitial)
+                && near(g, m_lastGoal)) {
+            // nothing has changed, the previous solution is fine.
+            return;
+        }
         // first find the max ETA
         ResultWithETA rx = px.calculateWithETA(m_dt, i.x(), g.x());
         ResultWithETA ry = py.calculateWithETA(m_dt, i.y(), g.y());
@@ -56,6 +70,8 @@ public class HolonomicProfile {
         ppx = px.scale(sx);
         ppy = py.scale(sy);
         pptheta = ptheta.scale(stheta);
+        m_lastInitial = i;
+        m_lastGoal = g;
     }
 
     public SwerveControl calculate(SwerveModel i, SwerveModel g) {
@@ -64,4 +80,10 @@ public class HolonomicProfile {
         Control100 stateTheta = pptheta.calculate(m_dt, i.theta(), g.theta());
         return new SwerveControl(stateX, stateY, stateTheta);
     }
+
+    private static boolean near(SwerveModel a, SwerveModel b) {
+        return a.x().near(b.x(), MEMO_TOLERANCE)
+                && a.y().near(b.y(), MEMO_TOLERANCE)
+                && a.theta().near(b.theta(), MEMO_TOLERANCE);
+    }
 }
@@ -2,7 +2,6 @@ package org.team100.lib.profile;
 
 import org.team100.lib.state.Control100;
 import org.team100.lib.state.Model100;
-import org.team100.lib.util.Math100;
 import org.team100.lib.util.Util;
 
 import edu.wpi.first.math.MathUtil;
@@ -58,6 +57,8 @@ import edu.wpi.first.math.MathUtil;
  */
 public class TrapezoidProfile100 implements Profile100 {
     private static final boolean DEBUG = false;
+    /** Below this, velocities count as zero for the rest-to-rest ETA solver. */
+    private static final double kRestVelocity = 1e-6;
 
     private final double m_maxVelocity;
     private final double m_maxAcceleration;
@@ -89,10 +90,16 @@ public class TrapezoidProfile100 implements Profile100 {
      * Return scale factor to make the ETA equal to the desired ETA, by reducing
      * acceleration.
      * 
-     * It never returns s > 1, and it also never scales more than 10X, i.e. never
+     * It never returns s > 1, and it also never scales more than 100X, i.e. never
      * returns s < 0.01.
      * 
-     * It is very approximate, in order to not run too long. It's very primitive.
+     * For rest-to-rest profiles, the answer is found directly: the ETA is
+     * either 2 sqrt(d/a) (triangle) or d/v + v/a (trapezoid), both of which are
+     * easy to invert. Otherwise, the ETA is found by a few secant steps in 1/s,
+     * which is nearly linear in the ETA (exactly linear, for the trapezoid
+     * case).
+     * 
+     * @param sTolerance how close the resulting ETA should be, in seconds.
      */
     public static double solveForSlowerETA(
             double maxV,
@@ -105,13 +112,63 @@ public class TrapezoidProfile100 implements Profile100 {
             double sTolerance) {
         final double minS = 0.01;
         final double maxS = 1.0;
-        return Math100.findRoot(
-                s -> getEtaS(maxV, maxA, tol, dt, initial, goal, eta, s),
-                minS,
-                getEtaS(maxV, maxA, tol, dt, initial, goal, eta, minS),
-                maxS,
-                getEtaS(maxV, maxA, tol, dt, initial, goal, eta, maxS),
-                sTolerance, 100);
+        if (goal.near(initial, tol))
+            return maxS;
+        if (Math.abs(initial.v()) < kRestVelocity && Math.abs(goal.v()) < kRestVelocity) {
+            return MathUtil.clamp(
+                    restToRestScale(maxV, maxA, Math.abs(goal.x() - initial.x()), eta),
+                    minS, maxS);
+        }
+        // the fastest profile is already slow enough.
+        double f1 = getEtaS(maxV, maxA, tol, dt, initial, goal, eta, maxS);
+        if (f1 >= -sTolerance)
+            return maxS;
+        // the slowest profile is still too fast.
+        double f0 = getEtaS(maxV, maxA, tol, dt, initial, goal, eta, minS);
+        if (f0 <= sTolerance)
+            return minS;
+        // Illinois-style regula falsi on w = 1/s, which keeps the bracket.
+        double w0 = 1 / minS;
+        double w1 = 1 / maxS;
+        for (int i = 0; i < 50; ++i) {
+            double w = w1 - f1 * (w1 - w0) / (f1 - f0);
+            double f = getEtaS(maxV, maxA, tol, dt, initial, goal, eta, 1 / w);
+            if (Math.abs(f) < sTolerance)
+                return 1 / w;
+            if (Math.signum(f) == Math.signum(f1)) {
+                // replace the same side, and halve the other side's weight so it
+                // doesn't get stuck.
+                f0 /= 2;
+            } else {
+                w0 = w1;
+                f0 = f1;
+            }
+            w1 = w;
+            f1 = f;
+        }
+        return 1 / w1;
+    }
+
+    /**
+     * Acceleration scale to take d meters from rest to rest in eta seconds.
+     * Not clamped.
+     */
+    static double restToRestScale(double maxV, double maxA, double d, double eta) {
+        if (eta <= 0)
+            return 1.0;
+        // try the triangle first: d = a (eta/2)^2
+        double a = 4 * d / (eta * eta);
+        if (a * d > maxV * maxV) {
+            // the peak would be over the limit, so it's a trapezoid:
+            // eta = d/v + v/a
+            if (eta * maxV <= d) {
+                // even cruising the whole way at maxV is too slow,
+                // so the fastest profile is the best we can do.
+                return 1.0;
+            }
+            a = maxV * maxV / (eta * maxV - d);
+        }
+        return a / maxA;
     }
 
     private static double getEtaS(
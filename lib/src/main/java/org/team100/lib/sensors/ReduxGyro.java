@@ -49,7 +49,7 @@ public class ReduxGyro implements Gyro {
     @Override
     public double getYawRateNWU() {
         double yawRateRad_S = Units.rotationsToRadians(m_gyro.getAngularVelocityYaw());
-        m_log_yaw_rate.log(() -> yawRateRad_S);
+        m_log_yaw_rate.log(yawRateRad_S);
         return yawRateRad_S;
     }
 
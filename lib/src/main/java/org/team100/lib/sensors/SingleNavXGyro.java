@@ -171,10 +171,10 @@ public class SingleNavXGyro implements Gyro {
 
     @Override
     public double getYawRateNWU() {
-        m_log_heading_rate.log(() -> m_yawRateRad_S);
+        m_log_heading_rate.log(m_yawRateRad_S);
         return m_yawRateRad_S;
         // double currentHeadingRateNWU = Math.toRadians(getYawRateNEDDeg_s());
-        // m_log_heading_rate.log(() -> currentHeadingRateNWU);
+        // m_log_heading_rate.log(currentHeadingRateNWU);
         // return currentHeadingRateNWU;
     }
 
@@ -204,7 +204,7 @@ public class SingleNavXGyro implements Gyro {
      */
     private float getYawNEDDeg() {
         float yawDeg = m_ahrs.getYaw() * m_yawScaleFactor;
-        m_log_yaw_deg.log(() -> yawDeg);
+        m_log_yaw_deg.log(yawDeg);
         return yawDeg;
     }
 
@@ -213,7 +213,7 @@ public class SingleNavXGyro implements Gyro {
      */
     private float getPitchDeg() {
         float pitchDeg = m_ahrs.getPitch();
-        m_log_pitch_deg.log(() -> pitchDeg);
+        m_log_pitch_deg.log(pitchDeg);
         return pitchDeg;
     }
 
@@ -222,7 +222,7 @@ public class SingleNavXGyro implements Gyro {
      */
     private float getRollDeg() {
         float rollDeg = m_ahrs.getRoll();
-        m_log_roll_deg.log(() -> rollDeg);
+        m_log_roll_deg.log(rollDeg);
         return rollDeg;
     }
 
@@ -236,7 +236,7 @@ public class SingleNavXGyro implements Gyro {
      */
     private float getYawRateNEDDeg_s() {
         final float rateDeg_S = getRateDeg_S() * m_yawRateScaleFactor;
-        m_log_yaw_rate_deg.log(() -> rateDeg_S);
+        m_log_yaw_rate_deg.log(rateDeg_S);
         return rateDeg_S;
     }
 
@@ -267,9 +267,9 @@ public class SingleNavXGyro implements Gyro {
 
     private void logStuff() {
         if (m_ahrs.isConnected()) {
-            m_log_connected.log(() -> true);
+            m_log_connected.log(true);
         } else {
-            m_log_connected.log(() -> false);
+            m_log_connected.log(false);
         }
         m_log_yaw_deg.log(m_ahrs::getYaw);
     }
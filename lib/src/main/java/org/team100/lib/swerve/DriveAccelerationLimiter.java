@@ -38,7 +38,7 @@ public class DriveAccelerationLimiter implements Glassy {
                     prev_vy[i],
                     desired_vx[i],
                     desired_vy[i]);
-            m_log_max_step.log(() -> max_vel_step);
+            m_log_max_step.log(max_vel_step);
 
             // reduces the size of the search space if min_s is already constrained (by
             // earlier modules)
@@ -58,7 +58,7 @@ public class DriveAccelerationLimiter implements Glassy {
             }
         }
         final double s = min_s;
-        m_log_s.log(() -> s);
+        m_log_s.log(s);
         return min_s;
     }
 
@@ -62,7 +62,7 @@ public class SteeringRateLimiter implements Glassy {
             min_s = Math.min(min_s, s);
         }
         double s = min_s;
-        m_log_s.log(() -> s);
+        m_log_s.log(s);
         return min_s;
     }
 
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.team100.lib.geometry.Pose2dWithMotion;
 import org.team100.lib.path.PathDistanceSampler;
+import org.team100.lib.path.PathSamplePoint;
 import org.team100.lib.trajectory.Trajectory100;
 import org.team100.lib.util.Util;
 
@@ -40,9 +41,12 @@ public class TimingUtil {
                 throw new IllegalArgumentException();
             int num_states = (int) Math.ceil(maxDistance / step + 1);
             List<Pose2dWithMotion> samples = new ArrayList<>(num_states);
+            // samples are in order, so each search starts where the last one ended.
+            int hint = 1;
             for (int i = 0; i < num_states; ++i) {
-                Pose2dWithMotion state = sampler.sample(Math.min(i * step, maxDistance)).state();
-                samples.add(state);
+                PathSamplePoint sample = sampler.sample(Math.min(i * step, maxDistance), hint);
+                samples.add(sample.state());
+                hint = sample.getIndexCeil();
             }
             return timeParameterizeTrajectory(samples, start_vel, end_vel);
         } catch (TimingException e) {
@@ -0,0 +1,282 @@
+package org.team100.lib.trajectory;
+
+import java.util.Optional;
+
+import org.team100.lib.geometry.Pose2dWithMotion;
+import org.team100.lib.timing.TimedPose;
+import org.team100.lib.util.Math100;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+
+/**
+ * Immutable trajectory stored as columns of primitives, instead of a list of
+ * TrajectoryPoint -> TimedPose -> Pose2dWithMotion -> Pose2d -> ... objects.
+ *
+ * A 1cm-resolution path is thousands of points, and each point in Trajectory100
+ * is about ten objects, so this is much smaller, and walking it is much more
+ * cache-friendly.
+ *
+ * Sampling does the same interpolation as TrajectoryTimeSampler (i.e.
+ * TimedPose.interpolate2()), but with primitive arithmetic, writing into a
+ * caller-owned Sample, so it doesn't allocate anything.
+ */
+public final class CompactTrajectory100 {
+    private final int m_length;
+    /** Field-relative position, meters */
+    private final double[] m_x;
+    private final double[] m_y;
+    /** Robot heading, radians */
+    private final double[] m_heading;
+    /**
+     * Motion direction per meter of travel, i.e. the course. Zero for
+     * turn-in-place.
+     */
+    private final double[] m_courseDx;
+    private final double[] m_courseDy;
+    /** Heading rate, radians per meter. */
+    private final double[] m_headingRate;
+    /** Course curvature, radians per meter. */
+    private final double[] m_curvature;
+    /** Radians per meter squared. */
+    private final double[] m_dCurvatureDs;
+    /** Schedule, seconds */
+    private final double[] m_t;
+    /** Path velocity, m/s */
+    private final double[] m_v;
+    /** Path acceleration, m/s/s */
+    private final double[] m_a;
+
+    public CompactTrajectory100(Trajectory100 trajectory) {
+        m_length = trajectory.length();
+        m_x = new double[m_length];
+        m_y = new double[m_length];
+        m_heading = new double[m_length];
+        m_courseDx = new double[m_length];
+        m_courseDy = new double[m_length];
+        m_headingRate = new double[m_length];
+        m_curvature = new double[m_length];
+        m_dCurvatureDs = new double[m_length];
+        m_t = new double[m_length];
+        m_v = new double[m_length];
+        m_a = new double[m_length];
+        for (int i = 0; i < m_length; ++i) {
+            TimedPose timedPose = trajectory.getPoint(i).state();
+            Pose2dWithMotion state = timedPose.state();
+            Pose2d pose = state.getPose();
+            m_x[i] = pose.getX();
+            m_y[i] = pose.getY();
+            m_heading[i] = pose.getRotation().getRadians();
+            Optional<Rotation2d> course = state.getCourse();
+            if (course.isPresent()) {
+                m_courseDx[i] = course.get().getCos();
+                m_courseDy[i] = course.get().getSin();
+            }
+            m_headingRate[i] = state.getHeadingRate();
+            m_curvature[i] = state.getCurvature();
+            m_dCurvatureDs[i] = state.getDCurvatureDs();
+            m_t[i] = timedPose.getTimeS();
+            m_v[i] = timedPose.velocityM_S();
+            m_a[i] = timedPose.acceleration();
+        }
+    }
+
+    public boolean isEmpty() {
+        return m_length == 0;
+    }
+
+    public int length() {
+        return m_length;
+    }
+
+    public double getStartS() {
+        return m_t[0];
+    }
+
+    public double getEndS() {
+        return m_t[m_length - 1];
+    }
+
+    public double getTotalTimeSeconds() {
+        return getEndS();
+    }
+
+    /** Scheduled time of the point at the index. */
+    public double getTimeS(int index) {
+        return m_t[index];
+    }
+
+    /**
+     * Write the interpolated state at the given time into the sample.
+     *
+     * @param timeS seconds
+     * @param hint  index near the answer, e.g. the previous return value, to make
+     *              sequential sampling amortized O(1).
+     * @param out   filled with the result
+     * @return ceiling index of the sample, to use as the next hint.
+     */
+    public int sample(double timeS, int hint, Sample out) {
+        if (Double.isNaN(timeS)) {
+            throw new IllegalArgumentException("time is NaN");
+        }
+        if (timeS >= getEndS()) {
+            copy(m_length - 1, out);
+            return m_length - 1;
+        }
+        if (timeS <= getStartS()) {
+            copy(0, out);
+            return 0;
+        }
+        int i = Math100.ceilingIndex(m_t, timeS, 1, m_length - 1, hint);
+        if (Math.abs(m_t[i] - m_t[i - 1]) <= 1e-12) {
+            copy(i, out);
+            return i;
+        }
+        interpolate(i - 1, i, (timeS - m_t[i - 1]) / (m_t[i] - m_t[i - 1]), out);
+        return i;
+    }
+
+    /**
+     * Same as TrajectoryTimeSampler.sample(), for callers that want objects. This
+     * allocates.
+     */
+    public Optional<TrajectorySamplePoint> sample(double timeS) {
+        Sample s = new Sample();
+        int i = sample(timeS, 1, s);
+        int floor = s.t == m_t[i] ? i : i - 1;
+        return Optional.of(new TrajectorySamplePoint(s.toTimedPose(), floor, i));
+    }
+
+    /** Mutable holder for sample results; reuse it to avoid allocation. */
+    public static class Sample {
+        public double x;
+        public double y;
+        public double heading;
+        public double courseDx;
+        public double courseDy;
+        public double headingRate;
+        public double curvature;
+        public double dCurvatureDs;
+        public double t;
+        public double v;
+        public double a;
+
+        /** False for turn-in-place (or motionless). */
+        public boolean hasCourse() {
+            return Math.hypot(courseDx, courseDy) > 1e-12;
+        }
+
+        /** Course in radians, only meaningful if hasCourse(). */
+        public double course() {
+            return Math.atan2(courseDy, courseDx);
+        }
+
+        /** This allocates. */
+        public TimedPose toTimedPose() {
+            return new TimedPose(
+                    new Pose2dWithMotion(
+                            new Pose2d(x, y, new Rotation2d(heading)),
+                            new Twist2d(courseDx, courseDy, headingRate),
+                            curvature,
+                            dCurvatureDs),
+                    t, v, a);
+        }
+    }
+
+    ///////////////////////////////////////////////////
+
+    private void copy(int i, Sample out) {
+        out.x = m_x[i];
+        out.y = m_y[i];
+        out.heading = m_heading[i];
+        out.courseDx = m_courseDx[i];
+        out.courseDy = m_courseDy[i];
+        out.headingRate = m_headingRate[i];
+        out.curvature = m_curvature[i];
+        out.dCurvatureDs = m_dCurvatureDs[i];
+        out.t = m_t[i];
+        out.v = m_v[i];
+        out.a = m_a[i];
+    }
+
+    /**
+     * Same as TimedPose.interpolate2(), using the constant-acceleration distance
+     * to find the spatial interpolant.
+     */
+    private void interpolate(int i0, int i1, double x, Sample out) {
+        final double t = MathUtil.interpolate(m_t[i0], m_t[i1], x);
+        final double dt = t - m_t[i0];
+        final double v0 = m_v[i0];
+        final double a0 = m_a[i0];
+        final boolean reversing = v0 < 0.0 || (Math.abs(v0) <= 1e-12 && a0 < 0.0);
+        final double s = (reversing ? -1.0 : 1.0) * (v0 * dt + 0.5 * a0 * dt * dt);
+
+        // Pose2d.log(), i.e. the constant twist from p0 to p1
+        final double h0 = m_heading[i0];
+        final double cos0 = Math.cos(h0);
+        final double sin0 = Math.sin(h0);
+        final double dxField = m_x[i1] - m_x[i0];
+        final double dyField = m_y[i1] - m_y[i0];
+        final double tx = dxField * cos0 + dyField * sin0;
+        final double ty = -dxField * sin0 + dyField * cos0;
+        final double dtheta = MathUtil.angleModulus(m_heading[i1] - h0);
+        final double halfDtheta = dtheta / 2.0;
+        final double cosMinusOne = Math.cos(dtheta) - 1;
+        final double halfThetaByTanOfHalfDtheta;
+        if (Math.abs(cosMinusOne) < 1e-9) {
+            halfThetaByTanOfHalfDtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+        } else {
+            halfThetaByTanOfHalfDtheta = -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+        }
+        final double twistDx = tx * halfThetaByTanOfHalfDtheta + ty * halfDtheta;
+        final double twistDy = -tx * halfDtheta + ty * halfThetaByTanOfHalfDtheta;
+
+        // arc length between the points
+        final double distance = twistDy == 0.0 ? Math.abs(twistDx) : Math.hypot(twistDx, twistDy);
+        double interpolant = s / distance;
+        if (Double.isNaN(interpolant)) {
+            interpolant = 1.0;
+        }
+
+        // Pose2d.interpolate(), i.e. exp() of the scaled twist
+        if (interpolant < 0) {
+            out.x = m_x[i0];
+            out.y = m_y[i0];
+            out.heading = h0;
+        } else if (interpolant >= 1) {
+            out.x = m_x[i1];
+            out.y = m_y[i1];
+            out.heading = m_heading[i1];
+        } else {
+            final double sdx = twistDx * interpolant;
+            final double sdy = twistDy * interpolant;
+            final double sdtheta = dtheta * interpolant;
+            final double sinTheta = Math.sin(sdtheta);
+            final double cosTheta = Math.cos(sdtheta);
+            final double sc;
+            final double cc;
+            if (Math.abs(sdtheta) < 1e-9) {
+                sc = 1.0 - 1.0 / 6.0 * sdtheta * sdtheta;
+                cc = 0.5 * sdtheta;
+            } else {
+                sc = sinTheta / sdtheta;
+                cc = (1 - cosTheta) / sdtheta;
+            }
+            final double lx = sdx * sc - sdy * cc;
+            final double ly = sdx * cc + sdy * sc;
+            out.x = m_x[i0] + lx * cos0 - ly * sin0;
+            out.y = m_y[i0] + lx * sin0 + ly * cos0;
+            out.heading = MathUtil.angleModulus(h0 + sdtheta);
+        }
+        out.courseDx = MathUtil.interpolate(m_courseDx[i0], m_courseDx[i1], interpolant);
+        out.courseDy = MathUtil.interpolate(m_courseDy[i0], m_courseDy[i1], interpolant);
+        out.headingRate = MathUtil.interpolate(m_headingRate[i0], m_headingRate[i1], interpolant);
+        out.curvature = Math100.interpolate(m_curvature[i0], m_curvature[i1], interpolant);
+        out.dCurvatureDs = Math100.interpolate(m_dCurvatureDs[i0], m_dCurvatureDs[i1], interpolant);
+        out.t = t;
+        out.v = v0 + a0 * dt;
+        out.a = a0;
+    }
+}
@@ -0,0 +1,327 @@
+package org.team100.lib.trajectory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+import org.team100.lib.geometry.Pose2dWithMotion;
+import org.team100.lib.timing.TimedPose;
+import org.team100.lib.timing.TimingConstraint;
+import org.team100.lib.timing.TimingConstraint.MinMaxAcceleration;
+import org.team100.lib.util.Util;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Precomputed trajectories, stored in a binary file, so that we don't have to
+ * run the spline optimizer and the timing passes for every auton routine at
+ * boot.
+ *
+ * Each trajectory is keyed by a hash of the waypoints, the headings, and the
+ * behavior of the constraints. Constraints are opaque, so instead of hashing
+ * their parameters, we hash their output over a fixed set of probe states, on
+ * a one meter grid: if someone changes a max velocity or acceleration, the key
+ * changes. A change that only matters between the probes, e.g. moving a small
+ * slow-down region, does NOT change the key, so in that case delete the file.
+ *
+ * Probing is a few thousand calls per constraint, so the result is remembered
+ * for each constraint instance, as long as the instance is in use; constraints
+ * should be immutable.
+ *
+ * The file is read in one piece on construction, and trajectories are decoded
+ * only when asked for. If the key isn't there (or the file is missing or
+ * stale), the trajectory is generated as usual, and save() will write a new
+ * file.
+ *
+ * The file isn't memory-mapped: Java can't unmap a file on demand, and Windows
+ * (i.e. simulation) won't replace a file that's mapped, so save() would fail.
+ * The file is small, so reading it is cheap anyway.
+ *
+ * The intended workflow is to run the robot code once in simulation, which
+ * writes the file into src/main/deploy, and then deploy it with everything
+ * else. If that doesn't happen, the first boot on the RoboRIO writes it, and
+ * the second boot is fast.
+ *
+ * If you change the planner itself (e.g. spline resolution), bump kVersion.
+ */
+public class TrajectoryCache {
+    private static final int kMagic = 0x54313030; // "T100"
+    private static final int kVersion = 1;
+    /** x, y, heading, course dx, dy, heading rate, curvature, dk/ds, t, v, a */
+    private static final int kDoublesPerPoint = 11;
+    /**
+     * Probe hash for each constraint instance, see above. Weak, so it doesn't
+     * keep old constraints alive.
+     */
+    private static final Map<TimingConstraint, Long> kProbeHashes = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    private final Path m_path;
+    /** Key => byte offset of the point count, in the buffer. */
+    private final Map<Long, Integer> m_index;
+    /** The file contents. */
+    private ByteBuffer m_buffer;
+    /** Everything asked for since construction, in the order asked. */
+    private final Map<Long, Trajectory100> m_used;
+    private boolean m_dirty;
+
+    /** Uses the named file in the deploy directory. */
+    public static TrajectoryCache deploy(String filename) {
+        return new TrajectoryCache(Filesystem.getDeployDirectory().toPath().resolve(filename));
+    }
+
+    public TrajectoryCache(Path path) {
+        m_path = path;
+        m_index = new HashMap<>();
+        m_used = new LinkedHashMap<>();
+        m_buffer = load(path, m_index);
+        m_dirty = false;
+    }
+
+    /**
+     * Same as TrajectoryPlanner.restToRest(), but uses the cached trajectory if
+     * there is one.
+     */
+    public Trajectory100 restToRest(
+            List<Pose2d> waypoints,
+            List<Rotation2d> headings,
+            List<TimingConstraint> constraints) {
+        long key = key(waypoints, headings, constraints);
+        Trajectory100 trajectory = m_used.get(key);
+        if (trajectory != null)
+            return trajectory;
+        Integer offset = m_index.get(key);
+        if (offset != null) {
+            trajectory = decode(m_buffer, offset);
+        } else {
+            Util.printf("TrajectoryCache miss %016x, generating\n", key);
+            trajectory = TrajectoryPlanner.restToRest(waypoints, headings, constraints);
+            m_dirty = true;
+        }
+        m_used.put(key, trajectory);
+        return trajectory;
+    }
+
+    /** True if anything was generated, or if any cached entry went unused. */
+    public boolean isDirty() {
+        return m_dirty || m_used.size() != m_index.size();
+    }
+
+    /**
+     * Writes every trajectory asked for since construction, replacing the file.
+     * Entries that weren't asked for are dropped, so call this after all the
+     * routines have been made. Does nothing if the file is already up to date.
+     *
+     * @throws UncheckedIOException if the file can't be written, e.g. on a
+     *                              read-only filesystem.
+     */
+    public void save() {
+        if (!isDirty())
+            return;
+        try {
+            Path tmp = m_path.resolveSibling(m_path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(kMagic);
+                out.writeInt(kVersion);
+                out.writeInt(m_used.size());
+                for (Map.Entry<Long, Trajectory100> entry : m_used.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    encode(entry.getValue(), out);
+                }
+            }
+            Files.move(tmp, m_path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("TrajectoryCache could not write " + m_path, e);
+        }
+        // read it back, so the index matches the file.
+        m_index.clear();
+        m_buffer = load(m_path, m_index);
+        m_dirty = false;
+        Util.printf("TrajectoryCache wrote %d trajectories to %s\n", m_used.size(), m_path);
+    }
+
+    ///////////////////////////////////////////////////
+
+    /** FNV-1a over the bits of the inputs and the probed constraint outputs. */
+    static long key(
+            List<Pose2d> waypoints,
+            List<Rotation2d> headings,
+            List<TimingConstraint> constraints) {
+        Hash h = new Hash();
+        h.add(kVersion);
+        h.add(waypoints.size());
+        for (Pose2d p : waypoints) {
+            h.add(p.getX());
+            h.add(p.getY());
+            h.add(p.getRotation().getRadians());
+        }
+        h.add(headings.size());
+        for (Rotation2d r : headings) {
+            h.add(r.getRadians());
+        }
+        h.add(constraints.size());
+        for (TimingConstraint c : constraints) {
+            h.add(kProbeHashes.computeIfAbsent(c, TrajectoryCache::probe));
+        }
+        return h.m_h;
+    }
+
+    /** Hash of the constraint output over the probe states. */
+    private static long probe(TimingConstraint c) {
+        Hash h = new Hash();
+        h.add(c.getClass().getName().hashCode());
+        for (Pose2dWithMotion state : Probes.kStates) {
+            h.add(c.getMaxVelocity(state).getValue());
+            for (double v : Probes.kVelocities) {
+                MinMaxAcceleration a = c.getMinMaxAcceleration(state, v);
+                h.add(a.getMinAccel());
+                h.add(a.getMaxAccel());
+            }
+        }
+        return h.m_h;
+    }
+
+    private static class Hash {
+        private long m_h = 0xcbf29ce484222325L;
+
+        void add(double x) {
+            add(Double.doubleToLongBits(x));
+        }
+
+        void add(long x) {
+            for (int i = 0; i < 8; ++i) {
+                m_h ^= (x >>> (8 * i)) & 0xff;
+                m_h *= 0x100000001b3L;
+            }
+        }
+    }
+
+    /**
+     * States at which to evaluate the constraints, covering the field on a one
+     * meter grid, in a few directions, turning and not.
+     */
+    private static class Probes {
+        static final double[] kVelocities = { 0, 1, 3 };
+        static final List<Pose2dWithMotion> kStates = new ArrayList<>();
+        static {
+            for (int x = 0; x <= 17; ++x) {
+                for (int y = 0; y <= 8; ++y) {
+                    Pose2d pose = new Pose2d(x, y, new Rotation2d((x + y) % 4 * Math.PI / 4));
+                    for (double course : new double[] { 0, Math.PI / 4 }) {
+                        for (double headingRate : new double[] { 0, 1 }) {
+                            for (double curvature : new double[] { 0, 1 }) {
+                                kStates.add(new Pose2dWithMotion(
+                                        pose,
+                                        new Twist2d(Math.cos(course), Math.sin(course), headingRate),
+                                        curvature,
+                                        0));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the file and fills the index.
+     *
+     * @return the file contents, or an empty buffer if the file is missing or bad.
+     */
+    private static ByteBuffer load(Path path, Map<Long, Integer> index) {
+        if (!Files.exists(path))
+            return ByteBuffer.allocate(0);
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (buf.remaining() < 12 || buf.getInt(0) != kMagic || buf.getInt(4) != kVersion) {
+                Util.warnf("TrajectoryCache ignoring stale file %s\n", path);
+                return ByteBuffer.allocate(0);
+            }
+            int count = buf.getInt(8);
+            int offset = 12;
+            for (int i = 0; i < count; ++i) {
+                long key = buf.getLong(offset);
+                offset += Long.BYTES;
+                index.put(key, offset);
+                int n = buf.getInt(offset);
+                offset += Integer.BYTES + n * kDoublesPerPoint * Double.BYTES;
+            }
+            if (offset > buf.limit())
+                throw new IOException("truncated");
+            return buf;
+        } catch (IOException | IndexOutOfBoundsException e) {
+            Util.warnf("TrajectoryCache could not read %s: %s\n", path, e.getMessage());
+            index.clear();
+            return ByteBuffer.allocate(0);
+        }
+    }
+
+    private static void encode(Trajectory100 trajectory, DataOutputStream out) throws IOException {
+        int n = trajectory.length();
+        out.writeInt(n);
+        for (int i = 0; i < n; ++i) {
+            TimedPose timedPose = trajectory.getPoint(i).state();
+            Pose2dWithMotion state = timedPose.state();
+            Pose2d pose = state.getPose();
+            out.writeDouble(pose.getX());
+            out.writeDouble(pose.getY());
+            out.writeDouble(pose.getRotation().getRadians());
+            // course is optional; zero means turn-in-place.
+            Optional<Rotation2d> course = state.getCourse();
+            out.writeDouble(course.isPresent() ? course.get().getCos() : 0.0);
+            out.writeDouble(course.isPresent() ? course.get().getSin() : 0.0);
+            out.writeDouble(state.getHeadingRate());
+            out.writeDouble(state.getCurvature());
+            out.writeDouble(state.getDCurvatureDs());
+            out.writeDouble(timedPose.getTimeS());
+            out.writeDouble(timedPose.velocityM_S());
+            out.writeDouble(timedPose.acceleration());
+        }
+    }
+
+    private static Trajectory100 decode(ByteBuffer buf, int offset) {
+        // absolute reads, so the shared buffer position doesn't matter.
+        int n = buf.getInt(offset);
+        int p = offset + Integer.BYTES;
+        List<TimedPose> states = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            double x = buf.getDouble(p);
+            double y = buf.getDouble(p + 8);
+            double heading = buf.getDouble(p + 16);
+            double courseDx = buf.getDouble(p + 24);
+            double courseDy = buf.getDouble(p + 32);
+            double headingRate = buf.getDouble(p + 40);
+            double curvature = buf.getDouble(p + 48);
+            double dCurvatureDs = buf.getDouble(p + 56);
+            double t = buf.getDouble(p + 64);
+            double v = buf.getDouble(p + 72);
+            double a = buf.getDouble(p + 80);
+            p += kDoublesPerPoint * Double.BYTES;
+            states.add(new TimedPose(
+                    new Pose2dWithMotion(
+                            new Pose2d(x, y, new Rotation2d(heading)),
+                            new Twist2d(courseDx, courseDy, headingRate),
+                            curvature,
+                            dCurvatureDs),
+                    t, v, a));
+        }
+        return new Trajectory100(states);
+    }
+}
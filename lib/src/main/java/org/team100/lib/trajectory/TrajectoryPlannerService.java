@@ -0,0 +1,58 @@
+package org.team100.lib.trajectory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Plans trajectories on a low-priority background thread, so that starting a
+ * semi-auto command doesn't overrun the main loop.
+ *
+ * Requests are queued and planned one at a time, in order. The result is a
+ * future, which the main loop should poll with isDone(), never block on.
+ * Cancelling a request that hasn't started yet means it's never planned, so
+ * commands should cancel their request when they end.
+ */
+public class TrajectoryPlannerService {
+    private static TrajectoryPlannerService background;
+
+    private final Executor m_executor;
+
+    private TrajectoryPlannerService(Executor executor) {
+        m_executor = executor;
+    }
+
+    /** The shared background planner, with its own thread. */
+    public static synchronized TrajectoryPlannerService background() {
+        if (background == null) {
+            background = new TrajectoryPlannerService(
+                    Executors.newSingleThreadExecutor(r -> {
+                        Thread thread = new Thread(r);
+                        // below the main loop, which is normal priority
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        thread.setDaemon(true);
+                        thread.setName("Trajectory Planner");
+                        return thread;
+                    }));
+        }
+        return background;
+    }
+
+    /**
+     * Plans on the caller's thread, so the future is always done; for tests, and
+     * for callers that want the old blocking behavior.
+     */
+    public static TrajectoryPlannerService synchronous() {
+        return new TrajectoryPlannerService(Runnable::run);
+    }
+
+    /**
+     * @param planner makes the trajectory; runs on the planner thread, so it
+     *                shouldn't touch anything the main loop is changing.
+     * @return the plan, or an exception if planning failed
+     */
+    public CompletableFuture<Trajectory100> submit(Supplier<Trajectory100> planner) {
+        return CompletableFuture.supplyAsync(planner, m_executor);
+    }
+}
@@ -14,6 +14,8 @@ public class TrajectoryTimeIterator {
     /** progress along the trajectory in seconds */
     private double m_timeS = 0.0;
     private Optional<TrajectorySamplePoint> m_current;
+    /** Ceiling index of the current sample, to start the next search. */
+    private int m_hint = 1;
 
     public TrajectoryTimeIterator(TrajectoryTimeSampler sampler) {
         m_sampler = sampler;
@@ -53,7 +55,9 @@ public class TrajectoryTimeIterator {
      */
     public Optional<TrajectorySamplePoint> advance(double additional_progress) {
         m_timeS = MathUtil.clamp(m_timeS + additional_progress, m_sampler.getStartS(), m_sampler.getEndS());
-        m_current = m_sampler.sample(m_timeS);
+        m_current = m_sampler.sample(m_timeS, m_hint);
+        if (m_current.isPresent())
+            m_hint = m_current.get().getIndexCeil();
         return m_current;
     }
 
@@ -68,7 +72,7 @@ public class TrajectoryTimeIterator {
             throw new IllegalArgumentException("additional_progress is NaN");
         final double progress = Math.max(m_sampler.getStartS(),
                 Math.min(m_sampler.getEndS(), m_timeS + additional_progress));
-        return m_sampler.sample(progress);
+        return m_sampler.sample(progress, m_hint);
     }
 
     public Trajectory100 trajectory() {
@@ -5,16 +5,21 @@ import java.util.Optional;
 /**
  * Allows sampling a trajectory by its schedule.
  * Derived from 254 TimedView.
+ * 
+ * The search and interpolation use the primitive columns of
+ * CompactTrajectory100, so they don't walk the point objects.
  */
 public class TrajectoryTimeSampler {
     private final Trajectory100 m_trajectory;
+    private final CompactTrajectory100 m_compact;
     private final double m_startS;
     private final double m_endS;
 
     public TrajectoryTimeSampler(Trajectory100 trajectory) {
         m_trajectory = trajectory;
-        m_startS = m_trajectory.getPoint(0).state().getTimeS();
-        m_endS = m_trajectory.getPoint(m_trajectory.length() - 1).state().getTimeS();
+        m_compact = new CompactTrajectory100(trajectory);
+        m_startS = m_compact.getStartS();
+        m_endS = m_compact.getEndS();
     }
 
     public double getStartS() {
@@ -29,9 +34,23 @@ public class TrajectoryTimeSampler {
      * Returns empty if no sample can be found.  This shouldn't happen, but if it
      * does, there's no reasonable default.
      * 
+     * Binary search, O(log n).
+     * 
      * @param timeS seconds
      */
     public Optional<TrajectorySamplePoint> sample(double timeS) {
+        return sample(timeS, 1);
+    }
+
+    /**
+     * Searches forward from the hint first, so callers that move forward a little
+     * at a time, using the previous sample's ceiling index as the hint, are
+     * amortized O(1).
+     * 
+     * @param timeS seconds
+     * @param hint  index near the answer, e.g. the previous index ceiling.
+     */
+    public Optional<TrajectorySamplePoint> sample(double timeS, int hint) {
         if (Double.isNaN(timeS)) {
             throw new IllegalArgumentException("time is NaN");
         }
@@ -43,21 +62,18 @@ public class TrajectoryTimeSampler {
             TrajectoryPoint point = m_trajectory.getPoint(0);
             return Optional.of(new TrajectorySamplePoint(point.state(), point.index(), point.index()));
         }
-        for (int i = 1; i < m_trajectory.length(); ++i) {
-            final TrajectoryPoint point = m_trajectory.getPoint(i);
-            if (point.state().getTimeS() >= timeS) {
-                final TrajectoryPoint prev_s = m_trajectory.getPoint(i - 1);
-                if (Math.abs(point.state().getTimeS() - prev_s.state().getTimeS()) <= 1e-12) {
-                    return Optional.of(new TrajectorySamplePoint(point.state(), point.index(), point.index()));
-                }
-                return Optional.of(new TrajectorySamplePoint(
-                        prev_s.state().interpolate2(point.state(),
-                                (timeS - prev_s.state().getTimeS())
-                                        / (point.state().getTimeS() - prev_s.state().getTimeS())),
-                        i - 1, i));
-            }
+        CompactTrajectory100.Sample sample = new CompactTrajectory100.Sample();
+        int i = m_compact.sample(timeS, hint, sample);
+        if (Math.abs(m_compact.getTimeS(i) - m_compact.getTimeS(i - 1)) <= 1e-12) {
+            TrajectoryPoint point = m_trajectory.getPoint(i);
+            return Optional.of(new TrajectorySamplePoint(point.state(), point.index(), point.index()));
         }
-        return Optional.empty();
+        return Optional.of(new TrajectorySamplePoint(sample.toTimedPose(), i - 1, i));
+    }
+
+    /** The primitive-column version of the same trajectory. */
+    public CompactTrajectory100 compact() {
+        return m_compact;
     }
 
     public Trajectory100 trajectory() {
@@ -14,6 +14,8 @@ public class Math100 {
     private static final double EPSILON = 1e-6;
     // we just don't need very precise answers.
     private static final double kRootTolerance = 0.0001;
+    /** Steps of linear walk before falling back to binary search. */
+    private static final int kMaxWalk = 8;
 
     /**
      * Returns the real solutions to the quadratic ax^2 + bx + c.
@@ -68,6 +70,41 @@ public class Math100 {
     private Math100() {
     }
 
+    /**
+     * Index of the first element of sorted[lo..hi] that is >= x, or hi + 1 if
+     * there isn't one. Binary search, so O(log n).
+     */
+    public static int ceilingIndex(double[] sorted, double x, int lo, int hi) {
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < x)
+                lo = mid + 1;
+            else
+                hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Same as above, but starts with a short linear walk forward from the hint,
+     * e.g. the result of the previous search. For callers that move forward a
+     * little at a time, like trajectory followers, this is amortized O(1).
+     */
+    public static int ceilingIndex(double[] sorted, double x, int lo, int hi, int hint) {
+        int i = Math.max(lo, Math.min(hi, hint));
+        if (i > lo && sorted[i - 1] >= x) {
+            // the answer is behind the hint
+            return ceilingIndex(sorted, x, lo, i - 1);
+        }
+        // everything before i is less than x
+        for (int step = 0; step < kMaxWalk; ++step) {
+            if (i > hi || sorted[i] >= x)
+                return i;
+            ++i;
+        }
+        return ceilingIndex(sorted, x, i, hi);
+    }
+
     /**
      * Produce an Euler angle equivalent to x but closer to measurement; might be
      * outside [-pi,pi].
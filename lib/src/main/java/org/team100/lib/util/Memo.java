@@ -1,7 +1,13 @@
 package org.team100.lib.util;
 
-import java.util.List;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
@@ -17,78 +23,198 @@ import java.util.function.Supplier;
  * thing in the middle of the sandwich is simple arithmetic. So if a "motor"
  * implements caching of its sensors, then the "sensor" that uses the "motor"
  * doesn't need to apply its own cache layer.
+ * 
+ * Sources that are much cheaper to read in bulk (e.g. CAN status signals) can
+ * register an updater, which is run at the start of resetAll(), so that the
+ * caches refill from fresh values without each one doing its own round trip.
+ * 
+ * resetAll() doesn't touch the caches: it just starts a new "generation," and
+ * caches filled in an earlier generation are stale.
  */
 public class Memo {
-    private static final List<Runnable> resetters = new ArrayList<>();
+    /**
+     * Fill every cache at the top of the loop, in resetAll(), rather than on
+     * first use. That moves the delegate calls into one pass, which is good for
+     * timing, but it also means that unused caches are filled every time. Off by
+     * default, see setPrefetch().
+     */
+    private static volatile boolean s_prefetch = false;
+
+    /**
+     * The current loop. Each cache remembers the generation it was filled in, and
+     * it's valid only in that generation, so resetting all of them is just one
+     * increment.
+     */
+    private static final AtomicLong generation = new AtomicLong();
+    /** For prefetching. Weak, so that discarded caches can be collected. */
+    private static final Queue<WeakReference<Fillable>> fillers = new ConcurrentLinkedQueue<>();
+    private static final List<Runnable> updaters = new ArrayList<>();
 
     public static <T> CotemporalCache<T> of(Supplier<T> delegate) {
         CotemporalCache<T> cache = new CotemporalCache<>(delegate);
-        resetters.add(cache::reset);
+        fillers.add(new WeakReference<>(cache));
         return cache;
     }
 
     public static DoubleCache ofDouble(DoubleSupplier delegate) {
         DoubleCache cache = new DoubleCache(delegate);
-        resetters.add(cache::reset);
+        fillers.add(new WeakReference<>(cache));
         return cache;
     }
 
+    /** Turn prefetching in resetAll() on or off, e.g. from an Experiment. */
+    public static void setPrefetch(boolean prefetch) {
+        s_prefetch = prefetch;
+    }
+
+    /**
+     * Register a bulk refresh of some underlying source, e.g.
+     * BaseStatusSignal.refreshAll(). The delegates of the caches should then read
+     * the refreshed value without fetching it again.
+     */
+    public static void registerUpdater(Runnable updater) {
+        updaters.add(updater);
+    }
+
+    /** Undo registerUpdater(), e.g. at the end of a test. */
+    public static void unregisterUpdater(Runnable updater) {
+        updaters.remove(updater);
+    }
+
+    /**
+     * Refresh all the bulk sources. This is run by resetAll().
+     */
+    public static void updateAll() {
+        for (Runnable r : updaters) {
+            r.run();
+        }
+    }
+
     /**
      * This should be run in Robot.robotPeriodic().
+     * 
+     * Refreshes the bulk sources first, so the caches refill from fresh values.
      */
     public static void resetAll() {
-        for (Runnable r : resetters) {
-            r.run();
+        updateAll();
+        generation.incrementAndGet();
+        if (s_prefetch)
+            prefetchAll();
+    }
+
+    /** Fill all the caches now, instead of on first use. */
+    public static void prefetchAll() {
+        Iterator<WeakReference<Fillable>> it = fillers.iterator();
+        while (it.hasNext()) {
+            Fillable cache = it.next().get();
+            if (cache == null) {
+                it.remove();
+                continue;
+            }
+            cache.fill();
         }
     }
 
-    public static class CotemporalCache<T> implements Supplier<T> {
+    /** Stop prefetching all the existing caches, for testing. */
+    static void clearFillers() {
+        fillers.clear();
+    }
+
+    private interface Fillable {
+        void fill();
+    }
+
+    /** A value and the generation it belongs to, published together. */
+    private record Entry<T>(long generation, T value) {
+    }
+
+    private record DoubleEntry(long generation, double value) {
+    }
+
+    /**
+     * Reads are lock-free. If two threads race to fill the cache, both call the
+     * delegate. The value and its generation are published together, and a fill
+     * never replaces a newer one, so a slow fill from an earlier loop can't
+     * overwrite this loop's value.
+     * 
+     * Null values are not cached: if the delegate returns null, the next get()
+     * calls it again.
+     */
+    public static class CotemporalCache<T> implements Supplier<T>, Fillable {
         private final Supplier<T> m_delegate;
-        private T m_value;
+        /** Null if empty. */
+        private final AtomicReference<Entry<T>> m_entry = new AtomicReference<>();
 
         public CotemporalCache(Supplier<T> delegate) {
             m_delegate = delegate;
-            m_value = null;
         }
 
         @Override
-        public synchronized T get() {
-            // synchronized adds ~20ns.
-            if (m_value == null)
-                m_value = m_delegate.get();
-                
-            return m_value;
+        public T get() {
+            long g = generation.get();
+            Entry<T> entry = m_entry.get();
+            if (entry != null && entry.generation() == g)
+                return entry.value();
+            T value = m_delegate.get();
+            if (value == null)
+                return null;
+            m_entry.accumulateAndGet(new Entry<>(g, value), Memo::newer);
+            return value;
+        }
+
+        @Override
+        public void fill() {
+            get();
         }
 
-        public synchronized void reset() {
-            // System.out.println("CotemporalCache.reset()");
-            m_value = null;
+        /** Invalidate just this cache, in the middle of a loop. */
+        public void reset() {
+            m_entry.set(null);
         }
     }
 
-    public static class DoubleCache implements DoubleSupplier {
+    /** Like CotemporalCache, without boxing the value. */
+    public static class DoubleCache implements DoubleSupplier, Fillable {
         private final DoubleSupplier m_delegate;
-        private double m_value;
-        private boolean m_valid;
+        /** Null if empty. */
+        private final AtomicReference<DoubleEntry> m_entry = new AtomicReference<>();
 
         public DoubleCache(DoubleSupplier delegate) {
             m_delegate = delegate;
-            m_valid = false;
         }
 
         @Override
-        public synchronized double getAsDouble() {
-            // synchronized adds ~20ns.
-            if (m_valid)
-                return m_value;
-            m_value = m_delegate.getAsDouble();
-            m_valid = true;
-            return m_value;
+        public double getAsDouble() {
+            long g = generation.get();
+            DoubleEntry entry = m_entry.get();
+            if (entry != null && entry.generation() == g)
+                return entry.value();
+            double value = m_delegate.getAsDouble();
+            m_entry.accumulateAndGet(new DoubleEntry(g, value), Memo::newer);
+            return value;
         }
 
-        public synchronized void reset() {
-            m_valid = false;
+        @Override
+        public void fill() {
+            getAsDouble();
         }
+
+        /** Invalidate just this cache, in the middle of a loop. */
+        public void reset() {
+            m_entry.set(null);
+        }
+    }
+
+    private static <T> Entry<T> newer(Entry<T> current, Entry<T> fresh) {
+        if (current != null && current.generation() > fresh.generation())
+            return current;
+        return fresh;
+    }
+
+    private static DoubleEntry newer(DoubleEntry current, DoubleEntry fresh) {
+        if (current != null && current.generation() > fresh.generation())
+            return current;
+        return fresh;
     }
 
     private Memo() {
@@ -1,11 +1,13 @@
 package org.team100.lib.commands.drivetrain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.jupiter.api.Test;
 import org.team100.lib.controller.drivetrain.HolonomicDriveControllerFactory;
@@ -28,6 +30,7 @@ import org.team100.lib.timing.TimingConstraintFactory;
 import org.team100.lib.trajectory.StraightLineTrajectory;
 import org.team100.lib.trajectory.Trajectory100;
 import org.team100.lib.trajectory.TrajectoryMaker;
+import org.team100.lib.trajectory.TrajectoryPlannerService;
 import org.team100.lib.visualization.TrajectoryVisualization;
 
 import edu.wpi.first.math.geometry.Pose2d;
@@ -65,13 +68,83 @@ class DriveToWaypoint3Test extends Fixtured {
                 drivetrain,
                 trajectories,
                 controller,
-                viz);
+                viz,
+                TrajectoryPlannerService.synchronous());
         command.initialize();
         assertEquals(0, fixture.drive.getPose().getX(), kDelta);
         command.execute();
         command.end(false);
     }
 
+    /** While the plan is computing, the command waits. */
+    @Test
+    void testPending() {
+        SwerveDriveSubsystem drivetrain = fixture.drive;
+        CountDownLatch latch = new CountDownLatch(1);
+        StraightLineTrajectory trajectories = new StraightLineTrajectory(true, null) {
+            @Override
+            public Trajectory100 apply(SwerveModel startState, Pose2d end) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Trajectory100(List.of(new TimedPose(Pose2dWithMotion.kIdentity, 0, 0, 0)));
+            }
+        };
+        HolonomicFieldRelativeController controller = HolonomicDriveControllerFactory.get(
+                new HolonomicFieldRelativeController.Log(logger));
+        DriveToWaypoint3.Log log = new DriveToWaypoint3.Log(logger);
+        DriveToWaypoint3 command = new DriveToWaypoint3(
+                log,
+                new Pose2d(1, 0, GeometryUtil.kRotationZero),
+                drivetrain,
+                trajectories,
+                controller,
+                viz,
+                TrajectoryPlannerService.background());
+        command.initialize();
+        command.execute();
+        assertFalse(command.isFinished());
+        command.end(true);
+        latch.countDown();
+    }
+
+    /** If planning throws, the command stops and ends. */
+    @Test
+    void testPlanFailed() {
+        StraightLineTrajectory trajectories = new StraightLineTrajectory(true, null) {
+            @Override
+            public Trajectory100 apply(SwerveModel startState, Pose2d end) {
+                throw new IllegalStateException("planning failed");
+            }
+        };
+        DriveToWaypoint3 command = command(trajectories);
+        command.initialize();
+        assertFalse(command.isFinished());
+        command.execute();
+        assertTrue(command.isFinished());
+        // nothing to follow, so this does nothing.
+        command.execute();
+        command.end(false);
+    }
+
+    /** If the plan is empty, the command stops and ends. */
+    @Test
+    void testPlanEmpty() {
+        StraightLineTrajectory trajectories = new StraightLineTrajectory(true, null) {
+            @Override
+            public Trajectory100 apply(SwerveModel startState, Pose2d end) {
+                return new Trajectory100();
+            }
+        };
+        DriveToWaypoint3 command = command(trajectories);
+        command.initialize();
+        command.execute();
+        assertTrue(command.isFinished());
+        command.end(false);
+    }
+
     /** Demonstrate how to use DriveToWaypoint to go to apriltags. */
     @Test
     void testAprilTag() throws IOException {
@@ -94,11 +167,24 @@ class DriveToWaypoint3Test extends Fixtured {
                 new HolonomicFieldRelativeController.Log(logger));
         DriveToWaypoint3.Log log = new DriveToWaypoint3.Log(logger);
         DriveToWaypoint3 command = new DriveToWaypoint3(
-                log, goal, drivetrain, maker, m_controller, viz);
+                log, goal, drivetrain, maker, m_controller, viz, TrajectoryPlannerService.synchronous());
         command.initialize();
         assertEquals(0, fixture.drive.getPose().getX(), kDelta);
         command.execute();
         command.end(false);
     }
 
+    private DriveToWaypoint3 command(StraightLineTrajectory trajectories) {
+        HolonomicFieldRelativeController controller = HolonomicDriveControllerFactory.get(
+                new HolonomicFieldRelativeController.Log(logger));
+        DriveToWaypoint3.Log log = new DriveToWaypoint3.Log(logger);
+        return new DriveToWaypoint3(
+                log,
+                new Pose2d(1, 0, GeometryUtil.kRotationZero),
+                fixture.drive,
+                trajectories,
+                controller,
+                viz,
+                TrajectoryPlannerService.synchronous());
+    }
 }
@@ -0,0 +1,69 @@
+package org.team100.lib.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.TestLoggerFactory;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
+
+class LoopProfilerTest {
+    private static final LoggerFactory logger = new TestLoggerFactory(new TestPrimitiveLogger());
+
+    @Test
+    void testBuckets() {
+        assertEquals(0, LoopProfiler.Phase.bucket(0));
+        assertEquals(0, LoopProfiler.Phase.bucket(1023));
+        assertEquals(1, LoopProfiler.Phase.bucket(1024));
+        // buckets are monotonic, and the value is within one bucket width.
+        int prev = 0;
+        for (long ns = 1024; ns < 100_000_000; ns = ns * 21 / 20) {
+            int b = LoopProfiler.Phase.bucket(ns);
+            assertTrue(b >= prev);
+            prev = b;
+            long v = LoopProfiler.Phase.value(b);
+            assertEquals(ns, v, ns * 0.07);
+        }
+        // overflow
+        int last = LoopProfiler.Phase.bucket(Long.MAX_VALUE);
+        assertEquals(last, LoopProfiler.Phase.bucket(1_000_000_000));
+    }
+
+    @Test
+    void testPercentiles() {
+        LoopProfiler.Phase phase = new LoopProfiler.Phase(logger, 1000);
+        // 1 ms to 100 ms
+        for (int i = 1; i <= 100; ++i) {
+            phase.record(i * 1_000_000L);
+        }
+        assertEquals(100, phase.count());
+        assertEquals(50_000_000, phase.percentileNs(0.5), 3_000_000);
+        assertEquals(90_000_000, phase.percentileNs(0.9), 6_000_000);
+        // never more than the max
+        assertEquals(100_000_000, phase.percentileNs(1.0), 6_000_000);
+        assertTrue(phase.percentileNs(1.0) <= 100_000_000);
+    }
+
+    @Test
+    void testWindow() {
+        LoopProfiler.Phase phase = new LoopProfiler.Phase(logger, 10);
+        for (int i = 0; i < 9; ++i) {
+            phase.record(1000);
+        }
+        assertEquals(9, phase.count());
+        // the tenth sample publishes and starts over
+        phase.record(1000);
+        assertEquals(0, phase.count());
+        assertEquals(0, phase.percentileNs(0.5));
+    }
+
+    @Test
+    void testDisabled() {
+        // the default is disabled, so wrapping does nothing.
+        Runnable r = () -> {
+        };
+        if (!LoopProfiler.ENABLED)
+            assertTrue(r == LoopProfiler.instance().wrap("foo", r));
+    }
+}
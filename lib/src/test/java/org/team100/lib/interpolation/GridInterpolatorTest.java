@@ -0,0 +1,98 @@
+package org.team100.lib.interpolation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GridInterpolatorTest {
+    private static final double kDelta = 1e-9;
+
+    @Test
+    void testOneDimension() {
+        GridInterpolator g = new GridInterpolator(
+                new double[] { 1 },
+                new double[] { 0.5 },
+                new int[] { 3 },
+                1,
+                new double[] { 0, 1, 4 });
+        assertEquals(0, g.get(new double[] { 1 })[0], kDelta);
+        assertEquals(0.5, g.get(new double[] { 1.25 })[0], kDelta);
+        assertEquals(1, g.get(new double[] { 1.5 })[0], kDelta);
+        assertEquals(2.5, g.get(new double[] { 1.75 })[0], kDelta);
+        assertEquals(4, g.get(new double[] { 2 })[0], kDelta);
+        // clamped
+        assertEquals(0, g.get(new double[] { -10 })[0], kDelta);
+        assertEquals(4, g.get(new double[] { 10 })[0], kDelta);
+    }
+
+    @Test
+    void testLayout() {
+        // last dimension fastest, outputs adjacent
+        GridInterpolator g = GridInterpolator.of(
+                new double[] { 0, 0 },
+                new double[] { 1, 1 },
+                new int[] { 2, 3 },
+                2,
+                (p, out) -> {
+                    out[0] = 10 * p[0] + p[1];
+                    out[1] = -p[1];
+                });
+        assertEquals(12, g.node(new int[] { 1, 2 }, 0), kDelta);
+        assertEquals(-2, g.node(new int[] { 1, 2 }, 1), kDelta);
+        double[] out = g.get(new double[] { 0.5, 1.5 });
+        assertEquals(6.5, out[0], kDelta);
+        assertEquals(-1.5, out[1], kDelta);
+    }
+
+    /** Multilinear functions are reproduced exactly. */
+    @Test
+    void testMultilinear() {
+        GridInterpolator g = GridInterpolator.of(
+                new double[] { -1, 0, 2, 5 },
+                new double[] { 0.5, 0.25, 1, 2 },
+                new int[] { 5, 9, 4, 3 },
+                1,
+                (p, out) -> out[0] = f(p));
+        Random random = new Random(0);
+        double[] p = new double[4];
+        double[] out = new double[1];
+        for (int i = 0; i < 1000; ++i) {
+            p[0] = -1 + 2 * random.nextDouble();
+            p[1] = 2 * random.nextDouble();
+            p[2] = 2 + 3 * random.nextDouble();
+            p[3] = 5 + 4 * random.nextDouble();
+            g.get(p, out);
+            assertEquals(f(p), out[0], 1e-9);
+        }
+    }
+
+    @Test
+    void testBatch() {
+        GridInterpolator g = GridInterpolator.of(
+                new double[] { 0, 0 },
+                new double[] { 1, 1 },
+                new int[] { 3, 3 },
+                1,
+                (p, out) -> out[0] = p[0] * p[1]);
+        double[][] result = g.evaluate(new double[][] { { 0.5, 0.5 }, { 1, 2 }, { 1.5, 1.5 } });
+        assertEquals(3, result.length);
+        assertEquals(0.25, result[0][0], kDelta);
+        assertEquals(2, result[1][0], kDelta);
+        assertEquals(2.25, result[2][0], kDelta);
+    }
+
+    @Test
+    void testArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new GridInterpolator(
+                new double[] { 0 }, new double[] { 1 }, new int[] { 3 }, 1, new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> new GridInterpolator(
+                new double[] { 0 }, new double[] { 1 }, new int[] { 1 }, 1, new double[1]));
+    }
+
+    private static double f(double[] p) {
+        return 1 + 2 * p[0] - p[1] + 0.5 * p[2] * p[3] + p[0] * p[1] * p[2] - 0.1 * p[0] * p[1] * p[2] * p[3];
+    }
+}
@@ -0,0 +1,72 @@
+package org.team100.lib.interpolation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class KDTreeTest {
+    @Test
+    void testEmpty() {
+        KDTree tree = new KDTree(new double[0][]);
+        assertEquals(0, tree.within(new double[] { 0, 0 }, 1, new int[0], new double[0]));
+    }
+
+    @Test
+    void testDuplicates() {
+        double[][] points = new double[50][];
+        for (int i = 0; i < points.length; ++i) {
+            points[i] = new double[] { 1, i % 2 };
+        }
+        KDTree tree = new KDTree(points);
+        int[] out = new int[50];
+        double[] d2 = new double[50];
+        assertEquals(25, tree.within(new double[] { 1, 0 }, 0.5, out, d2));
+    }
+
+    /** Compare with brute force. */
+    @Test
+    void testRandom() {
+        Random random = new Random(0);
+        for (int dims = 1; dims <= 4; ++dims) {
+            int n = 1000;
+            double[][] points = new double[n][dims];
+            for (int i = 0; i < n; ++i) {
+                for (int d = 0; d < dims; ++d) {
+                    points[i][d] = random.nextDouble();
+                }
+            }
+            KDTree tree = new KDTree(points);
+            int[] out = new int[n];
+            double[] d2 = new double[n];
+            double[] p = new double[dims];
+            for (int q = 0; q < 100; ++q) {
+                for (int d = 0; d < dims; ++d) {
+                    p[d] = random.nextDouble() * 1.2 - 0.1;
+                }
+                double radius = random.nextDouble() * 0.4;
+                int found = tree.within(p, radius, out, d2);
+                int[] sorted = Arrays.copyOf(out, found);
+                Arrays.sort(sorted);
+                int expected = 0;
+                for (int i = 0; i < n; ++i) {
+                    double sum = 0;
+                    for (int d = 0; d < dims; ++d) {
+                        sum += (p[d] - points[i][d]) * (p[d] - points[i][d]);
+                    }
+                    if (sum <= radius * radius) {
+                        expected++;
+                        assertTrue(Arrays.binarySearch(sorted, i) >= 0);
+                    }
+                }
+                assertEquals(expected, found);
+                for (int f = 0; f < found; ++f) {
+                    assertTrue(d2[f] <= radius * radius);
+                }
+            }
+        }
+    }
+}
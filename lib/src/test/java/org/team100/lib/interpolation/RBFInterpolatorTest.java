@@ -0,0 +1,81 @@
+package org.team100.lib.interpolation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RBFInterpolatorTest {
+    private static final double kDelta = 1e-6;
+
+    @Test
+    void testBasis() {
+        double[][] x = { { 0, 0 } };
+        double[][] y = { { 1 } };
+        RBFInterpolator rbf = new RBFInterpolator(x, y, 1);
+        assertEquals(1, rbf.basis(0), kDelta);
+        assertEquals(0, rbf.basis(1), kDelta);
+        assertEquals(0, rbf.basis(2), kDelta);
+        // l = 3
+        assertEquals(Math.pow(0.5, 4) * 3, rbf.basis(0.5), kDelta);
+    }
+
+    /** Interpolation goes through the samples. */
+    @Test
+    void testSamples() {
+        Random random = new Random(0);
+        int n = 200;
+        double[][] x = new double[n][2];
+        double[][] y = new double[n][2];
+        for (int i = 0; i < n; ++i) {
+            x[i][0] = random.nextDouble() * 10;
+            x[i][1] = random.nextDouble();
+            y[i][0] = Math.sin(x[i][0]) + x[i][1];
+            y[i][1] = x[i][0] * x[i][1];
+        }
+        RBFInterpolator rbf = new RBFInterpolator(x, y, new double[] { 2, 0.2 });
+        double[][] result = rbf.evaluate(x);
+        for (int i = 0; i < n; ++i) {
+            assertEquals(y[i][0], result[i][0], kDelta);
+            assertEquals(y[i][1], result[i][1], kDelta);
+        }
+    }
+
+    /** Between the samples, it's close to the function. */
+    @Test
+    void testBetween() {
+        int n = 21;
+        double[][] x = new double[n * n][2];
+        double[][] y = new double[n * n][1];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                int k = i * n + j;
+                x[k][0] = i * 0.1;
+                x[k][1] = j * 0.1;
+                y[k][0] = Math.sin(x[k][0]) * Math.cos(x[k][1]);
+            }
+        }
+        RBFInterpolator rbf = new RBFInterpolator(x, y, 0.35);
+        Random random = new Random(0);
+        double[] p = new double[2];
+        double[] out = new double[1];
+        for (int i = 0; i < 100; ++i) {
+            p[0] = 0.2 + random.nextDouble() * 1.6;
+            p[1] = 0.2 + random.nextDouble() * 1.6;
+            rbf.get(p, out);
+            assertEquals(Math.sin(p[0]) * Math.cos(p[1]), out[0], 0.01);
+        }
+    }
+
+    @Test
+    void testFarAway() {
+        double[][] x = { { 0 }, { 1 } };
+        double[][] y = { { 1 }, { 3 } };
+        RBFInterpolator rbf = new RBFInterpolator(x, y, 0.5);
+        // the mean
+        assertEquals(2, rbf.get(new double[] { 100 })[0], kDelta);
+        // halfway, both centers are at the edge of their support
+        assertEquals(2, rbf.get(new double[] { 0.5 })[0], kDelta);
+    }
+}
@@ -0,0 +1,83 @@
+package org.team100.lib.localization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class OdometryHistoryTest {
+    private static final double kDelta = 0.001;
+
+    private static int put(OdometryHistory h, double t, double x) {
+        return h.put(t, x, 0, 0, 0, 0, 0, 0, 0, null);
+    }
+
+    @Test
+    void testOrder() {
+        OdometryHistory h = new OdometryHistory(8);
+        assertEquals(0, put(h, 0, 0));
+        assertEquals(1, put(h, 2, 2));
+        // out of order goes in the middle
+        assertEquals(1, put(h, 1, 1));
+        assertEquals(3, h.size());
+        assertEquals(0, h.x(0), kDelta);
+        assertEquals(1, h.x(1), kDelta);
+        assertEquals(2, h.x(2), kDelta);
+        // same time replaces
+        assertEquals(1, put(h, 1, 5));
+        assertEquals(3, h.size());
+        assertEquals(5, h.x(1), kDelta);
+    }
+
+    @Test
+    void testSearch() {
+        OdometryHistory h = new OdometryHistory(8);
+        put(h, 0, 0);
+        put(h, 1, 1);
+        put(h, 2, 2);
+        assertEquals(-1, h.floorIndex(-1));
+        assertEquals(0, h.floorIndex(0));
+        assertEquals(0, h.floorIndex(0.5));
+        assertEquals(1, h.floorIndex(1));
+        assertEquals(2, h.floorIndex(5));
+        assertEquals(-1, h.lowerIndex(0));
+        assertEquals(0, h.lowerIndex(1));
+        assertEquals(1, h.lowerIndex(1.5));
+        assertEquals(2, h.lowerIndex(5));
+    }
+
+    @Test
+    void testWrap() {
+        OdometryHistory h = new OdometryHistory(4);
+        assertEquals(4, h.capacity());
+        for (int i = 0; i < 10; ++i) {
+            put(h, i, i);
+        }
+        // only the newest four remain
+        assertEquals(4, h.size());
+        assertEquals(6, h.time(0), kDelta);
+        assertEquals(9, h.newestTime(), kDelta);
+        // older than everything in a full buffer is dropped
+        assertEquals(-1, put(h, 0, 0));
+        // inserting in the middle of a full buffer drops the oldest
+        assertEquals(1, put(h, 7.5, 7.5));
+        assertEquals(7, h.time(0), kDelta);
+        assertEquals(7.5, h.time(1), kDelta);
+        assertEquals(8, h.time(2), kDelta);
+        assertEquals(9, h.time(3), kDelta);
+    }
+
+    @Test
+    void testTrim() {
+        OdometryHistory h = new OdometryHistory(8);
+        put(h, 0, 0);
+        put(h, 1, 1);
+        put(h, 2, 2);
+        h.trim(1.5);
+        assertEquals(2, h.size());
+        assertEquals(1, h.time(0), kDelta);
+        h.trim(0);
+        // the newest is always kept
+        assertEquals(1, h.size());
+        assertEquals(2, h.time(0), kDelta);
+    }
+}
@@ -1,6 +1,11 @@
 package org.team100.lib.localization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SortedMap;
 
 import org.junit.jupiter.api.Test;
 import org.team100.lib.logging.LoggerFactory;
@@ -45,4 +50,46 @@ class TimeInterpolatableBuffer100Test {
         b.put(1, new Item(10));
         assertEquals(10, b.get(1.5).value, kDelta);
     }
+
+    /** Out-of-order inserts land in the right place. */
+    @Test
+    void testOutOfOrder() {
+        TimeInterpolatableBuffer100<Item> b = new TimeInterpolatableBuffer100<>(logger, 10, 0, new Item(0));
+        b.put(2, new Item(20));
+        b.put(1, new Item(0));
+        assertEquals(0, b.get(0.5).value, kDelta);
+        assertEquals(10, b.get(1.5).value, kDelta);
+        assertNull(b.lowerEntry(0));
+        assertEquals(1, b.lowerEntry(2).getKey(), kDelta);
+        assertEquals(2, b.ceilingEntry(1.5).getKey(), kDelta);
+        assertNull(b.ceilingEntry(3));
+        SortedMap<Double, Item> tail = b.tailMap(1, false);
+        assertEquals(1, tail.size());
+        assertEquals(2, tail.firstKey(), kDelta);
+        assertEquals(2, b.tailMap(1, true).size());
+    }
+
+    /** When full, the oldest entries are dropped. */
+    @Test
+    void testCapacity() {
+        TimeInterpolatableBuffer100<Item> b = new TimeInterpolatableBuffer100<>(logger, 100, 0, new Item(0), 4);
+        for (int i = 1; i < 10; ++i) {
+            b.put(i, new Item(i));
+        }
+        assertEquals(6, b.ceilingEntry(0).getKey(), kDelta);
+        // before the oldest returns the oldest
+        assertEquals(6, b.get(0).value, kDelta);
+        assertEquals(8.5, b.get(8.5).value, kDelta);
+    }
+
+    /** Entries older than the history limit are removed. */
+    @Test
+    void testHistory() {
+        TimeInterpolatableBuffer100<Item> b = new TimeInterpolatableBuffer100<>(logger, 1.5, 0, new Item(0));
+        b.put(1, new Item(1));
+        b.put(2, new Item(2));
+        assertEquals(1, b.ceilingEntry(0).getKey(), kDelta);
+        assertTrue(b.tooOld(0.4));
+        assertFalse(b.tooOld(0.6));
+    }
 }
@@ -1,11 +1,38 @@
 package org.team100.lib.logging;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.LoggerFactory.DoubleLogger;
+import org.team100.lib.logging.primitive.TestPrimitiveLogger;
 
 public class LoggerFactoryTest {
+    private Level m_level = Level.COMP;
+
     @Test
     void testSimple() {
-        
+
+    }
+
+    @Test
+    void testLevelEpoch() {
+        LoggerFactory log = new LoggerFactory(() -> m_level, "root", new TestPrimitiveLogger());
+        DoubleLogger comp = log.doubleLogger(Level.COMP, "comp");
+        DoubleLogger trace = log.doubleLogger(Level.TRACE, "trace");
+        assertTrue(comp.enabled());
+        assertFalse(trace.enabled());
+        // the loggers cache the level, so this isn't noticed yet
+        m_level = Level.TRACE;
+        assertFalse(trace.enabled());
+        trace.log(1.0);
+        // ... until the epoch changes.
+        LoggerFactory.invalidateLevels();
+        assertTrue(comp.enabled());
+        assertTrue(trace.enabled());
+        trace.log(1.0);
+        m_level = Level.COMP;
+        LoggerFactory.invalidateLevels();
+        assertFalse(trace.enabled());
     }
-    
 }
@@ -0,0 +1,194 @@
+package org.team100.lib.logging.primitive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveDoubleLogger;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveIntLogger;
+import org.team100.lib.logging.primitive.PrimitiveLogger.PrimitiveStringLogger;
+import org.team100.lib.logging.primitive.UdpPrimitiveProtocol.ProtocolException;
+import org.team100.lib.logging.receiver.UdpConsumersInterface;
+import org.team100.lib.logging.receiver.UdpDataDecoder;
+
+class UdpPrimitiveProtocol3Test {
+    private static final double kDelta = 0;
+
+    /** Remembers the latest value for each key. */
+    static class Capture implements UdpConsumersInterface {
+        final Map<Integer, Object> values = new HashMap<>();
+        int count;
+
+        @Override
+        public boolean validateTimestamp(long timestamp) {
+            return true;
+        }
+
+        @Override
+        public void acceptBoolean(int key, boolean val) {
+            values.put(key, val);
+            count++;
+        }
+
+        @Override
+        public void acceptDouble(int key, double val) {
+            values.put(key, val);
+            count++;
+        }
+
+        @Override
+        public void acceptInt(int key, int val) {
+            values.put(key, val);
+            count++;
+        }
+
+        @Override
+        public void acceptDoubleArray(int key, double[] val) {
+            values.put(key, val);
+            count++;
+        }
+
+        @Override
+        public void acceptString(int key, String val) {
+            values.put(key, val);
+            count++;
+        }
+
+        @Override
+        public void acceptMeta(int key, UdpType type, String val) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** The logger reuses its buffer, so copy each packet. */
+    private final List<ByteBuffer> packets = new ArrayList<>();
+
+    private void send(ByteBuffer b) {
+        ByteBuffer copy = ByteBuffer.allocate(b.remaining());
+        copy.put(b);
+        copy.flip();
+        packets.add(copy);
+    }
+
+    private static void decode(UdpDataDecoder decoder, ByteBuffer buf) throws ProtocolException {
+        assertTrue(decoder.validateTimestamp(buf));
+        while (buf.remaining() > 0) {
+            decoder.decode(buf);
+        }
+    }
+
+    @Test
+    void testVarint() throws ProtocolException {
+        ByteBuffer buf = ByteBuffer.allocate(100);
+        long[] values = { 0, 1, -1, 63, -64, 64, 1000000, Long.MAX_VALUE, Long.MIN_VALUE };
+        for (long v : values) {
+            UdpPrimitiveProtocol3.putVarint(buf, UdpPrimitiveProtocol3.zigzag(v));
+        }
+        buf.flip();
+        // small values are one byte
+        assertEquals(0, buf.get(0));
+        assertEquals(2, buf.get(1));
+        assertEquals(1, buf.get(2));
+        for (long v : values) {
+            assertEquals(v, UdpPrimitiveProtocol3.decodeZigzag(buf));
+        }
+    }
+
+    @Test
+    void testXor() throws ProtocolException {
+        ByteBuffer buf = ByteBuffer.allocate(100);
+        UdpPrimitiveProtocol3.putXor(buf, 0);
+        UdpPrimitiveProtocol3.putXor(buf, 0x0000123400000000L);
+        UdpPrimitiveProtocol3.putXor(buf, -1);
+        buf.flip();
+        // unchanged is one byte
+        assertEquals(0, UdpPrimitiveProtocol3.decodeXor(buf));
+        assertEquals(1, buf.position());
+        assertEquals(0x0000123400000000L, UdpPrimitiveProtocol3.decodeXor(buf));
+        assertEquals(4, buf.position());
+        assertEquals(-1, UdpPrimitiveProtocol3.decodeXor(buf));
+        assertEquals(13, buf.position());
+    }
+
+    @Test
+    void testRoundTrip() throws ProtocolException {
+        UdpPrimitiveLogger logger = new UdpPrimitiveLogger(this::send, x -> {
+        }, true);
+        PrimitiveDoubleLogger d1 = logger.doubleLogger("d1");
+        PrimitiveDoubleLogger d2 = logger.doubleLogger("d2");
+        PrimitiveIntLogger i1 = logger.intLogger("i1");
+        PrimitiveStringLogger s1 = logger.stringLogger("s1");
+        Capture capture = new Capture();
+        UdpDataDecoder decoder = new UdpDataDecoder(capture, 0);
+
+        // first flush is a keyframe
+        d1.log(1.5);
+        d2.log(-2.0);
+        i1.log(-3);
+        s1.log("hello");
+        logger.flush();
+        assertEquals(1, packets.size());
+        decode(decoder, packets.get(0));
+        assertEquals(1.5, (Double) capture.values.get(1), kDelta);
+        assertEquals(-2.0, (Double) capture.values.get(2), kDelta);
+        assertEquals(-3, capture.values.get(3));
+        assertEquals("hello", capture.values.get(4));
+
+        // delta from the keyframe
+        d1.log(1.75);
+        d2.log(-2.0);
+        logger.flush();
+        ByteBuffer delta = packets.get(1);
+        decode(decoder, delta);
+        assertEquals(1.75, (Double) capture.values.get(1), kDelta);
+        assertEquals(-2.0, (Double) capture.values.get(2), kDelta);
+        // i1 and s1 aren't dirty so they're not in the delta
+        assertEquals(6, capture.count);
+        // header (8 + 1 + 1) + run (2) + d1 (1 + 2) + d2 (1 + 1), versus 30 in v2.
+        assertEquals(17, delta.limit());
+    }
+
+    @Test
+    void testMissedKeyframe() throws ProtocolException {
+        UdpPrimitiveLogger logger = new UdpPrimitiveLogger(this::send, x -> {
+        }, true);
+        PrimitiveDoubleLogger d1 = logger.doubleLogger("d1");
+        Capture capture = new Capture();
+        UdpDataDecoder decoder = new UdpDataDecoder(capture, 0);
+
+        d1.log(1.0);
+        logger.flush();
+        d1.log(2.0);
+        logger.flush();
+        // drop the keyframe, so the delta can't be decoded.
+        decode(decoder, packets.get(1));
+        assertFalse(capture.values.containsKey(1));
+        assertEquals(1, decoder.stale());
+
+        // the next keyframe repairs it, even though d1 is clean.
+        for (int i = 0; i < 9; ++i)
+            logger.flush();
+        assertEquals(11, packets.size());
+        // the keyframe is a reference only, so nothing is published
+        decode(decoder, packets.get(10));
+        assertFalse(capture.values.containsKey(1));
+        d1.log(4.0);
+        logger.flush();
+        decode(decoder, packets.get(11));
+        assertEquals(4.0, (Double) capture.values.get(1), kDelta);
+    }
+}
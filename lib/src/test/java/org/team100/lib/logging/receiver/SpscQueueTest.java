@@ -0,0 +1,52 @@
+package org.team100.lib.logging.receiver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SpscQueueTest {
+    @Test
+    void testFull() {
+        SpscQueue<Integer> q = new SpscQueue<>(3);
+        assertEquals(4, q.capacity());
+        assertNull(q.poll());
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(q.offer(i));
+        }
+        assertFalse(q.offer(4));
+        assertEquals(4, q.size());
+        assertEquals(0, q.poll());
+        assertTrue(q.offer(4));
+        for (int i = 1; i < 5; ++i) {
+            assertEquals(i, q.poll());
+        }
+        assertNull(q.poll());
+    }
+
+    /** Everything arrives, in order. */
+    @Test
+    void testThreads() throws InterruptedException {
+        final int n = 100000;
+        SpscQueue<Integer> q = new SpscQueue<>(64);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < n; ++i) {
+                while (!q.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        for (int i = 0; i < n; ++i) {
+            Integer item;
+            while ((item = q.poll()) == null) {
+                Thread.yield();
+            }
+            assertEquals(i, item);
+        }
+        producer.join();
+        assertNull(q.poll());
+    }
+}
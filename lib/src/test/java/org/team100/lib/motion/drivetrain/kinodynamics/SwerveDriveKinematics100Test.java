@@ -700,4 +700,97 @@ class SwerveDriveKinematics100Test {
                 () -> assertEquals(-1.0, arr.rearLeft().speedMetersPerSecond, kEpsilon),
                 () -> assertEquals(-1.0, arr.rearRight().speedMetersPerSecond, kEpsilon));
     }
+
+    /** The unrolled four-module version should match the matrix version. */
+    @Test
+    void testCompiledMatchesMatrix() {
+        // asymmetric, so that all the coefficients are different
+        Translation2d[] t = {
+                new Translation2d(0.3, 0.25),
+                new Translation2d(0.35, -0.2),
+                new Translation2d(-0.25, 0.3),
+                new Translation2d(-0.3, -0.35) };
+        SwerveDriveKinematics100 compiled = new SwerveDriveKinematics100(true, t);
+        SwerveDriveKinematics100 matrix = new SwerveDriveKinematics100(false, t);
+        SwerveModuleStates out = new SwerveModuleStates(
+                new SwerveModuleState100(),
+                new SwerveModuleState100(),
+                new SwerveModuleState100(),
+                new SwerveModuleState100());
+        double[][] inputs = {
+                { 1, 0, 0 },
+                { 0, 1, 0 },
+                { 0, 0, 1 },
+                { 1, -0.5, 0.2 },
+                { -2, 1.5, -3 },
+                { 0, 0, 0 } };
+        for (double[] in : inputs) {
+            ChassisSpeeds speeds = new ChassisSpeeds(in[0], in[1], in[2]);
+            SwerveModuleStates expected = matrix.toSwerveModuleStates(speeds);
+            SwerveModuleStates actual = compiled.toSwerveModuleStates(speeds);
+            compiled.toSwerveModuleStates(speeds, out);
+            for (int i = 0; i < 4; ++i) {
+                SwerveModuleState100 e = expected.all()[i];
+                assertEquals(e.speedMetersPerSecond, actual.all()[i].speedMetersPerSecond, 1e-9);
+                assertEquals(e.speedMetersPerSecond, out.all()[i].speedMetersPerSecond, 1e-9);
+                assertEquals(e.angle.isPresent(), actual.all()[i].angle.isPresent());
+                assertEquals(e.angle.isPresent(), out.all()[i].angle.isPresent());
+                if (e.angle.isPresent()) {
+                    assertEquals(e.angle.get().getRadians(), actual.all()[i].angle.get().getRadians(), 1e-9);
+                    assertEquals(e.angle.get().getRadians(), out.all()[i].angle.get().getRadians(), 1e-9);
+                }
+            }
+            ChassisSpeeds fe = matrix.toChassisSpeeds(expected);
+            ChassisSpeeds fa = compiled.toChassisSpeeds(actual);
+            assertEquals(fe.vxMetersPerSecond, fa.vxMetersPerSecond, 1e-9);
+            assertEquals(fe.vyMetersPerSecond, fa.vyMetersPerSecond, 1e-9);
+            assertEquals(fe.omegaRadiansPerSecond, fa.omegaRadiansPerSecond, 1e-9);
+
+            Twist2d twist = new Twist2d(in[0] * 0.02, in[1] * 0.02, in[2] * 0.02);
+            SwerveModuleDeltas de = matrix.toSwerveModuleDelta(twist);
+            SwerveModuleDeltas da = compiled.toSwerveModuleDelta(twist);
+            for (int i = 0; i < 4; ++i) {
+                assertEquals(de.all()[i].distanceMeters, da.all()[i].distanceMeters, 1e-9);
+            }
+            Twist2d te = matrix.toTwist2d(de);
+            Twist2d ta = compiled.toTwist2d(da);
+            assertEquals(te.dx, ta.dx, 1e-9);
+            assertEquals(te.dy, ta.dy, 1e-9);
+            assertEquals(te.dtheta, ta.dtheta, 1e-9);
+        }
+    }
+
+    /**
+     * The planner uses the kinematics on its own thread, so one instance has to
+     * work from two threads at once.
+     */
+    @Test
+    void testConcurrent() throws InterruptedException {
+        SwerveDriveKinematics100 kinematics = new SwerveDriveKinematics100(
+                new Translation2d(0.3, 0.25),
+                new Translation2d(0.35, -0.2),
+                new Translation2d(-0.25, 0.3),
+                new Translation2d(-0.3, -0.35));
+        SwerveModuleStates a = kinematics.toSwerveModuleStates(new ChassisSpeeds(1, 0, 0));
+        SwerveModuleStates b = kinematics.toSwerveModuleStates(new ChassisSpeeds(0, -1, 2));
+        boolean[] ok = { true, true };
+        Thread t1 = new Thread(() -> {
+            for (int i = 0; i < 100000; ++i) {
+                if (Math.abs(kinematics.toChassisSpeeds(a).vxMetersPerSecond - 1) > 1e-9)
+                    ok[0] = false;
+            }
+        });
+        Thread t2 = new Thread(() -> {
+            for (int i = 0; i < 100000; ++i) {
+                if (Math.abs(kinematics.toChassisSpeeds(b).vyMetersPerSecond + 1) > 1e-9)
+                    ok[1] = false;
+            }
+        });
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+        assertTrue(ok[0]);
+        assertTrue(ok[1]);
+    }
 }
@@ -0,0 +1,78 @@
+package org.team100.lib.motion.drivetrain.module;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ModuleExecutorTest {
+
+    @Test
+    void testSerial() {
+        ModuleExecutor executor = new ModuleExecutor(false);
+        int[] result = new int[4];
+        executor.run(i -> result[i] = i + 1);
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, result);
+        executor.close();
+    }
+
+    @Test
+    void testParallel() {
+        ModuleExecutor executor = new ModuleExecutor(true);
+        int[] result = new int[4];
+        for (int n = 0; n < 100; ++n) {
+            final int k = n;
+            executor.run(i -> result[i] = i + k);
+            // the barrier means the results are all there
+            assertArrayEquals(new int[] { k, k + 1, k + 2, k + 3 }, result);
+        }
+        executor.close();
+    }
+
+    @Test
+    void testElapsed() {
+        ModuleExecutor executor = new ModuleExecutor(true);
+        executor.run(i -> {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(executor.elapsedS(i) >= 0.009);
+        }
+        executor.close();
+    }
+
+    @Test
+    void testError() {
+        ModuleExecutor executor = new ModuleExecutor(true);
+        assertThrows(IllegalStateException.class,
+                () -> executor.run(i -> {
+                    if (i == 2)
+                        throw new IllegalStateException();
+                }));
+        // still works afterwards
+        int[] result = new int[4];
+        executor.run(i -> result[i] = 1);
+        assertArrayEquals(new int[] { 1, 1, 1, 1 }, result);
+        executor.close();
+    }
+
+    /** Errors, not just exceptions, come back to the caller. */
+    @Test
+    void testAssertionError() {
+        ModuleExecutor executor = new ModuleExecutor(true);
+        assertThrows(AssertionError.class,
+                () -> executor.run(i -> {
+                    if (i == 3)
+                        throw new AssertionError();
+                }));
+        int[] result = new int[4];
+        executor.run(i -> result[i] = 1);
+        assertArrayEquals(new int[] { 1, 1, 1, 1 }, result);
+        executor.close();
+    }
+}
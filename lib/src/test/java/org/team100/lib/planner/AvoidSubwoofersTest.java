@@ -0,0 +1,41 @@
+package org.team100.lib.planner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** Pins the subwoofer force profile. */
+class AvoidSubwoofersTest {
+    private static final double kDelta = 0.001;
+
+    // the blue subwoofer
+    private static final double kX = 0;
+    private static final double kY = 5.547;
+
+    @Test
+    void testProfile() {
+        double[] force = new double[2];
+        // 5 * (1/1 - 1/3)
+        AvoidSubwoofers.addForce(kX + 1, kY, force);
+        assertEquals(3.333, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+
+    @Test
+    void testOutOfRange() {
+        double[] force = new double[2];
+        AvoidSubwoofers.addForce(kX + 3, kY, force);
+        assertEquals(0, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+
+    /** Inside the subwoofer, the force stops growing. */
+    @Test
+    void testInside() {
+        double[] force = new double[2];
+        // 5 * (1/0.5 - 1/3)
+        AvoidSubwoofers.addForce(kX + 0.2, kY, force);
+        assertEquals(8.333, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+}
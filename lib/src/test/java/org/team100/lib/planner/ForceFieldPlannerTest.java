@@ -0,0 +1,86 @@
+package org.team100.lib.planner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+class ForceFieldPlannerTest {
+    private static final double kDelta = 0.05;
+
+    /** The grid should match the direct computation, away from discontinuities. */
+    @Test
+    void testMatchesDirect() {
+        ForceFieldPlanner planner = new ForceFieldPlanner(
+                Pose2d::new, true, true, null, null, false);
+        double[] grid = new double[2];
+        double[] direct = new double[2];
+        double[][] points = {
+                { 8.03, 4.04 }, // middle of the field, nothing nearby
+                { 4.03, 4.04 }, // near the east post
+                { 5.05, 3.22 }, // near the southeast post
+                { 2.02, 5.03 }, // near the blue subwoofer
+                { 0.53, 3.07 }, // near the wall
+        };
+        for (double[] p : points) {
+            planner.staticForce(p[0], p[1], grid);
+            direct[0] = 0;
+            direct[1] = 0;
+            ObstacleRepulsion.addForce(p[0], p[1], direct);
+            AvoidEdges.addForce(p[0], p[1], direct);
+            AvoidSubwoofers.addForce(p[0], p[1], direct);
+            assertEquals(direct[0], grid[0], kDelta);
+            assertEquals(direct[1], grid[1], kDelta);
+        }
+    }
+
+    @Test
+    void testOffField() {
+        ForceFieldPlanner planner = new ForceFieldPlanner(
+                Pose2d::new, false, true, null, null, false);
+        double[] force = new double[2];
+        // uses the nearest edge: the wall and the blue subwoofer
+        planner.staticForce(-1, 4, force);
+        assertEquals(5, force[0], kDelta);
+        assertEquals(-1.565, force[1], kDelta);
+    }
+
+    @Test
+    void testNothing() {
+        ForceFieldPlanner planner = new ForceFieldPlanner(
+                Pose2d::new, false, false, null, null, false);
+        double[] force = new double[2];
+        planner.staticForce(3.38, 4.1, force);
+        assertEquals(0, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+
+    /**
+     * The edge force is a step, at 1 m from the wall, but the grid interpolates
+     * it into a ramp one cell wide.
+     */
+    @Test
+    void testEdgeRamp() {
+        ForceFieldPlanner planner = new ForceFieldPlanner(
+                Pose2d::new, false, true, null, null, false);
+        double[] force = new double[2];
+        // far from the subwoofers
+        planner.staticForce(0.9, 2, force);
+        assertEquals(5, force[0], kDelta);
+        planner.staticForce(0.95, 2, force);
+        assertEquals(2.5, force[0], kDelta);
+        planner.staticForce(1.0, 2, force);
+        assertEquals(0, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+
+    /** Planners with the same obstacles share one grid. */
+    @Test
+    void testShared() {
+        assertSame(ForceFieldPlanner.grid(true, true), ForceFieldPlanner.grid(true, true));
+        assertNotSame(ForceFieldPlanner.grid(true, true), ForceFieldPlanner.grid(false, true));
+    }
+}
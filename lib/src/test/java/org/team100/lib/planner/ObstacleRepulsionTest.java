@@ -0,0 +1,49 @@
+package org.team100.lib.planner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** Pins the stage post force profile. */
+class ObstacleRepulsionTest {
+    private static final double kDelta = 0.001;
+
+    // the east post is at (3.38, 4.10), and the others are far away.
+    private static final double kX = 3.38;
+    private static final double kY = 4.10;
+
+    @Test
+    void testProfile() {
+        double[] force = new double[2];
+        // 10 * (1/1 - 1/1.5)
+        ObstacleRepulsion.addForce(kX - 1, kY, force);
+        assertEquals(-3.333, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+
+    @Test
+    void testOutOfRange() {
+        double[] force = new double[2];
+        ObstacleRepulsion.addForce(kX, kY + 1.5, force);
+        assertEquals(0, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+
+    /** Inside the post, the force stops growing. */
+    @Test
+    void testInside() {
+        double[] force = new double[2];
+        // 10 * (1/0.15 - 1/1.5), the same as at the surface.
+        ObstacleRepulsion.addForce(kX, kY + 0.1, force);
+        assertEquals(0, force[0], kDelta);
+        assertEquals(60, force[1], kDelta);
+        force[1] = 0;
+        ObstacleRepulsion.addForce(kX, kY + 0.15, force);
+        assertEquals(60, force[1], kDelta);
+        // no direction at the center
+        force[1] = 0;
+        ObstacleRepulsion.addForce(kX, kY, force);
+        assertEquals(0, force[0], kDelta);
+        assertEquals(0, force[1], kDelta);
+    }
+}
@@ -252,7 +252,7 @@ class CoordinatedProfileTest {
 
         // this should be 1.0
         assertEquals(1.0, sx, kDelta);
-        assertEquals(0.336, sy, kDelta);
+        assertEquals(0.343, sy, kDelta);
 
         // use the scale parameter to make adjusted profiles
         px = px.scale(sx);
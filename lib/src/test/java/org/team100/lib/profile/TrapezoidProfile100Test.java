@@ -144,12 +144,43 @@ class TrapezoidProfile100Test {
         // this this is the default eta above, so s = 1.0.
         double s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 2, kDelta);
         assertEquals(1.0, s, kDelta);
+        // these are exact: triangle profiles, so eta = 2 sqrt(1/s)
         s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 3, kDelta);
-        assertEquals(0.439, s, kDelta);
+        assertEquals(0.444, s, kDelta);
         s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 4, kDelta);
-        assertEquals(0.242, s, kDelta);
+        assertEquals(0.25, s, kDelta);
         s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 8, kDelta);
-        assertEquals(0.053, s, kDelta);
+        assertEquals(0.0625, s, kDelta);
+    }
+
+    /** The solver should produce the requested ETA, not just something close. */
+    @Test
+    void testETASolveMoving() {
+        Model100 initial = new Model100(0, 1);
+        Model100 goal = new Model100(1, 0);
+        double s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 3, kDelta);
+        assertEquals(0.462, s, kDelta);
+        TrapezoidProfile100 p = new TrapezoidProfile100(1, s, 0.01);
+        assertEquals(3, p.calculateWithETA(0.02, initial, goal).etaS(), 0.01);
+    }
+
+    /**
+     * An ETA shorter than cruising at max speed the whole way can't be met, so
+     * the fastest profile is the answer, not the slowest.
+     */
+    @Test
+    void testETASolveTooSoon() {
+        Model100 initial = new Model100(0, 0);
+        Model100 goal = new Model100(4, 0);
+        // cruising at 1 m/s would take 4 s.
+        double s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 3, kDelta);
+        assertEquals(1.0, s, kDelta);
+        s = TrapezoidProfile100.solveForSlowerETA(1, 1, 0.01, 0.02, initial, goal, 4, kDelta);
+        assertEquals(1.0, s, kDelta);
+        assertEquals(1.0, TrapezoidProfile100.restToRestScale(1, 1, 4, 3), kDelta);
+        // just possible: cruise most of the way.
+        assertEquals(1.0, TrapezoidProfile100.restToRestScale(1, 1, 4, 5), kDelta);
+        assertEquals(0.5, TrapezoidProfile100.restToRestScale(1, 1, 4, 6), kDelta);
     }
 
     @Test
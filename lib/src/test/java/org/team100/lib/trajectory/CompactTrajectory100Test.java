@@ -0,0 +1,103 @@
+package org.team100.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.geometry.GeometryUtil;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamics;
+import org.team100.lib.motion.drivetrain.kinodynamics.SwerveKinodynamicsFactory;
+import org.team100.lib.timing.TimedPose;
+import org.team100.lib.timing.TimingConstraint;
+import org.team100.lib.timing.TimingConstraintFactory;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+class CompactTrajectory100Test {
+    private static final double kDelta = 0.0001;
+
+    /**
+     * The compact version should sample the same as the object version, i.e.
+     * TimedPose.interpolate2().
+     */
+    @Test
+    void testSameAsSampler() {
+        SwerveKinodynamics limits = SwerveKinodynamicsFactory.get();
+        List<Pose2d> waypoints = List.of(
+                new Pose2d(0, 0, GeometryUtil.kRotationZero),
+                new Pose2d(2, 1, GeometryUtil.kRotation90));
+        List<Rotation2d> headings = List.of(
+                GeometryUtil.kRotationZero,
+                GeometryUtil.kRotation90);
+        List<TimingConstraint> constraints = new TimingConstraintFactory(limits).fast();
+        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypoints, headings, constraints);
+
+        CompactTrajectory100 compact = new CompactTrajectory100(trajectory);
+        assertEquals(trajectory.length(), compact.length());
+        assertEquals(trajectory.getLastPoint().state().getTimeS(), compact.getEndS(), kDelta);
+
+        CompactTrajectory100.Sample sample = new CompactTrajectory100.Sample();
+        int hint = 1;
+        for (double t = -0.1; t < compact.getEndS() + 0.1; t += 0.013) {
+            TimedPose expected = interpolate(trajectory, t);
+            hint = compact.sample(t, hint, sample);
+            Pose2d pose = expected.state().getPose();
+            assertEquals(pose.getX(), sample.x, kDelta);
+            assertEquals(pose.getY(), sample.y, kDelta);
+            assertEquals(pose.getRotation().getRadians(), sample.heading, kDelta);
+            assertEquals(expected.getTimeS(), sample.t, kDelta);
+            assertEquals(expected.velocityM_S(), sample.v, kDelta);
+            assertEquals(expected.acceleration(), sample.a, kDelta);
+            assertEquals(expected.state().getCurvature(), sample.curvature, kDelta);
+            assertEquals(expected.state().getHeadingRate(), sample.headingRate, kDelta);
+        }
+    }
+
+    /** The sampler uses the compact version, and returns the same thing. */
+    @Test
+    void testSampler() {
+        SwerveKinodynamics limits = SwerveKinodynamicsFactory.get();
+        List<Pose2d> waypoints = List.of(
+                new Pose2d(0, 0, GeometryUtil.kRotationZero),
+                new Pose2d(2, 1, GeometryUtil.kRotation90));
+        List<Rotation2d> headings = List.of(
+                GeometryUtil.kRotationZero,
+                GeometryUtil.kRotation90);
+        List<TimingConstraint> constraints = new TimingConstraintFactory(limits).fast();
+        Trajectory100 trajectory = TrajectoryPlanner.restToRest(waypoints, headings, constraints);
+
+        TrajectoryTimeSampler sampler = new TrajectoryTimeSampler(trajectory);
+        int hint = 1;
+        for (double t = 0.001; t < sampler.getEndS(); t += 0.013) {
+            TrajectorySamplePoint point = sampler.sample(t, hint).get();
+            hint = point.getIndexCeil();
+            TimedPose expected = interpolate(trajectory, t);
+            Pose2d pose = expected.state().getPose();
+            Pose2d actual = point.state().state().getPose();
+            assertEquals(pose.getX(), actual.getX(), kDelta);
+            assertEquals(pose.getY(), actual.getY(), kDelta);
+            assertEquals(pose.getRotation().getRadians(), actual.getRotation().getRadians(), kDelta);
+            assertEquals(expected.velocityM_S(), point.state().velocityM_S(), kDelta);
+            assertEquals(expected.state().getCourse().isPresent(), point.state().state().getCourse().isPresent());
+            assertEquals(t, point.state().getTimeS(), kDelta);
+        }
+    }
+
+    /** The old way, walking the point objects. */
+    private static TimedPose interpolate(Trajectory100 trajectory, double t) {
+        if (t <= trajectory.getPoint(0).state().getTimeS())
+            return trajectory.getPoint(0).state();
+        for (int i = 1; i < trajectory.length(); ++i) {
+            TimedPose p1 = trajectory.getPoint(i).state();
+            if (p1.getTimeS() >= t) {
+                TimedPose p0 = trajectory.getPoint(i - 1).state();
+                if (Math.abs(p1.getTimeS() - p0.getTimeS()) <= 1e-12)
+                    return p1;
+                return p0.interpolate2(p1, (t - p0.getTimeS()) / (p1.getTimeS() - p0.getTimeS()));
+            }
+        }
+        return trajectory.getLastPoint().state();
+    }
+}
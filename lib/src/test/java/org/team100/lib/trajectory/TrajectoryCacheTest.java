@@ -0,0 +1,139 @@
+package org.team100.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.team100.lib.geometry.Pose2dWithMotion;
+import org.team100.lib.timing.ConstantConstraint;
+import org.team100.lib.timing.TimedPose;
+import org.team100.lib.timing.TimingConstraint;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+class TrajectoryCacheTest {
+    private static final double kDelta = 1e-9;
+
+    @TempDir
+    Path dir;
+
+    private final List<Pose2d> waypoints = List.of(
+            new Pose2d(),
+            new Pose2d(1, 1, new Rotation2d(Math.PI / 2)));
+    private final List<Rotation2d> headings = List.of(
+            new Rotation2d(),
+            new Rotation2d(1));
+
+    @Test
+    void testRoundTrip() {
+        Path path = dir.resolve("test.traj");
+        List<TimingConstraint> constraints = List.of(new ConstantConstraint(2, 2));
+
+        TrajectoryCache cache = new TrajectoryCache(path);
+        Trajectory100 generated = cache.restToRest(waypoints, headings, constraints);
+        assertFalse(generated.isEmpty());
+        assertTrue(cache.isDirty());
+        cache.save();
+        assertFalse(cache.isDirty());
+        assertTrue(Files.exists(path));
+
+        TrajectoryCache cache2 = new TrajectoryCache(path);
+        Trajectory100 loaded = cache2.restToRest(waypoints, headings, constraints);
+        assertFalse(cache2.isDirty());
+        assertEquals(generated.length(), loaded.length());
+        for (int i = 0; i < generated.length(); ++i) {
+            TimedPose g = generated.getPoint(i).state();
+            TimedPose l = loaded.getPoint(i).state();
+            assertEquals(g.getTimeS(), l.getTimeS(), kDelta);
+            assertEquals(g.velocityM_S(), l.velocityM_S(), kDelta);
+            assertEquals(g.acceleration(), l.acceleration(), kDelta);
+            assertEquals(g.state().getPose().getX(), l.state().getPose().getX(), kDelta);
+            assertEquals(g.state().getPose().getY(), l.state().getPose().getY(), kDelta);
+            assertEquals(g.state().getHeading().getRadians(), l.state().getHeading().getRadians(), kDelta);
+            assertEquals(g.state().getHeadingRate(), l.state().getHeadingRate(), kDelta);
+            assertEquals(g.state().getCurvature(), l.state().getCurvature(), kDelta);
+            assertEquals(g.state().getCourse().isPresent(), l.state().getCourse().isPresent());
+        }
+    }
+
+    /** Replacing a file that this cache read works, and keeps everything used. */
+    @Test
+    void testReplace() {
+        Path path = dir.resolve("test.traj");
+        List<TimingConstraint> constraints = List.of(new ConstantConstraint(2, 2));
+        List<Pose2d> other = List.of(
+                new Pose2d(),
+                new Pose2d(2, 1, new Rotation2d(Math.PI / 2)));
+
+        TrajectoryCache cache = new TrajectoryCache(path);
+        cache.restToRest(waypoints, headings, constraints);
+        cache.save();
+
+        TrajectoryCache cache2 = new TrajectoryCache(path);
+        cache2.restToRest(waypoints, headings, constraints);
+        assertFalse(cache2.isDirty());
+        cache2.restToRest(other, headings, constraints);
+        assertTrue(cache2.isDirty());
+        cache2.save();
+        assertFalse(cache2.isDirty());
+
+        TrajectoryCache cache3 = new TrajectoryCache(path);
+        cache3.restToRest(waypoints, headings, constraints);
+        cache3.restToRest(other, headings, constraints);
+        assertFalse(cache3.isDirty());
+    }
+
+    @Test
+    void testKeyDependsOnConstraints() {
+        long k1 = TrajectoryCache.key(waypoints, headings, List.of(new ConstantConstraint(2, 2)));
+        long k2 = TrajectoryCache.key(waypoints, headings, List.of(new ConstantConstraint(2, 2)));
+        long k3 = TrajectoryCache.key(waypoints, headings, List.of(new ConstantConstraint(3, 2)));
+        assertEquals(k1, k2);
+        assertNotEquals(k1, k3);
+    }
+
+    @Test
+    void testProbeOnce() {
+        // the constraint is probed the first time, and remembered after that.
+        int[] calls = new int[1];
+        TimingConstraint c = new TimingConstraint() {
+            @Override
+            public NonNegativeDouble getMaxVelocity(Pose2dWithMotion state) {
+                calls[0]++;
+                return new NonNegativeDouble(1);
+            }
+
+            @Override
+            public MinMaxAcceleration getMinMaxAcceleration(Pose2dWithMotion state, double velocityM_S) {
+                return new MinMaxAcceleration(-1, 1);
+            }
+        };
+        long k1 = TrajectoryCache.key(waypoints, headings, List.of(c));
+        int probes = calls[0];
+        assertTrue(probes > 0);
+        long k2 = TrajectoryCache.key(waypoints, headings, List.of(c));
+        assertEquals(k1, k2);
+        assertEquals(probes, calls[0]);
+    }
+
+    @Test
+    void testMismatchRegenerates() {
+        Path path = dir.resolve("test.traj");
+        TrajectoryCache cache = new TrajectoryCache(path);
+        cache.restToRest(waypoints, headings, List.of(new ConstantConstraint(2, 2)));
+        cache.save();
+
+        TrajectoryCache cache2 = new TrajectoryCache(path);
+        Trajectory100 t = cache2.restToRest(waypoints, headings, List.of(new ConstantConstraint(1, 1)));
+        assertFalse(t.isEmpty());
+        assertTrue(cache2.isDirty());
+    }
+}
@@ -191,4 +191,30 @@ class Math100Test {
         assertEquals(2 * Math.PI, d, kDelta);
     }
 
+    @Test
+    void testCeilingIndex() {
+        double[] a = new double[] { 0, 1, 2, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        assertEquals(0, Math100.ceilingIndex(a, -1, 0, a.length - 1));
+        assertEquals(1, Math100.ceilingIndex(a, 0.5, 0, a.length - 1));
+        // first of the duplicates
+        assertEquals(2, Math100.ceilingIndex(a, 2, 0, a.length - 1));
+        assertEquals(4, Math100.ceilingIndex(a, 2.5, 0, a.length - 1));
+        // past the end
+        assertEquals(a.length, Math100.ceilingIndex(a, 13, 0, a.length - 1));
+    }
+
+    @Test
+    void testCeilingIndexWithHint() {
+        double[] a = new double[] { 0, 1, 2, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        // hint is exact
+        assertEquals(4, Math100.ceilingIndex(a, 2.5, 0, a.length - 1, 4));
+        // answer is a little ahead
+        assertEquals(6, Math100.ceilingIndex(a, 4.5, 0, a.length - 1, 4));
+        // answer is far ahead, beyond the walk
+        assertEquals(13, Math100.ceilingIndex(a, 11.5, 0, a.length - 1, 1));
+        // answer is behind
+        assertEquals(2, Math100.ceilingIndex(a, 2, 0, a.length - 1, 10));
+        // past the end
+        assertEquals(a.length, Math100.ceilingIndex(a, 13, 0, a.length - 1, 10));
+    }
 }
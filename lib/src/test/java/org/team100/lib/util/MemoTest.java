@@ -0,0 +1,133 @@
+package org.team100.lib.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MemoTest {
+    private double source = 0;
+    private double refreshed = 0;
+    private final Runnable updater = () -> refreshed = source;
+
+    @AfterEach
+    void unregister() {
+        // the updater would otherwise run in every later resetAll().
+        Memo.unregisterUpdater(updater);
+    }
+
+    @Test
+    void testUpdater() {
+        // the cache reads the refreshed value, not the source.
+        Memo.registerUpdater(updater);
+        DoubleSupplier s = Memo.ofDouble(() -> refreshed);
+        source = 1;
+        assertEquals(0, s.getAsDouble(), 1e-9);
+        // memoized
+        source = 2;
+        assertEquals(0, s.getAsDouble(), 1e-9);
+        // reset refreshes the source first
+        Memo.resetAll();
+        assertEquals(2, s.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void testGeneration() {
+        int[] calls = new int[1];
+        Supplier<Integer> s = Memo.of(() -> ++calls[0]);
+        assertEquals(1, s.get());
+        assertEquals(1, s.get());
+        assertEquals(1, calls[0]);
+        Memo.resetAll();
+        assertEquals(2, s.get());
+        assertEquals(2, s.get());
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    void testIndividualReset() {
+        int[] calls = new int[1];
+        int[] other = new int[1];
+        Memo.DoubleCache a = Memo.ofDouble(() -> ++calls[0]);
+        Memo.DoubleCache b = Memo.ofDouble(() -> ++other[0]);
+        assertEquals(1, a.getAsDouble(), 1e-9);
+        assertEquals(1, b.getAsDouble(), 1e-9);
+        // resetting one cache doesn't affect the other
+        a.reset();
+        assertEquals(2, a.getAsDouble(), 1e-9);
+        assertEquals(1, b.getAsDouble(), 1e-9);
+        // and the refilled one is valid for the rest of this generation
+        assertEquals(2, a.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void testPrefetch() {
+        // don't fill the caches made by other tests.
+        Memo.clearFillers();
+        int[] calls = new int[1];
+        Supplier<Integer> s = Memo.of(() -> ++calls[0]);
+        Memo.prefetchAll();
+        assertEquals(1, calls[0]);
+        assertEquals(1, s.get());
+        assertEquals(1, calls[0]);
+        Memo.clearFillers();
+    }
+
+    @Test
+    void testNull() {
+        // null is not cached, so the delegate is called again.
+        int[] calls = new int[1];
+        Supplier<Integer> s = Memo.of(() -> {
+            calls[0]++;
+            return null;
+        });
+        assertNull(s.get());
+        assertNull(s.get());
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    void testSetPrefetch() {
+        Memo.clearFillers();
+        int[] calls = new int[1];
+        Supplier<Integer> s = Memo.of(() -> ++calls[0]);
+        Memo.resetAll();
+        assertEquals(0, calls[0]);
+        Memo.setPrefetch(true);
+        try {
+            Memo.resetAll();
+            assertEquals(1, calls[0]);
+            assertEquals(1, s.get());
+            assertEquals(1, calls[0]);
+        } finally {
+            Memo.setPrefetch(false);
+            Memo.clearFillers();
+        }
+    }
+
+    /** A slow fill from the previous loop doesn't replace this loop's value. */
+    @Test
+    void testStaleFill() {
+        int[] calls = new int[1];
+        AtomicReference<Supplier<Integer>> s = new AtomicReference<>();
+        s.set(Memo.of(() -> {
+            int n = ++calls[0];
+            if (n == 1) {
+                // the loop ends while the first fill is still running,
+                // and the next loop fills the cache.
+                Memo.resetAll();
+                assertEquals(2, s.get().get());
+            }
+            return n;
+        }));
+        assertEquals(1, s.get().get());
+        // the cache holds the newer value
+        assertEquals(2, s.get().get());
+        assertEquals(2, calls[0]);
+    }
+}
@@ -1,8 +1,10 @@
 package org.team100.commands;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.dyn4j.geometry.Vector2;
 import org.team100.robot.Source;
-import org.team100.sim.Body100;
 import org.team100.sim.Foe;
 import org.team100.sim.Note;
 import org.team100.sim.RobotBody;
@@ -30,6 +32,9 @@ public class SourceDefault extends Command {
     private final SimWorld m_world;
     private final boolean m_isBlue;
     private final boolean m_debug;
+    /** Query results, reused each time. */
+    private final List<RobotBody> m_robots = new ArrayList<>();
+    private final List<Note> m_notes = new ArrayList<>();
 
     public SourceDefault(Source source, SimWorld world, boolean isBlue, boolean debug) {
         m_humanPlayer = source;
@@ -55,19 +60,9 @@ public class SourceDefault extends Command {
      * True if any friends are nearby.
      */
     private boolean nearFriend() {
-        for (Body100 body : m_world.getBodies()) {
-            if (!(body instanceof RobotBody)) {
-                // look only at robots
-                continue;
-            }
-            RobotBody robot = (RobotBody) body;
-            Vector2 robotPosition = robot.getWorldCenter();
-            Translation2d robotTranslation = new Translation2d(robotPosition.x, robotPosition.y);
-            double distance = robotTranslation.getDistance(m_humanPlayer.getTarget());
-            if (distance > kMaxRobotDistance) {// ignore distant robots
-                continue;
-            }
-
+        // look only at nearby robots
+        m_world.near(RobotBody.class, target(), kMaxRobotDistance, m_robots);
+        for (RobotBody robot : m_robots) {
             if (m_isBlue && robot instanceof Foe) {
                 // blue source does not feed red robots.
                 if (m_debug)
@@ -93,21 +88,12 @@ public class SourceDefault extends Command {
 
     /** True if there are notes nearby. */
     private boolean nearNote() {
-        for (Body100 body : m_world.getBodies()) {
-            if (!(body instanceof Note)) {
-                // look only at notes
-                continue;
-            }
-            Note note = (Note) body;
+        // look only at nearby notes
+        m_world.near(Note.class, target(), kMaxNoteDistance, m_notes);
+        for (Note note : m_notes) {
             if (!note.isVisible()) {
                 continue;
             }
-            Vector2 notePosition = note.getWorldCenter();
-            Translation2d noteTranslation = new Translation2d(notePosition.x, notePosition.y);
-            double distance = noteTranslation.getDistance(m_humanPlayer.getTarget());
-            if (distance > kMaxNoteDistance) {// ignore distant notes
-                continue;
-            }
             if (m_debug)
                 System.out.printf(" there is a note %s", note);
             return true;
@@ -115,4 +101,9 @@ public class SourceDefault extends Command {
         return false;
 
     }
+
+    private Vector2 target() {
+        Translation2d target = m_humanPlayer.getTarget();
+        return new Vector2(target.getX(), target.getY());
+    }
 }
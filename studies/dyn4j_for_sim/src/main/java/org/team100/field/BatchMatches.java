@@ -0,0 +1,110 @@
+package org.team100.field;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs many seeded headless matches in parallel, and aggregates the scores.
+ *
+ * The scheduler, driver station, and clock are process-wide in WPILib, so the
+ * parallelism is a JVM per worker, each running {@link HeadlessMatch} on its
+ * share of the seeds, one SimWorld at a time. The results come back as lines
+ * on stdout.
+ *
+ * System properties (-D...) given to this JVM are passed to the workers, so a
+ * parameter sweep can run one batch per setting.
+ *
+ * Usage: BatchMatches [matches [workers [first seed]]]
+ */
+public class BatchMatches {
+    private final int m_matches;
+    private final int m_workers;
+    private final long m_firstSeed;
+
+    public BatchMatches(int matches, int workers, long firstSeed) {
+        if (matches < 1)
+            throw new IllegalArgumentException("matches must be positive");
+        if (workers < 1)
+            throw new IllegalArgumentException("workers must be positive");
+        m_matches = matches;
+        m_workers = Math.min(workers, matches);
+        m_firstSeed = firstSeed;
+    }
+
+    public MatchStatistics run() throws IOException, InterruptedException {
+        MatchStatistics stats = new MatchStatistics();
+        List<Process> processes = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int w = 0; w < m_workers; ++w) {
+            List<String> command = command(w);
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            processes.add(process);
+            Thread reader = new Thread(() -> read(process, stats));
+            reader.start();
+            readers.add(reader);
+        }
+        for (Process process : processes) {
+            int exit = process.waitFor();
+            if (exit != 0)
+                System.err.printf("worker exited with %d\n", exit);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        return stats;
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        long startNs = System.nanoTime();
+        MatchStatistics stats = new BatchMatches(matches, workers, firstSeed).run();
+        double elapsedS = (System.nanoTime() - startNs) * 1e-9;
+        System.out.print(stats);
+        System.out.printf("elapsed %.1f s, %.1f matches/s, %.0fx real time\n",
+                elapsedS,
+                stats.count() / elapsedS,
+                stats.count() * HeadlessMatch.kMatchS / elapsedS);
+    }
+
+    ///////////////////////////////////////////////////////
+
+    /** Worker w gets seeds w, w + workers, w + 2 * workers, ... */
+    private List<String> command(int w) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            // pass the properties, but not e.g. the debugger agent.
+            if (arg.startsWith("-D"))
+                command.add(arg);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HeadlessMatch.class.getName());
+        for (int i = w; i < m_matches; i += m_workers) {
+            command.add(Long.toString(m_firstSeed + i));
+        }
+        return command;
+    }
+
+    private static void read(Process process, MatchStatistics stats) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                MatchResult result = MatchResult.fromLine(line);
+                if (result != null)
+                    stats.add(result);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.team100.field;
+
+import org.team100.lib.logging.Level;
+import org.team100.lib.logging.LoggerFactory;
+import org.team100.lib.logging.Logging;
+import org.team100.robot.RobotContainer;
+import org.team100.sim.SimWorld;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation.MatchType;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Runs one match as fast as the CPU allows, without the TimedRobot loop, the
+ * real-time FMS, or the score display.
+ *
+ * WPILib time is paused and stepped by hand, so everything that uses
+ * Timer.getFPGATimestamp() (e.g. the amplification timer, the camera
+ * sightings) sees match time, not wall time.
+ *
+ * The schedule is the same as SimulatedFMS, without the countdown: 15 s auton,
+ * 3 s pause, 135 s teleop.
+ *
+ * The command scheduler, the driver station, and the clock are all
+ * process-wide, so only one match can run in a JVM at a time. To use more
+ * cores, use {@link BatchMatches}, which runs a JVM per worker.
+ *
+ * As a main program, runs a match for each seed in the arguments, and prints
+ * one {@link MatchResult} line per match.
+ */
+public class HeadlessMatch {
+    private static final double kAutonS = 15;
+    private static final double kPauseS = 3;
+    private static final double kTeleopS = 135;
+    /** Simulated duration of the whole match. */
+    static final double kMatchS = kAutonS + kPauseS + kTeleopS;
+
+    private static boolean initialized = false;
+
+    private final long m_seed;
+    private final int m_renderPeriod;
+
+    /**
+     * @param seed         for all the randomness in the world
+     * @param renderPeriod render every this many steps, or never if zero.
+     */
+    public HeadlessMatch(long seed, int renderPeriod) {
+        m_seed = seed;
+        m_renderPeriod = renderPeriod;
+    }
+
+    public MatchResult run() {
+        init();
+        reset();
+        Score blueScore = new Score();
+        Score redScore = new Score();
+        blueScore.opponent = redScore;
+        redScore.opponent = blueScore;
+
+        LoggerFactory fieldLogger = Logging.instance().fieldLogger;
+        SimWorld world = new SimWorld(fieldLogger, blueScore, redScore, m_seed);
+        world.setRenderPeriod(m_renderPeriod);
+        RobotContainer container = new RobotContainer(fieldLogger, world);
+        container.robotInit();
+
+        setMode(true, true);
+        container.autonomousInit();
+        run(container, kAutonS, true, false);
+        setMode(true, false);
+        container.autonomousExit();
+
+        run(container, kPauseS, false, false);
+
+        setMode(false, true);
+        container.teleopInit();
+        run(container, kTeleopS, false, true);
+        setMode(false, false);
+        container.teleopExit();
+
+        return MatchResult.of(m_seed, blueScore, redScore);
+    }
+
+    /** Runs each seed in args. */
+    public static void main(String... args) {
+        int renderPeriod = Integer.getInteger("render", 0);
+        for (String arg : args) {
+            MatchResult result = new HeadlessMatch(Long.parseLong(arg), renderPeriod).run();
+            System.out.println(result.toLine());
+        }
+        System.exit(0);
+    }
+
+    ///////////////////////////////////////////////////////
+
+    /** The same order as IterativeRobotBase.loopFunc(). */
+    private void run(RobotContainer container, double durationS, boolean auton, boolean teleop) {
+        int steps = (int) Math.round(durationS / SimWorld.kDtS);
+        for (int i = 0; i < steps; ++i) {
+            if (auton)
+                container.autonomousPeriodic();
+            if (teleop)
+                container.teleopPeriodic();
+            CommandScheduler.getInstance().run();
+            container.robotPeriodic();
+            SimHooks.stepTiming(SimWorld.kDtS);
+        }
+    }
+
+    private static void setMode(boolean auton, boolean enabled) {
+        DriverStationSim.setAutonomous(auton);
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.notifyNewData();
+    }
+
+    private static synchronized void init() {
+        if (initialized)
+            return;
+        HAL.initialize(500, 0);
+        SimHooks.pauseTiming();
+        // rendering aside, there's no one to read the logs.
+        Logging.instance().setLevel(Level.COMP);
+        DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEventName("Headless");
+        DriverStationSim.setFmsAttached(true);
+        DriverStationSim.setMatchType(MatchType.Practice);
+        DriverStationSim.notifyNewData();
+        initialized = true;
+    }
+
+    /** Forget everything from the previous match. */
+    private static void reset() {
+        setMode(false, false);
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.cancelAll();
+        scheduler.unregisterAllSubsystems();
+        scheduler.clearComposedCommands();
+        // the triggers in RobotAssembly are bound to the default loop.
+        scheduler.getDefaultButtonLoop().clear();
+    }
+}
@@ -0,0 +1,55 @@
+package org.team100.field;
+
+/**
+ * The outcome of one headless match, in a form that can cross a process
+ * boundary as one line of text.
+ */
+public record MatchResult(
+        long seed,
+        int blueAuto,
+        int blueTotal,
+        int blueRankingPoints,
+        int redAuto,
+        int redTotal,
+        int redRankingPoints) {
+
+    private static final String kPrefix = "RESULT";
+
+    static MatchResult of(long seed, Score blue, Score red) {
+        return new MatchResult(
+                seed,
+                blue.TotalAuto(),
+                blue.TotalScore(),
+                blue.RankingPoints(),
+                red.TotalAuto(),
+                red.TotalScore(),
+                red.RankingPoints());
+    }
+
+    /** Blue minus red. */
+    public int margin() {
+        return blueTotal - redTotal;
+    }
+
+    public String toLine() {
+        return String.format("%s,%d,%d,%d,%d,%d,%d,%d",
+                kPrefix, seed, blueAuto, blueTotal, blueRankingPoints, redAuto, redTotal, redRankingPoints);
+    }
+
+    /** @return null if the line isn't a result, e.g. other output of the sim. */
+    public static MatchResult fromLine(String line) {
+        if (!line.startsWith(kPrefix + ","))
+            return null;
+        String[] f = line.split(",");
+        if (f.length != 8)
+            throw new IllegalArgumentException("bad result line: " + line);
+        return new MatchResult(
+                Long.parseLong(f[1]),
+                Integer.parseInt(f[2]),
+                Integer.parseInt(f[3]),
+                Integer.parseInt(f[4]),
+                Integer.parseInt(f[5]),
+                Integer.parseInt(f[6]),
+                Integer.parseInt(f[7]));
+    }
+}
@@ -0,0 +1,124 @@
+package org.team100.field;
+
+/**
+ * Aggregates the results of many matches.
+ *
+ * Means and variances are computed incrementally (Welford), so this doesn't
+ * keep the individual results.
+ */
+public class MatchStatistics {
+    /** Running mean, variance, min, and max of one quantity. */
+    public static class Summary {
+        private int m_n;
+        private double m_mean;
+        private double m_m2;
+        private double m_min = Double.POSITIVE_INFINITY;
+        private double m_max = Double.NEGATIVE_INFINITY;
+
+        void add(double x) {
+            m_n++;
+            double delta = x - m_mean;
+            m_mean += delta / m_n;
+            m_m2 += delta * (x - m_mean);
+            m_min = Math.min(m_min, x);
+            m_max = Math.max(m_max, x);
+        }
+
+        public double mean() {
+            return m_mean;
+        }
+
+        /** Sample standard deviation, or zero if fewer than two samples. */
+        public double stddev() {
+            if (m_n < 2)
+                return 0;
+            return Math.sqrt(m_m2 / (m_n - 1));
+        }
+
+        public double min() {
+            return m_min;
+        }
+
+        public double max() {
+            return m_max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mean %6.1f stddev %5.1f min %4.0f max %4.0f",
+                    mean(), stddev(), min(), max());
+        }
+    }
+
+    private final Summary m_blueAuto = new Summary();
+    private final Summary m_blueTotal = new Summary();
+    private final Summary m_blueRankingPoints = new Summary();
+    private final Summary m_redAuto = new Summary();
+    private final Summary m_redTotal = new Summary();
+    private final Summary m_redRankingPoints = new Summary();
+    private final Summary m_margin = new Summary();
+    private int m_count;
+    private int m_blueWins;
+    private int m_redWins;
+    private int m_ties;
+
+    public synchronized void add(MatchResult result) {
+        m_count++;
+        m_blueAuto.add(result.blueAuto());
+        m_blueTotal.add(result.blueTotal());
+        m_blueRankingPoints.add(result.blueRankingPoints());
+        m_redAuto.add(result.redAuto());
+        m_redTotal.add(result.redTotal());
+        m_redRankingPoints.add(result.redRankingPoints());
+        m_margin.add(result.margin());
+        if (result.margin() > 0)
+            m_blueWins++;
+        else if (result.margin() < 0)
+            m_redWins++;
+        else
+            m_ties++;
+    }
+
+    public synchronized int count() {
+        return m_count;
+    }
+
+    public synchronized int blueWins() {
+        return m_blueWins;
+    }
+
+    public synchronized int redWins() {
+        return m_redWins;
+    }
+
+    public synchronized int ties() {
+        return m_ties;
+    }
+
+    public synchronized Summary blueTotal() {
+        return m_blueTotal;
+    }
+
+    public synchronized Summary redTotal() {
+        return m_redTotal;
+    }
+
+    public synchronized Summary margin() {
+        return m_margin;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append(String.format("matches %d blue wins %d red wins %d ties %d\n",
+                m_count, m_blueWins, m_redWins, m_ties));
+        b.append(String.format("blue auto   %s\n", m_blueAuto));
+        b.append(String.format("blue total  %s\n", m_blueTotal));
+        b.append(String.format("blue RP     %s\n", m_blueRankingPoints));
+        b.append(String.format("red auto    %s\n", m_redAuto));
+        b.append(String.format("red total   %s\n", m_redTotal));
+        b.append(String.format("red RP      %s\n", m_redRankingPoints));
+        b.append(String.format("margin      %s\n", m_margin));
+        return b.toString();
+    }
+}
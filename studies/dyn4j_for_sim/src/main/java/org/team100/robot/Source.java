@@ -19,7 +19,7 @@ public class Source extends SubsystemBase {
     public Source(SimWorld world, Translation2d target) {
         m_world = world;
         m_target = target;
-        m_random = new Random();
+        m_random = world.getRandom();
         m_notes = 45;
     }
 
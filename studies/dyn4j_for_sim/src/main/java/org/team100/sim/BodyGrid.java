@@ -0,0 +1,121 @@
+package org.team100.sim;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the field, for finding nearby bodies without looking at
+ * all of them.
+ *
+ * The grid is rebuilt from scratch (clear() and add()) when the world changes,
+ * which is cheap: it's a linked list per cell, in primitive arrays, so
+ * rebuilding doesn't allocate once the arrays are big enough. Positions are
+ * captured at add() time.
+ *
+ * Items outside the field go in the edge cells, so they're still found, just
+ * less efficiently.
+ */
+class BodyGrid<B> {
+    private static final int NONE = -1;
+
+    private final double m_cellM;
+    private final int m_cols;
+    private final int m_rows;
+    /** First item in each cell. */
+    private final int[] m_head;
+    /** Next item in the same cell. */
+    private int[] m_next;
+    private Object[] m_items;
+    private double[] m_x;
+    private double[] m_y;
+    private int m_size;
+
+    /**
+     * @param widthM  field x extent, starting at zero
+     * @param heightM field y extent, starting at zero
+     * @param cellM   cell size, should be about the typical query radius
+     */
+    BodyGrid(double widthM, double heightM, double cellM) {
+        m_cellM = cellM;
+        m_cols = Math.max(1, (int) Math.ceil(widthM / cellM));
+        m_rows = Math.max(1, (int) Math.ceil(heightM / cellM));
+        m_head = new int[m_cols * m_rows];
+        Arrays.fill(m_head, NONE);
+        m_next = new int[64];
+        m_items = new Object[64];
+        m_x = new double[64];
+        m_y = new double[64];
+    }
+
+    void clear() {
+        Arrays.fill(m_head, NONE);
+        Arrays.fill(m_items, 0, m_size, null);
+        m_size = 0;
+    }
+
+    void add(B item, double x, double y) {
+        if (m_size == m_items.length)
+            grow();
+        int i = m_size++;
+        m_items[i] = item;
+        m_x[i] = x;
+        m_y[i] = y;
+        int cell = row(y) * m_cols + col(x);
+        m_next[i] = m_head[cell];
+        m_head[cell] = i;
+    }
+
+    int size() {
+        return m_size;
+    }
+
+    /**
+     * Appends items of the type within the radius (inclusive) of (x, y) to out.
+     */
+    <T extends B> void near(Class<T> type, double x, double y, double radiusM, List<T> out) {
+        double r2 = radiusM * radiusM;
+        int c0 = col(x - radiusM);
+        int c1 = col(x + radiusM);
+        int r0 = row(y - radiusM);
+        int r1 = row(y + radiusM);
+        for (int r = r0; r <= r1; ++r) {
+            for (int c = c0; c <= c1; ++c) {
+                for (int i = m_head[r * m_cols + c]; i != NONE; i = m_next[i]) {
+                    Object item = m_items[i];
+                    if (!type.isInstance(item))
+                        continue;
+                    double dx = m_x[i] - x;
+                    double dy = m_y[i] - y;
+                    if (dx * dx + dy * dy <= r2)
+                        out.add(type.cast(item));
+                }
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+
+    private int col(double x) {
+        return clamp((int) Math.floor(x / m_cellM), m_cols);
+    }
+
+    private int row(double y) {
+        return clamp((int) Math.floor(y / m_cellM), m_rows);
+    }
+
+    private static int clamp(int i, int n) {
+        if (i < 0)
+            return 0;
+        if (i >= n)
+            return n - 1;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = m_items.length * 2;
+        m_next = Arrays.copyOf(m_next, capacity);
+        m_items = Arrays.copyOf(m_items, capacity);
+        m_x = Arrays.copyOf(m_x, capacity);
+        m_y = Arrays.copyOf(m_y, capacity);
+    }
+}
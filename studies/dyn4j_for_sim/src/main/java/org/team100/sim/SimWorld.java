@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.dyn4j.dynamics.joint.Joint;
 import org.dyn4j.geometry.Geometry;
@@ -30,6 +31,10 @@ import edu.wpi.first.math.geometry.Translation2d;
  * @see https://cad.onshape.com/documents/dcbe49ce579f6342435bc298/w/b93673f5b2ec9c9bdcfec487/e/6ecb2d6b7590f4d1c820d5e3
  */
 public class SimWorld {
+    /** Fixed step, same as the robot loop. */
+    public static final double kDtS = 0.02;
+    /** About the size of the shortest query radius (intaking). */
+    private static final double kGridCellM = 1.0;
     /** for visualizing forces */
     private static final double kArrowDistance = 700;
     private static final double boundaryThickness = 1;
@@ -53,10 +58,37 @@ public class SimWorld {
     private final Scorekeeper m_scorekeeper;
     // this is a copy of the obstacle translations since we use this all the time.
     private final List<Translation2d> obstacles;
+    /** All the randomness in the match comes from here. */
+    private final Random m_random;
+    /** Render every this many calls, or never if zero. */
+    private int m_renderPeriod;
+    private int m_renderCount;
+    /** Spatial index of all the bodies, rebuilt at most once per step. */
+    private final BodyGrid<Body100> m_grid;
+    private boolean m_gridDirty;
 
     public SimWorld(LoggerFactory fieldLogger,
             Score blueScore,
             Score redScore) {
+        this(fieldLogger, blueScore, redScore, new Random());
+    }
+
+    /** Use a seed to make the match repeatable. */
+    public SimWorld(LoggerFactory fieldLogger,
+            Score blueScore,
+            Score redScore,
+            long seed) {
+        this(fieldLogger, blueScore, redScore, new Random(seed));
+    }
+
+    private SimWorld(LoggerFactory fieldLogger,
+            Score blueScore,
+            Score redScore,
+            Random random) {
+        m_random = random;
+        m_renderPeriod = 1;
+        m_grid = new BodyGrid<>(fieldX, fieldY, kGridCellM);
+        m_gridDirty = true;
         m_log_force = fieldLogger.doubleArrayLogger(Level.DEBUG, "Force");
         for (Class<?> type : Body100.types()) {
             m_log_bodies.put(
@@ -87,17 +119,21 @@ public class SimWorld {
 
     public void addBody(Body100 body) {
         world.addBody(body);
+        m_gridDirty = true;
     }
 
     public void addStepListener(StepListener<Body100> listener) {
         world.addStepListener(listener);
     }
 
+    /** Joints move bodies around (e.g. notes in the indexer), so the index is stale. */
     public void addJoint(Joint<Body100> joint) {
         world.addJoint(joint);
+        m_gridDirty = true;
     }
 
     public boolean removeJoint(Joint<Body100> joint) {
+        m_gridDirty = true;
         return world.removeJoint(joint);
     }
 
@@ -111,7 +147,55 @@ public class SimWorld {
 
     public void update() {
         // update the dyn4j sim
-        world.update(0.02);
+        world.update(kDtS);
+        m_gridDirty = true;
+    }
+
+    /**
+     * Move the body somewhere else, e.g. for initialization. Use this instead of
+     * changing the body transform directly, so the spatial index sees the move.
+     *
+     * meters, radians, and meters per second
+     */
+    public void teleport(Body100 body, double x, double y, double theta, double vx, double vy) {
+        body.getTransform().identity();
+        // rotation is around the origin, so rotate first. :-)
+        body.getTransform().rotate(theta);
+        body.getTransform().translate(x, y);
+        body.setAtRest(false);
+        body.setLinearVelocity(new Vector2(vx, vy));
+        m_gridDirty = true;
+    }
+
+    /**
+     * Bodies of the type within the radius (inclusive) of the center.
+     *
+     * Positions are as of the end of the last step, which is "now" for everything
+     * that runs between steps.
+     *
+     * @param out replaced with the result
+     * @return out, for convenience
+     */
+    public <T extends Body100> List<T> near(Class<T> type, Vector2 center, double radiusM, List<T> out) {
+        out.clear();
+        grid().near(type, center.x, center.y, radiusM, out);
+        return out;
+    }
+
+    /**
+     * Render only every n-th call to render(), or never, if n is zero. Rendering
+     * rebuilds all the pose arrays, which is a lot of the cost of a headless
+     * match.
+     */
+    public void setRenderPeriod(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("render period must be non-negative");
+        m_renderPeriod = n;
+        m_renderCount = 0;
+    }
+
+    public Random getRandom() {
+        return m_random;
     }
 
     public List<Body100> getBodies() {
@@ -124,6 +208,8 @@ public class SimWorld {
 
     /** Show the bodies on the field2d widget */
     public void render() {
+        if (m_renderPeriod == 0 || m_renderCount++ % m_renderPeriod != 0)
+            return;
         // all the forces are the same type: render them with triangles only.
         List<Double> forces = new ArrayList<>();
         // each type is its own array for the field2d widget :-(
@@ -365,9 +451,23 @@ public class SimWorld {
         Note note = new Note(debug);
         note.translate(x, y);
         world.addBody(note);
+        m_gridDirty = true;
         world.addStepListener(note);
     }
 
+    private BodyGrid<Body100> grid() {
+        if (m_gridDirty) {
+            m_grid.clear();
+            for (int i = 0; i < world.getBodyCount(); ++i) {
+                Body100 body = world.getBody(i);
+                Vector2 p = body.getWorldCenter();
+                m_grid.add(body, p.x, p.y);
+            }
+            m_gridDirty = false;
+        }
+        return m_grid;
+    }
+
     public Scorekeeper getScorekeeper() {
         return m_scorekeeper;
     }
@@ -1,5 +1,7 @@
 package org.team100.subsystems;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -7,7 +9,6 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import org.dyn4j.geometry.Vector2;
 import org.team100.lib.camera.NoteSighting;
 import org.team100.lib.camera.RobotSighting;
-import org.team100.sim.Body100;
 import org.team100.sim.Note;
 import org.team100.sim.RobotBody;
 
@@ -44,6 +45,9 @@ public class CameraSubsystem extends SubsystemBase {
     private NavigableMap<Double, NoteSighting> noteSightings = new ConcurrentSkipListMap<>();
 
     private final RobotBody m_robotBody;
+    /** Query results, reused each time. */
+    private final List<RobotBody> m_robots = new ArrayList<>();
+    private final List<Note> m_notes = new ArrayList<>();
 
     public CameraSubsystem(RobotBody robotBody) {
         m_robotBody = robotBody;
@@ -117,22 +121,14 @@ public class CameraSubsystem extends SubsystemBase {
      */
     private void lookForRobots() {
         Vector2 position = m_robotBody.getWorldCenter();
-
-        for (Body100 body : m_robotBody.getWorld().getBodies()) {
-            if (body == m_robotBody) {
+        // can't see farther than this
+        m_robotBody.getWorld().near(RobotBody.class, position, kMaxRobotDistance, m_robots);
+        for (RobotBody robotBody : m_robots) {
+            if (robotBody == m_robotBody) {
                 // skip ourselves
                 continue;
             }
-            if (!(body instanceof RobotBody)) {
-                // look only at robots
-                continue;
-            }
-            RobotBody robotBody = (RobotBody) body;
             Vector2 targetPosition = robotBody.getWorldCenter();
-            double distance = position.distance(targetPosition);
-            // can't see that far
-            if (distance > kMaxRobotDistance)
-                continue;
             boolean friend = robotBody.friend(m_robotBody);
             addSighting(friend, targetPosition);
         }
@@ -144,24 +140,14 @@ public class CameraSubsystem extends SubsystemBase {
      */
     private void lookForNotes() {
         Vector2 position = m_robotBody.getWorldCenter();
-        // look for nearby notes, brute force
-        for (Body100 body : m_robotBody.getWorld().getBodies()) {
-            if (!(body instanceof Note))
-                continue;
-            Note note = (Note) body;
-
+        // look for nearby notes; can't see farther than this.
+        m_robotBody.getWorld().near(Note.class, position, kMaxNoteDistance, m_notes);
+        for (Note note : m_notes) {
             if (!note.isVisible()) {
                 // ignore notes carried by other robots, or flying through the air.
                 continue;
             }
             Vector2 notePosition = note.getWorldCenter();
-            double distance = position.distance(notePosition);
-            // can't see that far
-            if (distance > kMaxNoteDistance) {
-                if (m_robotBody.isDebug())
-                    System.out.printf("skip far sighting %5.3f %5.3f\n", notePosition.x, notePosition.y);
-                continue;
-            }
             double now = Timer.getFPGATimestamp();
             NoteSighting sighting = new NoteSighting(
                     new Translation2d(notePosition.x, notePosition.y));
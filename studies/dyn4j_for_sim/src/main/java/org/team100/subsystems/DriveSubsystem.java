@@ -1,7 +1,6 @@
 package org.team100.subsystems;
 
 import org.dyn4j.dynamics.Force;
-import org.dyn4j.geometry.Vector2;
 import org.team100.kinodynamics.Kinodynamics;
 import org.team100.lib.motion.drivetrain.DriveSubsystemInterface;
 import org.team100.lib.motion.drivetrain.kinodynamics.FieldRelativeAcceleration;
@@ -36,12 +35,7 @@ public class DriveSubsystem extends SubsystemBase implements DriveSubsystemInter
      * for initialization
      */
     public void setState(double x, double y, double theta, double vx, double vy) {
-        m_robotBody.getTransform().identity();
-        // rotation is around the origin, so rotate first. :-)
-        m_robotBody.getTransform().rotate(theta);
-        m_robotBody.getTransform().translate(x, y);
-        m_robotBody.setAtRest(false);
-        m_robotBody.setLinearVelocity(new Vector2(vx, vy));
+        m_robotBody.getWorld().teleport(m_robotBody, x, y, theta, vx, vy);
     }
 
     @Override
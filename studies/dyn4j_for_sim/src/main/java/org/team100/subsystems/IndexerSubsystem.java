@@ -1,5 +1,8 @@
 package org.team100.subsystems;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.dyn4j.dynamics.joint.Joint;
 import org.dyn4j.dynamics.joint.WeldJoint;
 import org.dyn4j.geometry.Vector2;
@@ -35,6 +38,8 @@ public class IndexerSubsystem extends SubsystemBase {
 
     /** Joint linking the note to the robot, so we can remove it when ejecting. */
     private Joint<Body100> m_joint;
+    /** Query results, reused each time. */
+    private final List<Note> m_candidates = new ArrayList<>();
 
     public IndexerSubsystem(RobotAssembly assembly, RobotBody robotBody, boolean debug) {
         m_assembly = assembly;
@@ -64,15 +69,13 @@ public class IndexerSubsystem extends SubsystemBase {
             return false;
         }
 
-        Vector2 position = m_robotBody.getWorldCenter();
+        final double kMaxPickDistanceM = 0.488;
 
-        for (Body100 body : m_robotBody.getWorld().getBodies()) {
-            if (!(body instanceof Note)) {
-                // pick only notes
-                continue;
-            }
-            Note note = (Note) body;
+        Vector2 position = m_robotBody.getWorldCenter();
 
+        // pick only notes
+        m_robotBody.getWorld().near(Note.class, position, kMaxPickDistanceM, m_candidates);
+        for (Note note : m_candidates) {
             if (note.isFlying()) {
                 // do not pick from mid-air.
                 continue;
@@ -81,7 +84,7 @@ public class IndexerSubsystem extends SubsystemBase {
             Vector2 notePosition = note.getWorldCenter();
             Vector2 toNote = notePosition.difference(position);
             double distance = toNote.getMagnitude();
-            if (distance < kMinPickDistanceM || distance > 0.488) {
+            if (distance < kMinPickDistanceM || distance > kMaxPickDistanceM) {
                 // distance must be within an inch or so of the intake touching the note edge.
                 // robot size is 0.75, note size is 0.175.
                 // so the tangent distance is about (0.75/2+0.175/2) = 0.4625.
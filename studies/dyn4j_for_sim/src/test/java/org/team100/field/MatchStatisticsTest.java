@@ -0,0 +1,35 @@
+package org.team100.field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class MatchStatisticsTest {
+    private static final double kDelta = 0.001;
+
+    @Test
+    void testLine() {
+        MatchResult r = new MatchResult(7, 5, 40, 2, 2, 30, 0);
+        assertEquals(r, MatchResult.fromLine(r.toLine()));
+        assertNull(MatchResult.fromLine("scored!  center"));
+    }
+
+    @Test
+    void testStatistics() {
+        MatchStatistics stats = new MatchStatistics();
+        stats.add(new MatchResult(0, 0, 10, 2, 0, 20, 2));
+        stats.add(new MatchResult(1, 0, 20, 2, 0, 20, 1));
+        stats.add(new MatchResult(2, 0, 30, 2, 0, 20, 0));
+        assertEquals(3, stats.count());
+        assertEquals(1, stats.blueWins());
+        assertEquals(1, stats.redWins());
+        assertEquals(1, stats.ties());
+        assertEquals(20, stats.blueTotal().mean(), kDelta);
+        assertEquals(10, stats.blueTotal().stddev(), kDelta);
+        assertEquals(10, stats.blueTotal().min(), kDelta);
+        assertEquals(30, stats.blueTotal().max(), kDelta);
+        assertEquals(0, stats.redTotal().stddev(), kDelta);
+        assertEquals(0, stats.margin().mean(), kDelta);
+    }
+}
@@ -0,0 +1,72 @@
+package org.team100.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BodyGridTest {
+    @Test
+    void testTypes() {
+        BodyGrid<Object> grid = new BodyGrid<>(16, 8, 1);
+        grid.add("a", 1, 1);
+        grid.add(Integer.valueOf(1), 1.5, 1);
+        grid.add("far", 10, 5);
+        List<String> out = new ArrayList<>();
+        grid.near(String.class, 1, 1, 1, out);
+        assertEquals(List.of("a"), out);
+    }
+
+    @Test
+    void testOutside() {
+        // things off the field are still found
+        BodyGrid<Object> grid = new BodyGrid<>(16, 8, 1);
+        grid.add("off", -3, 9);
+        List<String> out = new ArrayList<>();
+        grid.near(String.class, 0, 8, 3.2, out);
+        assertEquals(List.of("off"), out);
+        out.clear();
+        grid.near(String.class, 0, 8, 3, out);
+        assertEquals(0, out.size());
+    }
+
+    /** Compare with brute force. */
+    @Test
+    void testRandom() {
+        Random random = new Random(0);
+        BodyGrid<Object> grid = new BodyGrid<>(16.541, 8.211, 1);
+        int n = 500;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = random.nextDouble() * 18 - 1;
+            y[i] = random.nextDouble() * 10 - 1;
+            grid.add(Integer.valueOf(i), x[i], y[i]);
+        }
+        assertEquals(n, grid.size());
+        List<Integer> out = new ArrayList<>();
+        for (int q = 0; q < 100; ++q) {
+            double qx = random.nextDouble() * 18 - 1;
+            double qy = random.nextDouble() * 10 - 1;
+            double r = random.nextDouble() * 5;
+            out.clear();
+            grid.near(Integer.class, qx, qy, r, out);
+            int expected = 0;
+            for (int i = 0; i < n; ++i) {
+                if (Math.hypot(x[i] - qx, y[i] - qy) <= r) {
+                    expected++;
+                    assertTrue(out.contains(Integer.valueOf(i)));
+                }
+            }
+            assertEquals(expected, out.size());
+        }
+        grid.clear();
+        out.clear();
+        grid.near(Integer.class, 8, 4, 100, out);
+        assertEquals(0, out.size());
+    }
+}
@@ -0,0 +1,403 @@
+package org.team100.lib.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.team100.lib.space.Point;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Num;
+import edu.wpi.first.math.numbers.N1;
+
+/**
+ * KD tree stored in flat arrays, for big trees (100k+ nodes).
+ *
+ * Compared to {@link KDTree}:
+ *
+ * <ul>
+ * <li>coordinates live in one contiguous double[], copied out of the Matrix
+ * once at insert time, so queries never touch EJML.
+ * <li>children are int indices, not pointers, so there's one object per
+ * value, not two.
+ * <li>queries write into a reusable {@link KDResult}, so they don't allocate.
+ * <li>there's a k-nearest query, and a batch nearest query.
+ * <li>it's a point-split tree, not a midpoint-split tree, so it doesn't need
+ * the model bounds (and doesn't mutate them), and it can be rebuilt balanced
+ * (by median) when the inserts have made it too deep.
+ * </ul>
+ *
+ * The metric is Euclidean, like the pruning in KDTree.
+ *
+ * Values keep their index forever (rebalancing only relinks the nodes), and
+ * index zero is the first value inserted, i.e. the root of the RRT tree.
+ *
+ * Queries use scratch fields, so this isn't thread-safe, even for reading.
+ */
+public class FlatKDTree<V extends Point<? extends Num>> {
+    private static final int NONE = -1;
+    /** Don't bother rebalancing trees smaller than this. */
+    private static final int MIN_REBALANCE = 64;
+    /** Rebalance when depth exceeds this multiple of the balanced depth ... */
+    private static final double MAX_IMBALANCE = 3.0;
+    /** ... and the tree has grown this much, so rebuilds are amortized. */
+    private static final double MIN_GROWTH = 1.5;
+
+    private final int dim;
+    private int size;
+    /** Coordinates, dim per value, in insertion order. */
+    private double[] coords;
+    private int[] left;
+    private int[] right;
+    /** Split axis for each node. */
+    private int[] axis;
+    private Object[] values;
+    private int root = NONE;
+    /** Deepest node, counting the root as depth 0. */
+    private int depth;
+    private int rebuilds;
+    private int rebuiltSize;
+
+    // query scratch
+    private double[] target;
+    private double bound2;
+    private int bestIndex;
+    private double bestDist2;
+    private final double[] insertScratch;
+
+    public FlatKDTree(int dimension) {
+        this(dimension, 64);
+    }
+
+    public FlatKDTree(int dimension, int capacity) {
+        if (dimension < 1)
+            throw new IllegalArgumentException("dimension must be positive");
+        dim = dimension;
+        capacity = Math.max(1, capacity);
+        coords = new double[capacity * dim];
+        left = new int[capacity];
+        right = new int[capacity];
+        axis = new int[capacity];
+        values = new Object[capacity];
+        insertScratch = new double[dim];
+    }
+
+    /** Makes a tree containing just the root value. */
+    public static <V extends Point<? extends Num>> FlatKDTree<V> of(int dimension, V root) {
+        FlatKDTree<V> tree = new FlatKDTree<>(dimension);
+        tree.insert(root);
+        return tree;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimension() {
+        return dim;
+    }
+
+    /** Depth of the deepest node. */
+    public int depth() {
+        return depth;
+    }
+
+    /** How many times the tree has been rebalanced. */
+    public int rebuilds() {
+        return rebuilds;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int index) {
+        return (V) values[index];
+    }
+
+    /** Coordinate of the value at index. */
+    public double coord(int index, int axis) {
+        return coords[index * dim + axis];
+    }
+
+    /** All the values, in insertion order. */
+    public List<V> values() {
+        List<V> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    /** Copy the matrix into out, for use as a query target. */
+    public static void copy(Matrix<? extends Num, N1> m, double[] out) {
+        for (int i = 0; i < out.length; ++i) {
+            out[i] = m.get(i, 0);
+        }
+    }
+
+    /** @return the index of the new value */
+    public int insert(V value) {
+        if (value == null)
+            throw new IllegalArgumentException("null value");
+        copy(value.getState(), insertScratch);
+        return insert(value, insertScratch);
+    }
+
+    /**
+     * Inserts the value with the supplied coordinates, which should match
+     * value.getState().
+     *
+     * @return the index of the new value
+     */
+    public int insert(V value, double[] point) {
+        if (size == values.length)
+            grow();
+        int idx = size++;
+        System.arraycopy(point, 0, coords, idx * dim, dim);
+        values[idx] = value;
+        left[idx] = NONE;
+        right[idx] = NONE;
+        if (root == NONE) {
+            root = idx;
+            axis[idx] = 0;
+            return idx;
+        }
+        int n = root;
+        int d = 1;
+        while (true) {
+            int a = axis[n];
+            if (point[a] < coords[n * dim + a]) {
+                if (left[n] == NONE) {
+                    left[n] = idx;
+                    break;
+                }
+                n = left[n];
+            } else {
+                if (right[n] == NONE) {
+                    right[n] = idx;
+                    break;
+                }
+                n = right[n];
+            }
+            ++d;
+        }
+        axis[idx] = d % dim;
+        if (d > depth)
+            depth = d;
+        if (size >= MIN_REBALANCE
+                && size >= MIN_GROWTH * rebuiltSize
+                && depth > MAX_IMBALANCE * log2(size))
+            rebalance();
+        return idx;
+    }
+
+    /**
+     * Rebuild the links so the tree is balanced, splitting each subtree at the
+     * median of its widest axis.
+     */
+    public void rebalance() {
+        if (size == 0)
+            return;
+        int[] perm = new int[size];
+        for (int i = 0; i < size; ++i) {
+            perm[i] = i;
+        }
+        depth = 0;
+        root = build(perm, 0, size, 0);
+        rebuilds++;
+        rebuiltSize = size;
+    }
+
+    /**
+     * Nearest value to the target.
+     *
+     * @return index of the nearest value, or -1 if the tree is empty
+     */
+    public int nearest(double[] target, KDResult result) {
+        result.clear();
+        int idx = nearest(target);
+        if (idx != NONE)
+            result.add(idx, Math.sqrt(bestDist2));
+        return idx;
+    }
+
+    /**
+     * Nearest value to each target.
+     *
+     * @param targets  packed coordinates, dim per target
+     * @param count    number of targets
+     * @param outIndex index of the nearest value, for each target
+     * @param outDist  distance to the nearest value, for each target
+     */
+    public void nearest(double[] targets, int count, int[] outIndex, double[] outDist) {
+        double[] t = new double[dim];
+        for (int i = 0; i < count; ++i) {
+            System.arraycopy(targets, i * dim, t, 0, dim);
+            outIndex[i] = nearest(t);
+            outDist[i] = outIndex[i] == NONE ? Double.MAX_VALUE : Math.sqrt(bestDist2);
+        }
+    }
+
+    /** The k nearest values, sorted nearest first. */
+    public void kNearest(double[] target, int k, KDResult result) {
+        result.clear();
+        if (k < 1 || root == NONE)
+            return;
+        this.target = target;
+        kNearest(root, k, result);
+        result.heapFinish();
+    }
+
+    /** All the values closer than radius, in no particular order. */
+    public void near(double[] target, double radius, KDResult result) {
+        result.clear();
+        if (root == NONE)
+            return;
+        this.target = target;
+        bound2 = radius * radius;
+        near(root, result);
+    }
+
+    ///////////////////////////////////////////////////
+
+    private int nearest(double[] target) {
+        bestIndex = NONE;
+        bestDist2 = Double.POSITIVE_INFINITY;
+        if (root == NONE)
+            return NONE;
+        this.target = target;
+        nearest(root);
+        return bestIndex;
+    }
+
+    private void nearest(int n) {
+        double d2 = dist2(n);
+        if (d2 < bestDist2) {
+            bestDist2 = d2;
+            bestIndex = n;
+        }
+        int a = axis[n];
+        double diff = target[a] - coords[n * dim + a];
+        int near = diff < 0 ? left[n] : right[n];
+        int far = diff < 0 ? right[n] : left[n];
+        if (near != NONE)
+            nearest(near);
+        if (far != NONE && diff * diff < bestDist2)
+            nearest(far);
+    }
+
+    private void kNearest(int n, int k, KDResult result) {
+        result.heapOffer(k, n, dist2(n));
+        int a = axis[n];
+        double diff = target[a] - coords[n * dim + a];
+        int near = diff < 0 ? left[n] : right[n];
+        int far = diff < 0 ? right[n] : left[n];
+        if (near != NONE)
+            kNearest(near, k, result);
+        if (far != NONE && diff * diff < result.heapBound(k))
+            kNearest(far, k, result);
+    }
+
+    private void near(int n, KDResult result) {
+        double d2 = dist2(n);
+        if (d2 < bound2)
+            result.add(n, Math.sqrt(d2));
+        int a = axis[n];
+        double diff = target[a] - coords[n * dim + a];
+        // left values are <= split, right values are >= split.
+        if (left[n] != NONE && (diff < 0 || diff * diff < bound2))
+            near(left[n], result);
+        if (right[n] != NONE && (diff >= 0 || diff * diff < bound2))
+            near(right[n], result);
+    }
+
+    private double dist2(int n) {
+        int base = n * dim;
+        double sum = 0;
+        for (int i = 0; i < dim; ++i) {
+            double d = coords[base + i] - target[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    /** Builds the subtree from perm[lo, hi) and returns its root. */
+    private int build(int[] perm, int lo, int hi, int d) {
+        if (lo >= hi)
+            return NONE;
+        if (d > depth)
+            depth = d;
+        int a = widestAxis(perm, lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(perm, lo, hi - 1, mid, a);
+        int n = perm[mid];
+        axis[n] = a;
+        left[n] = build(perm, lo, mid, d + 1);
+        right[n] = build(perm, mid + 1, hi, d + 1);
+        return n;
+    }
+
+    private int widestAxis(int[] perm, int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int a = 0; a < dim; ++a) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; ++i) {
+                double c = coords[perm[i] * dim + a];
+                if (c < min)
+                    min = c;
+                if (c > max)
+                    max = c;
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quickselect: afterwards perm[k] has the k-th coordinate on the axis,
+     * everything before it is <= and everything after it is >=.
+     */
+    private void select(int[] perm, int lo, int hi, int k, int a) {
+        while (hi > lo) {
+            double pivot = coords[perm[(lo + hi) >>> 1] * dim + a];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coords[perm[i] * dim + a] < pivot)
+                    i++;
+                while (coords[perm[j] * dim + a] > pivot)
+                    j--;
+                if (i <= j) {
+                    int t = perm[i];
+                    perm[i] = perm[j];
+                    perm[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = values.length * 2;
+        coords = Arrays.copyOf(coords, capacity * dim);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        axis = Arrays.copyOf(axis, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private static double log2(int n) {
+        return Math.log(n) / Math.log(2);
+    }
+}
@@ -0,0 +1,124 @@
+package org.team100.lib.index;
+
+import java.util.Arrays;
+
+/**
+ * Reusable result buffer for {@link FlatKDTree} queries, so that a query
+ * doesn't allocate a KDNearNode (or a list, or a lambda) per hit.
+ *
+ * Each query clears the buffer first. Entries are tree indices and Euclidean
+ * distances; use {@link FlatKDTree#get(int)} to find the values.
+ *
+ * For k-nearest queries, entries are sorted by distance, nearest first. For
+ * radius queries they're in traversal order.
+ */
+public class KDResult {
+    private int size;
+    private int[] index;
+    private double[] dist;
+
+    public KDResult() {
+        this(16);
+    }
+
+    public KDResult(int capacity) {
+        index = new int[Math.max(1, capacity)];
+        dist = new double[Math.max(1, capacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Tree index of the i-th result. */
+    public int index(int i) {
+        return index[i];
+    }
+
+    /** Euclidean distance of the i-th result. */
+    public double dist(int i) {
+        return dist[i];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int idx, double d) {
+        if (size == index.length) {
+            index = Arrays.copyOf(index, size * 2);
+            dist = Arrays.copyOf(dist, size * 2);
+        }
+        index[size] = idx;
+        dist[size] = d;
+        size++;
+    }
+
+    //////////////////////////////////////////////////////////
+    //
+    // k-nearest uses the buffer as a bounded max-heap of squared distances,
+    // and then sorts it in place.
+    //
+
+    /** The largest squared distance in the heap, or infinity if not full yet. */
+    double heapBound(int k) {
+        if (size < k)
+            return Double.POSITIVE_INFINITY;
+        return dist[0];
+    }
+
+    void heapOffer(int k, int idx, double d2) {
+        if (size < k) {
+            add(idx, d2);
+            // sift up
+            int c = size - 1;
+            while (c > 0) {
+                int p = (c - 1) / 2;
+                if (dist[p] >= dist[c])
+                    break;
+                swap(p, c);
+                c = p;
+            }
+            return;
+        }
+        if (d2 >= dist[0])
+            return;
+        index[0] = idx;
+        dist[0] = d2;
+        siftDown(0, size);
+    }
+
+    /** Turn the heap into a list sorted nearest-first, with true distances. */
+    void heapFinish() {
+        for (int end = size - 1; end > 0; --end) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        for (int i = 0; i < size; ++i) {
+            dist[i] = Math.sqrt(dist[i]);
+        }
+    }
+
+    private void siftDown(int p, int n) {
+        while (true) {
+            int c = 2 * p + 1;
+            if (c >= n)
+                return;
+            if (c + 1 < n && dist[c + 1] > dist[c])
+                c++;
+            if (dist[p] >= dist[c])
+                return;
+            swap(p, c);
+            p = c;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int ti = index[i];
+        index[i] = index[j];
+        index[j] = ti;
+        double td = dist[i];
+        dist[i] = dist[j];
+        dist[j] = td;
+    }
+}
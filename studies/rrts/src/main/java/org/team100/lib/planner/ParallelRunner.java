@@ -0,0 +1,157 @@
+package org.team100.lib.planner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.team100.lib.space.SinglePath;
+
+import edu.wpi.first.math.Num;
+
+/**
+ * Runs several independent solvers at once, one per core, until a deadline,
+ * and keeps the best path any of them found.
+ *
+ * The solvers don't share trees (so there's no locking in the hot loop), but
+ * they do share the best cost so far: before each step, each solver is told
+ * the global best via {@link Solver#setBound(double)}, so it can prune samples
+ * that can't beat it.
+ *
+ * A solver that says "stop" (i.e. RRTStar8 after it finds a path) is replaced
+ * with a fresh one, so the workers keep looking for better paths until the
+ * deadline.
+ */
+public class ParallelRunner<States extends Num> {
+    private static final boolean DEBUG = false;
+
+    private final IntFunction<Solver<States>> _factory;
+    private final int _workers;
+    /** Each new solver gets a different seed. */
+    private final AtomicInteger _seed = new AtomicInteger();
+    private final AtomicInteger _steps = new AtomicInteger();
+    private final AtomicInteger _solvers = new AtomicInteger();
+
+    // guarded by this
+    private SinglePath<States> _best;
+    /** Cached _best.getDistance(), read without locking. */
+    private volatile double _bestDistance = Double.POSITIVE_INFINITY;
+
+    /**
+     * @param factory makes a solver from a seed. Each solver is used by only
+     *                one thread, so the factory should make a new model (arena)
+     *                and sampler for each one, and use the seed for the sampler
+     *                and for the solver itself, e.g. the RRTStar8 seed argument.
+     * @param workers number of threads
+     */
+    public ParallelRunner(IntFunction<Solver<States>> factory, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("invalid worker count, must be > 0");
+        }
+        _factory = factory;
+        _workers = workers;
+    }
+
+    /** Uses all the cores. */
+    public ParallelRunner(IntFunction<Solver<States>> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Run all the workers until the deadline.
+     *
+     * @return the best path found so far (including previous runs), or null if
+     *         none
+     */
+    public SinglePath<States> runForDurationMS(long milliseconds) {
+        if (milliseconds <= 0) {
+            throw new IllegalArgumentException("invalid duration, must be > 0");
+        }
+        long deadlineNS = System.nanoTime() + milliseconds * 1000000;
+        ForkJoinPool pool = new ForkJoinPool(_workers);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < _workers; ++i) {
+                tasks.add(pool.submit(() -> work(deadlineNS)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return getBestSinglePath();
+    }
+
+    public synchronized SinglePath<States> getBestSinglePath() {
+        return _best;
+    }
+
+    /** Length of the best path, or infinity if none. */
+    public double getBestDistance() {
+        return _bestDistance;
+    }
+
+    /** Total steps taken by all the solvers. */
+    public int getSteps() {
+        return _steps.get();
+    }
+
+    /** Total solvers created. */
+    public int getSolvers() {
+        return _solvers.get();
+    }
+
+    /////////////////////////////////////////
+
+    private void work(long deadlineNS) {
+        Solver<States> solver = newSolver();
+        // since we use stepNo for radius, it can't be zero
+        int stepNo = 1;
+        while (System.nanoTime() < deadlineNS) {
+            solver.setBound(_bestDistance);
+            solver.setStepNo(stepNo);
+            int step = solver.step();
+            _steps.incrementAndGet();
+            if (step > 0)
+                stepNo++;
+            if (step < 0) {
+                // solver says "stop," so keep its result and start over.
+                offer(solver.getBestSinglePath());
+                solver = newSolver();
+                stepNo = 1;
+            }
+        }
+        // solvers that don't stop by themselves keep improving until the end.
+        offer(solver.getBestSinglePath());
+    }
+
+    private Solver<States> newSolver() {
+        _solvers.incrementAndGet();
+        return _factory.apply(_seed.getAndIncrement());
+    }
+
+    private void offer(SinglePath<States> path) {
+        if (path == null)
+            return;
+        double distance = path.getDistance();
+        if (distance >= _bestDistance)
+            return;
+        synchronized (this) {
+            if (distance >= _bestDistance)
+                return;
+            if (DEBUG)
+                System.out.printf("new global best path distance %7.3f\n", distance);
+            _best = path;
+            _bestDistance = distance;
+        }
+    }
+}
@@ -26,4 +26,11 @@ public interface Solver<States extends Num> {
     /** The best path so far, or null if no path spans the start and end states. */
     Path<States> getBestPath();
     SinglePath<States> getBestSinglePath();
+
+    /**
+     * Paths at least this long are useless, e.g. because another solver already
+     * found a shorter one, so the solver may prune with it.
+     */
+    default void setBound(double cost) {
+    }
 }
@@ -15,9 +15,9 @@ import org.team100.lib.graph.LinkInterface;
 import org.team100.lib.graph.LocalLink;
 import org.team100.lib.graph.NearNode;
 import org.team100.lib.graph.Node;
+import org.team100.lib.index.FlatKDTree;
 import org.team100.lib.index.KDNearNode;
-import org.team100.lib.index.KDNode;
-import org.team100.lib.index.KDTree;
+import org.team100.lib.index.KDResult;
 import org.team100.lib.planner.Solver;
 import org.team100.lib.random.MersenneTwister;
 import org.team100.lib.space.Path;
@@ -52,9 +52,12 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
     private final Random random = new MersenneTwister(new Random().nextInt());
 
     /** Initially, tree grown from initial, but is swapped repeatedly */
-    private KDNode<Node<N4>> _T_a;
+    private FlatKDTree<Node<N4>> _T_a;
     /** Initially, tree grown from goal, but is swapped repeatedly */
-    private KDNode<Node<N4>> _T_b;
+    private FlatKDTree<Node<N4>> _T_b;
+    /** Query scratch, reused to avoid allocating on every step. */
+    private final double[] _target = new double[4];
+    private final KDResult _near = new KDResult(256);
 
     // mutable loop variables to make the loop code cleaner
     private double radius;
@@ -63,7 +66,7 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
 
     static boolean PARTIAL = true;
 
-    public RRTStar7(T model, Sample<N4> sample, KDNode<Node<N4>> T_a, KDNode<Node<N4>> T_b) {
+    public RRTStar7(T model, Sample<N4> sample, FlatKDTree<Node<N4>> T_a, FlatKDTree<Node<N4>> T_b) {
         _model = model;
         _sample = sample;
         _T_a = T_a;
@@ -84,7 +87,7 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
             System.out.println("step");
         int edges = 0;
 
-        boolean timeForward = same(_T_a.getValue().getState(), _model.initial());
+        boolean timeForward = same(_T_a.get(0).getState(), _model.initial());
 
         // alpha
         Matrix<N4, N1> x_rand = SampleState();
@@ -382,7 +385,7 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
     }
 
     public void SwapTrees() {
-        KDNode<Node<N4>> tmp = _T_a;
+        FlatKDTree<Node<N4>> tmp = _T_a;
         _T_a = _T_b;
         _T_b = tmp;
     }
@@ -486,8 +489,8 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
             System.out.println("p2 " + p_2);
         // either p_1 or p_2 are the initial tree
         //
-        // boolean root1 = same(_T_a.getValue().getState(), p_1.getRoot());
-        boolean root1 = same(_T_a.getValue().getState(), p_1.getFirstLink().x_i);
+        // boolean root1 = same(_T_a.get(0).getState(), p_1.getRoot());
+        boolean root1 = same(_T_a.get(0).getState(), p_1.getFirstLink().x_i);
         if (!root1) {
             // swap them
             SinglePath<N4> tmp = p_1;
@@ -539,26 +542,28 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
      * @return the nearest node, which will be earlier than xNew if time is forward,
      *         and later if time is reversed.
      */
-    KDNearNode<Node<N4>> BangBangNearest(Matrix<N4, N1> xNew, KDNode<Node<N4>> rootNode, boolean timeForward) {
-        // For now, use the Near function, which uses the "radius". Maybe
-        // it would be better to choose top-N-near, or use a different radius,
-        // or whatever.
-        ArrayList<NearNode<N4>> nodes = Near(xNew, rootNode);
+    KDNearNode<Node<N4>> BangBangNearest(Matrix<N4, N1> xNew, FlatKDTree<Node<N4>> rootNode, boolean timeForward) {
+        // For now, use the radius query. Maybe it would be better to choose
+        // top-N-near (see FlatKDTree.kNearest), or use a different radius, or
+        // whatever.
+        FlatKDTree.copy(xNew, _target);
+        rootNode.near(_target, radius, _near);
         double tMin = Double.MAX_VALUE;
         Node<N4> bestNode = null;
-        for (NearNode<N4> node : nodes) {
+        for (int i = 0; i < _near.size(); ++i) {
+            Node<N4> node = rootNode.get(_near.index(i));
             // rescore each node.
             double tOptimal;
             if (timeForward) {
                 // time forward means xNew is in the future
-                tOptimal = tOptimal(node.node.getState(), xNew, MAX_U);
+                tOptimal = tOptimal(node.getState(), xNew, MAX_U);
             } else {
                 // time backward means xNew is in the past
-                tOptimal = tOptimal(xNew, node.node.getState(), MAX_U);
+                tOptimal = tOptimal(xNew, node.getState(), MAX_U);
             }
             if (tOptimal < tMin) {
                 tMin = tOptimal;
-                bestNode = node.node;
+                bestNode = node;
             }
         }
         if (tMin == Double.MAX_VALUE) {
@@ -1289,30 +1294,34 @@ public class RRTStar7<T extends Arena<N4>> implements Solver<N4> {
      * Return a list of nearby nodes, using the KDTree metric, which may not
      * actually contain the nearest nodes in non-Euclidean spaces.
      */
-    ArrayList<NearNode<N4>> Near(Matrix<N4, N1> x_new, KDNode<Node<N4>> rootNode) {
+    ArrayList<NearNode<N4>> Near(Matrix<N4, N1> x_new, FlatKDTree<Node<N4>> rootNode) {
         ArrayList<NearNode<N4>> nearNodes = new ArrayList<>();
-        KDTree.near(_model, rootNode, x_new, radius, (node, dist) -> nearNodes.add(new NearNode<>(node, dist)));
+        FlatKDTree.copy(x_new, _target);
+        rootNode.near(_target, radius, _near);
+        for (int i = 0; i < _near.size(); ++i) {
+            nearNodes.add(new NearNode<>(rootNode.get(_near.index(i)), _near.dist(i)));
+        }
         return nearNodes;
     }
 
     /** Add the node link.target to the tree, with an edge from source to target. */
-    Node<N4> InsertNode(LocalLink<N4> link, KDNode<Node<N4>> rootNode) {
+    Node<N4> InsertNode(LocalLink<N4> link, FlatKDTree<Node<N4>> rootNode) {
         Graph.newLink(link.get_source(), link.get_target(), link.get_linkDist());
-        KDTree.insert(_model, rootNode, link.get_target());
+        rootNode.insert(link.get_target());
         return link.get_target();
     }
 
     @Override
     public List<Node<N4>> getNodesA() {
         ArrayList<Node<N4>> allNodes = new ArrayList<>();
-        allNodes.addAll(KDTree.values(_T_a));
+        allNodes.addAll(_T_a.values());
         return allNodes;
     }
 
     @Override
     public List<Node<N4>> getNodesB() {
         ArrayList<Node<N4>> allNodes = new ArrayList<>();
-        allNodes.addAll(KDTree.values(_T_b));
+        allNodes.addAll(_T_b.values());
         return allNodes;
     }
 
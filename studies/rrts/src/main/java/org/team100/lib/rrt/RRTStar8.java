@@ -20,9 +20,9 @@ import org.team100.lib.graph.LinkInterface;
 import org.team100.lib.graph.LocalLink;
 import org.team100.lib.graph.NearNode;
 import org.team100.lib.graph.Node;
+import org.team100.lib.index.FlatKDTree;
 import org.team100.lib.index.KDNearNode;
-import org.team100.lib.index.KDNode;
-import org.team100.lib.index.KDTree;
+import org.team100.lib.index.KDResult;
 import org.team100.lib.math.ShootingSolver;
 import org.team100.lib.planner.Solver;
 import org.team100.lib.random.MersenneTwister;
@@ -79,24 +79,43 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
     private final T _model;
     private final Sample<N4> _sample;
     private final double _gamma;
-    private final Random random = new MersenneTwister(new Random().nextInt());
+    private final Random random;
     private final ShootingSolver<N4, N2> solver = new ShootingSolver<>(VecBuilder.fill(MAX_U, MAX_U), DT, 20);
     private final Matrix<N4, N1> min;
     private final Matrix<N4, N1> max;
 
     /** Initially, tree grown from initial, but is swapped repeatedly */
-    private KDNode<Node<N4>> _T_a;
+    private FlatKDTree<Node<N4>> _T_a;
     /** Initially, tree grown from goal, but is swapped repeatedly */
-    private KDNode<Node<N4>> _T_b;
+    private FlatKDTree<Node<N4>> _T_b;
+    /** Query scratch, reused to avoid allocating on every step. */
+    private final double[] _target = new double[4];
+    private final KDResult _near = new KDResult(256);
 
     // mutable loop variables to make the loop code cleaner
     private int stepNo;
     private double radius;
+    /** Path cost to beat, e.g. from other solvers running in parallel. */
+    private double _bound = Double.POSITIVE_INFINITY;
     // TODO remove
     private Path<N4> _sigma_best;
     private SinglePath<N4> _single_sigma_best;
 
-    public RRTStar8(T model, Sample<N4> sample, double gamma, KDNode<Node<N4>> T_a, KDNode<Node<N4>> T_b) {
+    public RRTStar8(T model, Sample<N4> sample, double gamma, FlatKDTree<Node<N4>> T_a, FlatKDTree<Node<N4>> T_b) {
+        this(model, sample, gamma, T_a, T_b, new Random().nextInt());
+    }
+
+    /**
+     * @param seed for the branching choices; use the same seed as the sampler to
+     *             make runs repeatable.
+     */
+    public RRTStar8(
+            T model,
+            Sample<N4> sample,
+            double gamma,
+            FlatKDTree<Node<N4>> T_a,
+            FlatKDTree<Node<N4>> T_b,
+            int seed) {
         if (gamma < 1.0) {
             throw new IllegalArgumentException("invalid gamma, must be >= 1.0");
         }
@@ -105,6 +124,7 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
         _T_a = T_a;
         _T_b = T_b;
         _gamma = gamma;
+        random = new MersenneTwister(seed);
         min = _model.getMin();
         max = _model.getMax();
     }
@@ -143,7 +163,7 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
             System.out.println("step");
         int edges = 0;
 
-        boolean timeForward = same(_T_a.getValue().getState(), _model.initial());
+        boolean timeForward = same(_T_a.get(0).getState(), _model.initial());
 
         // alpha
         Matrix<N4, N1> x_rand = SampleState();
@@ -153,6 +173,12 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
         if (x_nearestA == null)
             return 0;
 
+        // the optimal time is a lower bound on the cost to reach x_rand, so if
+        // that's already worse than the best path, nothing through x_rand can
+        // be better.
+        if (Graph.getPathDist(x_nearestA._nearest) + x_nearestA._dist >= _bound)
+            return 0;
+
         // includes states and controls
         Trajectory phiA = BangBangSteer(_model::clear, x_nearestA._nearest.getState(), x_rand, timeForward);
         if (phiA == null)
@@ -421,7 +447,7 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
     }
 
     public void SwapTrees() {
-        KDNode<Node<N4>> tmp = _T_a;
+        FlatKDTree<Node<N4>> tmp = _T_a;
         _T_a = _T_b;
         _T_b = tmp;
     }
@@ -537,8 +563,8 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
             System.out.println("p2 " + p_2);
         // either p_1 or p_2 are the initial tree
         //
-        // boolean root1 = same(_T_a.getValue().getState(), p_1.getRoot());
-        boolean root1 = same(_T_a.getValue().getState(), p_1.getFirstLink().x_i);
+        // boolean root1 = same(_T_a.get(0).getState(), p_1.getRoot());
+        boolean root1 = same(_T_a.get(0).getState(), p_1.getFirstLink().x_i);
         if (!root1) {
             // swap them
             SinglePath<N4> tmp = p_1;
@@ -603,24 +629,26 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
      * @param xNew     the goal state (x xdot y ydot)
      * @param rootNode the tree to look through
      */
-    KDNearNode<Node<N4>> BangBangNearest(Matrix<N4, N1> xNew, KDNode<Node<N4>> rootNode, boolean timeForward) {
-        // For now, use the Near function, which uses the "radius". Maybe
-        // it would be better to choose top-N-near, or use a different radius,
-        // or whatever.
-        ArrayList<NearNode<N4>> nodes = Near(xNew, rootNode);
+    KDNearNode<Node<N4>> BangBangNearest(Matrix<N4, N1> xNew, FlatKDTree<Node<N4>> rootNode, boolean timeForward) {
+        // For now, use the radius query. Maybe it would be better to choose
+        // top-N-near (see FlatKDTree.kNearest), or use a different radius, or
+        // whatever.
+        FlatKDTree.copy(xNew, _target);
+        rootNode.near(_target, radius, _near);
         double tMin = Double.MAX_VALUE;
         Node<N4> bestNode = null;
-        for (NearNode<N4> node : nodes) {
+        for (int i = 0; i < _near.size(); ++i) {
+            Node<N4> node = rootNode.get(_near.index(i));
             // rescore each node.
             double tOptimal;
             if (timeForward) {
-                tOptimal = tOptimal(node.node.getState(), xNew, MAX_U);
+                tOptimal = tOptimal(node.getState(), xNew, MAX_U);
             } else {
-                tOptimal = tOptimal(xNew, node.node.getState(), MAX_U);
+                tOptimal = tOptimal(xNew, node.getState(), MAX_U);
             }
             if (tOptimal < tMin) {
                 tMin = tOptimal;
-                bestNode = node.node;
+                bestNode = node;
             }
         }
         if (tMin == Double.MAX_VALUE)
@@ -924,10 +952,9 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
             if (DEBUG)
                 System.out.println("sample");
             // applied to a random point in the tree
-            List<Node<N4>> nodes = KDTree.values(_T_a);
-            int nodect = nodes.size();
+            int nodect = _T_a.size();
             int nodeidx = random.nextInt(nodect);
-            Node<N4> node_rand = nodes.get(nodeidx);
+            Node<N4> node_rand = _T_a.get(nodeidx);
             // persuade the tree to be longer
             if (node_rand.getOutgoingCount() >= MAX_CHILDREN) {
                 // maybe add anyway?
@@ -1022,8 +1049,10 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
                 // for now just use Euclidean distance.
                 // note this will find the parent so make sure the step
                 // size is larger than the buffer size
-                KDNearNode<Node<N4>> n = KDTree.nearest(_model, _T_a, newConfig);
-                if (n != null) {
+                FlatKDTree.copy(newConfig, _target);
+                int nearestIdx = _T_a.nearest(_target, _near);
+                if (nearestIdx >= 0) {
+                    KDNearNode<Node<N4>> n = new KDNearNode<>(_near.dist(0), _T_a.get(nearestIdx));
                     // look only at spatial dimensions; it's ok for there to be lots of
                     // points at the same velocity.
                     double newDist = Math.sqrt(Math.pow(x_new1 - n._nearest.getState().get(0, 0), 2) +
@@ -1618,9 +1647,13 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
      * Return a list of nearby nodes, using the KDTree metric, which may not
      * actually contain the nearest nodes in non-Euclidean spaces.
      */
-    ArrayList<NearNode<N4>> Near(Matrix<N4, N1> x_new, KDNode<Node<N4>> rootNode) {
+    ArrayList<NearNode<N4>> Near(Matrix<N4, N1> x_new, FlatKDTree<Node<N4>> rootNode) {
         ArrayList<NearNode<N4>> nearNodes = new ArrayList<>();
-        KDTree.near(_model, rootNode, x_new, radius, (node, dist) -> nearNodes.add(new NearNode<>(node, dist)));
+        FlatKDTree.copy(x_new, _target);
+        rootNode.near(_target, radius, _near);
+        for (int i = 0; i < _near.size(); ++i) {
+            nearNodes.add(new NearNode<>(rootNode.get(_near.index(i)), _near.dist(i)));
+        }
         return nearNodes;
     }
 
@@ -1642,9 +1675,9 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
     }
 
     /** Add the node link.target to the tree, with an edge from source to target. */
-    Node<N4> InsertNode(LocalLink<N4> link, KDNode<Node<N4>> rootNode) {
+    Node<N4> InsertNode(LocalLink<N4> link, FlatKDTree<Node<N4>> rootNode) {
         Graph.newLink(link.get_source(), link.get_target(), link.get_linkDist());
-        KDTree.insert(_model, rootNode, link.get_target());
+        rootNode.insert(link.get_target());
         return link.get_target();
     }
 
@@ -1683,14 +1716,14 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
     @Override
     public List<Node<N4>> getNodesA() {
         ArrayList<Node<N4>> allNodes = new ArrayList<>();
-        allNodes.addAll(KDTree.values(_T_a));
+        allNodes.addAll(_T_a.values());
         return allNodes;
     }
 
     @Override
     public List<Node<N4>> getNodesB() {
         ArrayList<Node<N4>> allNodes = new ArrayList<>();
-        allNodes.addAll(KDTree.values(_T_b));
+        allNodes.addAll(_T_b.values());
         return allNodes;
     }
 
@@ -1797,6 +1830,11 @@ public class RRTStar8<T extends Arena<N4>> implements Solver<N4> {
         this.radius = radius;
     }
 
+    @Override
+    public void setBound(double cost) {
+        _bound = cost;
+    }
+
     static boolean same(Matrix<N4, N1> a, Matrix<N4, N1> b) {
         return a.isEqual(b, 0.0001);
     }
@@ -0,0 +1,137 @@
+package org.team100.lib.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.space.Point;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N2;
+
+class FlatKDTreeTest {
+    private static final double kDelta = 0.001;
+
+    static class IntPoint implements Point<N2> {
+        private final int id;
+        private final Matrix<N2, N1> state;
+
+        IntPoint(int id, double x, double y) {
+            this.id = id;
+            this.state = VecBuilder.fill(x, y);
+        }
+
+        @Override
+        public Matrix<N2, N1> getState() {
+            return state;
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        FlatKDTree<IntPoint> tree = new FlatKDTree<>(2);
+        KDResult result = new KDResult();
+        assertEquals(-1, tree.nearest(new double[] { 0, 0 }, result));
+        assertEquals(0, result.size());
+        tree.kNearest(new double[] { 0, 0 }, 3, result);
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    void testNearest() {
+        FlatKDTree<IntPoint> tree = FlatKDTree.of(2, new IntPoint(0, 0, 0));
+        tree.insert(new IntPoint(1, 1, 1));
+        tree.insert(new IntPoint(2, -1, 0.5));
+        KDResult result = new KDResult();
+        int idx = tree.nearest(new double[] { 0.9, 0.8 }, result);
+        assertEquals(1, tree.get(idx).id);
+        assertEquals(Math.hypot(0.1, 0.2), result.dist(0), kDelta);
+        // the root is always index zero
+        assertEquals(0, tree.get(0).id);
+    }
+
+    /** Compare all the queries with brute force, across rebalancing. */
+    @Test
+    void testBruteForce() {
+        Random random = new Random(0);
+        FlatKDTree<IntPoint> tree = new FlatKDTree<>(2, 4);
+        int n = 5000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; ++i) {
+            // skewed insertion order makes an unbalanced tree
+            xs[i] = i / (double) n + 0.01 * random.nextDouble();
+            ys[i] = random.nextDouble();
+            tree.insert(new IntPoint(i, xs[i], ys[i]));
+        }
+        assertEquals(n, tree.size());
+        assertTrue(tree.rebuilds() > 0);
+        assertTrue(tree.depth() < 60, "depth " + tree.depth());
+
+        KDResult result = new KDResult(4);
+        double[] d = new double[n];
+        for (int q = 0; q < 100; ++q) {
+            double[] t = { random.nextDouble() * 1.2 - 0.1, random.nextDouble() * 1.2 - 0.1 };
+            for (int i = 0; i < n; ++i) {
+                d[i] = Math.hypot(xs[i] - t[0], ys[i] - t[1]);
+            }
+            double[] sorted = d.clone();
+            Arrays.sort(sorted);
+
+            int idx = tree.nearest(t, result);
+            assertEquals(sorted[0], d[idx], kDelta);
+
+            tree.kNearest(t, 10, result);
+            assertEquals(10, result.size());
+            for (int i = 0; i < 10; ++i) {
+                assertEquals(sorted[i], result.dist(i), kDelta);
+                assertEquals(d[result.index(i)], result.dist(i), kDelta);
+            }
+
+            double radius = 0.05;
+            tree.near(t, radius, result);
+            int expected = 0;
+            for (int i = 0; i < n; ++i) {
+                if (d[i] < radius)
+                    expected++;
+            }
+            assertEquals(expected, result.size());
+            for (int i = 0; i < result.size(); ++i) {
+                assertTrue(result.dist(i) < radius);
+            }
+        }
+    }
+
+    @Test
+    void testBatch() {
+        FlatKDTree<IntPoint> tree = FlatKDTree.of(2, new IntPoint(0, 0, 0));
+        tree.insert(new IntPoint(1, 1, 0));
+        tree.insert(new IntPoint(2, 0, 1));
+        double[] targets = { 0.9, 0.1, 0.1, 0.9, -1, -1 };
+        int[] index = new int[3];
+        double[] dist = new double[3];
+        tree.nearest(targets, 3, index, dist);
+        assertEquals(1, tree.get(index[0]).id);
+        assertEquals(2, tree.get(index[1]).id);
+        assertEquals(0, tree.get(index[2]).id);
+        assertEquals(Math.sqrt(2), dist[2], kDelta);
+    }
+
+    @Test
+    void testKLargerThanSize() {
+        FlatKDTree<IntPoint> tree = FlatKDTree.of(2, new IntPoint(0, 0, 0));
+        tree.insert(new IntPoint(1, 2, 0));
+        tree.insert(new IntPoint(2, 1, 0));
+        KDResult result = new KDResult();
+        tree.kNearest(new double[] { 0, 0 }, 5, result);
+        assertEquals(3, result.size());
+        assertEquals(0, tree.get(result.index(0)).id);
+        assertEquals(2, tree.get(result.index(1)).id);
+        assertEquals(1, tree.get(result.index(2)).id);
+    }
+}
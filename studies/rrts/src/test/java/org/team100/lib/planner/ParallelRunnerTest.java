@@ -0,0 +1,205 @@
+package org.team100.lib.planner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.team100.lib.graph.Node;
+import org.team100.lib.index.FlatKDTree;
+import org.team100.lib.rrt.RRTStar8;
+import org.team100.lib.rrt.example.full_state_arena.FullStateHolonomicArena;
+import org.team100.lib.space.Path;
+import org.team100.lib.space.Sample;
+import org.team100.lib.space.SinglePath;
+
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.numbers.N4;
+
+class ParallelRunnerTest {
+    private static final double kDelta = 0.001;
+
+    /** Finds a path after a few steps; the cost depends on the seed. */
+    static class FakeSolver implements Solver<N2> {
+        private final int seed;
+        private int steps;
+        private SinglePath<N2> best;
+        double bound = Double.POSITIVE_INFINITY;
+
+        FakeSolver(int seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public void setStepNo(int stepNo) {
+        }
+
+        @Override
+        public int step() {
+            if (++steps < 10)
+                return 1;
+            double cost = 100.0 / (seed + 1);
+            best = new SinglePath<>(List.of(new SinglePath.Link<>(null, null, cost)));
+            return -1;
+        }
+
+        @Override
+        public List<Node<N2>> getNodesA() {
+            return List.of();
+        }
+
+        @Override
+        public List<Node<N2>> getNodesB() {
+            return List.of();
+        }
+
+        @Override
+        public Path<N2> getBestPath() {
+            return null;
+        }
+
+        @Override
+        public SinglePath<N2> getBestSinglePath() {
+            return best;
+        }
+
+        @Override
+        public void setBound(double cost) {
+            bound = cost;
+        }
+    }
+
+    @Test
+    void testBest() {
+        ParallelRunner<N2> runner = new ParallelRunner<>(FakeSolver::new, 2);
+        SinglePath<N2> path = runner.runForDurationMS(50);
+        int solvers = runner.getSolvers();
+        assertTrue(solvers > 2);
+        // the last solver may not finish, so the best is from one before it.
+        assertTrue(path.getDistance() <= 100.0 / (solvers - 2), "distance " + path.getDistance());
+        assertEquals(path.getDistance(), runner.getBestDistance(), kDelta);
+        assertTrue(runner.getSteps() >= 10 * (solvers - 2));
+    }
+
+    @Test
+    void testBound() {
+        FakeSolver[] last = new FakeSolver[1];
+        ParallelRunner<N2> runner = new ParallelRunner<>(seed -> {
+            last[0] = new FakeSolver(seed);
+            return last[0];
+        }, 1);
+        runner.runForDurationMS(20);
+        // the current solver has been told about the previous ones, unless the
+        // deadline came before its first step.
+        if (last[0].steps > 0)
+            assertEquals(runner.getBestDistance(), last[0].bound, kDelta);
+    }
+
+    /** A real solver, seeded by the runner. */
+    static RRTStar8<FullStateHolonomicArena> rrt(int seed) {
+        FullStateHolonomicArena arena = new FullStateHolonomicArena();
+        FlatKDTree<Node<N4>> T_a = FlatKDTree.of(4, new Node<>(arena.initial()));
+        FlatKDTree<Node<N4>> T_b = FlatKDTree.of(4, new Node<>(arena.goal()));
+        RRTStar8<FullStateHolonomicArena> solver = new RRTStar8<>(
+                arena, new Sample<>(arena, seed), 1.0, T_a, T_b, seed);
+        // the default radius is zero, which never finds a neighbor.
+        solver.setRadius(6);
+        return solver;
+    }
+
+    /** The same seed grows the same trees. */
+    @Test
+    void testRRTStar8Repeatable() {
+        RRTStar8<FullStateHolonomicArena> a = rrt(3);
+        RRTStar8<FullStateHolonomicArena> b = rrt(3);
+        for (int stepNo = 1; stepNo < 200; ++stepNo) {
+            a.setStepNo(stepNo);
+            b.setStepNo(stepNo);
+            assertEquals(a.step(), b.step());
+        }
+        assertEquals(a.getNodesA().size(), b.getNodesA().size());
+        assertEquals(a.getNodesB().size(), b.getNodesB().size());
+        for (int i = 0; i < a.getNodesA().size(); ++i) {
+            assertArrayEquals(
+                    a.getNodesA().get(i).getState().getData(),
+                    b.getNodesA().get(i).getState().getData(), kDelta);
+        }
+    }
+
+    /** Seed zero is known to find a path quickly. */
+    @Test
+    void testRRTStar8Solvable() {
+        RRTStar8<FullStateHolonomicArena> solver = rrt(0);
+        int step = 0;
+        for (int stepNo = 1; stepNo < 1000 && step >= 0; ++stepNo) {
+            solver.setStepNo(stepNo);
+            step = solver.step();
+        }
+        assertTrue(step < 0);
+        assertNotNull(solver.getBestSinglePath());
+    }
+
+    @Test
+    void testRRTStar8() {
+        // every bound the runner hands out, to any solver
+        List<Double> bounds = Collections.synchronizedList(new ArrayList<>());
+        ParallelRunner<N4> runner = new ParallelRunner<>(seed -> {
+            RRTStar8<FullStateHolonomicArena> solver = rrt(seed);
+            return new Solver<N4>() {
+                @Override
+                public void setStepNo(int stepNo) {
+                    solver.setStepNo(stepNo);
+                }
+
+                @Override
+                public int step() {
+                    return solver.step();
+                }
+
+                @Override
+                public List<Node<N4>> getNodesA() {
+                    return solver.getNodesA();
+                }
+
+                @Override
+                public List<Node<N4>> getNodesB() {
+                    return solver.getNodesB();
+                }
+
+                @Override
+                public Path<N4> getBestPath() {
+                    return solver.getBestPath();
+                }
+
+                @Override
+                public SinglePath<N4> getBestSinglePath() {
+                    return solver.getBestSinglePath();
+                }
+
+                @Override
+                public void setBound(double cost) {
+                    bounds.add(cost);
+                    solver.setBound(cost);
+                }
+            };
+        }, 2);
+        // seeds 0 and 1 each solve in a few hundred steps, so this is plenty.
+        SinglePath<N4> path = runner.runForDurationMS(500);
+        assertTrue(runner.getSolvers() > 2);
+        assertTrue(runner.getSteps() > 0);
+        assertNotNull(path);
+        assertEquals(path.getDistance(), runner.getBestDistance(), kDelta);
+        // the shared bound only comes down, and never below the best path.
+        assertFalse(bounds.isEmpty());
+        synchronized (bounds) {
+            for (double bound : bounds)
+                assertTrue(path.getDistance() <= bound, "distance " + path.getDistance() + " bound " + bound);
+        }
+    }
+}
@@ -2,7 +2,7 @@ package org.team100.lib.rrt;
 
 import org.junit.jupiter.api.Test;
 import org.team100.lib.graph.Node;
-import org.team100.lib.index.KDNode;
+import org.team100.lib.index.FlatKDTree;
 import org.team100.lib.rrt.example.full_state_arena.FullStateHolonomicArena;
 import org.team100.lib.space.Sample;
 
@@ -12,8 +12,8 @@ public class OptimizeTest {
     @Test
     void testOptimize() {
         final FullStateHolonomicArena arena = new FullStateHolonomicArena();
-        KDNode<Node<N4>> T_a = new KDNode<>(new Node<>(arena.initial()));
-        KDNode<Node<N4>> T_b = new KDNode<>(new Node<>(arena.goal()));
+        FlatKDTree<Node<N4>> T_a = FlatKDTree.of(4, new Node<>(arena.initial()));
+        FlatKDTree<Node<N4>> T_b = FlatKDTree.of(4, new Node<>(arena.goal()));
         final RRTStar7<FullStateHolonomicArena> solver = new RRTStar7<>(arena, new Sample<>(arena), T_a, T_b);
 
     }
@@ -12,9 +12,8 @@ import org.junit.jupiter.api.Test;
 import org.team100.lib.geom.Obstacle;
 import org.team100.lib.geom.Polygon;
 import org.team100.lib.graph.Node;
+import org.team100.lib.index.FlatKDTree;
 import org.team100.lib.index.KDNearNode;
-import org.team100.lib.index.KDNode;
-import org.team100.lib.index.KDTree;
 import org.team100.lib.math.Util;
 import org.team100.lib.rrt.RRTStar7.Trajectory;
 import org.team100.lib.rrt.RRTStar7.Trajectory.Axis;
@@ -470,14 +469,14 @@ public class TestRRTStar7 {
          * _goal = { 1.93, 0, 2.748, 0 });
          */
         final FullStateHolonomicArena arena = new FullStateHolonomicArena();
-        KDNode<Node<N4>> T_a = new KDNode<>(new Node<>(arena.initial()));
-        KDNode<Node<N4>> T_b = new KDNode<>(new Node<>(arena.goal()));
+        FlatKDTree<Node<N4>> T_a = FlatKDTree.of(4, new Node<>(arena.initial()));
+        FlatKDTree<Node<N4>> T_b = FlatKDTree.of(4, new Node<>(arena.goal()));
         final RRTStar7<FullStateHolonomicArena> solver = new RRTStar7<>(arena, new Sample<>(arena), T_a, T_b);
 
         solver.setRadius(10);
 
         // add a node
-        KDTree.insert(arena, T_a, new Node<>(new Matrix<>(Nat.N4(), Nat.N1(), new double[] { 0, 0, 0, 0 })));
+        T_a.insert(new Node<>(new Matrix<>(Nat.N4(), Nat.N1(), new double[] { 0, 0, 0, 0 })));
         System.out.println(T_a);
 
         // look for it
@@ -499,12 +498,12 @@ public class TestRRTStar7 {
          * _goal = { 1.93, 0, 2.748, 0 });
          */
         final FullStateHolonomicArena arena = new FullStateHolonomicArena();
-        KDNode<Node<N4>> T_a = new KDNode<>(new Node<>(arena.initial()));
-        KDNode<Node<N4>> T_b = new KDNode<>(new Node<>(arena.goal()));
+        FlatKDTree<Node<N4>> T_a = FlatKDTree.of(4, new Node<>(arena.initial()));
+        FlatKDTree<Node<N4>> T_b = FlatKDTree.of(4, new Node<>(arena.goal()));
         final RRTStar7<FullStateHolonomicArena> solver = new RRTStar7<>(arena, new Sample<>(arena), T_a, T_b);
         solver.setRadius(10);
 
-        KDTree.insert(arena, T_a, new Node<>(new Matrix<>(Nat.N4(), Nat.N1(), new double[] { -1, 1, 0, 0 })));
+        T_a.insert(new Node<>(new Matrix<>(Nat.N4(), Nat.N1(), new double[] { -1, 1, 0, 0 })));
         KDNearNode<Node<N4>> near = solver.BangBangNearest(
                 new Matrix<>(Nat.N4(), Nat.N1(), new double[] { 1, 1, 0, 0 }), T_a,
                 true);
@@ -520,8 +519,8 @@ public class TestRRTStar7 {
          * _goal = { 1.93, 0, 2.748, 0 });
          */
         final FullStateHolonomicArena arena = new FullStateHolonomicArena();
-        KDNode<Node<N4>> T_a = new KDNode<>(new Node<>(arena.initial()));
-        KDNode<Node<N4>> T_b = new KDNode<>(new Node<>(arena.goal()));
+        FlatKDTree<Node<N4>> T_a = FlatKDTree.of(4, new Node<>(arena.initial()));
+        FlatKDTree<Node<N4>> T_b = FlatKDTree.of(4, new Node<>(arena.goal()));
         final RRTStar7<FullStateHolonomicArena> solver = new RRTStar7<>(arena, new Sample<>(arena), T_a, T_b);
 
         // note small radius; this won't find anything
@@ -7,7 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.Test;
 import org.team100.lib.graph.LinkInterface;
 import org.team100.lib.graph.Node;
-import org.team100.lib.index.KDNode;
+import org.team100.lib.index.FlatKDTree;
 import org.team100.lib.rrt.example.full_state_arena.FullStateHolonomicArena;
 import org.team100.lib.space.Sample;
 
@@ -24,8 +24,8 @@ public class TestTrees {
         assertEquals(0, initial.getOutgoingCount());
         assertEquals(0, goal.getOutgoingCount());
 
-        KDNode<Node<N4>> T_a = new KDNode<>(initial);
-        KDNode<Node<N4>> T_b = new KDNode<>(goal);
+        FlatKDTree<Node<N4>> T_a = FlatKDTree.of(4, initial);
+        FlatKDTree<Node<N4>> T_b = FlatKDTree.of(4, goal);
         // note fixed rand seed so the tests here will be deterministic
         RRTStar7<FullStateHolonomicArena> solver = new RRTStar7<>(arena, new Sample<>(arena, 0), T_a, T_b);
         solver.setRadius(3);
@@ -1,7 +1,6 @@
 package org.team100.lib.sway.controller;
 
 import org.team100.lib.sway.math.RandomVector;
-import org.team100.lib.sway.math.Jacobian;
 import org.team100.lib.sway.math.Variance;
 import org.team100.lib.sway.system.NonlinearPlant;
 
@@ -39,10 +38,8 @@ public class GainCalculator<States extends Num, Inputs extends Num, Outputs exte
         Matrix<Inputs, Inputs> m_R = StateSpaceUtil.makeCostMatrix(relms);
         RandomVector<States> x = new RandomVector<>(new Matrix<>(plant.states(), Nat.N1()),
                 Variance.zero(plant.states()));
-        Matrix<States, States> A = Jacobian.numericalJacobianX(plant.states(), plant.states(), plant::f,
-                x, kUZero);
-        Matrix<States, Inputs> B = Jacobian.numericalJacobianU(plant.states(), plant.inputs(), plant::f,
-                x, kUZero);
+        Matrix<States, States> A = plant.jacobianX(x, kUZero);
+        Matrix<States, Inputs> B = plant.jacobianU(x, kUZero);
 
         var discABPair = Discretization.discretizeAB(A, B, dtSeconds);
         var discA = discABPair.getFirst();
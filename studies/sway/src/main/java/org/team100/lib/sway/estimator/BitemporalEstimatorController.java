@@ -73,6 +73,8 @@ public class BitemporalEstimatorController<States extends Num, Inputs extends Nu
 
     // the last recordTime we've seen from the buffer
     private long recordTime;
+    // measurements to replay, reused each time.
+    private final BitemporalBuffer.Snapshot<RandomVector<Outputs>> m_todo;
 
     /**
      * @param system         plant dynamics
@@ -99,6 +101,7 @@ public class BitemporalEstimatorController<States extends Num, Inputs extends Nu
         m_pooling = new VarianceWeightedLinearPooling<>();
         m_feedforward = new InversionFeedforward<>(system);
         m_feedback = new FeedbackControl<>(system, K);
+        m_todo = new BitemporalBuffer.Snapshot<>();
     }
 
     /**
@@ -118,9 +121,10 @@ public class BitemporalEstimatorController<States extends Num, Inputs extends Nu
         double earliestMeasurementSec = m_measurements.earliestValidTimeForRecordsAfter(recordTime);
         recordTime = currentSystemTimeMicrosec;
 
-        // we need to replay all the measurements since then
-        NavigableMap<Double, Entry<Long, RandomVector<Outputs>>> todo = m_measurements
-                .validTailMap(earliestMeasurementSec);
+        // we need to replay all the measurements since then.
+        // this is a copy, so new measurements can arrive while we work.
+        BitemporalBuffer.Snapshot<RandomVector<Outputs>> todo = m_measurements
+                .validTail(earliestMeasurementSec, m_todo);
 
         // we don't need the old estimates, we're going to redo them all
         m_estimates.trim(earliestMeasurementSec);
@@ -129,10 +133,10 @@ public class BitemporalEstimatorController<States extends Num, Inputs extends Nu
         int replayCount = 0;
         if (kDebug)
             System.out.println("replay " + todo.size());
-        for (Entry<Double, Entry<Long, RandomVector<Outputs>>> measurementEntry : todo.entrySet()) {
+        for (int i = 0; i < todo.size(); ++i) {
             replayCount += 1;
             // find the time of the measurement
-            double measurementTime = measurementEntry.getKey();
+            double measurementTime = todo.validTime(i);
             // find the most-recent state earlier than the measurement
             Entry<Double, RandomVector<States>> entry = m_estimates.floor(measurementTime);
             if (entry == null) {
@@ -192,7 +196,7 @@ public class BitemporalEstimatorController<States extends Num, Inputs extends Nu
 
             // this is the measurement state
             RandomVector<States> measurementState = m_pointEstimator
-                    .stateForMeasurementWithZeroU(measurementEntry.getValue().getValue());
+                    .stateForMeasurementWithZeroU(todo.value(i));
             if (kDebug)
                 System.out.println("replay measurement " + measurementState.x.get(0, 0));
             // pool the measurement and the extrapolation
@@ -9,6 +9,15 @@ import edu.wpi.first.math.numbers.N1;
 
 /**
  * Copy of the WPI version but for random variables.
+ *
+ * Instead of copying the input twice per column, this perturbs one scratch
+ * copy in place, and writes the differences straight into the result, so the
+ * only allocations are whatever f itself does. The overloads that take the
+ * scratch and the result don't allocate anything else at all; use those if you
+ * linearize in a loop.
+ *
+ * If the plant has a closed-form Jacobian, use that instead, see
+ * NonlinearPlant.jacobianX().
  */
 public class Jacobian {
     private static final double kEpsilon = 1e-5;
@@ -21,14 +30,36 @@ public class Jacobian {
             BiFunction<RandomVector<States>, Matrix<Inputs, N1>, RandomVector<Outputs>> f,
             RandomVector<States> x,
             Matrix<Inputs, N1> u) {
-        Matrix<Rows, States> result = new Matrix<>(rows, states);
-        for (int i = 0; i < states.getNum(); i++) {
-            RandomVector<States> dxPlus = x.copy();
-            RandomVector<States> dxMinus = x.copy();
-            dxPlus.x.set(i, 0, dxPlus.x.get(i, 0) + kEpsilon);
-            dxMinus.x.set(i, 0, dxMinus.x.get(i, 0) - kEpsilon);
-            var dF = f.apply(dxPlus, u).x.minus(f.apply(dxMinus, u).x).div(2 * kEpsilon);
-            result.setColumn(i, Matrix.changeBoundsUnchecked(dF));
+        return numericalJacobianX(f, x, u, x.copy(), new Matrix<>(rows, states));
+    }
+
+    /**
+     * @param scratch overwritten with x, and then perturbed; must not alias x.
+     * @param result  overwritten and returned
+     */
+    public static <Rows extends Num, States extends Num, Inputs extends Num, Outputs extends Num> Matrix<Rows, States> numericalJacobianX(
+            BiFunction<RandomVector<States>, Matrix<Inputs, N1>, RandomVector<Outputs>> f,
+            RandomVector<States> x,
+            Matrix<Inputs, N1> u,
+            RandomVector<States> scratch,
+            Matrix<Rows, States> result) {
+        copy(x.x, scratch.x);
+        copy(x.Kxx.getValue(), scratch.Kxx.getValue());
+        int rows = result.getNumRows();
+        for (int i = 0; i < result.getNumCols(); i++) {
+            double xi = x.x.get(i, 0);
+            scratch.x.set(i, 0, xi + kEpsilon);
+            // f may return its argument (e.g. identity h), so read it before the next call.
+            Matrix<Outputs, N1> plus = f.apply(scratch, u).x;
+            for (int r = 0; r < rows; r++) {
+                result.set(r, i, plus.get(r, 0));
+            }
+            scratch.x.set(i, 0, xi - kEpsilon);
+            Matrix<Outputs, N1> minus = f.apply(scratch, u).x;
+            for (int r = 0; r < rows; r++) {
+                result.set(r, i, (result.get(r, i) - minus.get(r, 0)) / (2 * kEpsilon));
+            }
+            scratch.x.set(i, 0, xi);
         }
         return result;
     }
@@ -39,17 +70,45 @@ public class Jacobian {
             BiFunction<RandomVector<States>, Matrix<Inputs, N1>, RandomVector<States>> f,
             RandomVector<States> x,
             Matrix<Inputs, N1> u) {
-        Matrix<Rows, Inputs> result = new Matrix<>(rows, inputs);
-        for (int i = 0; i < inputs.getNum(); i++) {
-            Matrix<Inputs, N1> duPlus = u.copy();
-            Matrix<Inputs, N1> duMinus = u.copy();
-            duPlus.set(i, 0, duPlus.get(i, 0) + kEpsilon);
-            duMinus.set(i, 0, duMinus.get(i, 0) - kEpsilon);
-            Matrix<States, N1> dF = f.apply(x, duPlus).x.minus(f.apply(x, duMinus).x).div(2 * kEpsilon);
-            result.setColumn(i, Matrix.changeBoundsUnchecked(dF));
+        return numericalJacobianU(f, x, u, u.copy(), new Matrix<>(rows, inputs));
+    }
+
+    /**
+     * @param scratch overwritten with u, and then perturbed; must not alias u.
+     * @param result  overwritten and returned
+     */
+    public static <Rows extends Num, States extends Num, Inputs extends Num> Matrix<Rows, Inputs> numericalJacobianU(
+            BiFunction<RandomVector<States>, Matrix<Inputs, N1>, RandomVector<States>> f,
+            RandomVector<States> x,
+            Matrix<Inputs, N1> u,
+            Matrix<Inputs, N1> scratch,
+            Matrix<Rows, Inputs> result) {
+        copy(u, scratch);
+        int rows = result.getNumRows();
+        for (int i = 0; i < result.getNumCols(); i++) {
+            double ui = u.get(i, 0);
+            scratch.set(i, 0, ui + kEpsilon);
+            Matrix<States, N1> plus = f.apply(x, scratch).x;
+            for (int r = 0; r < rows; r++) {
+                result.set(r, i, plus.get(r, 0));
+            }
+            scratch.set(i, 0, ui - kEpsilon);
+            Matrix<States, N1> minus = f.apply(x, scratch).x;
+            for (int r = 0; r < rows; r++) {
+                result.set(r, i, (result.get(r, i) - minus.get(r, 0)) / (2 * kEpsilon));
+            }
+            scratch.set(i, 0, ui);
         }
         return result;
     }
 
+    private static void copy(Matrix<?, ?> from, Matrix<?, ?> to) {
+        for (int r = 0; r < from.getNumRows(); r++) {
+            for (int c = 0; c < from.getNumCols(); c++) {
+                to.set(r, c, from.get(r, c));
+            }
+        }
+    }
+
     private Jacobian() {}
 }
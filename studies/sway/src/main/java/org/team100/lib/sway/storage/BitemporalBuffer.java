@@ -1,55 +1,87 @@
 package org.team100.lib.sway.storage;
 
 import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.TreeMap;
 
 /**
  * Bitemporal Buffer
- * 
+ *
  * Implements the Temporal Database concepts of "valid time" and "record
  * time" for point-in-time measurements. Valid time represents the real-world
  * instant that an item refers to. Record time represents the instant that
  * a data record was added to the buffer. Consumers are expected to use
  * record time to fetch new data, which might refer to valid times
  * arbitrarily long ago.
- * 
+ *
  * For example, this buffer could be used to store measurements with various
  * latencies. A position measurement might be available almost instantly,
  * whereas a velocity measurement might involve some averaging over time.
- * 
+ *
  * An observer might make periodic state updates by consuming measurements, and
  * when out-of-sequence measurements are discovered, the observer would "roll
  * back" to a state earlier than the newly-arriving but older-representing
  * measurement, and then reapply all the updates since then.
- * 
+ *
  * Since the rio measures system time as a long and WPILib measures real time as
  * a double, that's what we use here.
- * 
+ *
+ * The storage is primitive: the times and values live in a fixed pool of
+ * slots, and there are two sorted index arrays over the pool, one in record
+ * order and one in valid order. The index arrays are rings, so appending the
+ * newest record and evicting the oldest valid time are both cheap, and
+ * floor/ceiling queries are binary searches. Put doesn't allocate.
+ *
+ * For replay, use {@link #validTail(double, Snapshot)}, which copies the
+ * entries into a reusable {@link Snapshot}, so the caller can iterate without
+ * holding the lock. The NavigableMap methods make copies, and are mostly for
+ * tests.
+ *
+ * All the methods are synchronized; they're all short.
+ *
  * https://en.wikipedia.org/wiki/Temporal_database
  * https://www.mathworks.com/help/fusion/ug/handle-out-of-sequence-measurements-with-filter-retrodiction.html
- * 
+ *
  *
  */
 public class BitemporalBuffer<Value> {
     private static final boolean debug = false;
     private final int capacity;
-    private final NavigableMap<Long, Entry<Double, Value>> record;
-    private final NavigableMap<Double, Entry<Long, Value>> valid;
+    // slot pool, one extra so put can insert before evicting.
+    private final long[] recordTimes;
+    private final double[] validTimes;
+    private final Object[] values;
+    private final int[] free;
+    private int freeCount;
+    // slot indices sorted by record time and by valid time.
+    private final Ring record;
+    private final Ring valid;
     private int size;
 
     public BitemporalBuffer(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
         this.capacity = capacity;
         size = 0;
-        record = new ConcurrentSkipListMap<>();
-        valid = new ConcurrentSkipListMap<>();
+        int slots = capacity + 1;
+        recordTimes = new long[slots];
+        validTimes = new double[slots];
+        values = new Object[slots];
+        free = new int[slots];
+        for (int i = 0; i < slots; ++i) {
+            free[i] = slots - 1 - i;
+        }
+        freeCount = slots;
+        record = new Ring(slots);
+        valid = new Ring(slots);
     }
 
     /**
      * Store a measurement. Threadsafe.
-     * 
+     *
      * @param recordTime represents the system time the value was written, expected
      *                   to be FPGATime.
      * @param validTime  represents the real-world time the value describes, in
@@ -58,25 +90,39 @@ public class BitemporalBuffer<Value> {
      * @param value      value to store
      */
     public synchronized void put(long recordTime, double validTime, Value value) {
+        if (Double.isNaN(validTime))
+            throw new IllegalArgumentException("NaN valid time");
         // fix the keys to avoid overwriting anything.
         // these are tiny increments, won't affect the consumer.
-        // synchronized so these increments are applied consistently.
-        while (record.containsKey(recordTime)) {
+        int recordPos = recordCeiling(recordTime);
+        while (recordPos < size && recordTimes[record.get(recordPos)] == recordTime) {
             recordTime++; // add one microsecond
+            recordPos++;
         }
-        while (valid.containsKey(validTime)) {
+        int validPos = validCeiling(validTime);
+        while (validPos < size && validTimes[valid.get(validPos)] == validTime) {
             validTime = Math.nextUp(validTime); // add smallest possible double
+            validPos++;
         }
         if (debug)
             System.out.println("put measurement " + validTime + " " + value);
-        record.put(recordTime, new AbstractMap.SimpleImmutableEntry<>(validTime, value));
-        valid.put(validTime, new AbstractMap.SimpleImmutableEntry<>(recordTime, value));
+        int slot = free[--freeCount];
+        recordTimes[slot] = recordTime;
+        validTimes[slot] = validTime;
+        values[slot] = value;
+        record.insert(recordPos, slot, size);
+        valid.insert(validPos, slot, size);
         if (++size > capacity) {
-            Entry<Double, Entry<Long, Value>> validEntry = valid.pollFirstEntry();
-            Long key = validEntry.getValue().getKey();
-            if (record.remove(key) == null) {
-                throw new IllegalStateException("This should never happen: missing record: " + key);
+            int oldest = valid.get(0);
+            valid.remove(0, size);
+            int pos = recordCeiling(recordTimes[oldest]);
+            if (pos >= size || record.get(pos) != oldest) {
+                throw new IllegalStateException(
+                        "This should never happen: missing record: " + recordTimes[oldest]);
             }
+            record.remove(pos, size);
+            values[oldest] = null;
+            free[freeCount++] = oldest;
             --size;
         }
     }
@@ -84,7 +130,7 @@ public class BitemporalBuffer<Value> {
     /**
      * Find the most-recent value earlier than the specified valid time.
      */
-    public Entry<Double, Entry<Long, Value>> floor(double validTimeSec) {
+    public synchronized Entry<Double, Entry<Long, Value>> floor(double validTimeSec) {
         if (validTimeSec < 0)
             throw new IllegalArgumentException("Negative time is not allowed: " + validTimeSec);
         Entry<Double, Entry<Long, Value>> floor = validFloorEntry(validTimeSec);
@@ -93,40 +139,258 @@ public class BitemporalBuffer<Value> {
         return floor;
     }
 
-    public Value floorValue(double validTimeSec) {
-        return floor(validTimeSec).getValue().getValue();
+    /** Like floor(), without allocating. */
+    public synchronized Value floorValue(double validTimeSec) {
+        if (validTimeSec < 0)
+            throw new IllegalArgumentException("Negative time is not allowed: " + validTimeSec);
+        int pos = validFloor(validTimeSec);
+        if (pos < 0)
+            throw new IllegalStateException("No floor key (not initialized?): " + validTimeSec);
+        return value(valid.get(pos));
+    }
+
+    /** The value with the least valid time at or after vt, or null if none. */
+    public synchronized Value ceilingValue(double vt) {
+        int pos = validCeiling(vt);
+        if (pos >= size)
+            return null;
+        return value(valid.get(pos));
+    }
+
+    /** The greatest valid time at or before vt, or NaN if none. */
+    public synchronized double floorValidTime(double vt) {
+        int pos = validFloor(vt);
+        if (pos < 0)
+            return Double.NaN;
+        return validTimes[valid.get(pos)];
+    }
+
+    /** The least valid time at or after vt, or NaN if none. */
+    public synchronized double ceilingValidTime(double vt) {
+        int pos = validCeiling(vt);
+        if (pos >= size)
+            return Double.NaN;
+        return validTimes[valid.get(pos)];
     }
 
     /**
      * To consume out-of-sequence measurements, we just need to know the valid time
      * of the earliest unseen record.
      */
-    public double earliestValidTimeForRecordsAfter(long recordTime) {
+    public synchronized double earliestValidTimeForRecordsAfter(long recordTime) {
         // find the earliest measurement
-        NavigableMap<Long, Entry<Double, Value>> unseen = recordTailMap(recordTime);
         double earliestMeasurementSec = Double.MAX_VALUE;
-        for (Entry<Double, Value> u : unseen.values()) {
-            double measurementTimeSec = u.getKey();
+        for (int i = recordCeiling(recordTime); i < size; ++i) {
+            double measurementTimeSec = validTimes[record.get(i)];
             if (measurementTimeSec < earliestMeasurementSec)
                 earliestMeasurementSec = measurementTimeSec;
         }
         return earliestMeasurementSec;
     }
 
-    public NavigableMap<Long, Entry<Double, Value>> recordTailMap(long tt) {
-        return Collections.unmodifiableNavigableMap(record.tailMap(tt, true));
+    /**
+     * Copy the entries with valid time at or after vt into the snapshot, in
+     * valid-time order.
+     *
+     * @return out, for convenience
+     */
+    public synchronized Snapshot<Value> validTail(double vt, Snapshot<Value> out) {
+        int from = validCeiling(vt);
+        out.clear(size - from);
+        for (int i = from; i < size; ++i) {
+            int slot = valid.get(i);
+            out.add(recordTimes[slot], validTimes[slot], value(slot));
+        }
+        return out;
     }
 
-    public NavigableMap<Double, Entry<Long, Value>> validTailMap(double vt) {
-        return Collections.unmodifiableNavigableMap(valid.tailMap(vt, true));
+    /** A copy of the records at or after tt. */
+    public synchronized NavigableMap<Long, Entry<Double, Value>> recordTailMap(long tt) {
+        NavigableMap<Long, Entry<Double, Value>> result = new TreeMap<>();
+        for (int i = recordCeiling(tt); i < size; ++i) {
+            int slot = record.get(i);
+            result.put(recordTimes[slot], new AbstractMap.SimpleImmutableEntry<>(validTimes[slot], value(slot)));
+        }
+        return Collections.unmodifiableNavigableMap(result);
+    }
+
+    /** A copy of the records valid at or after vt. */
+    public synchronized NavigableMap<Double, Entry<Long, Value>> validTailMap(double vt) {
+        NavigableMap<Double, Entry<Long, Value>> result = new TreeMap<>();
+        for (int i = validCeiling(vt); i < size; ++i) {
+            int slot = valid.get(i);
+            result.put(validTimes[slot], new AbstractMap.SimpleImmutableEntry<>(recordTimes[slot], value(slot)));
+        }
+        return Collections.unmodifiableNavigableMap(result);
     }
 
     /** Find the entry for the greatest key less than vt. */
-    public Entry<Double, Entry<Long, Value>> validFloorEntry(double vt) {
-        return valid.floorEntry(vt);
+    public synchronized Entry<Double, Entry<Long, Value>> validFloorEntry(double vt) {
+        int pos = validFloor(vt);
+        if (pos < 0)
+            return null;
+        int slot = valid.get(pos);
+        return new AbstractMap.SimpleImmutableEntry<>(
+                validTimes[slot],
+                new AbstractMap.SimpleImmutableEntry<>(recordTimes[slot], value(slot)));
     }
 
-    public int size() {
+    public synchronized int size() {
         return size;
     }
+
+    /**
+     * Reusable copy of part of the buffer, for iterating without holding the
+     * lock.
+     */
+    public static class Snapshot<Value> {
+        private long[] recordTimes = new long[16];
+        private double[] validTimes = new double[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public long recordTime(int i) {
+            return recordTimes[i];
+        }
+
+        public double validTime(int i) {
+            return validTimes[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        public Value value(int i) {
+            return (Value) values[i];
+        }
+
+        void clear(int expected) {
+            // drop references from the last use
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            if (expected > values.length) {
+                recordTimes = new long[expected];
+                validTimes = new double[expected];
+                values = new Object[expected];
+            }
+        }
+
+        void add(long recordTime, double validTime, Value value) {
+            recordTimes[size] = recordTime;
+            validTimes[size] = validTime;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private Value value(int slot) {
+        return (Value) values[slot];
+    }
+
+    /** Position of the first record at or after tt, or size if none. */
+    private int recordCeiling(long tt) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (recordTimes[record.get(mid)] < tt)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /** Position of the first entry valid at or after vt, or size if none. */
+    private int validCeiling(double vt) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (validTimes[valid.get(mid)] < vt)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /** Position of the last entry valid at or before vt, or -1 if none. */
+    private int validFloor(double vt) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (validTimes[valid.get(mid)] <= vt)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo - 1;
+    }
+
+    /**
+     * Sorted array of slot indices, stored as a ring so that both ends are cheap
+     * to change. Inserts and removes in the middle shift whichever side is
+     * shorter.
+     */
+    private static class Ring {
+        private final int[] ring;
+        private int head;
+
+        Ring(int length) {
+            ring = new int[length];
+        }
+
+        int get(int i) {
+            return ring[wrap(head + i)];
+        }
+
+        /** Insert at logical position pos, with n elements before the insert. */
+        void insert(int pos, int slot, int n) {
+            if (pos < n / 2) {
+                // shift the front left
+                head = wrap(head - 1);
+                for (int i = 0; i < pos; ++i) {
+                    ring[wrap(head + i)] = ring[wrap(head + i + 1)];
+                }
+            } else {
+                // shift the back right
+                for (int i = n; i > pos; --i) {
+                    ring[wrap(head + i)] = ring[wrap(head + i - 1)];
+                }
+            }
+            ring[wrap(head + pos)] = slot;
+        }
+
+        /** Remove logical position pos, with n elements before the remove. */
+        void remove(int pos, int n) {
+            if (pos < n / 2) {
+                // shift the front right
+                for (int i = pos; i > 0; --i) {
+                    ring[wrap(head + i)] = ring[wrap(head + i - 1)];
+                }
+                head = wrap(head + 1);
+            } else {
+                // shift the back left
+                for (int i = pos; i < n - 1; ++i) {
+                    ring[wrap(head + i)] = ring[wrap(head + i + 1)];
+                }
+            }
+        }
+
+        private int wrap(int i) {
+            int len = ring.length;
+            if (i >= len)
+                return i - len;
+            if (i < 0)
+                return i + len;
+            return i;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.team100.lib.sway.system;
 
+import org.team100.lib.sway.math.Jacobian;
 import org.team100.lib.sway.math.RandomVector;
 import org.team100.lib.sway.math.Variance;
 import org.team100.lib.sway.math.WhiteNoiseVector;
@@ -27,6 +28,26 @@ public interface NonlinearPlant<States extends Num, Inputs extends Num, Outputs
     /** State evolution */
     RandomVector<States> f(RandomVector<States> x, Matrix<Inputs, N1> u);
 
+    /**
+     * Jacobian of f with respect to x, at (x, u), for linearization.
+     * 
+     * The default is numerical, which evaluates f twice per state. If you know
+     * the closed form, override this.
+     */
+    default Matrix<States, States> jacobianX(RandomVector<States> x, Matrix<Inputs, N1> u) {
+        return Jacobian.numericalJacobianX(states(), states(), this::f, x, u);
+    }
+
+    /**
+     * Jacobian of f with respect to u, at (x, u), for linearization.
+     * 
+     * The default is numerical, which evaluates f twice per input. If you know
+     * the closed form, override this.
+     */
+    default Matrix<States, Inputs> jacobianU(RandomVector<States> x, Matrix<Inputs, N1> u) {
+        return Jacobian.numericalJacobianU(states(), inputs(), this::f, x, u);
+    }
+
     /** Inverse of f with respect to u, for feedforward. */
     Matrix<Inputs, N1> finvWrtU(RandomVector<States> x, RandomVector<States> xdot);
 
@@ -48,6 +48,26 @@ public class Pendulum1D extends Rotary1D {
         return new RandomVector<>(xdotx, new Variance<>(xdotP));
     }
 
+    /**
+     * A = [0 1 ; sin(p) 0]
+     */
+    @Override
+    public Matrix<N2, N2> jacobianX(RandomVector<N2> x, Matrix<N1, N1> u) {
+        double p = x.x.get(0, 0);
+        Matrix<N2, N2> a = new Matrix<>(Nat.N2(), Nat.N2());
+        a.set(0, 1, 1);
+        a.set(1, 0, Math.sin(p));
+        return a;
+    }
+
+    /**
+     * B = [0 ; 1]
+     */
+    @Override
+    public Matrix<N2, N1> jacobianU(RandomVector<N2> x, Matrix<N1, N1> u) {
+        return VecBuilder.fill(0, 1);
+    }
+
     @Override
     public Matrix<N1, N1> finvWrtU(RandomVector<N2> x, RandomVector<N2> xdot) {
         double a = xdot.x.get(1, 0);
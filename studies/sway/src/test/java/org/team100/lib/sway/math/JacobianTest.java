@@ -1,14 +1,21 @@
 package org.team100.lib.sway.math;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.team100.lib.sway.system.NonlinearPlant;
 import org.team100.lib.sway.system.examples.DoubleIntegratorRotary1D;
+import org.team100.lib.sway.system.examples.FrictionRotary1D;
 import org.team100.lib.sway.system.examples.Pendulum1D;
 
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.Num;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N2;
@@ -209,4 +216,146 @@ class JacobianTest {
         }
     }
 
+    /** The closed-form Jacobians match the numerical ones. */
+    @Test
+    void testAnalytic() {
+        WhiteNoiseVector<N2> w = WhiteNoiseVector.noise2(0.015, 0.17);
+        MeasurementUncertainty<N2> v = MeasurementUncertainty.for2(0.01, 0.1);
+        List<NonlinearPlant<N2, N1, N2>> plants = List.of(
+                new Pendulum1D(w, v),
+                new FrictionRotary1D(w, v));
+        for (NonlinearPlant<N2, N1, N2> plant : plants) {
+            for (double p = -3; p <= 3; p += 0.5) {
+                RandomVector<N2> x = new RandomVector<>(VecBuilder.fill(p, 0.5), Variance.zero2());
+                Matrix<N1, N1> u = VecBuilder.fill(0.3);
+                assertArrayEquals(
+                        Jacobian.numericalJacobianX(Nat.N2(), Nat.N2(), plant::f, x, u).getData(),
+                        plant.jacobianX(x, u).getData(),
+                        kDelta);
+                assertArrayEquals(
+                        Jacobian.numericalJacobianU(Nat.N2(), Nat.N1(), plant::f, x, u).getData(),
+                        plant.jacobianU(x, u).getData(),
+                        kDelta);
+            }
+        }
+    }
+
+    /** The scratch versions give the same answer and leave the input alone. */
+    @Test
+    void testScratch() {
+        WhiteNoiseVector<N2> w = WhiteNoiseVector.noise2(0.015, 0.17);
+        MeasurementUncertainty<N2> v = MeasurementUncertainty.for2(0.01, 0.1);
+        NonlinearPlant<N2, N1, N2> plant = new Pendulum1D(w, v);
+        RandomVector<N2> scratch = new RandomVector<>(new Matrix<>(Nat.N2(), Nat.N1()), Variance.zero2());
+        Matrix<N1, N1> uScratch = new Matrix<>(Nat.N1(), Nat.N1());
+        Matrix<N2, N2> A = new Matrix<>(Nat.N2(), Nat.N2());
+        Matrix<N2, N1> B = new Matrix<>(Nat.N2(), Nat.N1());
+        RandomVector<N2> x = new RandomVector<>(VecBuilder.fill(Math.PI / 6, 0), Variance.zero2());
+        Matrix<N1, N1> u = VecBuilder.fill(0);
+        for (int i = 0; i < 2; ++i) {
+            Jacobian.numericalJacobianX(plant::f, x, u, scratch, A);
+            assertArrayEquals(new double[] { 0, 1, 0.5, 0 }, A.getData(), kDelta);
+            Jacobian.numericalJacobianU(plant::f, x, u, uScratch, B);
+            assertArrayEquals(new double[] { 0, 1 }, B.getData(), kDelta);
+        }
+        assertArrayEquals(new double[] { Math.PI / 6, 0 }, x.x.getData(), kDelta);
+        // identity f returns its argument, which is the scratch.
+        Jacobian.numericalJacobianX(this::f, x, u, scratch, A);
+        assertArrayEquals(new double[] { 1, 0, 0, 1 }, A.getData(), kDelta);
+    }
+
+    /**
+     * Linearization cost, comparing the old numerical method (two copies per
+     * column), the current one, the current one with scratch, and the closed
+     * form.
+     * 
+     * Prints the cost per A and B pair for each, for the pendulum.
+     * 
+     * This is a benchmark, not a test: it asserts nothing, and it's slow, so it
+     * only runs by hand.
+     */
+    @Disabled("benchmark, run by hand")
+    @Test
+    void testPerformance() {
+        WhiteNoiseVector<N2> w = WhiteNoiseVector.noise2(0.015, 0.17);
+        MeasurementUncertainty<N2> v = MeasurementUncertainty.for2(0.01, 0.1);
+        NonlinearPlant<N2, N1, N2> plant = new Pendulum1D(w, v);
+        RandomVector<N2> x = new RandomVector<>(VecBuilder.fill(1, 0), Variance.zero2());
+        Matrix<N1, N1> u = VecBuilder.fill(0);
+        RandomVector<N2> scratch = x.copy();
+        Matrix<N1, N1> uScratch = u.copy();
+        Matrix<N2, N2> A = new Matrix<>(Nat.N2(), Nat.N2());
+        Matrix<N2, N1> B = new Matrix<>(Nat.N2(), Nat.N1());
+        final int iterations = 100000;
+        double sum = 0;
+        for (int pass = 0; pass < 2; ++pass) {
+            // the first pass is warmup
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                sum += oldJacobianX(Nat.N2(), Nat.N2(), plant::f, x, u).get(1, 0);
+                sum += oldJacobianU(Nat.N2(), Nat.N1(), plant::f, x, u).get(1, 0);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                sum += Jacobian.numericalJacobianX(Nat.N2(), Nat.N2(), plant::f, x, u).get(1, 0);
+                sum += Jacobian.numericalJacobianU(Nat.N2(), Nat.N1(), plant::f, x, u).get(1, 0);
+            }
+            long t2 = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                sum += Jacobian.numericalJacobianX(plant::f, x, u, scratch, A).get(1, 0);
+                sum += Jacobian.numericalJacobianU(plant::f, x, u, uScratch, B).get(1, 0);
+            }
+            long t3 = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                sum += plant.jacobianX(x, u).get(1, 0);
+                sum += plant.jacobianU(x, u).get(1, 0);
+            }
+            long t4 = System.nanoTime();
+            if (pass == 1) {
+                System.out.printf("old numerical (us) %5.3f\n", (t1 - t0) * 1e-3 / iterations);
+                System.out.printf("numerical (us) %5.3f\n", (t2 - t1) * 1e-3 / iterations);
+                System.out.printf("scratch numerical (us) %5.3f\n", (t3 - t2) * 1e-3 / iterations);
+                System.out.printf("closed form (us) %5.3f\n", (t4 - t3) * 1e-3 / iterations);
+            }
+        }
+        // sin(1) + 1, over and over
+        assertEquals(8 * iterations * (Math.sin(1) + 1), sum, 1);
+    }
+
+    /** The numerical Jacobian as it was, for comparison. */
+    private static <Rows extends Num, States extends Num, Inputs extends Num, Outputs extends Num> Matrix<Rows, States> oldJacobianX(
+            Nat<Rows> rows,
+            Nat<States> states,
+            BiFunction<RandomVector<States>, Matrix<Inputs, N1>, RandomVector<Outputs>> f,
+            RandomVector<States> x,
+            Matrix<Inputs, N1> u) {
+        Matrix<Rows, States> result = new Matrix<>(rows, states);
+        for (int i = 0; i < states.getNum(); i++) {
+            RandomVector<States> dxPlus = x.copy();
+            RandomVector<States> dxMinus = x.copy();
+            dxPlus.x.set(i, 0, dxPlus.x.get(i, 0) + 1e-5);
+            dxMinus.x.set(i, 0, dxMinus.x.get(i, 0) - 1e-5);
+            var dF = f.apply(dxPlus, u).x.minus(f.apply(dxMinus, u).x).div(2 * 1e-5);
+            result.setColumn(i, Matrix.changeBoundsUnchecked(dF));
+        }
+        return result;
+    }
+
+    private static <Rows extends Num, States extends Num, Inputs extends Num> Matrix<Rows, Inputs> oldJacobianU(
+            Nat<Rows> rows,
+            Nat<Inputs> inputs,
+            BiFunction<RandomVector<States>, Matrix<Inputs, N1>, RandomVector<States>> f,
+            RandomVector<States> x,
+            Matrix<Inputs, N1> u) {
+        Matrix<Rows, Inputs> result = new Matrix<>(rows, inputs);
+        for (int i = 0; i < inputs.getNum(); i++) {
+            Matrix<Inputs, N1> duPlus = u.copy();
+            Matrix<Inputs, N1> duMinus = u.copy();
+            duPlus.set(i, 0, duPlus.get(i, 0) + 1e-5);
+            duMinus.set(i, 0, duMinus.get(i, 0) - 1e-5);
+            Matrix<States, N1> dF = f.apply(x, duPlus).x.minus(f.apply(x, duMinus).x).div(2 * 1e-5);
+            result.setColumn(i, Matrix.changeBoundsUnchecked(dF));
+        }
+        return result;
+    }
 }
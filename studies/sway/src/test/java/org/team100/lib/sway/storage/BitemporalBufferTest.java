@@ -7,7 +7,9 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
+import java.util.Random;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.junit.jupiter.api.Test;
 
@@ -228,4 +230,87 @@ class BitemporalBufferTest {
             }
         }
     }
+
+    @Test
+    void testFloorCeiling() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        buf.put(0l, 1.0, "v1");
+        buf.put(1l, 3.0, "v3");
+        buf.put(2l, 2.0, "v2");
+        assertAll(
+                () -> assertEquals("v1", buf.floorValue(1.0)),
+                () -> assertEquals("v2", buf.floorValue(2.5)),
+                () -> assertEquals("v3", buf.floorValue(10)),
+                () -> assertEquals("v2", buf.ceilingValue(1.5)),
+                () -> assertEquals("v1", buf.ceilingValue(0)),
+                () -> assertEquals(null, buf.ceilingValue(3.5)),
+                () -> assertEquals(2.0, buf.floorValidTime(2.5)),
+                () -> assertEquals(Double.NaN, buf.floorValidTime(0.5)),
+                () -> assertEquals(3.0, buf.ceilingValidTime(2.5)),
+                () -> assertEquals(Double.NaN, buf.ceilingValidTime(3.5)),
+                () -> assertEquals(2.0, buf.earliestValidTimeForRecordsAfter(1l)));
+    }
+
+    @Test
+    void testSnapshot() {
+        BitemporalBuffer<String> buf = new BitemporalBuffer<>(10);
+        buf.put(0l, 2.0, "r0 v2");
+        buf.put(1l, 0.0, "r1 v0");
+        buf.put(2l, 1.0, "r2 v1");
+        BitemporalBuffer.Snapshot<String> snapshot = new BitemporalBuffer.Snapshot<>();
+        buf.validTail(0.5, snapshot);
+        // later puts don't change the snapshot
+        buf.put(3l, 1.5, "r3 v1.5");
+        assertAll(
+                () -> assertEquals(2, snapshot.size()),
+                () -> assertEquals(1.0, snapshot.validTime(0)),
+                () -> assertEquals(2l, snapshot.recordTime(0)),
+                () -> assertEquals("r2 v1", snapshot.value(0)),
+                () -> assertEquals(2.0, snapshot.validTime(1)),
+                () -> assertEquals("r0 v2", snapshot.value(1)));
+        // reuse
+        buf.validTail(0.5, snapshot);
+        assertEquals(3, snapshot.size());
+        assertEquals("r3 v1.5", snapshot.value(1));
+    }
+
+    /** Compare with the maps, for many random puts, with eviction. */
+    @Test
+    void testRandom() {
+        Random random = new Random(0);
+        int capacity = 50;
+        BitemporalBuffer<Integer> buf = new BitemporalBuffer<>(capacity);
+        TreeMap<Long, Double> record = new TreeMap<>();
+        TreeMap<Double, Long> valid = new TreeMap<>();
+        long recordTime = 0;
+        for (int i = 0; i < 5000; ++i) {
+            // mostly in order, sometimes duplicate
+            recordTime += random.nextInt(3);
+            // valid times are a little out of order, and coarse, so some collide
+            double validTime = Math.floor(recordTime - 10 * random.nextDouble());
+            long rt = recordTime;
+            while (record.containsKey(rt))
+                rt++;
+            double vt = validTime;
+            while (valid.containsKey(vt))
+                vt = Math.nextUp(vt);
+            buf.put(recordTime, validTime, i);
+            record.put(rt, vt);
+            valid.put(vt, rt);
+            if (valid.size() > capacity) {
+                Entry<Double, Long> oldest = valid.pollFirstEntry();
+                record.remove(oldest.getValue());
+            }
+            assertEquals(valid.size(), buf.size());
+            double q = recordTime - 20 * random.nextDouble();
+            Double floor = valid.floorKey(q);
+            assertEquals(floor == null ? Double.NaN : floor, buf.floorValidTime(q));
+            Double ceiling = valid.ceilingKey(q);
+            assertEquals(ceiling == null ? Double.NaN : ceiling, buf.ceilingValidTime(q));
+        }
+        assertEquals(new ArrayList<>(record.keySet()),
+                new ArrayList<>(buf.recordTailMap(Long.MIN_VALUE).keySet()));
+        assertEquals(new ArrayList<>(valid.keySet()),
+                new ArrayList<>(buf.validTailMap(-Double.MAX_VALUE).keySet()));
+    }
 }